@@ -1 +1 @@
-java -cp target/schema-1.0-SNAPSHOT.jar com.demo.schema.validation.SchemaWithCustomValidation
+java -XX:SharedArchiveFile=target/schema-1.0-SNAPSHOT.jsa -Xshare:auto -cp target/schema-1.0-SNAPSHOT.jar com.demo.schema.validation.SchemaWithCustomValidation
@@ -1 +1 @@
-java -jar target/schema-1.0-SNAPSHOT.jar
\ No newline at end of file
+java -XX:SharedArchiveFile=target/schema-1.0-SNAPSHOT.jsa -Xshare:auto -jar target/schema-1.0-SNAPSHOT.jar
\ No newline at end of file
@@ -12,12 +12,12 @@ echo Checking Java version...
 java -version
 
 echo Building project...
-call mvn clean package
+call mvn -Pcds clean verify
 
 echo.
 echo Running application...
 echo ========================================
-java -jar target/schema-1.0-SNAPSHOT.jar
+java -XX:SharedArchiveFile=target/schema-1.0-SNAPSHOT.jsa -Xshare:auto -jar target/schema-1.0-SNAPSHOT.jar
 
 echo.
 echo ========================================
@@ -1,10 +1,18 @@
 package com.demo.schema;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
+import com.demo.schema.compress.Compression;
+import com.demo.schema.lazy.SchemaGuidedReader;
+import com.demo.schema.report.CompactReport;
+import com.demo.schema.report.CompactReportProvider;
+import com.demo.schema.report.ErrorBudget;
+import com.demo.schema.report.ErrorCollector;
+import com.demo.schema.report.ErrorLimitReachedException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
@@ -22,8 +30,16 @@ public class MessageValidator {
     private final JsonSchemaFactory schemaFactory;
     
     public MessageValidator() {
+        this(JsonSchemaFactory.byDefault());
+    }
+    
+    /**
+     * @param schemaFactory Factory used to compile schemas; use
+     *                      {@link CompactReportProvider#newSchemaFactory()} for compact error reports
+     */
+    public MessageValidator(JsonSchemaFactory schemaFactory) {
         this.objectMapper = new ObjectMapper();
-        this.schemaFactory = JsonSchemaFactory.byDefault();
+        this.schemaFactory = schemaFactory;
     }
     
     /**
@@ -43,9 +59,9 @@ public class MessageValidator {
             JsonNode messageNode = readJsonFile(messagePath);
             
             // Validate the message against the schema
-            ProcessingReport report = schema.validate(messageNode);
+            ProcessingReport report = validateReport(schema, messageNode);
             
-            return new ValidationResult(report.isSuccess(), report.toString());
+            return toResult(report);
             
         } catch (IOException e) {
             return new ValidationResult(false, "IO Error: " + e.getMessage());
@@ -73,9 +89,9 @@ public class MessageValidator {
             JsonNode messageNode = objectMapper.readTree(messageJson);
             
             // Validate the message against the schema
-            ProcessingReport report = schema.validate(messageNode);
+            ProcessingReport report = validateReport(schema, messageNode);
             
-            return new ValidationResult(report.isSuccess(), report.toString());
+            return toResult(report);
             
         } catch (IOException e) {
             return new ValidationResult(false, "JSON Parsing Error: " + e.getMessage());
@@ -87,53 +103,230 @@ public class MessageValidator {
     }
     
     /**
-     * Reads and parses a JSON file from the classpath or file system.
+     * Loads and compiles a JSON schema from the classpath or file system.
+     * 
+     * @param schemaPath Path to the JSON schema file
+     * @return Compiled schema, reusable across messages
+     * @throws IOException if the file cannot be read or parsed
+     * @throws ProcessingException if the schema is invalid
+     */
+    public JsonSchema loadSchema(String schemaPath) throws IOException, ProcessingException {
+        return schemaFactory.getJsonSchema(readJsonFile(schemaPath));
+    }
+    
+    /**
+     * @return Factory schemas are compiled with, including its syntax validator
+     */
+    public JsonSchemaFactory getSchemaFactory() {
+        return schemaFactory;
+    }
+    
+    /**
+     * Compiles an already parsed JSON schema.
+     * 
+     * @param schemaNode Parsed JSON schema
+     * @return Compiled schema, reusable across messages
+     * @throws ProcessingException if the schema is invalid
+     */
+    public JsonSchema loadSchema(JsonNode schemaNode) throws ProcessingException {
+        return schemaFactory.getJsonSchema(schemaNode);
+    }
+    
+    /**
+     * Validates an already parsed message against a compiled schema.
+     * 
+     * @param schema Compiled JSON schema
+     * @param messageNode Parsed JSON message
+     * @return ValidationResult containing validation status and any errors
+     */
+    public ValidationResult validate(JsonSchema schema, JsonNode messageNode) {
+        try {
+            ProcessingReport report = validateReport(schema, messageNode);
+            return toResult(report);
+        } catch (ProcessingException e) {
+            return new ValidationResult(false, "Schema Processing Error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Parses a JSON message straight from a stream and validates it against a compiled schema.
+     * The stream is handed to the parser as is, without buffering it into a string first;
+     * compressed messages are decompressed on the way, see {@link Compression}.
+     * 
+     * @param schema Compiled JSON schema
+     * @param messageStream Stream containing one JSON message
+     * @return ValidationResult containing validation status and any errors
+     */
+    public ValidationResult validate(JsonSchema schema, InputStream messageStream) {
+        try {
+            JsonNode messageNode = objectMapper.readTree(Compression.decompressing(messageStream));
+            if (messageNode == null || messageNode.isMissingNode()) {
+                return new ValidationResult(false, "JSON Parsing Error: empty message");
+            }
+            return validate(schema, messageNode);
+        } catch (IOException e) {
+            return new ValidationResult(false, "JSON Parsing Error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Validates a sequence of parsed messages, counting their errors in a collector.
+     * Use a collector from the same {@link ErrorBudget} as the schema factory to bound both the
+     * errors per message and the detailed errors kept for the batch.
+     * 
+     * @param schema Compiled JSON schema
+     * @param messages Parsed JSON messages
+     * @param errors Collector for the batch
+     * @return The collector
+     */
+    public ErrorCollector validateAll(JsonSchema schema, Iterable<JsonNode> messages, ErrorCollector errors) {
+        long document = 0;
+        for (JsonNode message : messages) {
+            ValidationResult result = validate(schema, message);
+            if (result.getReport() != null) {
+                errors.record(document, result.getReport());
+            } else if (result.isValid()) {
+                errors.recordValid();
+            } else {
+                errors.recordInvalid(document, result.getDetails());
+            }
+            document++;
+        }
+        return errors;
+    }
+    
+    /**
+     * Runs the schema, returning the partial report when a per-document error limit stops it.
+     */
+    public static ProcessingReport validateReport(JsonSchema schema, JsonNode instance) throws ProcessingException {
+        try {
+            return schema.validate(instance);
+        } catch (ErrorLimitReachedException e) {
+            return e.getReport();
+        }
+    }
+    
+    private static ValidationResult toResult(ProcessingReport report) {
+        if (report instanceof CompactReport) {
+            return new ValidationResult((CompactReport) report);
+        }
+        return new ValidationResult(report.isSuccess(), report.toString());
+    }
+    
+    /**
+     * Reads and parses a JSON file from the classpath or file system. gzip, zstd or lz4
+     * compressed files are decompressed as they are parsed.
      * 
      * @param filePath Path to the JSON file
      * @return Parsed JsonNode
      * @throws IOException if the file cannot be read or parsed
      */
-    private JsonNode readJsonFile(String filePath) throws IOException {
+    public JsonNode readJsonFile(String filePath) throws IOException {
         // First try to load from classpath
         try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath)) {
             if (inputStream != null) {
-                return objectMapper.readTree(inputStream);
+                try (InputStream decompressed = Compression.decompressing(inputStream)) {
+                    return objectMapper.readTree(decompressed);
+                }
             }
         }
         
         // If not found in classpath, try to read from file system
         if (Files.exists(Paths.get(filePath))) {
-            return objectMapper.readTree(Paths.get(filePath).toFile());
+            try (InputStream raw = Files.newInputStream(Paths.get(filePath));
+                 InputStream inputStream = Compression.decompressing(raw)) {
+                return objectMapper.readTree(inputStream);
+            }
         }
         
         throw new IOException("File not found: " + filePath);
     }
     
+    /**
+     * Reads a JSON file from the classpath or file system, building only the parts validation
+     * against the reader's schema looks at; see {@link SchemaGuidedReader}.
+     * 
+     * @param filePath Path to the JSON file
+     * @param reader Reader guided by the schema the message will be validated against
+     * @return Parsed JsonNode, with values no schema applies to left unparsed
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public JsonNode readJsonFile(String filePath, SchemaGuidedReader reader) throws IOException {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filePath)) {
+            if (inputStream != null) {
+                try (InputStream decompressed = Compression.decompressing(inputStream)) {
+                    return reader.readJson(readAll(decompressed));
+                }
+            }
+        }
+        
+        if (Files.exists(Paths.get(filePath))) {
+            byte[] content = Files.readAllBytes(Paths.get(filePath));
+            InputStream decompressed = Compression.decompressing(content);
+            if (decompressed == null) {
+                return reader.readJson(content);
+            }
+            try (InputStream inputStream = decompressed) {
+                return reader.readJson(readAll(inputStream));
+            }
+        }
+        
+        throw new IOException("File not found: " + filePath);
+    }
+    
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+    
     /**
      * Result of JSON schema validation.
+     * Results built from a {@link CompactReport} render their details on first use.
      */
     public static class ValidationResult {
         private final boolean valid;
-        private final String details;
+        private final CompactReport report;
+        private String details;
         
         public ValidationResult(boolean valid, String details) {
             this.valid = valid;
+            this.report = null;
             this.details = details;
         }
         
+        public ValidationResult(CompactReport report) {
+            this.valid = report.isSuccess();
+            this.report = report;
+        }
+        
         public boolean isValid() {
             return valid;
         }
         
         public String getDetails() {
+            if (details == null && report != null) {
+                details = report.render();
+            }
             return details;
         }
         
+        /**
+         * @return The compact report behind this result, or null if it was built from text
+         */
+        public CompactReport getReport() {
+            return report;
+        }
+        
         @Override
         public String toString() {
             return "ValidationResult{" +
                     "valid=" + valid +
-                    ", details='" + details + '\'' +
+                    ", details='" + getDetails() + '\'' +
                     '}';
         }
     }
@@ -1,15 +1,26 @@
 package com.demo.schema;
 
+import com.demo.schema.compress.Compression;
+import com.demo.schema.hotpath.HotPathSchema;
+import com.demo.schema.lazy.SchemaGuidedReader;
+import com.demo.schema.profile.SchemaProfiler;
+import com.demo.schema.report.CompactReport;
+import com.demo.schema.report.CompactReportProvider;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.yaml.snakeyaml.LoaderOptions;
 
-import java.io.File;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -19,14 +30,44 @@ import java.nio.file.Paths;
  */
 public class SchemaValidator {
     
+    /**
+     * SnakeYAML counts its code point limit over the whole stream rather than per document, so
+     * multi-document streams get more room than its default 3MB, but still a bound
+     */
+    private static final int MAX_STREAM_CODE_POINTS = 256 * 1024 * 1024;
+    
     private final ObjectMapper jsonMapper;
     private final ObjectMapper yamlMapper;
+    private final ObjectReader yamlStreamReader;
     private final JsonSchemaFactory schemaFactory;
+    private final SchemaProfiler profiler;
     
     public SchemaValidator() {
+        this(JsonSchemaFactory.byDefault());
+    }
+    
+    /**
+     * @param schemaFactory Factory used to compile schemas; use
+     *                      {@link CompactReportProvider#newSchemaFactory()} for compact error reports
+     */
+    public SchemaValidator(JsonSchemaFactory schemaFactory) {
+        this(schemaFactory, null);
+    }
+    
+    /**
+     * @param schemaFactory Factory used to compile schemas; {@link SchemaProfiler#newSchemaFactory()}
+     *                      for per-keyword timings
+     * @param profiler Profiler counting each {@link #validate} call, or null
+     */
+    public SchemaValidator(JsonSchemaFactory schemaFactory, SchemaProfiler profiler) {
         this.jsonMapper = new ObjectMapper();
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
-        this.schemaFactory = JsonSchemaFactory.byDefault();
+        LoaderOptions streamOptions = new LoaderOptions();
+        streamOptions.setCodePointLimit(MAX_STREAM_CODE_POINTS);
+        this.yamlStreamReader = new ObjectMapper(YAMLFactory.builder().loaderOptions(streamOptions).build())
+                .readerFor(JsonNode.class);
+        this.schemaFactory = schemaFactory;
+        this.profiler = profiler;
     }
     
     /**
@@ -43,24 +84,116 @@ public class SchemaValidator {
     }
     
     /**
-     * Load YAML data from file
+     * Load JSON schema from file, with an allocation-free check for valid documents in front of
+     * the schema compiled by this validator's factory; see {@link HotPathSchema}
+     * @param schemaPath Path to the JSON schema file
+     * @return HotPathSchema object
+     * @throws IOException If file cannot be read
+     * @throws ProcessingException If schema is invalid
+     */
+    public HotPathSchema loadHotPathSchema(String schemaPath) throws IOException, ProcessingException {
+        JsonNode schemaNode = jsonMapper.readTree(Files.readAllBytes(Paths.get(schemaPath)));
+        return HotPathSchema.compile(schemaNode, schemaFactory);
+    }
+    
+    /**
+     * Load YAML data from file; gzip, zstd or lz4 compressed files are decompressed as they are
+     * parsed, see {@link Compression}
      * @param yamlPath Path to the YAML file
      * @return JsonNode representing the YAML data
      * @throws IOException If file cannot be read
      */
     public JsonNode loadYaml(String yamlPath) throws IOException {
-        return yamlMapper.readTree(new File(yamlPath));
+        try (InputStream raw = Files.newInputStream(Paths.get(yamlPath));
+             InputStream in = Compression.decompressing(raw)) {
+            return yamlMapper.readTree(in);
+        }
+    }
+    
+    /**
+     * Load YAML data from an in-memory buffer, decompressing it if it is compressed
+     * @param content Raw YAML (or JSON) content
+     * @return JsonNode representing the YAML data
+     * @throws IOException If the content cannot be parsed
+     */
+    public JsonNode loadYaml(byte[] content) throws IOException {
+        InputStream decompressed = Compression.decompressing(content);
+        if (decompressed == null) {
+            return yamlMapper.readTree(content);
+        }
+        try (InputStream in = decompressed) {
+            return yamlMapper.readTree(in);
+        }
+    }
+    
+    /**
+     * Load YAML data from file, building only the parts validation against the reader's schema
+     * looks at; see {@link SchemaGuidedReader}
+     * @param yamlPath Path to the YAML file
+     * @param reader Reader guided by the schema the data will be validated against
+     * @return JsonNode representing the YAML data, with values no schema applies to left unparsed
+     * @throws IOException If file cannot be read
+     */
+    public JsonNode loadYaml(String yamlPath, SchemaGuidedReader reader) throws IOException {
+        try (InputStream raw = Files.newInputStream(Paths.get(yamlPath));
+             InputStream in = Compression.decompressing(raw);
+             JsonParser parser = yamlMapper.getFactory().createParser(in)) {
+            return reader.read(parser);
+        }
+    }
+    
+    /**
+     * Stream the documents of a multi-document YAML file ({@code ---} separated), validating each
+     * against the schema as it is read. Only the current document is held in memory, so the file
+     * can be far larger than the heap; close the stream when done.
+     * @param schema The JSON schema to validate each document against
+     * @param yamlPath Path to the YAML file
+     * @return Stream of per-document results
+     * @throws IOException If the file cannot be opened
+     */
+    public DocumentStream streamYaml(JsonSchema schema, String yamlPath) throws IOException {
+        return streamYaml(schema, Files.newInputStream(Paths.get(yamlPath)));
+    }
+    
+    /**
+     * Stream the documents of multi-document YAML content, decompressing it if it is compressed;
+     * see {@link #streamYaml(JsonSchema, String)}. Closing the stream closes the input.
+     */
+    public DocumentStream streamYaml(JsonSchema schema, InputStream in) throws IOException {
+        InputStream decompressed;
+        try {
+            decompressed = Compression.decompressing(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return streamYaml(schema, yamlStreamReader.getFactory().createParser(decompressed));
+    }
+    
+    private DocumentStream streamYaml(JsonSchema schema, JsonParser parser) throws IOException {
+        // Given a parser, MappingIterator iterates root values; given a source it would unwrap
+        // the first document when it is a sequence, as every feed file is
+        return new DocumentStream(schema, parser, yamlStreamReader.readValues(parser));
     }
     
     /**
      * Validate YAML data against JSON schema
      * @param schema The JSON schema to validate against
      * @param data The YAML data to validate
-     * @return ProcessingReport containing validation results
+     * @return ProcessingReport containing validation results; partial if the schema factory
+     *         has an {@link com.demo.schema.report.ErrorBudget} and a document exceeds it
      * @throws ProcessingException If validation fails
      */
     public ProcessingReport validate(JsonSchema schema, JsonNode data) throws ProcessingException {
-        return schema.validate(data);
+        if (profiler == null) {
+            return MessageValidator.validateReport(schema, data);
+        }
+        long start = System.nanoTime();
+        try {
+            return MessageValidator.validateReport(schema, data);
+        } finally {
+            profiler.recordDocument(System.nanoTime() - start);
+        }
     }
     
     /**
@@ -99,6 +232,11 @@ public class SchemaValidator {
         if (!isValid(report)) {
             System.out.println("Validation Errors:");
             System.out.println("==================");
+            if (report instanceof CompactReport) {
+                // One line per error, without building message objects
+                System.out.println(((CompactReport) report).render());
+                return;
+            }
             report.forEach(message -> {
                 System.out.println("Level: " + message.getLogLevel());
                 System.out.println("Message: " + message.getMessage());
@@ -106,4 +244,82 @@ public class SchemaValidator {
             });
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Lazily read documents of a YAML stream, each validated when it is read. Follows
+     * {@link MappingIterator#hasNextValue()} and {@link MappingIterator#nextValue()} so that
+     * parse and validation errors surface as checked exceptions.
+     */
+    public class DocumentStream implements Closeable {
+        
+        private final JsonSchema schema;
+        private final JsonParser parser;
+        private final MappingIterator<JsonNode> documents;
+        private int index;
+        
+        DocumentStream(JsonSchema schema, JsonParser parser, MappingIterator<JsonNode> documents) {
+            this.schema = schema;
+            this.parser = parser;
+            this.documents = documents;
+        }
+        
+        /**
+         * @return true if another document follows
+         * @throws IOException If the stream cannot be read
+         */
+        public boolean hasNextValue() throws IOException {
+            return documents.hasNextValue();
+        }
+        
+        /**
+         * Read and validate the next document
+         * @return The document and its report
+         * @throws IOException If the document cannot be parsed
+         * @throws ProcessingException If validation fails
+         */
+        public DocumentReport nextValue() throws IOException, ProcessingException {
+            JsonNode document = documents.nextValue();
+            return new DocumentReport(index++, document, validate(schema, document));
+        }
+        
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+    
+    /**
+     * One document of a YAML stream and its validation report
+     */
+    public static class DocumentReport {
+        
+        private final int index;
+        private final JsonNode document;
+        private final ProcessingReport report;
+        
+        DocumentReport(int index, JsonNode document, ProcessingReport report) {
+            this.index = index;
+            this.document = document;
+            this.report = report;
+        }
+        
+        /**
+         * @return Zero-based position of the document in the stream
+         */
+        public int getIndex() {
+            return index;
+        }
+        
+        public JsonNode getDocument() {
+            return document;
+        }
+        
+        public ProcessingReport getReport() {
+            return report;
+        }
+        
+        public boolean isSuccess() {
+            return report.isSuccess();
+        }
+    }
+}
@@ -0,0 +1,562 @@
+package com.demo.schema.async;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.MessageValidator.ValidationResult;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.async.NonBlockingJsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads and validates files without holding a thread per file.
+ *
+ * Files are read with {@link AsynchronousFileChannel} in fixed-size chunks; each chunk is handed
+ * to the next stage from the completion handler and the following read is issued from there, so
+ * a small I/O pool serves any number of files whose reads overlap. JSON chunks are fed to a
+ * {@link NonBlockingJsonParser} and the tree is built as they arrive, so the file is never held
+ * as a whole. YAML has no non-blocking parser; its bytes are collected and parsed once the last
+ * chunk is in.
+ *
+ * At most {@code maxOpenFiles} files are open at once; further reads wait in a queue without
+ * blocking the caller. Validation runs on the I/O thread that completed the read; chain with
+ * {@code thenApplyAsync} to move heavy work elsewhere. Paths are file system paths only, since
+ * classpath resources cannot be opened as channels.
+ */
+public class AsyncFileValidator implements AutoCloseable {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final MessageValidator validator;
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+    private final ExecutorService ioExecutor;
+    private final int maxOpenFiles;
+    private final AtomicInteger openFiles = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Create a validator with its own I/O pool of two daemon threads
+     * @param validator Validator used to compile schemas and validate documents
+     * @param maxOpenFiles Maximum number of files open at once
+     */
+    public AsyncFileValidator(MessageValidator validator, int maxOpenFiles) {
+        this(validator, maxOpenFiles, Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "async-file-io");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * @param validator Validator used to compile schemas and validate documents
+     * @param maxOpenFiles Maximum number of files open at once
+     * @param ioExecutor Executor the channels run their reads and completion handlers on;
+     *                   shut down by {@link #close()}
+     */
+    public AsyncFileValidator(MessageValidator validator, int maxOpenFiles, ExecutorService ioExecutor) {
+        if (maxOpenFiles < 1) {
+            throw new IllegalArgumentException("maxOpenFiles must be positive");
+        }
+        this.validator = validator;
+        this.maxOpenFiles = maxOpenFiles;
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Read and validate a JSON message
+     * @param schema Compiled schema to validate against
+     * @param messagePath Path to the JSON message file
+     * @return Future completed with the result; read and parse failures are reported as invalid
+     *         results, as {@link MessageValidator#validateMessage} does
+     */
+    public CompletableFuture<ValidationResult> validateMessage(JsonSchema schema, Path messagePath) {
+        return validate(schema, readJson(messagePath));
+    }
+
+    /**
+     * Read a JSON message and schema together and validate the message
+     * @param messagePath Path to the JSON message file
+     * @param schemaPath Path to the JSON schema file
+     * @return Future completed with the result
+     */
+    public CompletableFuture<ValidationResult> validateMessage(Path messagePath, Path schemaPath) {
+        CompletableFuture<JsonNode> message = readJson(messagePath);
+        return loadSchema(schemaPath).handle((schema, failure) -> {
+            if (failure != null) {
+                message.cancel(false);
+                return CompletableFuture.completedFuture(toResult(failure));
+            }
+            return validate(schema, message);
+        }).thenCompose(result -> result);
+    }
+
+    /**
+     * Read and validate a YAML feed file
+     * @param schema Compiled schema to validate against
+     * @param yamlPath Path to the YAML file
+     * @return Future completed with the result
+     */
+    public CompletableFuture<ValidationResult> validateFeed(JsonSchema schema, Path yamlPath) {
+        return validate(schema, readYaml(yamlPath));
+    }
+
+    /**
+     * Read and compile a JSON schema
+     * @param schemaPath Path to the JSON schema file
+     * @return Future completed with the schema, or exceptionally if it cannot be read or compiled
+     */
+    public CompletableFuture<JsonSchema> loadSchema(Path schemaPath) {
+        return readJson(schemaPath).thenApply(schemaNode -> {
+            try {
+                return validator.loadSchema(schemaNode);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Read a JSON file, parsing each chunk as it arrives
+     * @param path Path to the JSON file
+     * @return Future completed with the first JSON value in the file ({@link MissingNode} for an
+     *         empty file), or exceptionally with the {@link IOException} that stopped the read
+     */
+    public CompletableFuture<JsonNode> readJson(Path path) {
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        schedule(() -> new JsonRead(path, result), result);
+        return result;
+    }
+
+    /**
+     * Read a YAML file; the content is parsed once it has been read completely
+     * @param path Path to the YAML file
+     * @return Future completed with the parsed content, or exceptionally if it cannot be read or parsed
+     */
+    public CompletableFuture<JsonNode> readYaml(Path path) {
+        return readBytes(path).thenApply(content -> {
+            try {
+                return yamlMapper.readTree(content);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Read a whole file
+     * @param path Path to the file
+     * @return Future completed with the content
+     */
+    public CompletableFuture<byte[]> readBytes(Path path) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        schedule(() -> new BytesRead(path, result), result);
+        return result;
+    }
+
+    /**
+     * @return Number of files currently open
+     */
+    public int getOpenFileCount() {
+        return openFiles.get();
+    }
+
+    /**
+     * Stop the I/O pool, waiting for reads in progress to finish
+     */
+    @Override
+    public void close() throws InterruptedException {
+        ioExecutor.shutdown();
+        ioExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    private CompletableFuture<ValidationResult> validate(JsonSchema schema, CompletableFuture<JsonNode> document) {
+        return document.handle((node, failure) -> {
+            if (failure != null) {
+                return toResult(failure);
+            }
+            if (node.isMissingNode()) {
+                return new ValidationResult(false, "JSON Parsing Error: empty message");
+            }
+            return validator.validate(schema, node);
+        });
+    }
+
+    private static ValidationResult toResult(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof JsonProcessingException) {
+            return new ValidationResult(false, "JSON Parsing Error: " + cause.getMessage());
+        }
+        if (cause instanceof IOException) {
+            return new ValidationResult(false, "IO Error: " + cause.getMessage());
+        }
+        if (cause instanceof ProcessingException) {
+            return new ValidationResult(false, "Schema Processing Error: " + cause.getMessage());
+        }
+        return new ValidationResult(false, "Unexpected Error: " + cause.getMessage());
+    }
+
+    /**
+     * Open and start the read once a file slot is free. The read gives the slot back before it
+     * completes the result, so callers chained on the result see it released.
+     */
+    private void schedule(Opener opener, CompletableFuture<?> result) {
+        waiting.add(() -> {
+            if (result.isDone()) {
+                // Cancelled while waiting
+                release();
+                return;
+            }
+            try {
+                opener.open().start();
+            } catch (IOException | RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+            }
+        });
+        drain();
+    }
+
+    private void release() {
+        openFiles.decrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (true) {
+            int open = openFiles.get();
+            if (open >= maxOpenFiles || waiting.isEmpty()) {
+                return;
+            }
+            if (!openFiles.compareAndSet(open, open + 1)) {
+                continue;
+            }
+            Runnable next = waiting.poll();
+            if (next == null) {
+                // Another thread took the last one
+                openFiles.decrementAndGet();
+                continue;
+            }
+            try {
+                ioExecutor.execute(next);
+            } catch (RuntimeException e) {
+                next.run();
+            }
+        }
+    }
+
+    private interface Opener {
+        ChunkedRead<?> open() throws IOException;
+    }
+
+    /**
+     * Reads a file chunk by chunk, issuing each read from the completion of the previous one
+     */
+    private abstract class ChunkedRead<T> implements CompletionHandler<Integer, Void> {
+
+        final CompletableFuture<T> result;
+        final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        private final AsynchronousFileChannel channel;
+        private long position;
+        private boolean done;
+
+        ChunkedRead(Path path, CompletableFuture<T> result) throws IOException {
+            this.result = result;
+            this.channel = AsynchronousFileChannel.open(path, Collections.singleton(StandardOpenOption.READ),
+                    ioExecutor);
+        }
+
+        void start() {
+            channel.read(buffer, position, null, this);
+        }
+
+        @Override
+        public void completed(Integer read, Void attachment) {
+            if (result.isDone()) {
+                // Cancelled while reading
+                end();
+                return;
+            }
+            try {
+                T value;
+                if (read < 0) {
+                    value = finish();
+                } else {
+                    position += read;
+                    buffer.flip();
+                    value = accept(buffer.array(), buffer.arrayOffset(), buffer.limit());
+                    buffer.clear();
+                }
+                if (value != null) {
+                    end();
+                    result.complete(value);
+                } else {
+                    channel.read(buffer, position, null, this);
+                }
+            } catch (IOException | RuntimeException e) {
+                end();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void failed(Throwable failure, Void attachment) {
+            end();
+            result.completeExceptionally(failure);
+        }
+
+        /**
+         * @return The result if the chunk completed it, otherwise null to read the next one
+         */
+        abstract T accept(byte[] chunk, int offset, int length) throws IOException;
+
+        /**
+         * @return The result at the end of the file
+         */
+        abstract T finish() throws IOException;
+
+        /**
+         * Release what the read holds beyond the channel
+         */
+        void closed() {
+        }
+
+        /**
+         * Close the channel and give back its slot; only one read of the channel is in flight,
+         * so this runs once
+         */
+        private void end() {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing was written; the read result stands
+            }
+            closed();
+            release();
+        }
+    }
+
+    /**
+     * Collects the whole content
+     */
+    private class BytesRead extends ChunkedRead<byte[]> {
+
+        private final ByteArrayOutputStream content;
+
+        BytesRead(Path path, CompletableFuture<byte[]> result) throws IOException {
+            super(path, result);
+            this.content = new ByteArrayOutputStream(CHUNK_SIZE);
+        }
+
+        @Override
+        byte[] accept(byte[] chunk, int offset, int length) {
+            content.write(chunk, offset, length);
+            return null;
+        }
+
+        @Override
+        byte[] finish() {
+            return content.toByteArray();
+        }
+    }
+
+    /**
+     * Feeds chunks to a non-blocking parser and builds the tree from its tokens, stopping once
+     * the first value is complete. Nodes are built the way {@link ObjectMapper#readTree} builds
+     * them by default, so both give equal trees.
+     */
+    private class JsonRead extends ChunkedRead<JsonNode> {
+
+        private final NonBlockingJsonParser parser;
+        private final Deque<JsonNode> open = new ArrayDeque<>();
+        private final List<String> names = new ArrayList<>();
+
+        JsonRead(Path path, CompletableFuture<JsonNode> result) throws IOException {
+            super(path, result);
+            this.parser = (NonBlockingJsonParser) jsonMapper.getFactory().createNonBlockingByteArrayParser();
+        }
+
+        @Override
+        JsonNode accept(byte[] chunk, int offset, int length) throws IOException {
+            parser.feedInput(chunk, offset, offset + length);
+            return parseAvailable();
+        }
+
+        @Override
+        JsonNode finish() throws IOException {
+            parser.endOfInput();
+            JsonNode root = parseAvailable();
+            if (root != null) {
+                return root;
+            }
+            if (!open.isEmpty()) {
+                throw new JsonParseException(parser, "Unexpected end of input in " + parser.getParsingContext().typeDesc());
+            }
+            return MissingNode.getInstance();
+        }
+
+        /**
+         * @return The root value once complete, otherwise null
+         */
+        private JsonNode parseAvailable() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                JsonNode value;
+                switch (token) {
+                    case FIELD_NAME:
+                        names.add(parser.getCurrentName());
+                        continue;
+                    case START_OBJECT:
+                        open.push(NODES.objectNode());
+                        continue;
+                    case START_ARRAY:
+                        open.push(NODES.arrayNode());
+                        continue;
+                    case END_OBJECT:
+                    case END_ARRAY:
+                        value = open.pop();
+                        break;
+                    default:
+                        value = scalar(token);
+                }
+                if (open.isEmpty()) {
+                    return value;
+                }
+                JsonNode parent = open.peek();
+                if (parent.isObject()) {
+                    ((ObjectNode) parent).set(names.remove(names.size() - 1), value);
+                } else {
+                    ((ArrayNode) parent).add(value);
+                }
+            }
+            return null;
+        }
+
+        private JsonNode scalar(JsonToken token) throws IOException {
+            switch (token) {
+                case VALUE_STRING:
+                    return NODES.textNode(parser.getText());
+                case VALUE_NUMBER_INT:
+                    JsonParser.NumberType type = parser.getNumberType();
+                    if (type == JsonParser.NumberType.INT) {
+                        return NODES.numberNode(parser.getIntValue());
+                    }
+                    if (type == JsonParser.NumberType.LONG) {
+                        return NODES.numberNode(parser.getLongValue());
+                    }
+                    return NODES.numberNode(parser.getBigIntegerValue());
+                case VALUE_NUMBER_FLOAT:
+                    return NODES.numberNode(parser.getDoubleValue());
+                case VALUE_TRUE:
+                    return NODES.booleanNode(true);
+                case VALUE_FALSE:
+                    return NODES.booleanNode(false);
+                case VALUE_NULL:
+                    return NODES.nullNode();
+                default:
+                    throw new IOException("Unexpected token " + token);
+            }
+        }
+
+        @Override
+        void closed() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                // The parser holds no resources beyond the fed chunks
+            }
+        }
+    }
+
+    /**
+     * Compare the async validator with blocking reads over a directory of generated messages.
+     *
+     * Usage: AsyncFileValidator [file count] [max open files]
+     */
+    public static void main(String[] args) throws Exception {
+        int files = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int maxOpenFiles = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+
+        MessageValidator validator = new MessageValidator();
+        JsonSchema schema = validator.loadSchema("schema.json");
+        byte[] message = Files.readAllBytes(new File("src/main/resources/message.json").toPath());
+        Path directory = Files.createTempDirectory("async-messages");
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < files; i++) {
+            Path path = directory.resolve("message-" + i + ".json");
+            Files.write(path, message);
+            paths.add(path);
+        }
+        System.out.println("Messages: " + files + " of " + message.length + " bytes in " + directory);
+
+        try (AsyncFileValidator async = new AsyncFileValidator(validator, maxOpenFiles)) {
+            for (int pass = 0; pass < 3; pass++) {
+                long start = System.nanoTime();
+                int valid = 0;
+                for (Path path : paths) {
+                    valid += validator.validate(schema, validator.readJsonFile(path.toString())).isValid() ? 1 : 0;
+                }
+                long blocking = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<CompletableFuture<ValidationResult>> results = new ArrayList<>();
+                for (Path path : paths) {
+                    results.add(async.validateMessage(schema, path));
+                }
+                int asyncValid = 0;
+                for (CompletableFuture<ValidationResult> result : results) {
+                    asyncValid += result.join().isValid() ? 1 : 0;
+                }
+                long overlapped = System.nanoTime() - start;
+
+                System.out.printf("Pass %d: blocking %d ms (%d valid), async %d ms (%d valid), %d live threads%n",
+                        pass + 1, blocking / 1_000_000, valid, overlapped / 1_000_000, asyncValid,
+                        Thread.activeCount());
+            }
+        }
+
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,222 @@
+package com.demo.schema.build;
+
+import com.demo.schema.validation.SchemaWithCustomValidation.FeedConfigWithCustomValidation;
+import com.demo.schema.validation.SchemaWithCustomValidation_FeedConfigWithCustomValidationValidator;
+import com.demo.schema.validation.compiled.Violation;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Build-time validation of feed files, run by Maven ({@code exec-maven-plugin}) and Gradle
+ * ({@code validateFeeds}) after compilation.
+ *
+ * Every {@code feed_*.yaml} under the source directory is checked against the feed schema and
+ * the business rules of {@link FeedConfigWithCustomValidation}, in parallel. Valid files are
+ * recorded in a {@link FeedManifest}. The build is incremental: a file whose digest is already
+ * in the previous manifest, written for the same schema and rules, is not validated again.
+ */
+public class FeedBuildValidator {
+
+    private static final String SCHEMA_FILE = "feeds_schema.json";
+    private static final PathMatcher FEED_FILES =
+            Paths.get(".").getFileSystem().getPathMatcher("glob:feed_*.{yaml,yml}");
+
+    private final Path sourceDirectory;
+    private final Path manifestFile;
+    private final int parallelism;
+    private final ObjectMapper yamlMapper;
+
+    /**
+     * @param sourceDirectory Directory holding {@code feeds_schema.json} and the feed files
+     * @param manifestFile Manifest to read from the previous build and write
+     * @param parallelism Number of files validated at once
+     */
+    public FeedBuildValidator(Path sourceDirectory, Path manifestFile, int parallelism) {
+        this.sourceDirectory = sourceDirectory;
+        this.manifestFile = manifestFile;
+        this.parallelism = parallelism;
+        // Feed files use kebab-case keys; unknown keys are the schema's concern
+        this.yamlMapper = new ObjectMapper(new YAMLFactory())
+                .setPropertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Validate changed feed files and write the manifest of valid ones
+     * @return Outcome per file
+     * @throws IOException If the schema or a feed file cannot be read
+     */
+    public Result run() throws IOException, InterruptedException {
+        byte[] schemaContent = Files.readAllBytes(sourceDirectory.resolve(SCHEMA_FILE));
+        String rulesDigest = FeedManifest.rulesDigest(schemaContent);
+        FeedManifest previous = FeedManifest.load(manifestFile);
+        Map<String, String> trusted = rulesDigest.equals(previous.getRulesDigest())
+                ? previous.getFeeds() : Collections.<String, String>emptyMap();
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(sourceDirectory)) {
+            files = walk.filter(path -> Files.isRegularFile(path) && FEED_FILES.matches(path.getFileName()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        Result result = new Result();
+        Map<String, String> valid = new TreeMap<>();
+        Map<String, Future<List<String>>> pending = new LinkedHashMap<>();
+        Map<String, String> digests = new LinkedHashMap<>();
+        JsonSchema schema = null;
+        ExecutorService executor = null;
+        try {
+            for (Path file : files) {
+                String name = sourceDirectory.relativize(file).toString().replace('\\', '/');
+                byte[] content = Files.readAllBytes(file);
+                String digest = FeedManifest.digest(content);
+                if (digest.equals(trusted.get(name))) {
+                    valid.put(name, digest);
+                    result.skipped.add(name);
+                    continue;
+                }
+                if (executor == null) {
+                    schema = JsonSchemaFactory.byDefault().getJsonSchema(yamlMapper.readTree(schemaContent));
+                    executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, files.size())));
+                }
+                JsonSchema feedSchema = schema;
+                digests.put(name, digest);
+                pending.put(name, executor.submit(() -> validate(feedSchema, content)));
+            }
+
+            for (Map.Entry<String, Future<List<String>>> entry : pending.entrySet()) {
+                List<String> errors;
+                try {
+                    errors = entry.getValue().get();
+                } catch (ExecutionException e) {
+                    errors = Collections.singletonList(String.valueOf(e.getCause().getMessage()));
+                }
+                if (errors.isEmpty()) {
+                    valid.put(entry.getKey(), digests.get(entry.getKey()));
+                    result.validated.add(entry.getKey());
+                } else {
+                    result.failures.put(entry.getKey(), errors);
+                }
+            }
+        } catch (ProcessingException e) {
+            throw new IOException("Invalid feed schema " + sourceDirectory.resolve(SCHEMA_FILE), e);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+
+        new FeedManifest(rulesDigest, valid).write(manifestFile);
+        return result;
+    }
+
+    private List<String> validate(JsonSchema schema, byte[] content) throws Exception {
+        List<String> errors = new ArrayList<>();
+        JsonNode feeds = yamlMapper.readTree(content);
+        ProcessingReport report = schema.validate(feeds);
+        if (!report.isSuccess()) {
+            for (ProcessingMessage message : report) {
+                errors.add(message.asJson().path("instance").path("pointer").asText() + ": " + message.getMessage());
+            }
+            return errors;
+        }
+
+        CollectionType type = yamlMapper.getTypeFactory()
+                .constructCollectionType(List.class, FeedConfigWithCustomValidation.class);
+        List<FeedConfigWithCustomValidation> configs = yamlMapper.convertValue(feeds, type);
+        for (int i = 0; i < configs.size(); i++) {
+            for (Violation violation : SchemaWithCustomValidation_FeedConfigWithCustomValidationValidator.INSTANCE.validate(configs.get(i))) {
+                String path = violation.getPropertyPath().toString();
+                errors.add("/" + i + (path.isEmpty() ? "" : "/" + path) + ": " + violation.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Outcome of a build
+     */
+    public static class Result {
+        private final List<String> validated = new ArrayList<>();
+        private final List<String> skipped = new ArrayList<>();
+        private final Map<String, List<String>> failures = new TreeMap<>();
+
+        /**
+         * @return Files validated in this build
+         */
+        public List<String> getValidated() {
+            return validated;
+        }
+
+        /**
+         * @return Files unchanged since the previous build and trusted from its manifest
+         */
+        public List<String> getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return Errors by invalid file
+         */
+        public Map<String, List<String>> getFailures() {
+            return failures;
+        }
+
+        public boolean isSuccess() {
+            return failures.isEmpty();
+        }
+    }
+
+    /**
+     * Usage: FeedBuildValidator &lt;source directory&gt; &lt;manifest file&gt; [parallelism]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: FeedBuildValidator <source directory> <manifest file> [parallelism]");
+        }
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        FeedBuildValidator validator = new FeedBuildValidator(Paths.get(args[0]), Paths.get(args[1]), parallelism);
+
+        long start = System.nanoTime();
+        Result result = validator.run();
+        System.out.printf("Feed validation: %d validated, %d unchanged, %d invalid in %d ms%n",
+                result.getValidated().size(), result.getSkipped().size(), result.getFailures().size(),
+                (System.nanoTime() - start) / 1_000_000);
+        for (Map.Entry<String, List<String>> failure : result.getFailures().entrySet()) {
+            for (String error : failure.getValue()) {
+                System.out.println("  " + failure.getKey() + " " + error);
+            }
+        }
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(result.getFailures().size() + " feed file(s) failed validation");
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.demo.schema.build;
+
+import com.demo.schema.kafka.ConfigKey;
+import com.demo.schema.kafka.KafkaConfigs;
+import com.demo.schema.validation.SchemaWithCustomValidation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Digests of feed files that passed validation at build time.
+ *
+ * The manifest records a rules digest, covering the feed schema and the compiled business rule
+ * classes, and the SHA-256 of every valid feed file. At runtime a feed whose content digest is
+ * listed, under a rules digest equal to that of the schema and rules actually loaded, has
+ * already been validated and does not need to be validated again.
+ *
+ * The manifest is written with sorted keys and no timestamp so that identical inputs give an
+ * identical file.
+ */
+public final class FeedManifest {
+
+    /** Classpath location of the manifest packaged by the build */
+    public static final String RESOURCE = "META-INF/feed-manifest.properties";
+
+    private static final String RULES_KEY = "rules";
+    private static final String FEED_PREFIX = "feed.";
+
+    /**
+     * Classes from outside the {@code validation} package tree that the feed rules use; each is
+     * digested with its nested and anonymous classes
+     */
+    private static final Class<?>[] RULES_DEPENDENCIES = {KafkaConfigs.class, ConfigKey.class};
+
+    private final String rulesDigest;
+    private final Map<String, String> feeds;
+
+    FeedManifest(String rulesDigest, Map<String, String> feeds) {
+        this.rulesDigest = rulesDigest;
+        this.feeds = Collections.unmodifiableMap(new TreeMap<>(feeds));
+    }
+
+    /**
+     * @return A manifest trusting nothing
+     */
+    public static FeedManifest empty() {
+        return new FeedManifest(null, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * @param file Manifest file
+     * @return The manifest, or an empty one if the file does not exist
+     */
+    public static FeedManifest load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return empty();
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * @return The manifest packaged on the classpath, or an empty one if there is none
+     */
+    public static FeedManifest loadFromClasspath() throws IOException {
+        try (InputStream in = FeedManifest.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                return empty();
+            }
+            return parse(new StringReader(new String(readAll(in), StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static FeedManifest parse(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        Map<String, String> feeds = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(FEED_PREFIX)) {
+                feeds.put(key.substring(FEED_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+        return new FeedManifest(properties.getProperty(RULES_KEY), feeds);
+    }
+
+    /**
+     * Write the manifest, creating parent directories as needed
+     */
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Feed files validated at build time; generated, do not edit\n");
+            writer.write(RULES_KEY + "=" + rulesDigest + "\n");
+            for (Map.Entry<String, String> feed : feeds.entrySet()) {
+                writer.write(escape(FEED_PREFIX + feed.getKey()) + "=" + feed.getValue() + "\n");
+            }
+        }
+    }
+
+    /**
+     * @param schema Content of the feed schema
+     * @param feed Feed file path relative to the validated directory, with '/' separators
+     * @param content Content of the feed file
+     * @return True if this exact content was validated against this exact schema and rules
+     */
+    public boolean isTrusted(byte[] schema, String feed, byte[] content) throws IOException {
+        return rulesDigest != null
+                && rulesDigest.equals(rulesDigest(schema))
+                && digest(content).equals(feeds.get(feed));
+    }
+
+    /**
+     * @return Rules digest the manifest was written for, or null if empty
+     */
+    public String getRulesDigest() {
+        return rulesDigest;
+    }
+
+    /**
+     * @return Content digest by feed path
+     */
+    public Map<String, String> getFeeds() {
+        return feeds;
+    }
+
+    /**
+     * Digest of the schema and the compiled business rules: every class file of the package tree
+     * of {@link SchemaWithCustomValidation}, which holds the rules, the validator generated for
+     * them and the {@code compiled} runtime that validator runs on, and the classes the rules use
+     * from elsewhere, such as {@link KafkaConfigs}, all from the classpath
+     * @param schema Content of the feed schema
+     */
+    public static String rulesDigest(byte[] schema) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(schema);
+        for (Map.Entry<String, byte[]> rulesClass : rulesClasses().entrySet()) {
+            digest.update(rulesClass.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update(rulesClass.getValue());
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * @return Content of the class files {@link #rulesDigest} covers, by resource name
+     */
+    static SortedMap<String, byte[]> rulesClasses() throws IOException {
+        SortedMap<String, byte[]> classes = new TreeMap<>();
+        collectClasses(SchemaWithCustomValidation.class, true, classes);
+        for (Class<?> dependency : RULES_DEPENDENCIES) {
+            collectClasses(dependency, false, classes);
+        }
+        return classes;
+    }
+
+    /**
+     * Read class files from the directory or jar the given class was loaded from, so listing is
+     * not limited to classes that are already loaded or reachable by reflection
+     * @param anchor Class whose location is scanned
+     * @param wholePackage True for every class of its package and subpackages, false for the
+     *                     class itself and its nested and anonymous classes
+     */
+    private static void collectClasses(Class<?> anchor, boolean wholePackage, Map<String, byte[]> classes)
+            throws IOException {
+        String resource = anchor.getName().replace('.', '/') + ".class";
+        URL url = anchor.getClassLoader().getResource(resource);
+        if (url == null) {
+            throw new IOException("Class file not found: " + resource);
+        }
+        String directory = resource.substring(0, resource.lastIndexOf('/') + 1);
+        String nestedPrefix = resource.substring(0, resource.length() - ".class".length()) + "$";
+        Predicate<String> matches = name -> name.endsWith(".class")
+                && (wholePackage ? name.startsWith(directory) : name.equals(resource) || name.startsWith(nestedPrefix));
+        if ("file".equals(url.getProtocol())) {
+            Path packageDirectory;
+            try {
+                packageDirectory = Paths.get(url.toURI()).getParent();
+            } catch (URISyntaxException e) {
+                throw new IOException("Cannot locate " + url, e);
+            }
+            try (Stream<Path> files = Files.walk(packageDirectory, wholePackage ? Integer.MAX_VALUE : 1)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    String name = directory + packageDirectory.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (matches.test(name)) {
+                        classes.put(name, Files.readAllBytes(file));
+                    }
+                }
+            }
+        } else if ("jar".equals(url.getProtocol())) {
+            JarURLConnection connection = (JarURLConnection) url.openConnection();
+            // Uncached, so closing the jar does not close the one the class loader reads from
+            connection.setUseCaches(false);
+            try (JarFile jar = connection.getJarFile()) {
+                for (JarEntry entry : Collections.list(jar.entries())) {
+                    if (!entry.isDirectory() && matches.test(entry.getName())) {
+                        try (InputStream in = jar.getInputStream(entry)) {
+                            classes.put(entry.getName(), readAll(in));
+                        }
+                    }
+                }
+            }
+        } else {
+            throw new IOException("Cannot list class files at " + url);
+        }
+    }
+
+    /**
+     * @return Hex SHA-256 of the content
+     */
+    public static String digest(byte[] content) {
+        return hex(sha256().digest(content));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static String escape(String key) {
+        StringBuilder escaped = new StringBuilder(key.length());
+        for (char c : key.toCharArray()) {
+            if (c == '\\' || c == '=' || c == ':' || c == ' ' || c == '#' || c == '!') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.demo.schema.cds;
+
+import com.demo.schema.GeneratedClassesExample;
+import com.demo.schema.MessageValidator;
+import com.demo.schema.SchemaValidationExample;
+import com.demo.schema.YamlParserExample;
+import com.demo.schema.cli.ValidateCli;
+import com.demo.schema.validation.ComplexValidationExample;
+import com.demo.schema.validation.SchemaWithCustomValidation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+/**
+ * Training workload for the AppCDS archive built by the {@code cds} Maven profile and the
+ * Gradle {@code cdsArchive} task.
+ *
+ * Runs every entry point the launch scripts start, over the sample feeds and messages, so that
+ * the classes they load (Jackson, SnakeYAML, fge, Rhino, Hibernate Validator) are dumped into
+ * the archive with {@code -XX:ArchiveClassesAtExit}. Must be run from the project directory,
+ * since the examples read {@code src/main/resources} by relative path. Output is discarded.
+ */
+public class CdsTraining {
+
+    public static void main(String[] args) {
+        PrintStream console = System.out;
+        long start = System.nanoTime();
+        PrintStream discard = new PrintStream(new ByteArrayOutputStream());
+        System.setOut(discard);
+        try {
+            YamlParserExample.main(args);
+            SchemaValidationExample.main(args);
+            GeneratedClassesExample.main(args);
+            SchemaWithCustomValidation.main(args);
+            ComplexValidationExample.main(args);
+            MessageValidator.main(args);
+            ValidateCli.run(new String[] {
+                "src/main/resources/schema/feed_file_1.yaml",
+                "src/main/resources/schema/feed_kafka_1.yaml"
+            }, discard, discard);
+        } finally {
+            System.setOut(console);
+        }
+        console.println("CDS training finished in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,175 @@
+package com.demo.schema.cli;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.SchemaValidator;
+import com.demo.schema.profile.SchemaProfiler;
+import com.demo.schema.report.CompactReport;
+import com.demo.schema.report.CompactReportProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line validation of feed files and messages, built as a GraalVM native image by the
+ * {@code native} Maven profile for pre-commit hooks and CI steps.
+ *
+ * Usage: {@code schema-validate [--messages] [--schema <schema.json>] [--profile <out.folded>] <file>...}
+ *
+ * Feed files (YAML or JSON) are validated with {@link SchemaValidator} against
+ * {@code schema/feeds_schema.json} by default; with {@code --messages} each file is a JSON
+ * message validated with {@link MessageValidator} against {@code schema.json}. Schemas are
+ * looked up on the classpath first, then on the file system. Errors are printed one per line.
+ * With {@code --profile}, keyword timings are written as folded stacks to the given file and
+ * the most expensive keywords are summarized on standard error; see {@link SchemaProfiler}.
+ * Messages are not counted as documents, so {@code --messages} profiles have no document totals.
+ *
+ * Exit status: 0 if every file is valid, 1 if any is invalid, 2 on usage or I/O errors.
+ */
+public class ValidateCli {
+
+    static final int VALID = 0;
+    static final int INVALID = 1;
+    static final int ERROR = 2;
+
+    private static final String USAGE = "Usage: schema-validate [--messages] [--schema <schema.json>] [--profile <out.folded>] <file>...";
+    private static final String FEEDS_SCHEMA = "schema/feeds_schema.json";
+    private static final String MESSAGE_SCHEMA = "schema.json";
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * @return Exit status
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        boolean messages = false;
+        String schemaPath = null;
+        String profilePath = null;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--messages".equals(args[i])) {
+                messages = true;
+            } else if ("--schema".equals(args[i]) && i + 1 < args.length) {
+                schemaPath = args[++i];
+            } else if ("--profile".equals(args[i]) && i + 1 < args.length) {
+                profilePath = args[++i];
+            } else if (args[i].startsWith("--")) {
+                err.println(USAGE);
+                return ERROR;
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (files.isEmpty()) {
+            err.println(USAGE);
+            return ERROR;
+        }
+        if (schemaPath == null) {
+            schemaPath = messages ? MESSAGE_SCHEMA : FEEDS_SCHEMA;
+        }
+
+        useRhinoInterpreter();
+        SchemaProfiler profiler = profilePath == null ? null : new SchemaProfiler();
+        JsonSchemaFactory schemaFactory;
+        try {
+            schemaFactory = profiler == null ? CompactReportProvider.newSchemaFactory()
+                    : profiler.newSchemaFactory(new CompactReportProvider());
+        } catch (IllegalStateException e) {
+            err.println("Cannot profile: " + e.getMessage());
+            return ERROR;
+        }
+        MessageValidator messageValidator = new MessageValidator(schemaFactory);
+        SchemaValidator feedValidator = new SchemaValidator(schemaFactory, profiler);
+        JsonSchema schema;
+        try {
+            schema = messageValidator.loadSchema(schemaPath);
+        } catch (IOException | ProcessingException e) {
+            err.println("Cannot load schema " + schemaPath + ": " + e.getMessage());
+            return ERROR;
+        }
+
+        int status = VALID;
+        for (String file : files) {
+            String errors;
+            try {
+                errors = messages ? validateMessage(messageValidator, schema, file) : validateFeed(feedValidator, schema, file);
+            } catch (IOException | ProcessingException e) {
+                err.println("ERROR " + file + ": " + e.getMessage());
+                status = ERROR;
+                continue;
+            }
+            if (errors == null) {
+                out.println("OK   " + file);
+            } else {
+                out.println("FAIL " + file);
+                for (String line : errors.split("\n")) {
+                    out.println("  " + line);
+                }
+                status = Math.max(status, INVALID);
+            }
+        }
+        if (profiler != null) {
+            try (Writer folded = Files.newBufferedWriter(Paths.get(profilePath), StandardCharsets.UTF_8)) {
+                profiler.writeFolded(folded);
+                profiler.writeReport(err, 20);
+            } catch (IOException e) {
+                err.println("Cannot write profile " + profilePath + ": " + e.getMessage());
+                return ERROR;
+            }
+        }
+        return status;
+    }
+
+    private static String validateFeed(SchemaValidator validator, JsonSchema schema, String file)
+            throws IOException, ProcessingException {
+        JsonNode data = validator.loadYaml(file);
+        ProcessingReport report = validator.validate(schema, data);
+        if (report.isSuccess()) {
+            return null;
+        }
+        return report instanceof CompactReport ? ((CompactReport) report).render() : report.toString();
+    }
+
+    private static String validateMessage(MessageValidator validator, JsonSchema schema, String file) throws IOException {
+        MessageValidator.ValidationResult result;
+        try (InputStream in = Files.newInputStream(Paths.get(file))) {
+            result = validator.validate(schema, in);
+        }
+        if (result.isValid()) {
+            return null;
+        }
+        return result.getReport() != null ? result.getReport().render() : result.getDetails();
+    }
+
+    /**
+     * fge checks {@code pattern} and regex formats with Rhino, which by default compiles script
+     * to bytecode at runtime. A native image cannot load new classes, so run Rhino interpreted.
+     */
+    private static void useRhinoInterpreter() {
+        if (ContextFactory.hasExplicitGlobal()) {
+            return;
+        }
+        ContextFactory.initGlobal(new ContextFactory() {
+            @Override
+            protected void onContextCreated(Context context) {
+                context.setOptimizationLevel(-1);
+                super.onContextCreated(context);
+            }
+        });
+    }
+}
@@ -0,0 +1,222 @@
+package com.demo.schema.columnar;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A batch of top-level message fields stored column by column.
+ *
+ * Each column keeps a JSON kind tag per row and, for numeric rows, the value in a primitive
+ * array: integers as longs and other numbers as doubles. A double stands for the decimal of at
+ * most {@value #DOUBLE_DIGITS} significant digits nearest to it, as the numbers in messages
+ * usually are; such decimals round to distinct doubles in the same order, so two of them
+ * compare exactly as doubles. The rare values neither form holds, such as integers beyond the
+ * long range or decimals with more digits, are also kept as {@link BigDecimal}. String contents and
+ * nested values are not kept: type, required and numeric range checks only need the kind and
+ * the number. Columns appear as fields are first seen, so
+ * fields that the schema does not declare show up as columns too.
+ */
+public final class ColumnBatch {
+
+    /** Field absent from the row */
+    public static final byte ABSENT = 0;
+    public static final byte NULL = 1;
+    public static final byte BOOLEAN = 2;
+    public static final byte INTEGER = 3;
+    public static final byte NUMBER = 4;
+    public static final byte STRING = 5;
+    public static final byte ARRAY = 6;
+    public static final byte OBJECT = 7;
+
+    /** Significant decimal digits that survive a round trip through a double */
+    static final int DOUBLE_DIGITS = 15;
+
+    private static final MathContext DOUBLE_DIGITS_CONTEXT = new MathContext(DOUBLE_DIGITS);
+
+    private final int capacity;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private final byte[] rowKinds;
+    private int rowCount;
+
+    public ColumnBatch(int capacity) {
+        this.capacity = capacity;
+        this.rowKinds = new byte[capacity];
+    }
+
+    /**
+     * Clear the batch for reuse; column storage is kept
+     */
+    public void clear() {
+        for (Column column : columns.values()) {
+            column.clear(rowCount);
+        }
+        rowCount = 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public boolean isFull() {
+        return rowCount == capacity;
+    }
+
+    /**
+     * @return Kind of each row itself; rows that are not objects have no fields
+     */
+    byte[] rowKinds() {
+        return rowKinds;
+    }
+
+    /**
+     * @return Column for the field, or null when no row in the batch has it
+     */
+    public Column getColumn(String name) {
+        Column column = columns.get(name);
+        return column == null || column.isEmpty() ? null : column;
+    }
+
+    /**
+     * @return All columns by field name, including those without values in this batch
+     */
+    public Map<String, Column> getColumns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    int startRow(byte kind) {
+        rowKinds[rowCount] = kind;
+        return rowCount++;
+    }
+
+    Column column(String name) {
+        Column column = columns.get(name);
+        if (column == null) {
+            column = new Column(capacity);
+            columns.put(name, column);
+        }
+        return column;
+    }
+
+    /**
+     * @param exact Decimal value
+     * @param nearest The double nearest to it
+     * @return Whether the double stands for the decimal, i.e. the decimal has at most
+     *         {@value #DOUBLE_DIGITS} significant digits and is zero or in the normal double range
+     */
+    static boolean holdsAsDouble(BigDecimal exact, double nearest) {
+        if (nearest == 0) {
+            return exact.signum() == 0;
+        }
+        return !Double.isInfinite(nearest) && Math.abs(nearest) >= Double.MIN_NORMAL
+                && exact.stripTrailingZeros().precision() <= DOUBLE_DIGITS;
+    }
+
+    /**
+     * @return The decimal a double from {@link Column#numbers()} stands for
+     */
+    static BigDecimal decimalOf(double value) {
+        return new BigDecimal(value).round(DOUBLE_DIGITS_CONTEXT);
+    }
+
+    /**
+     * Kind tags and numeric values of one field across the rows of a batch
+     */
+    public static final class Column {
+        private final byte[] kinds;
+        private final long[] integers;
+        private final double[] numbers;
+        private BigDecimal[] decimals;
+        private int present;
+
+        Column(int capacity) {
+            this.kinds = new byte[capacity];
+            this.integers = new long[capacity];
+            this.numbers = new double[capacity];
+        }
+
+        void set(int row, byte kind) {
+            if (kinds[row] == ABSENT) {
+                present++;
+            }
+            kinds[row] = kind;
+        }
+
+        void setInteger(int row, long value) {
+            set(row, INTEGER);
+            integers[row] = value;
+            numbers[row] = value;
+        }
+
+        void setNumber(int row, double value) {
+            set(row, NUMBER);
+            numbers[row] = value;
+        }
+
+        void setDecimal(int row, byte kind, BigDecimal value) {
+            set(row, kind);
+            numbers[row] = value.doubleValue();
+            if (decimals == null) {
+                decimals = new BigDecimal[kinds.length];
+            }
+            decimals[row] = value;
+        }
+
+        void clear(int rows) {
+            Arrays.fill(kinds, 0, rows, ABSENT);
+            if (decimals != null) {
+                Arrays.fill(decimals, 0, rows, null);
+            }
+            present = 0;
+        }
+
+        boolean isEmpty() {
+            return present == 0;
+        }
+
+        /**
+         * @return Kind tag per row, {@link #ABSENT} where the field is missing
+         */
+        public byte[] kinds() {
+            return kinds;
+        }
+
+        /**
+         * @return Exact value per row where the kind is INTEGER and {@link #decimals()} has none
+         */
+        public long[] integers() {
+            return integers;
+        }
+
+        /**
+         * @return Numeric value per row, meaningful where the kind is INTEGER or NUMBER; for
+         *         NUMBER rows that {@link #decimals()} has none for, the nearest double to a
+         *         decimal of at most {@value ColumnBatch#DOUBLE_DIGITS} significant digits
+         */
+        public double[] numbers() {
+            return numbers;
+        }
+
+        /**
+         * @return Value per row that neither a long nor a double holds, null
+         *         elsewhere; null when no row in the batch needs one
+         */
+        public BigDecimal[] decimals() {
+            return decimals;
+        }
+
+        /**
+         * @return Number of rows that have the field
+         */
+        public int getPresentCount() {
+            return present;
+        }
+    }
+}
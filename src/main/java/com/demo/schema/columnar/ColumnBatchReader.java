@@ -0,0 +1,150 @@
+package com.demo.schema.columnar;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+
+/**
+ * Reads JSON messages into column batches straight from the token stream.
+ *
+ * Input is either a sequence of JSON values (JSON lines) or a single JSON array of them; the
+ * caller says which, since a JSON-lines stream may itself start with an array message. No
+ * tree is built per message: top-level fields are written into their columns as they are
+ * parsed, and nested objects and arrays are skipped after recording their kind.
+ */
+public class ColumnBatchReader implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private final boolean inArray;
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * @param in JSON lines, one message per value
+     */
+    public ColumnBatchReader(InputStream in) throws IOException {
+        this(in, false);
+    }
+
+    /**
+     * @param in Messages
+     * @param array True if the input is a single JSON array of messages, false for JSON lines
+     */
+    public ColumnBatchReader(InputStream in, boolean array) throws IOException {
+        this.parser = JSON_FACTORY.createParser(in);
+        this.inArray = array;
+    }
+
+    /**
+     * Clear the batch and fill it with up to its capacity of messages
+     * @param batch Batch to fill
+     * @return False if no messages were left
+     * @throws IOException If the input is not well-formed JSON
+     */
+    public boolean next(ColumnBatch batch) throws IOException {
+        batch.clear();
+        while (!batch.isFull() && !finished) {
+            JsonToken token = parser.nextToken();
+            if (!started && inArray) {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "Expected a JSON array of messages, found " + token);
+                }
+                token = parser.nextToken();
+            }
+            started = true;
+            if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+                finished = true;
+                break;
+            }
+            readRow(batch, token);
+        }
+        return batch.getRowCount() > 0;
+    }
+
+    private void readRow(ColumnBatch batch, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            batch.startRow(kindOf(token));
+            parser.skipChildren();
+            return;
+        }
+        int row = batch.startRow(ColumnBatch.OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            ColumnBatch.Column column = batch.column(parser.getCurrentName());
+            JsonToken value = parser.nextToken();
+            byte kind = kindOf(value);
+            if (kind == ColumnBatch.INTEGER) {
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    column.setDecimal(row, kind, new BigDecimal(parser.getBigIntegerValue()));
+                } else {
+                    column.setInteger(row, parser.getLongValue());
+                }
+            } else if (kind == ColumnBatch.NUMBER) {
+                double number = parser.getDoubleValue();
+                if (isShortPlainDecimal(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())) {
+                    column.setNumber(row, number);
+                } else {
+                    BigDecimal exact = parser.getDecimalValue();
+                    if (ColumnBatch.holdsAsDouble(exact, number)) {
+                        column.setNumber(row, number);
+                    } else {
+                        column.setDecimal(row, kind, exact);
+                    }
+                }
+            } else {
+                column.set(row, kind);
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Cheap check of a number's text that settles most values without a {@link BigDecimal}
+     * @return True if the text has no exponent and at most {@value ColumnBatch#DOUBLE_DIGITS}
+     *         digits in all, so that a double holds it as {@link ColumnBatch} requires
+     */
+    private static boolean isShortPlainDecimal(char[] text, int offset, int length) {
+        int digits = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = text[i];
+            if (c == 'e' || c == 'E' || (c >= '0' && c <= '9' && ++digits > ColumnBatch.DOUBLE_DIGITS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte kindOf(JsonToken token) {
+        switch (token) {
+            case START_OBJECT:
+                return ColumnBatch.OBJECT;
+            case START_ARRAY:
+                return ColumnBatch.ARRAY;
+            case VALUE_STRING:
+                return ColumnBatch.STRING;
+            case VALUE_NUMBER_INT:
+                return ColumnBatch.INTEGER;
+            case VALUE_NUMBER_FLOAT:
+                return ColumnBatch.NUMBER;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return ColumnBatch.BOOLEAN;
+            case VALUE_NULL:
+                return ColumnBatch.NULL;
+            default:
+                throw new IllegalStateException("Unexpected token " + token);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
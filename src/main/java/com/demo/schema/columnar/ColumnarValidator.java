@@ -0,0 +1,389 @@
+package com.demo.schema.columnar;
+
+import com.demo.schema.MessageValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates column batches of flat messages against a schema, one column at a time.
+ *
+ * Covers the subset of draft-04 used by message schemas such as {@code schema.json}: an object
+ * root with {@code required}, {@code additionalProperties: false} and {@code properties} that
+ * use {@code type}, {@code minimum}/{@code maximum} and their exclusive flags. Each constraint
+ * is checked as a tight loop over a column's kind tags or numbers. Bounds compare exactly, as
+ * the row validator does: integers as longs, other numbers as doubles as {@link ColumnBatch}
+ * describes, and {@link BigDecimal} only for values or bounds that neither form holds. Rows
+ * that are not objects are rejected only if the root declares {@code "type": "object"}; the other
+ * root keywords apply to objects alone. Schemas using any other
+ * keyword are rejected, so callers can fall back to row-by-row validation.
+ *
+ * Unlike the row validator, which stops at the first failing level of a message, every
+ * violation of every row is counted. Violation keys have the form {@code "<keyword> <pointer>"},
+ * e.g. {@code "minimum /records"}.
+ */
+public class ColumnarValidator {
+
+    private static final Set<String> IGNORED = new HashSet<>(Arrays.asList(
+            "$schema", "id", "title", "description", "default"));
+    private static final Set<String> ROOT_KEYWORDS = new HashSet<>(Arrays.asList(
+            "type", "required", "properties", "additionalProperties"));
+    private static final Set<String> PROPERTY_KEYWORDS = new HashSet<>(Arrays.asList(
+            "type", "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum"));
+
+    private final List<String> required = new ArrayList<>();
+    private final Map<String, PropertyRule> properties = new LinkedHashMap<>();
+    private final boolean additionalProperties;
+    private final boolean objectRoot;
+
+    /**
+     * @param schema Message schema
+     * @throws IllegalArgumentException If the schema uses keywords this validator does not support
+     */
+    public ColumnarValidator(JsonNode schema) {
+        List<String> unsupported = new ArrayList<>();
+        collectUnsupported(schema, ROOT_KEYWORDS, "", unsupported);
+        if (schema.has("type") && !"object".equals(schema.get("type").asText())) {
+            unsupported.add("type");
+        }
+        JsonNode additional = schema.path("additionalProperties");
+        if (!additional.isMissingNode() && !additional.isBoolean()) {
+            unsupported.add("additionalProperties");
+        }
+        for (JsonNode name : schema.path("required")) {
+            required.add(name.asText());
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = schema.path("properties").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            collectUnsupported(field.getValue(), PROPERTY_KEYWORDS, "/properties/" + field.getKey() + "/", unsupported);
+            properties.put(field.getKey(), new PropertyRule(field.getValue()));
+        }
+        if (!unsupported.isEmpty()) {
+            throw new IllegalArgumentException("Unsupported schema keywords for columnar validation: " + unsupported);
+        }
+        this.additionalProperties = additional.asBoolean(true);
+        this.objectRoot = schema.has("type");
+    }
+
+    /**
+     * Check every row of a batch
+     * @param batch Batch to validate
+     * @return Invalid rows and violation counts
+     */
+    public Result validate(ColumnBatch batch) {
+        int rows = batch.getRowCount();
+        Result result = new Result(rows);
+
+        byte[] rowKinds = batch.rowKinds();
+        if (objectRoot) {
+            for (int row = 0; row < rows; row++) {
+                if (rowKinds[row] != ColumnBatch.OBJECT) {
+                    result.reject(row, "type /");
+                }
+            }
+        }
+
+        for (String name : required) {
+            ColumnBatch.Column column = batch.getColumn(name);
+            if (column != null && column.getPresentCount() == rows) {
+                continue;
+            }
+            String key = "required /" + name;
+            byte[] kinds = column == null ? null : column.kinds();
+            for (int row = 0; row < rows; row++) {
+                if (rowKinds[row] == ColumnBatch.OBJECT && (kinds == null || kinds[row] == ColumnBatch.ABSENT)) {
+                    result.reject(row, key);
+                }
+            }
+        }
+
+        for (Map.Entry<String, ColumnBatch.Column> entry : batch.getColumns().entrySet()) {
+            ColumnBatch.Column column = entry.getValue();
+            if (column.getPresentCount() == 0) {
+                continue;
+            }
+            PropertyRule rule = properties.get(entry.getKey());
+            if (rule != null) {
+                rule.check(entry.getKey(), column, rows, result);
+            } else if (!additionalProperties) {
+                String key = "additionalProperties /" + entry.getKey();
+                byte[] kinds = column.kinds();
+                for (int row = 0; row < rows; row++) {
+                    if (kinds[row] != ColumnBatch.ABSENT) {
+                        result.reject(row, key);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void collectUnsupported(JsonNode schema, Set<String> supported, String path, List<String> unsupported) {
+        Iterator<String> names = schema.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!supported.contains(name) && !IGNORED.contains(name)) {
+                unsupported.add(path + name);
+            }
+        }
+    }
+
+    /**
+     * Type and range constraints of one property
+     */
+    private static final class PropertyRule {
+        private final int allowedKinds;
+        private final Bound minimum;
+        private final Bound maximum;
+
+        PropertyRule(JsonNode schema) {
+            JsonNode type = schema.get("type");
+            int mask = 0;
+            if (type == null) {
+                mask = -1;
+            } else if (type.isArray()) {
+                for (JsonNode each : type) {
+                    mask |= kindMask(each.asText());
+                }
+            } else {
+                mask = kindMask(type.asText());
+            }
+            this.allowedKinds = mask;
+            this.minimum = Bound.of(schema.get("minimum"), schema.path("exclusiveMinimum").asBoolean(false));
+            this.maximum = Bound.of(schema.get("maximum"), schema.path("exclusiveMaximum").asBoolean(false));
+        }
+
+        void check(String name, ColumnBatch.Column column, int rows, Result result) {
+            byte[] kinds = column.kinds();
+            if (allowedKinds != -1) {
+                String key = "type /" + name;
+                for (int row = 0; row < rows; row++) {
+                    byte kind = kinds[row];
+                    if (kind != ColumnBatch.ABSENT && (allowedKinds & (1 << kind)) == 0) {
+                        result.reject(row, key);
+                    }
+                }
+            }
+
+            if (minimum == null && maximum == null) {
+                return;
+            }
+            String minimumKey = "minimum /" + name;
+            String maximumKey = "maximum /" + name;
+            for (int row = 0; row < rows; row++) {
+                byte kind = kinds[row];
+                if (kind != ColumnBatch.INTEGER && kind != ColumnBatch.NUMBER) {
+                    continue;
+                }
+                if (minimum != null) {
+                    int compared = minimum.compare(column, kind, row);
+                    if (compared < 0 || (minimum.exclusive && compared == 0)) {
+                        result.reject(row, minimumKey);
+                    }
+                }
+                if (maximum != null) {
+                    int compared = maximum.compare(column, kind, row);
+                    if (compared > 0 || (maximum.exclusive && compared == 0)) {
+                        result.reject(row, maximumKey);
+                    }
+                }
+            }
+        }
+
+        private static int kindMask(String type) {
+            switch (type) {
+                case "null":
+                    return 1 << ColumnBatch.NULL;
+                case "boolean":
+                    return 1 << ColumnBatch.BOOLEAN;
+                case "integer":
+                    return 1 << ColumnBatch.INTEGER;
+                case "number":
+                    return (1 << ColumnBatch.INTEGER) | (1 << ColumnBatch.NUMBER);
+                case "string":
+                    return 1 << ColumnBatch.STRING;
+                case "array":
+                    return 1 << ColumnBatch.ARRAY;
+                case "object":
+                    return 1 << ColumnBatch.OBJECT;
+                default:
+                    throw new IllegalArgumentException("Unknown type: " + type);
+            }
+        }
+    }
+
+    /**
+     * A minimum or maximum, in every form a column value may be compared against
+     */
+    private static final class Bound {
+        private final BigDecimal decimal;
+        private final boolean exclusive;
+        private final boolean isLong;
+        private final long longValue;
+        private final boolean isDouble;
+        private final double doubleValue;
+
+        private Bound(BigDecimal decimal, boolean exclusive) {
+            this.decimal = decimal;
+            this.exclusive = exclusive;
+            long asLong = 0;
+            boolean fitsLong;
+            try {
+                asLong = decimal.longValueExact();
+                fitsLong = true;
+            } catch (ArithmeticException e) {
+                fitsLong = false;
+            }
+            this.isLong = fitsLong;
+            this.longValue = asLong;
+            this.doubleValue = decimal.doubleValue();
+            this.isDouble = ColumnBatch.holdsAsDouble(decimal, doubleValue);
+        }
+
+        static Bound of(JsonNode value, boolean exclusive) {
+            return value == null ? null : new Bound(value.decimalValue(), exclusive);
+        }
+
+        /**
+         * @return Negative, zero or positive as the row's value is below, equal to or above the bound
+         */
+        int compare(ColumnBatch.Column column, byte kind, int row) {
+            BigDecimal[] decimals = column.decimals();
+            if (decimals != null && decimals[row] != null) {
+                return decimals[row].compareTo(decimal);
+            }
+            if (kind == ColumnBatch.INTEGER) {
+                long value = column.integers()[row];
+                return isLong ? Long.compare(value, longValue) : BigDecimal.valueOf(value).compareTo(decimal);
+            }
+            double value = column.numbers()[row];
+            if (!isDouble) {
+                return ColumnBatch.decimalOf(value).compareTo(decimal);
+            }
+            // Not Double.compare, which orders -0.0 below 0.0
+            return value < doubleValue ? -1 : value > doubleValue ? 1 : 0;
+        }
+    }
+
+    /**
+     * Outcome of validating one batch
+     */
+    public static class Result {
+        private final int rowCount;
+        private final BitSet invalidRows = new BitSet();
+        private final Map<String, Integer> violationCounts = new LinkedHashMap<>();
+
+        Result(int rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        void reject(int row, String key) {
+            invalidRows.set(row);
+            violationCounts.merge(key, 1, Integer::sum);
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public boolean isValid(int row) {
+            return !invalidRows.get(row);
+        }
+
+        public int getInvalidCount() {
+            return invalidRows.cardinality();
+        }
+
+        /**
+         * @return Rows with at least one violation
+         */
+        public BitSet getInvalidRows() {
+            return (BitSet) invalidRows.clone();
+        }
+
+        /**
+         * @return Number of violating rows per violation key, in the order first seen
+         */
+        public Map<String, Integer> getViolationCounts() {
+            return Collections.unmodifiableMap(violationCounts);
+        }
+    }
+
+    /**
+     * Compare columnar and row-by-row validation of the same messages.
+     * Usage: ColumnarValidator [rows | json-lines-file] [schema]
+     */
+    public static void main(String[] args) throws Exception {
+        String schemaPath = args.length > 1 ? args[1] : "schema.json";
+        byte[] input = args.length > 0 && !args[0].matches("\\d+") ? Files.readAllBytes(Paths.get(args[0])) : generate(
+                args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000);
+
+        MessageValidator messageValidator = new MessageValidator();
+        JsonNode schemaNode = messageValidator.readJsonFile(schemaPath);
+        JsonSchema schema = messageValidator.loadSchema(schemaPath);
+        ColumnarValidator columnar = new ColumnarValidator(schemaNode);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long rows = 0;
+            long invalid = 0;
+            ColumnBatch batch = new ColumnBatch(4096);
+            try (ColumnBatchReader reader = new ColumnBatchReader(new ByteArrayInputStream(input))) {
+                while (reader.next(batch)) {
+                    Result result = columnar.validate(batch);
+                    rows += result.getRowCount();
+                    invalid += result.getInvalidCount();
+                }
+            }
+            report("columnar", rows, invalid, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            rows = 0;
+            invalid = 0;
+            try (MappingIterator<JsonNode> messages =
+                         objectMapper.readerFor(JsonNode.class).readValues(input)) {
+                while (messages.hasNext()) {
+                    rows++;
+                    if (!schema.validate(messages.next()).isSuccess()) {
+                        invalid++;
+                    }
+                }
+            }
+            report("row tree", rows, invalid, System.nanoTime() - start);
+        }
+    }
+
+    private static void report(String mode, long rows, long invalid, long nanos) {
+        System.out.printf("%-9s %,d rows, %,d invalid, %,d ms, %,.0f rows/s%n",
+                mode, rows, invalid, nanos / 1_000_000, rows * 1e9 / nanos);
+    }
+
+    private static byte[] generate(int rows) {
+        StringBuilder out = new StringBuilder(rows * 200);
+        for (int i = 0; i < rows; i++) {
+            out.append("{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\",\"timestamp\":\"2025-07-08 12:00:00 PM IST\",")
+                    .append("\"records\":").append(i % 100 == 0 ? -1 : i)
+                    .append(",\"trr\":\"GLOBAL\",\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}\n");
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
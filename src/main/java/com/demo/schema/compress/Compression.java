@@ -0,0 +1,165 @@
+package com.demo.schema.compress;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import net.jpountz.lz4.LZ4FrameInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression of feed and message input, recognised by the magic bytes at the start of the data.
+ *
+ * Decompression is streamed: the parser reads from the decoding stream, so a compressed file is
+ * decompressed, parsed and validated in one pass without being inflated to a temporary file or
+ * held in memory. gzip uses the JDK; zstd and lz4 need {@code com.github.luben:zstd-jni} and
+ * {@code org.lz4:lz4-java} on the classpath, and report an {@link IOException} naming the missing
+ * library otherwise. zstd windows come from zstd-jni's recycling buffer pool, and Jackson recycles
+ * its own parse buffers, so reading many small files does not allocate a window per file.
+ */
+public enum Compression {
+
+    NONE("none"),
+    GZIP("gzip", 0x1f, 0x8b),
+    ZSTD("zstd", 0x28, 0xb5, 0x2f, 0xfd),
+    LZ4("lz4", 0x04, 0x22, 0x4d, 0x18);
+
+    private static final int MAGIC_LENGTH = 4;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+    private final int[] magic;
+
+    Compression(String name, int... magic) {
+        this.name = name;
+        this.magic = magic;
+    }
+
+    /**
+     * @return The name feeds declare this compression with, e.g. {@code "gzip"}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Look up a compression by the name a feed declares, e.g. the {@code compression} of an
+     * inbound dataset
+     * @param name Compression name; null means none
+     * @return The compression
+     * @throws IllegalArgumentException If the name is not a supported stream compression
+     */
+    public static Compression of(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        for (Compression compression : values()) {
+            if (compression.name.equals(name.toLowerCase(Locale.ROOT))) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported compression: " + name);
+    }
+
+    /**
+     * Recognise the compression of data by its first bytes
+     * @param head Start of the data
+     * @param length Number of valid bytes in head
+     * @return The compression, or NONE for anything else
+     */
+    public static Compression detect(byte[] head, int length) {
+        for (Compression compression : values()) {
+            if (compression.matches(head, length)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Wrap a stream so that it reads decompressed data, whatever compression the data has
+     * @param in Raw input; closed with the returned stream
+     * @return Stream of the decompressed data, or of the data as is if it is not compressed
+     * @throws IOException If the start of the data cannot be read or its codec is not available
+     */
+    public static InputStream decompressing(InputStream in) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, MAGIC_LENGTH);
+        byte[] head = new byte[MAGIC_LENGTH];
+        int length = 0;
+        int read;
+        while (length < head.length && (read = pushback.read(head, length, head.length - length)) != -1) {
+            length += read;
+        }
+        pushback.unread(head, 0, length);
+        return detect(head, length).decompress(pushback);
+    }
+
+    /**
+     * Decompress an in-memory buffer if it is compressed
+     * @param content Raw content
+     * @return Stream of the decompressed content, or null if the content is not compressed
+     * @throws IOException If the codec is not available
+     */
+    public static InputStream decompressing(byte[] content) throws IOException {
+        Compression compression = detect(content, content.length);
+        return compression == NONE ? null : compression.decompress(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Wrap a stream of data compressed with this compression
+     * @param in Compressed input; closed with the returned stream
+     * @return Stream of the decompressed data
+     * @throws IOException If the data cannot be read or the codec is not available
+     */
+    public InputStream decompress(InputStream in) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(in, GZIP_BUFFER_SIZE);
+            case ZSTD:
+                try {
+                    return ZstdCodec.open(in);
+                } catch (LinkageError e) {
+                    throw new IOException("zstd input needs com.github.luben:zstd-jni on the classpath", e);
+                }
+            case LZ4:
+                try {
+                    return Lz4Codec.open(in);
+                } catch (LinkageError e) {
+                    throw new IOException("lz4 input needs org.lz4:lz4-java on the classpath", e);
+                }
+            default:
+                return in;
+        }
+    }
+
+    private boolean matches(byte[] head, int length) {
+        if (magic.length == 0 || length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((head[i] & 0xff) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kept apart so that the optional codec classes are only loaded when zstd data is read
+     */
+    private static final class ZstdCodec {
+        static InputStream open(InputStream in) throws IOException {
+            return new ZstdInputStreamNoFinalizer(in, RecyclingBufferPool.INSTANCE);
+        }
+    }
+
+    private static final class Lz4Codec {
+        static InputStream open(InputStream in) throws IOException {
+            return new LZ4FrameInputStream(in);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.demo.schema.feed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of a validated feed catalog, published by
+ * {@link ConfigSnapshotHolder}.
+ *
+ * The feed list and name index are copied and never change; feed trees are shared with the
+ * entries given, so read them with a {@link NodeInterner} for trees that cannot change either.
+ */
+public final class ConfigSnapshot {
+
+    private final long version;
+    private final long publishedAt;
+    private final List<FeedEntry> feeds;
+    private final Map<String, FeedEntry> byName;
+
+    ConfigSnapshot(long version, List<FeedEntry> feeds) {
+        this.version = version;
+        this.publishedAt = System.currentTimeMillis();
+        this.feeds = Collections.unmodifiableList(new ArrayList<>(feeds));
+        Map<String, FeedEntry> names = new HashMap<>(feeds.size() * 2);
+        for (FeedEntry feed : feeds) {
+            names.put(feed.getKey(), feed);
+        }
+        this.byName = Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * @return Version, 0 for the initial empty snapshot and increasing by one per publication
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Publication time in milliseconds since the epoch
+     */
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+
+    /**
+     * @return Feeds in catalog order
+     */
+    public List<FeedEntry> getFeeds() {
+        return feeds;
+    }
+
+    /**
+     * @param name Entry key, see {@link FeedEntry#getKey()}
+     * @return The feed, or null
+     */
+    public FeedEntry get(String name) {
+        return byName.get(name);
+    }
+
+    public int size() {
+        return feeds.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigSnapshot{" +
+                "version=" + version +
+                ", feeds=" + feeds.size() +
+                '}';
+    }
+}
@@ -0,0 +1,203 @@
+package com.demo.schema.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link ConfigSnapshot} for many reader threads while a reloader publishes
+ * new versions.
+ *
+ * Readers call {@link #get()}, a single volatile read, and keep using the snapshot they got for
+ * as long as they need a consistent view; they never block and never see a catalog that is
+ * partly loaded or not yet validated. A reloader validates the new catalog first and publishes
+ * it with {@link #reload}, or {@link #publish} for feeds validated elsewhere; the snapshot is
+ * swapped in one atomic step and then listeners are told, on the publishing thread.
+ *
+ * Concurrent reloaders take turns: each reload validates and publishes under one lock, so
+ * catalogs are published in the order their reloads started and listeners see the versions in
+ * order. Readers never take the lock.
+ */
+public class ConfigSnapshotHolder {
+
+    /**
+     * Notified after a new snapshot has been published
+     */
+    public interface Listener {
+        void onPublished(ConfigSnapshot previous, ConfigSnapshot current);
+    }
+
+    private final AtomicReference<ConfigSnapshot> current =
+            new AtomicReference<>(new ConfigSnapshot(0, Collections.<FeedEntry>emptyList()));
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Object publishLock = new Object();
+
+    /**
+     * @return The current snapshot; version 0 and empty until the first publication
+     */
+    public ConfigSnapshot get() {
+        return current.get();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Validate a catalog and publish it if it is valid; an invalid catalog leaves the current
+     * snapshot in place
+     * @param entries Entries read by {@link FeedCatalogReader}
+     * @param validator Validator of the catalog
+     * @return The validation result; its entries are published when it is a success
+     * @throws ProcessingException If the schema cannot be processed
+     */
+    public IncrementalFeedValidator.CatalogResult reload(List<FeedEntry> entries, IncrementalFeedValidator validator)
+            throws ProcessingException {
+        synchronized (publishLock) {
+            IncrementalFeedValidator.CatalogResult result = validator.validate(entries);
+            if (result.isSuccess()) {
+                publish(entries);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Publish already validated feeds as the next version
+     * @return The published snapshot
+     */
+    public ConfigSnapshot publish(List<FeedEntry> feeds) {
+        synchronized (publishLock) {
+            ConfigSnapshot previous = current.get();
+            ConfigSnapshot next = new ConfigSnapshot(previous.getVersion() + 1, feeds);
+            current.set(next);
+            notifyListeners(previous, next);
+            return next;
+        }
+    }
+
+    /**
+     * Every listener is called even if one throws; the first failure is rethrown afterwards
+     */
+    private void notifyListeners(ConfigSnapshot previous, ConfigSnapshot next) {
+        RuntimeException failure = null;
+        for (Listener listener : listeners) {
+            try {
+                listener.onPublished(previous, next);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Readers look up feeds by name while a reloader republishes the catalog, first through
+     * this holder, then through a synchronized map reloaded under its lock.
+     * Usage: ConfigSnapshotHolder [feed count] [reader threads] [seconds per run]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int feeds = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        JsonNode file = yamlMapper.readTree(new File("src/main/resources/schema/feed_file_1.yaml")).get(0);
+        ArrayNode catalog = yamlMapper.createArrayNode();
+        String[] names = new String[feeds];
+        for (int i = 0; i < feeds; i++) {
+            names[i] = "feed_" + i;
+            catalog.add(((ObjectNode) file.deepCopy()).put("name", names[i]));
+        }
+        List<FeedEntry> entries = new FeedCatalogReader(new NodeInterner()).read(yamlMapper.writeValueAsBytes(catalog));
+
+        ConfigSnapshotHolder holder = new ConfigSnapshotHolder();
+        holder.publish(entries);
+        run("snapshot holder", readers, seconds, names, () -> holder.publish(entries), name -> {
+            ConfigSnapshot snapshot = holder.get();
+            return snapshot.size() == names.length && snapshot.get(name) != null;
+        });
+
+        Map<String, FeedEntry> map = Collections.synchronizedMap(new HashMap<String, FeedEntry>());
+        Runnable reload = () -> {
+            synchronized (map) {
+                map.clear();
+                for (FeedEntry entry : entries) {
+                    map.put(entry.getKey(), entry);
+                }
+            }
+        };
+        reload.run();
+        run("synchronized map", readers, seconds, names, reload, name -> map.size() == names.length && map.get(name) != null);
+    }
+
+    private interface Read {
+        boolean read(String name);
+    }
+
+    private static void run(String label, int readers, int seconds, String[] names, Runnable reload, Read read)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong inconsistent = new AtomicLong();
+        AtomicLong worstRead = new AtomicLong();
+        Thread[] threads = new Thread[readers];
+        for (int t = 0; t < readers; t++) {
+            final int seed = t;
+            threads[t] = new Thread(() -> {
+                long count = 0;
+                long bad = 0;
+                long worst = 0;
+                int i = seed;
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    if (!read.read(names[i++ % names.length])) {
+                        bad++;
+                    }
+                    worst = Math.max(worst, System.nanoTime() - start);
+                    count++;
+                }
+                reads.addAndGet(count);
+                inconsistent.addAndGet(bad);
+                worstRead.accumulateAndGet(worst, Math::max);
+            });
+            threads[t].start();
+        }
+        long reloads = 0;
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            reload.run();
+            reloads++;
+            Thread.sleep(1);
+        }
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%-16s %d readers: %,d reads/s, %,d reloads, worst read %,d us, inconsistent reads %,d%n",
+                label, readers, reads.get() / seconds, reloads, worstRead.get() / 1_000, inconsistent.get());
+    }
+}
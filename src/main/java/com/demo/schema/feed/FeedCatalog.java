@@ -0,0 +1,388 @@
+package com.demo.schema.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory feed catalog indexed for operational queries.
+ *
+ * Each feed occupies an int slot, and every indexed attribute maps its values to a
+ * {@link BitSet} of slots: {@code name} (the entry key), {@code layer}, {@code active}, feed type,
+ * {@code topics}, {@code consumer-group-id} and {@code flow-class}. A lookup is one hash probe;
+ * a query such as "active kafka-topic feeds with flow-class X in layer Y" intersects one bitset
+ * per condition, touching one bit per feed slot rather than one tree per feed.
+ *
+ * {@link #reload} takes the entries of a catalog read by {@link FeedCatalogReader} (and
+ * normally validated by {@link IncrementalFeedValidator}), and compares them with the current
+ * ones by key and fingerprint: unchanged feeds keep their slot and index bits, and only added,
+ * edited and removed feeds update the indexes.
+ *
+ * Not thread-safe: queries must not run concurrently with a reload.
+ */
+public class FeedCatalog {
+
+    /**
+     * Feed types, one per section a feed may declare; a feed may have several
+     */
+    public enum FeedType {
+        FILE_WATCHER("file-watcher"),
+        KAFKA_FILE_REPLAY("kafka-file-replay"),
+        KAFKA_TOPIC("kafka-topic");
+
+        private final String key;
+
+        FeedType(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return The feed section key, e.g. {@code kafka-topic}
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private FeedEntry[] slots = new FeedEntry[16];
+    private final BitSet live = new BitSet();
+    private final BitSet active = new BitSet();
+    private final Map<String, Integer> byName = new HashMap<>();
+    private final Map<String, BitSet> byLayer = new HashMap<>();
+    private final Map<FeedType, BitSet> byType = new EnumMap<>(FeedType.class);
+    private final Map<String, BitSet> byTopic = new HashMap<>();
+    private final Map<String, BitSet> byConsumerGroup = new HashMap<>();
+    private final Map<String, BitSet> byFlowClass = new HashMap<>();
+
+    /**
+     * Replace the catalog's feeds, updating the indexes only for feeds that changed
+     * @param entries Entries of the new catalog
+     * @return Counts of what changed
+     */
+    public ReloadResult reload(List<FeedEntry> entries) {
+        int added = 0;
+        int updated = 0;
+        int unchanged = 0;
+        Set<String> keys = new HashSet<>(entries.size() * 2);
+        for (FeedEntry entry : entries) {
+            keys.add(entry.getKey());
+            Integer slot = byName.get(entry.getKey());
+            if (slot == null) {
+                index(entry, live.nextClearBit(0));
+                added++;
+            } else if (!slots[slot].getFingerprint().equals(entry.getFingerprint())) {
+                unindex(slot);
+                index(entry, slot);
+                updated++;
+            } else {
+                // Positions may move without the feed changing
+                slots[slot] = entry;
+                unchanged++;
+            }
+        }
+        int removed = 0;
+        if (keys.size() < byName.size()) {
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                if (!keys.contains(slots[slot].getKey())) {
+                    unindex(slot);
+                    removed++;
+                }
+            }
+        }
+        return new ReloadResult(added, updated, removed, unchanged);
+    }
+
+    /**
+     * @return Number of feeds
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * @param name Entry key (the feed name, see {@link FeedEntry#getKey()})
+     * @return The feed, or null
+     */
+    public FeedEntry get(String name) {
+        Integer slot = byName.get(name);
+        return slot == null ? null : slots[slot];
+    }
+
+    /**
+     * @return A query matching every feed, narrowed by its methods
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * Conjunction of conditions over the indexes
+     */
+    public class Query {
+        private final BitSet matches = (BitSet) live.clone();
+
+        public Query layer(String layer) {
+            return and(byLayer.get(layer));
+        }
+
+        public Query active(boolean value) {
+            if (value) {
+                matches.and(active);
+            } else {
+                matches.andNot(active);
+            }
+            return this;
+        }
+
+        public Query type(FeedType type) {
+            return and(byType.get(type));
+        }
+
+        public Query topic(String topic) {
+            return and(byTopic.get(topic));
+        }
+
+        public Query consumerGroup(String consumerGroupId) {
+            return and(byConsumerGroup.get(consumerGroupId));
+        }
+
+        public Query flowClass(String flowClass) {
+            return and(byFlowClass.get(flowClass));
+        }
+
+        private Query and(BitSet index) {
+            if (index == null) {
+                matches.clear();
+            } else {
+                matches.and(index);
+            }
+            return this;
+        }
+
+        public int count() {
+            return matches.cardinality();
+        }
+
+        /**
+         * @return Matching feeds, by slot
+         */
+        public List<FeedEntry> list() {
+            List<FeedEntry> result = new ArrayList<>(matches.cardinality());
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                result.add(slots[slot]);
+            }
+            return result;
+        }
+    }
+
+    private void index(FeedEntry entry, int slot) {
+        if (slot >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(slot + 1, slots.length * 2));
+        }
+        slots[slot] = entry;
+        live.set(slot);
+        byName.put(entry.getKey(), slot);
+        update(entry.getNode(), slot, true);
+    }
+
+    private void unindex(int slot) {
+        FeedEntry entry = slots[slot];
+        update(entry.getNode(), slot, false);
+        byName.remove(entry.getKey());
+        live.clear(slot);
+        slots[slot] = null;
+    }
+
+    /**
+     * Set or clear the slot's bit under every indexed value of the feed
+     */
+    private void update(JsonNode feed, int slot, boolean set) {
+        active.set(slot, set && feed.path("active").asBoolean(true));
+        mark(byLayer, text(feed.get("layer")), slot, set);
+        for (FeedType type : FeedType.values()) {
+            JsonNode section = feed.get(type.getKey());
+            if (section == null || !section.isObject()) {
+                continue;
+            }
+            mark(byType, type, slot, set);
+            mark(byFlowClass, text(section.get("flow-class")), slot, set);
+            mark(byConsumerGroup, text(section.get("consumer-group-id")), slot, set);
+            String topics = text(section.get("topics"));
+            if (topics != null) {
+                for (String topic : topics.split(",")) {
+                    mark(byTopic, topic.trim(), slot, set);
+                }
+            }
+        }
+    }
+
+    private static <K> void mark(Map<K, BitSet> index, K key, int slot, boolean set) {
+        if (key == null) {
+            return;
+        }
+        BitSet slots = index.get(key);
+        if (set) {
+            if (slots == null) {
+                slots = new BitSet();
+                index.put(key, slots);
+            }
+            slots.set(slot);
+        } else if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String text(JsonNode node) {
+        return node != null && node.isTextual() ? node.textValue() : null;
+    }
+
+    /**
+     * What a reload changed
+     */
+    public static class ReloadResult {
+        private final int added;
+        private final int updated;
+        private final int removed;
+        private final int unchanged;
+
+        ReloadResult(int added, int updated, int removed, int unchanged) {
+            this.added = added;
+            this.updated = updated;
+            this.removed = removed;
+            this.unchanged = unchanged;
+        }
+
+        public int getAdded() {
+            return added;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getRemoved() {
+            return removed;
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        @Override
+        public String toString() {
+            return "added " + added + ", updated " + updated + ", removed " + removed + ", unchanged " + unchanged;
+        }
+    }
+
+    /**
+     * Compare indexed queries with a scan of parsed maps, and an incremental reload with a full one.
+     * Usage: FeedCatalog [feed count]
+     */
+    public static void main(String[] args) throws IOException, ProcessingException {
+        int feeds = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        JsonNode schema = new ObjectMapper().readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        JsonNode kafka = yamlMapper.readTree(new File("src/main/resources/schema/feed_kafka_1.yaml")).get(0);
+        JsonNode file = yamlMapper.readTree(new File("src/main/resources/schema/feed_file_1.yaml")).get(0);
+        ArrayNode catalog = yamlMapper.createArrayNode();
+        for (int i = 0; i < feeds; i++) {
+            ObjectNode feed = (i % 2 == 0 ? kafka : file).deepCopy();
+            feed.put("name", "feed_" + i);
+            feed.put("layer", "layer_" + i % 20);
+            feed.put("active", i % 10 != 0);
+            if (feed.has("kafka-topic")) {
+                ObjectNode topic = (ObjectNode) feed.get("kafka-topic");
+                topic.put("topics", "topic_" + i % 500);
+                topic.put("consumer-group-id", "group_" + i % 100);
+                topic.put("flow-class", i % 4 == 0 ? "InboundKafkaTopicFlow" : "BatchKafkaTopicFlow");
+            }
+            catalog.add(feed);
+        }
+        byte[] original = yamlMapper.writeValueAsBytes(catalog);
+        ((ObjectNode) catalog.get(feeds / 2)).put("layer", "edited");
+        byte[] edited = yamlMapper.writeValueAsBytes(catalog);
+
+        FeedCatalogReader reader = new FeedCatalogReader(new NodeInterner());
+        IncrementalFeedValidator validator = new IncrementalFeedValidator(JsonSchemaFactory.byDefault(), schema);
+        List<FeedEntry> entries = reader.read(original);
+        System.out.println("Catalog valid: " + validator.validate(entries).isSuccess());
+        List<Map<String, Object>> maps = new ArrayList<>();
+        for (FeedEntry entry : entries) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = yamlMapper.convertValue(entry.getNode(), Map.class);
+            maps.add(map);
+        }
+
+        FeedCatalog index = new FeedCatalog();
+        for (int round = 0; round < 3; round++) {
+            FeedCatalog full = new FeedCatalog();
+            long start = System.nanoTime();
+            full.reload(entries);
+            long build = System.nanoTime() - start;
+
+            index.reload(entries);
+            List<FeedEntry> editedEntries = reader.read(edited);
+            start = System.nanoTime();
+            ReloadResult result = index.reload(editedEntries);
+            long incremental = System.nanoTime() - start;
+            index.reload(entries);
+
+            int queries = 10_000;
+            int found = 0;
+            start = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                found += index.query().active(true).type(FeedType.KAFKA_TOPIC)
+                        .flowClass("InboundKafkaTopicFlow").layer("layer_" + q % 20).count();
+            }
+            long indexed = (System.nanoTime() - start) / queries;
+
+            int scanQueries = 20;
+            int scanned = 0;
+            start = System.nanoTime();
+            for (int q = 0; q < scanQueries; q++) {
+                scanned += scan(maps, "layer_" + q % 20);
+            }
+            long scan = (System.nanoTime() - start) / scanQueries;
+
+            System.out.printf("%,d feeds: build %,d ms, reload after one edit %,d us (%s)%n",
+                    feeds, build / 1_000_000, incremental / 1_000, result);
+            System.out.printf("  query active+kafka-topic+flow-class+layer: indexed %,d us, scan of maps %,d us "
+                    + "(%d / %d matches per query)%n", indexed / 1_000, scan / 1_000, found / queries, scanned / scanQueries);
+        }
+    }
+
+    /**
+     * The query as {@code GeneratedClassesExample.processFeeds} style code answers it
+     */
+    @SuppressWarnings("unchecked")
+    private static int scan(List<Map<String, Object>> feeds, String layer) {
+        int matches = 0;
+        for (Map<String, Object> feed : feeds) {
+            Map<String, Object> topic = (Map<String, Object>) feed.get("kafka-topic");
+            if (!Boolean.FALSE.equals(feed.get("active")) && layer.equals(feed.get("layer"))
+                    && topic != null && "InboundKafkaTopicFlow".equals(topic.get("flow-class"))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,130 @@
+package com.demo.schema.feed;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a feed catalog (a YAML or JSON list of feed entries) into {@link FeedEntry}s, computing
+ * each entry's fingerprint in the same pass over the tokens that builds its tree.
+ */
+public class FeedCatalogReader {
+
+    /** Catalogs of thousands of feeds exceed SnakeYAML's default 3MB document limit */
+    private static final int MAX_CATALOG_CODE_POINTS = 256 * 1024 * 1024;
+
+    private final ObjectMapper yamlMapper;
+    private final NodeInterner interner;
+
+    public FeedCatalogReader() {
+        this(null);
+    }
+
+    /**
+     * @param interner Interner sharing equal strings and subtrees across entries, making entry
+     *                 nodes immutable; null to keep each entry's own tree
+     */
+    public FeedCatalogReader(NodeInterner interner) {
+        this.interner = interner;
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(MAX_CATALOG_CODE_POINTS);
+        this.yamlMapper = new ObjectMapper(YAMLFactory.builder().loaderOptions(options).build());
+    }
+
+    public List<FeedEntry> read(Path catalog) throws IOException {
+        try (InputStream in = Files.newInputStream(catalog)) {
+            return read(in);
+        }
+    }
+
+    public List<FeedEntry> read(byte[] catalog) throws IOException {
+        return read(new ByteArrayInputStream(catalog));
+    }
+
+    /**
+     * @param in YAML or JSON list of feed entries
+     * @return The entries in catalog order
+     * @throws IOException If the input cannot be parsed or is not a list
+     */
+    public List<FeedEntry> read(InputStream in) throws IOException {
+        List<FeedEntry> entries = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        try (JsonParser parser = yamlMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return entries;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IOException("Feed catalog must be a list, found " + token);
+            }
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("Feed catalog ended inside the list");
+                }
+                entries.add(readEntry(parser, entries.size(), keys));
+            }
+        }
+        return entries;
+    }
+
+    private FeedEntry readEntry(JsonParser parser, int index, Set<String> keys) throws IOException {
+        FeedFingerprint.Hasher hasher = new FeedFingerprint.Hasher();
+        TokenBuffer buffer = new TokenBuffer(parser);
+        int depth = 0;
+        JsonToken token = parser.currentToken();
+        while (true) {
+            switch (token) {
+                case FIELD_NAME:
+                case VALUE_STRING:
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    hasher.token(token, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    break;
+                default:
+                    hasher.token(token);
+            }
+            buffer.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 0) {
+                break;
+            }
+            token = parser.nextToken();
+            if (token == null) {
+                throw new IOException("Feed catalog ended inside entry " + index);
+            }
+        }
+
+        JsonNode node;
+        try (JsonParser replay = buffer.asParser(yamlMapper)) {
+            node = yamlMapper.readTree(replay);
+        }
+        if (interner != null) {
+            node = interner.intern(node);
+        }
+        JsonNode name = node.path("name");
+        String key = name.isTextual() ? name.textValue() : "";
+        if (key.isEmpty() || !keys.add(key)) {
+            key = key + "#" + index;
+            keys.add(key);
+        }
+        return new FeedEntry(index, key, node, hasher.finish());
+    }
+}
@@ -0,0 +1,53 @@
+package com.demo.schema.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One entry of a feed catalog with its structural fingerprint.
+ */
+public final class FeedEntry {
+
+    private final int index;
+    private final String key;
+    private final JsonNode node;
+    private final FeedFingerprint fingerprint;
+
+    FeedEntry(int index, String key, JsonNode node, FeedFingerprint fingerprint) {
+        this.index = index;
+        this.key = key;
+        this.node = node;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return Position of the entry in the catalog
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return The feed name; entries without a name, or repeating an earlier name, are keyed
+     *         by position as {@code "#<index>"} or {@code "<name>#<index>"}
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public JsonNode getNode() {
+        return node;
+    }
+
+    public FeedFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "FeedEntry{" +
+                "index=" + index +
+                ", key='" + key + '\'' +
+                ", fingerprint=" + fingerprint +
+                '}';
+    }
+}
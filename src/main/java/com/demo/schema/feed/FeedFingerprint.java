@@ -0,0 +1,87 @@
+package com.demo.schema.feed;
+
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * 128-bit structural fingerprint of one feed entry.
+ *
+ * Computed from the token stream while the entry is parsed: every token's kind, field name and
+ * scalar text feed two independent 64-bit hash lanes. Entries with the same fingerprint have,
+ * with overwhelming probability, the same structure and values, including key order; comments
+ * and formatting do not contribute.
+ */
+public final class FeedFingerprint {
+
+    private final long high;
+    private final long low;
+
+    FeedFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof FeedFingerprint)) {
+            return false;
+        }
+        FeedFingerprint that = (FeedFingerprint) other;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (high ^ (high >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    /**
+     * Incremental hasher; {@link #token} is called for every token of the entry in order
+     */
+    static final class Hasher {
+        private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+        private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+        private long fnv = FNV_OFFSET;
+        private long mix = GOLDEN;
+        private long length;
+
+        void token(JsonToken token, char[] text, int offset, int count) {
+            add(token.ordinal() + 0x10000);
+            for (int i = offset; i < offset + count; i++) {
+                add(text[i]);
+            }
+        }
+
+        void token(JsonToken token) {
+            add(token.ordinal() + 0x10000);
+        }
+
+        private void add(int value) {
+            fnv = (fnv ^ value) * FNV_PRIME;
+            mix = Long.rotateLeft(mix + value * GOLDEN, 31) * 0xbf58476d1ce4e5b9L;
+            length++;
+        }
+
+        FeedFingerprint finish() {
+            return new FeedFingerprint(finalizer(fnv ^ length), finalizer(mix + length));
+        }
+
+        private static long finalizer(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.demo.schema.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates feed catalogs entry by entry, remembering results by feed name and fingerprint.
+ *
+ * A catalog schema whose only array constraint is a single {@code items} schema is equivalent
+ * to validating each entry against that items schema. Each entry's report is kept under its
+ * key with its fingerprint; when the catalog is validated again, entries whose fingerprint is
+ * unchanged reuse the kept report and only new or edited entries are validated. Entries that
+ * disappeared from the catalog are forgotten.
+ *
+ * Catalog schemas with other array keywords ({@code minItems}, {@code uniqueItems}, tuple
+ * {@code items}, ...) are validated as a whole every time, without caching.
+ */
+public class IncrementalFeedValidator {
+
+    private static final Set<String> ARRAY_KEYWORDS = new HashSet<>(Arrays.asList(
+            "additionalItems", "minItems", "maxItems", "uniqueItems", "contains",
+            "allOf", "anyOf", "oneOf", "not", "enum", "$ref"));
+
+    private final JsonSchema catalogSchema;
+    private final JsonSchema entrySchema;
+    private final Map<String, Remembered> remembered = new ConcurrentHashMap<>();
+
+    /**
+     * @param schemaFactory Factory to compile the schema with
+     * @param catalogSchema Schema of the whole catalog
+     * @throws ProcessingException If the schema cannot be compiled
+     */
+    public IncrementalFeedValidator(JsonSchemaFactory schemaFactory, JsonNode catalogSchema) throws ProcessingException {
+        this.catalogSchema = schemaFactory.getJsonSchema(catalogSchema);
+        this.entrySchema = isPerEntry(catalogSchema) ? schemaFactory.getJsonSchema(catalogSchema, "/items") : null;
+    }
+
+    /**
+     * @return True if entries are validated and remembered one by one
+     */
+    public boolean isIncremental() {
+        return entrySchema != null;
+    }
+
+    /**
+     * Validate a catalog, reusing results of entries unchanged since the last call
+     * @param entries Entries read by {@link FeedCatalogReader}
+     * @return Per-entry results
+     * @throws ProcessingException If the schema cannot be processed
+     */
+    public CatalogResult validate(List<FeedEntry> entries) throws ProcessingException {
+        if (entrySchema == null) {
+            return new CatalogResult(catalogSchema.validate(wholeCatalog(entries)), Collections.<EntryResult>emptyList(), 1, 0);
+        }
+
+        List<EntryResult> results = new ArrayList<>(entries.size());
+        Set<String> keys = new HashSet<>();
+        int validated = 0;
+        int reused = 0;
+        for (FeedEntry entry : entries) {
+            keys.add(entry.getKey());
+            Remembered previous = remembered.get(entry.getKey());
+            ProcessingReport report;
+            if (previous != null && previous.fingerprint.equals(entry.getFingerprint())) {
+                report = previous.report;
+                reused++;
+            } else {
+                report = entrySchema.validate(entry.getNode());
+                remembered.put(entry.getKey(), new Remembered(entry.getFingerprint(), report));
+                validated++;
+            }
+            results.add(new EntryResult(entry, report, previous != null && previous.report == report));
+        }
+        remembered.keySet().retainAll(keys);
+        return new CatalogResult(null, results, validated, reused);
+    }
+
+    /**
+     * Forget all remembered results
+     */
+    public void clear() {
+        remembered.clear();
+    }
+
+    private static boolean isPerEntry(JsonNode schema) {
+        if (!schema.path("items").isObject()) {
+            return false;
+        }
+        for (String keyword : ARRAY_KEYWORDS) {
+            if (schema.has(keyword)) {
+                return false;
+            }
+        }
+        JsonNode type = schema.get("type");
+        return type == null || "array".equals(type.asText());
+    }
+
+    private static final class Remembered {
+        private final FeedFingerprint fingerprint;
+        private final ProcessingReport report;
+
+        Remembered(FeedFingerprint fingerprint, ProcessingReport report) {
+            this.fingerprint = fingerprint;
+            this.report = report;
+        }
+    }
+
+    /**
+     * Result of one entry
+     */
+    public static class EntryResult {
+        private final FeedEntry entry;
+        private final ProcessingReport report;
+        private final boolean reused;
+
+        EntryResult(FeedEntry entry, ProcessingReport report, boolean reused) {
+            this.entry = entry;
+            this.report = report;
+            this.reused = reused;
+        }
+
+        public FeedEntry getEntry() {
+            return entry;
+        }
+
+        public ProcessingReport getReport() {
+            return report;
+        }
+
+        public boolean isValid() {
+            return report.isSuccess();
+        }
+
+        /**
+         * @return True if the report was remembered from an earlier validation
+         */
+        public boolean isReused() {
+            return reused;
+        }
+    }
+
+    /**
+     * Result of a catalog
+     */
+    public static class CatalogResult {
+        private final ProcessingReport catalogReport;
+        private final List<EntryResult> entries;
+        private final int validatedCount;
+        private final int reusedCount;
+
+        CatalogResult(ProcessingReport catalogReport, List<EntryResult> entries, int validatedCount, int reusedCount) {
+            this.catalogReport = catalogReport;
+            this.entries = Collections.unmodifiableList(entries);
+            this.validatedCount = validatedCount;
+            this.reusedCount = reusedCount;
+        }
+
+        public boolean isSuccess() {
+            if (catalogReport != null) {
+                return catalogReport.isSuccess();
+            }
+            for (EntryResult entry : entries) {
+                if (!entry.isValid()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return Per-entry results, empty when the catalog was validated as a whole
+         */
+        public List<EntryResult> getEntries() {
+            return entries;
+        }
+
+        /**
+         * @return Report for the whole catalog when it could not be validated per entry, else null
+         */
+        public ProcessingReport getCatalogReport() {
+            return catalogReport;
+        }
+
+        /**
+         * @return Number of entries (or whole catalogs) actually validated
+         */
+        public int getValidatedCount() {
+            return validatedCount;
+        }
+
+        /**
+         * @return Number of entries whose remembered result was reused
+         */
+        public int getReusedCount() {
+            return reusedCount;
+        }
+    }
+
+    private static JsonNode wholeCatalog(List<FeedEntry> entries) {
+        ArrayNode catalog = JsonNodeFactory.instance.arrayNode();
+        for (FeedEntry entry : entries) {
+            catalog.add(entry.getNode());
+        }
+        return catalog;
+    }
+
+    /**
+     * Validate a generated catalog, edit one entry, and validate again.
+     * Usage: IncrementalFeedValidator [feed count]
+     */
+    public static void main(String[] args) throws IOException, ProcessingException {
+        int feeds = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        JsonNode schema = new ObjectMapper().readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        JsonNode kafka = yamlMapper.readTree(new File("src/main/resources/schema/feed_kafka_1.yaml")).get(0);
+        JsonNode file = yamlMapper.readTree(new File("src/main/resources/schema/feed_file_1.yaml")).get(0);
+
+        ArrayNode catalog = yamlMapper.createArrayNode();
+        for (int i = 0; i < feeds; i++) {
+            ObjectNode feed = (i % 2 == 0 ? kafka : file).deepCopy();
+            feed.put("name", "feed_" + i);
+            catalog.add(feed);
+        }
+        byte[] original = yamlMapper.writeValueAsBytes(catalog);
+        ((ObjectNode) catalog.get(feeds / 2)).put("layer", "edited");
+        byte[] edited = yamlMapper.writeValueAsBytes(catalog);
+
+        FeedCatalogReader reader = new FeedCatalogReader();
+        IncrementalFeedValidator validator = new IncrementalFeedValidator(JsonSchemaFactory.byDefault(), schema);
+        JsonSchema whole = JsonSchemaFactory.byDefault().getJsonSchema(schema);
+        for (int round = 0; round < 3; round++) {
+            validator.clear();
+            long start = System.nanoTime();
+            whole.validate(wholeCatalog(reader.read(edited)));
+            long full = System.nanoTime() - start;
+
+            CatalogResult first = validator.validate(reader.read(original));
+            start = System.nanoTime();
+            CatalogResult second = validator.validate(reader.read(edited));
+            long incremental = System.nanoTime() - start;
+
+            System.out.printf("%,d feeds: full parse+validate %,d ms; after one edit %,d ms "
+                            + "(validated %d, reused %d, valid %b/%b)%n",
+                    feeds, full / 1_000_000, incremental / 1_000_000,
+                    second.getValidatedCount(), second.getReusedCount(), first.isSuccess(), second.isSuccess());
+        }
+    }
+}
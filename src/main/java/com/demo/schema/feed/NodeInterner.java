@@ -0,0 +1,434 @@
+package com.demo.schema.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Hash-conses feed trees so that equal subtrees and strings are held once.
+ *
+ * {@link #intern} rebuilds a tree bottom-up: strings (field names and text values) are mapped to
+ * one canonical instance, scalar nodes to one canonical node per value, and containers to one
+ * canonical node per (field names, canonical children). Because children are canonical before
+ * their parent is looked up, container equality is checked by identity of the children and the
+ * whole tree is interned in time linear in its size.
+ *
+ * Returned containers are immutable: objects and arrays are backed by unmodifiable collections,
+ * so any mutator ({@code put}, {@code set}, {@code add}, {@code remove}, ...) throws
+ * {@link UnsupportedOperationException} rather than changing a node shared by other feeds.
+ * Use {@link JsonNode#deepCopy()} to get an editable copy.
+ *
+ * Not thread-safe; one interner is meant to serve one catalog load. Its tables hold every unique
+ * node, so keep it only as long as further trees should share with the loaded ones.
+ */
+public class NodeInterner {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<String, TextNode> texts = new HashMap<>();
+    private final Map<JsonNode, JsonNode> scalars = new HashMap<>();
+    private final Map<ContainerKey, JsonNode> containers = new HashMap<>();
+
+    private long nodeCount;
+    private long stringCount;
+    private long treeBytes;
+    private long internedBytes;
+
+    /**
+     * @param node Tree to intern; not modified
+     * @return Canonical immutable tree equal to the given one
+     */
+    public JsonNode intern(JsonNode node) {
+        nodeCount++;
+        if (node.isObject()) {
+            int size = node.size();
+            String[] names = new String[size];
+            JsonNode[] children = new JsonNode[size];
+            int i = 0;
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); i++) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                names[i] = string(field.getKey());
+                treeBytes += Footprint.stringBytes(field.getKey());
+                children[i] = intern(field.getValue());
+            }
+            treeBytes += Footprint.objectBytes(size);
+            return container(new ContainerKey(names, children));
+        }
+        if (node.isArray()) {
+            int size = node.size();
+            JsonNode[] children = new JsonNode[size];
+            for (int i = 0; i < size; i++) {
+                children[i] = intern(node.get(i));
+            }
+            treeBytes += Footprint.arrayBytes(size);
+            return container(new ContainerKey(null, children));
+        }
+        if (node.isTextual()) {
+            String text = node.textValue();
+            stringCount++;
+            treeBytes += Footprint.TEXT_NODE + Footprint.stringBytes(text);
+            TextNode canonical = texts.get(text);
+            if (canonical == null) {
+                canonical = TextNode.valueOf(canonical(text));
+                texts.put(canonical.textValue(), canonical);
+                internedBytes += Footprint.TEXT_NODE;
+            }
+            return canonical;
+        }
+        if (node.isBoolean() || node.isNull() || node.isMissingNode()) {
+            // Jackson singletons
+            return node;
+        }
+        treeBytes += Footprint.scalarBytes(node);
+        JsonNode canonical = scalars.get(node);
+        if (canonical == null) {
+            canonical = node;
+            scalars.put(node, node);
+            internedBytes += Footprint.scalarBytes(node);
+        }
+        return canonical;
+    }
+
+    /**
+     * @return Canonical instance of the string
+     */
+    public String string(String value) {
+        stringCount++;
+        return canonical(value);
+    }
+
+    private String canonical(String value) {
+        String canonical = strings.get(value);
+        if (canonical == null) {
+            canonical = value;
+            strings.put(value, value);
+            internedBytes += Footprint.stringBytes(value);
+        }
+        return canonical;
+    }
+
+    /**
+     * @return Counts and estimated sizes of everything interned so far
+     */
+    public Footprint footprint() {
+        return new Footprint(nodeCount, scalars.size() + texts.size() + containers.size(),
+                stringCount, strings.size(), treeBytes, internedBytes);
+    }
+
+    private JsonNode container(ContainerKey key) {
+        JsonNode canonical = containers.get(key);
+        if (canonical == null) {
+            if (key.names == null) {
+                canonical = new ArrayNode(NODES, Collections.unmodifiableList(Arrays.asList(key.children)));
+                internedBytes += Footprint.immutableArrayBytes(key.children.length);
+            } else {
+                canonical = new ObjectNode(NODES, new FieldMap(key.names, key.children));
+                internedBytes += Footprint.immutableObjectBytes(key.names.length);
+            }
+            containers.put(key, canonical);
+        }
+        return canonical;
+    }
+
+    /**
+     * Container identity: field names and children, both already canonical
+     */
+    private static final class ContainerKey {
+        private final String[] names;
+        private final JsonNode[] children;
+        private final int hash;
+
+        ContainerKey(String[] names, JsonNode[] children) {
+            this.names = names;
+            this.children = children;
+            int h = names == null ? 1 : 2;
+            for (int i = 0; i < children.length; i++) {
+                if (names != null) {
+                    h = 31 * h + names[i].hashCode();
+                }
+                h = 31 * h + System.identityHashCode(children[i]);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ContainerKey)) {
+                return false;
+            }
+            ContainerKey that = (ContainerKey) other;
+            if (hash != that.hash || (names == null) != (that.names == null)
+                    || children.length != that.children.length) {
+                return false;
+            }
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != that.children[i] || (names != null && names[i] != that.names[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Immutable insertion-ordered map over two arrays. Feed objects have a handful of fields, so
+     * a linear scan (by identity first, names being interned) beats hashing and saves the
+     * per-entry objects of a {@link java.util.LinkedHashMap}.
+     */
+    private static final class FieldMap extends AbstractMap<String, JsonNode> {
+        private final String[] names;
+        private final JsonNode[] values;
+
+        FieldMap(String[] names, JsonNode[] values) {
+            this.names = names;
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public JsonNode get(Object key) {
+            int i = indexOf(key);
+            return i < 0 ? null : values[i];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] == key) {
+                    return i;
+                }
+            }
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Set<Entry<String, JsonNode>> entrySet() {
+            return new AbstractSet<Entry<String, JsonNode>>() {
+                @Override
+                public int size() {
+                    return names.length;
+                }
+
+                @Override
+                public Iterator<Entry<String, JsonNode>> iterator() {
+                    return new Iterator<Entry<String, JsonNode>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < names.length;
+                        }
+
+                        @Override
+                        public Entry<String, JsonNode> next() {
+                            if (next >= names.length) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, JsonNode> entry = new SimpleImmutableEntry<>(names[next], values[next]);
+                            next++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * Footprint of interned trees, with sizes estimated for a 64-bit JVM with compressed
+     * references: "tree" bytes are what the same trees take as ordinary Jackson nodes, one copy
+     * per occurrence; "interned" bytes are what the canonical nodes and strings take.
+     * Interner tables are not included.
+     */
+    public static final class Footprint {
+
+        static final int TEXT_NODE = 16;
+
+        private final long nodes;
+        private final long uniqueNodes;
+        private final long strings;
+        private final long uniqueStrings;
+        private final long treeBytes;
+        private final long internedBytes;
+
+        Footprint(long nodes, long uniqueNodes, long strings, long uniqueStrings, long treeBytes, long internedBytes) {
+            this.nodes = nodes;
+            this.uniqueNodes = uniqueNodes;
+            this.strings = strings;
+            this.uniqueStrings = uniqueStrings;
+            this.treeBytes = treeBytes;
+            this.internedBytes = internedBytes;
+        }
+
+        /**
+         * @return Nodes visited
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * @return Canonical scalar and container nodes; boolean and null nodes are Jackson singletons
+         */
+        public long getUniqueNodes() {
+            return uniqueNodes;
+        }
+
+        /**
+         * @return Field names and text values visited
+         */
+        public long getStrings() {
+            return strings;
+        }
+
+        public long getUniqueStrings() {
+            return uniqueStrings;
+        }
+
+        public long getTreeBytes() {
+            return treeBytes;
+        }
+
+        public long getInternedBytes() {
+            return internedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("nodes %,d -> %,d unique; strings %,d -> %,d unique; "
+                            + "estimated %,d KB as plain trees -> %,d KB interned (%.1fx)",
+                    nodes, uniqueNodes, strings, uniqueStrings, treeBytes / 1024, internedBytes / 1024,
+                    internedBytes == 0 ? 1.0 : (double) treeBytes / internedBytes);
+        }
+
+        static long stringBytes(String value) {
+            // String (hash, coder, value) plus its Latin-1 or UTF-16 byte array
+            return 24 + align(16 + (long) value.length() * (isLatin1(value) ? 1 : 2));
+        }
+
+        static long scalarBytes(JsonNode node) {
+            return node.isInt() || node.isFloat() || node.isShort() ? 16 : node.isBigInteger() || node.isBigDecimal() ? 64 : 24;
+        }
+
+        static long objectBytes(int size) {
+            // ObjectNode, LinkedHashMap, its table, one entry per field; field names counted separately
+            int table = 16;
+            while (size > table * 3 / 4) {
+                table *= 2;
+            }
+            return 16 + 56 + align(16 + 4L * table) + 40L * size;
+        }
+
+        static long arrayBytes(int size) {
+            // ArrayNode, ArrayList and its element array as grown by add()
+            return 16 + 24 + align(16 + 4L * Math.max(10, size));
+        }
+
+        static long immutableObjectBytes(int size) {
+            // ObjectNode, FieldMap and its two arrays
+            return 16 + 24 + 2 * align(16 + 4L * size);
+        }
+
+        static long immutableArrayBytes(int size) {
+            // ArrayNode, unmodifiable wrapper, Arrays.asList and the array
+            return 16 + 24 + 16 + align(16 + 4L * size);
+        }
+
+        private static boolean isLatin1(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > 0xff) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+    }
+
+    /**
+     * Load a generated catalog with and without interning and compare the retained heap.
+     * Usage: NodeInterner [feed count]
+     */
+    public static void main(String[] args) throws IOException {
+        int feeds = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        JsonNode kafka = yamlMapper.readTree(new File("src/main/resources/schema/feed_kafka_1.yaml")).get(0);
+        JsonNode file = yamlMapper.readTree(new File("src/main/resources/schema/feed_file_1.yaml")).get(0);
+        ArrayNode catalog = yamlMapper.createArrayNode();
+        for (int i = 0; i < feeds; i++) {
+            ObjectNode feed = (i % 2 == 0 ? kafka : file).deepCopy();
+            feed.put("name", "feed_" + i);
+            // A few hundred distinct layers and watchers, as in a real estate of feeds
+            feed.put("layer", "layer_" + i % 16);
+            if (feed.has("file-watcher")) {
+                ((ObjectNode) feed.get("file-watcher")).put("inbound-uri", "inbound-uri-" + i % 200);
+            }
+            catalog.add(feed);
+        }
+        byte[] content = yamlMapper.writeValueAsBytes(catalog);
+        catalog = null;
+
+        long baseline = usedHeap();
+        List<FeedEntry> plain = new FeedCatalogReader().read(content);
+        long plainBytes = usedHeap() - baseline;
+        plain = null;
+
+        baseline = usedHeap();
+        NodeInterner interner = new NodeInterner();
+        List<FeedEntry> interned = new FeedCatalogReader(interner).read(content);
+        Footprint footprint = interner.footprint();
+        interner = null;
+        long internedBytes = usedHeap() - baseline;
+
+        System.out.printf("%,d feeds: plain trees %,d MB retained, interned %,d MB retained (%d entries)%n",
+                feeds, plainBytes >> 20, internedBytes >> 20, interned.size());
+        System.out.println(footprint);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,893 @@
+package com.demo.schema.hotpath;
+
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.InvalidSchemaException;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.AbstractProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.github.fge.jsonschema.processors.syntax.SyntaxValidator;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A schema with an allocation-free check for valid documents in front of the library's validator.
+ *
+ * The library builds a pointer, a context and a report for every value it visits, and a report
+ * per branch of {@code anyOf}/{@code oneOf}, even when the document is valid. Most documents are,
+ * so this class compiles the schema once into a tree of checks that walk the instance directly.
+ * The checks keep no pointers; members not named in {@code properties} are visited with
+ * per-thread visitors reused across documents. A document that passes therefore gets a shared
+ * success report without any allocation. A document that fails the check is validated again by
+ * the library, which gives exactly the report it always gave; only the valid case is faster.
+ *
+ * The check covers the draft-04 keywords {@code type}, {@code enum}, {@code properties},
+ * {@code additionalProperties}, {@code required}, {@code min/maxProperties}, {@code items},
+ * {@code additionalItems}, {@code min/maxItems}, {@code min/maxLength}, {@code minimum} and
+ * {@code maximum} with their exclusive forms, {@code allOf}, {@code anyOf}, {@code oneOf},
+ * {@code not} and local {@code $ref}s. A subschema using another validation keyword
+ * ({@code pattern}, {@code patternProperties}, {@code format}, {@code multipleOf},
+ * {@code uniqueItems}, {@code dependencies}) never passes for the instance types that keyword
+ * applies to, so such documents always take the library path. The check never passes a document
+ * the library rejects.
+ */
+public final class HotPathSchema {
+
+    private static final int TYPE_OBJECT = 1;
+    private static final int TYPE_ARRAY = 1 << 1;
+    private static final int TYPE_STRING = 1 << 2;
+    private static final int TYPE_BOOLEAN = 1 << 3;
+    private static final int TYPE_NULL = 1 << 4;
+    private static final int TYPE_INTEGER = 1 << 5;
+    private static final int TYPE_NUMBER = 1 << 6;
+    private static final int ALL_TYPES = (1 << 7) - 1;
+
+    private static final ProcessingReport PASSED = new PassedReport();
+    private static final ThreadLocal<MemberVisitors> VISITORS = ThreadLocal.withInitial(MemberVisitors::new);
+
+    private final JsonSchema fallback;
+    private final Check root;
+
+    private HotPathSchema(JsonSchema fallback, Check root) {
+        this.fallback = fallback;
+        this.root = root;
+    }
+
+    /**
+     * Compile the hot path for a schema. The library only checks a schema's syntax when it first
+     * validates against it, so a schema the default syntax validator rejects gets no hot path: every
+     * document goes to the library, which reports the schema as invalid.
+     * @param schemaNode The JSON schema
+     * @param fallback The same schema compiled by the library, used for documents that do not pass
+     * @return The schema
+     */
+    public static HotPathSchema compile(JsonNode schemaNode, JsonSchema fallback) {
+        boolean valid = DefaultSyntax.VALIDATOR.schemaIsValid(schemaNode);
+        return new HotPathSchema(fallback, valid ? new Compiler(schemaNode).compile() : Compiler.undecided());
+    }
+
+    /**
+     * Compile the hot path for a schema, falling back to the given factory's validator
+     * @throws ProcessingException If the factory's syntax validator rejects the schema
+     */
+    public static HotPathSchema compile(JsonNode schemaNode, JsonSchemaFactory factory) throws ProcessingException {
+        ProcessingReport syntax = factory.getSyntaxValidator().validateSchema(schemaNode);
+        for (ProcessingMessage message : syntax) {
+            if (message.getLogLevel().compareTo(LogLevel.ERROR) >= 0) {
+                throw new InvalidSchemaException(message);
+            }
+        }
+        return new HotPathSchema(factory.getJsonSchema(schemaNode), new Compiler(schemaNode).compile());
+    }
+
+    /**
+     * Validate a document
+     * @param instance The document
+     * @return A shared, immutable success report if the document passes the hot path, otherwise
+     *         the library's report
+     * @throws ProcessingException If the library cannot validate the document
+     */
+    public ProcessingReport validate(JsonNode instance) throws ProcessingException {
+        return root.test(instance) ? PASSED : fallback.validate(instance);
+    }
+
+    /**
+     * @return True if the document is valid; allocation-free when it passes the hot path
+     * @throws ProcessingException If the library cannot validate the document
+     */
+    public boolean isValid(JsonNode instance) throws ProcessingException {
+        return root.test(instance) || fallback.validate(instance).isSuccess();
+    }
+
+    /**
+     * @return True if the document passes the hot path; false means invalid or not decidable
+     *         without the library
+     */
+    public boolean passes(JsonNode instance) {
+        return root.test(instance);
+    }
+
+    /**
+     * @return The library's validator for the schema
+     */
+    public JsonSchema getFallback() {
+        return fallback;
+    }
+
+    /**
+     * Type bit of a node as the library classifies it: integers by token, so 1.0 is a number
+     */
+    private static int typeOf(JsonNode node) {
+        switch (node.getNodeType()) {
+            case OBJECT:
+                return TYPE_OBJECT;
+            case ARRAY:
+                return TYPE_ARRAY;
+            case STRING:
+                return TYPE_STRING;
+            case BOOLEAN:
+                return TYPE_BOOLEAN;
+            case NULL:
+                return TYPE_NULL;
+            case NUMBER:
+                return node.isIntegralNumber() ? TYPE_INTEGER : TYPE_NUMBER;
+            default:
+                // Binary, POJO and missing nodes are never passed
+                return 0;
+        }
+    }
+
+    /**
+     * The compiled checks of one subschema
+     */
+    private static final class Check {
+
+        /** Instance types the check cannot decide for; those never pass */
+        int undecided;
+        /** Target of a {@code $ref}; the other keywords are then ignored, as in draft-04 */
+        Check ref;
+        int types = ALL_TYPES;
+        JsonNode[] enumValues;
+
+        String[] required;
+        String[] propertyNames;
+        Check[] propertyChecks;
+        Set<String> declared;
+        boolean additionalPropertiesAllowed = true;
+        Check additionalProperties;
+        int minProperties;
+        int maxProperties = Integer.MAX_VALUE;
+
+        Check items;
+        Check[] tupleItems;
+        boolean additionalItemsAllowed = true;
+        Check additionalItems;
+        int minItems;
+        int maxItems = Integer.MAX_VALUE;
+
+        int minLength;
+        int maxLength = Integer.MAX_VALUE;
+        Limit minimum;
+        Limit maximum;
+
+        Check[] allOf;
+        Check[] anyOf;
+        Check[] oneOf;
+        Check not;
+
+        boolean test(JsonNode node) {
+            int type = typeOf(node);
+            if ((type & undecided) != 0 || type == 0) {
+                return false;
+            }
+            if (ref != null) {
+                return ref.test(node);
+            }
+            if ((types & type) == 0 && !(type == TYPE_INTEGER && (types & TYPE_NUMBER) != 0)) {
+                return false;
+            }
+            if (enumValues != null && !inEnum(node)) {
+                return false;
+            }
+            switch (type) {
+                case TYPE_OBJECT:
+                    if (!testObject(node)) {
+                        return false;
+                    }
+                    break;
+                case TYPE_ARRAY:
+                    if (!testArray(node)) {
+                        return false;
+                    }
+                    break;
+                case TYPE_STRING:
+                    if (minLength > 0 || maxLength < Integer.MAX_VALUE) {
+                        String text = node.textValue();
+                        int length = text.codePointCount(0, text.length());
+                        if (length < minLength || length > maxLength) {
+                            return false;
+                        }
+                    }
+                    break;
+                case TYPE_INTEGER:
+                case TYPE_NUMBER:
+                    if (minimum != null && !minimum.allowsAbove(node)) {
+                        return false;
+                    }
+                    if (maximum != null && !maximum.allowsBelow(node)) {
+                        return false;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return testCombinators(node);
+        }
+
+        private boolean testObject(JsonNode node) {
+            int size = node.size();
+            if (size < minProperties || size > maxProperties) {
+                return false;
+            }
+            if (required != null) {
+                for (String name : required) {
+                    if (node.get(name) == null) {
+                        return false;
+                    }
+                }
+            }
+            int present = 0;
+            if (propertyNames != null) {
+                for (int i = 0; i < propertyNames.length; i++) {
+                    JsonNode value = node.get(propertyNames[i]);
+                    if (value != null) {
+                        present++;
+                        if (!propertyChecks[i].test(value)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            if (present == size || additionalPropertiesAllowed && additionalProperties == null) {
+                return true;
+            }
+            if (!additionalPropertiesAllowed) {
+                return false;
+            }
+            // The member map's own forEach walks its entries without an iterator
+            MemberVisitors visitors = VISITORS.get();
+            MemberVisitor visitor = visitors.push(this);
+            try {
+                node.properties().forEach(visitor);
+                return visitor.passed;
+            } finally {
+                visitors.pop();
+            }
+        }
+
+        private boolean testArray(JsonNode node) {
+            int size = node.size();
+            if (size < minItems || size > maxItems) {
+                return false;
+            }
+            if (items != null) {
+                for (int i = 0; i < size; i++) {
+                    if (!items.test(node.get(i))) {
+                        return false;
+                    }
+                }
+            } else if (tupleItems != null) {
+                for (int i = 0; i < size; i++) {
+                    if (i < tupleItems.length) {
+                        if (!tupleItems[i].test(node.get(i))) {
+                            return false;
+                        }
+                    } else if (!additionalItemsAllowed) {
+                        return false;
+                    } else if (additionalItems != null && !additionalItems.test(node.get(i))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean testCombinators(JsonNode node) {
+            if (allOf != null) {
+                for (Check check : allOf) {
+                    if (!check.test(node)) {
+                        return false;
+                    }
+                }
+            }
+            if (anyOf != null) {
+                boolean any = false;
+                for (int i = 0; i < anyOf.length && !any; i++) {
+                    any = anyOf[i].test(node);
+                }
+                if (!any) {
+                    return false;
+                }
+            }
+            if (oneOf != null) {
+                int passed = 0;
+                for (int i = 0; i < oneOf.length && passed < 2; i++) {
+                    if (oneOf[i].test(node)) {
+                        passed++;
+                    }
+                }
+                if (passed != 1) {
+                    return false;
+                }
+            }
+            return not == null || !not.test(node);
+        }
+
+        private boolean inEnum(JsonNode node) {
+            for (JsonNode value : enumValues) {
+                if (equivalent(value, node)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Equality as the library's {@code enum} sees it: numbers compare by value
+         */
+        private static boolean equivalent(JsonNode a, JsonNode b) {
+            if (a.isNumber() && b.isNumber()) {
+                if (a.isIntegralNumber() && b.isIntegralNumber() && a.canConvertToLong() && b.canConvertToLong()) {
+                    return a.longValue() == b.longValue();
+                }
+                return a.decimalValue().compareTo(b.decimalValue()) == 0;
+            }
+            if (a.getNodeType() != b.getNodeType() || a.size() != b.size()) {
+                return false;
+            }
+            if (a.isArray()) {
+                for (int i = 0; i < a.size(); i++) {
+                    if (!equivalent(a.get(i), b.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (a.isObject()) {
+                for (Iterator<Map.Entry<String, JsonNode>> fields = a.fields(); fields.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    JsonNode other = b.get(field.getKey());
+                    if (other == null || !equivalent(field.getValue(), other)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return a.equals(b);
+        }
+    }
+
+    /**
+     * Tests the members of an object that {@code properties} does not declare against
+     * {@code additionalProperties}
+     */
+    private static final class MemberVisitor implements Consumer<Map.Entry<String, JsonNode>> {
+
+        private Check check;
+        private boolean passed;
+
+        @Override
+        public void accept(Map.Entry<String, JsonNode> member) {
+            if (passed && (check.declared == null || !check.declared.contains(member.getKey()))) {
+                passed = check.additionalProperties.test(member.getValue());
+            }
+        }
+    }
+
+    /**
+     * The member visitors of one thread, one per level of nested objects being visited. They are
+     * created as deeper levels are first reached and reused for every document after that.
+     */
+    private static final class MemberVisitors {
+
+        private MemberVisitor[] stack = new MemberVisitor[8];
+        private int depth;
+
+        MemberVisitor push(Check check) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+            }
+            MemberVisitor visitor = stack[depth];
+            if (visitor == null) {
+                visitor = new MemberVisitor();
+                stack[depth] = visitor;
+            }
+            depth++;
+            visitor.check = check;
+            visitor.passed = true;
+            return visitor;
+        }
+
+        void pop() {
+            stack[--depth].check = null;
+        }
+    }
+
+    /**
+     * A {@code minimum} or {@code maximum}, compared without allocating for long and double
+     * instances. The library compares longs exactly and everything else as {@link BigDecimal};
+     * a double compares to an exactly representable limit the same way its decimal form does.
+     */
+    private static final class Limit {
+
+        private final boolean exclusive;
+        private final boolean isLong;
+        private final long longValue;
+        private final boolean doubleExact;
+        private final double doubleValue;
+        private final BigDecimal decimalValue;
+
+        Limit(JsonNode number, boolean exclusive) {
+            this.exclusive = exclusive;
+            this.isLong = number.isIntegralNumber() && number.canConvertToLong();
+            this.longValue = number.longValue();
+            this.decimalValue = number.decimalValue();
+            this.doubleValue = number.doubleValue();
+            this.doubleExact = !Double.isInfinite(doubleValue)
+                    && new BigDecimal(doubleValue).compareTo(decimalValue) == 0;
+        }
+
+        boolean allowsAbove(JsonNode node) {
+            int cmp = compare(node);
+            return exclusive ? cmp > 0 : cmp >= 0;
+        }
+
+        boolean allowsBelow(JsonNode node) {
+            int cmp = compare(node);
+            return exclusive ? cmp < 0 : cmp <= 0;
+        }
+
+        private int compare(JsonNode node) {
+            if (isLong && node.isIntegralNumber() && node.canConvertToLong()) {
+                return Long.compare(node.longValue(), longValue);
+            }
+            if (doubleExact && (node.isDouble() || node.isFloat())) {
+                double value = node.doubleValue();
+                return value < doubleValue ? -1 : value > doubleValue ? 1 : 0;
+            }
+            return node.decimalValue().compareTo(decimalValue);
+        }
+    }
+
+    /**
+     * Builds the checks, one per subschema, resolving local references
+     */
+    private static final class Compiler {
+
+        private static final Set<String> UNSUPPORTED_OBJECT = new HashSet<>(
+                Arrays.asList("patternProperties", "dependencies"));
+
+        private final JsonNode rootSchema;
+        private final boolean usesIds;
+        private final Map<JsonNode, Check> compiled = new IdentityHashMap<>();
+        /** Checks of the same instance reached without descending: refs and combinators */
+        private final Map<Check, List<Check>> sameInstance = new IdentityHashMap<>();
+        private final Map<Check, List<Check>> children = new IdentityHashMap<>();
+        private final Set<Check> strictCombinators = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Compiler(JsonNode rootSchema) {
+            this.rootSchema = rootSchema;
+            boolean usesIds = false;
+            for (JsonNode id : rootSchema.findValues("id")) {
+                usesIds |= id.isTextual();
+            }
+            this.usesIds = usesIds;
+        }
+
+        Check compile() {
+            if (rootSchema.path("$schema").asText("").contains("draft-03")) {
+                // Draft-03 keywords mean something else; let the library handle it all
+                return undecided();
+            }
+            Check root = check(rootSchema);
+            markValidationLoops();
+            markUndecidedCombinators();
+            return root;
+        }
+
+        /**
+         * @return A check that leaves every document to the library
+         */
+        static Check undecided() {
+            Check check = new Check();
+            check.undecided = ALL_TYPES;
+            return check;
+        }
+
+        private Check check(JsonNode schema) {
+            Check check = compiled.get(schema);
+            if (check != null) {
+                return check;
+            }
+            check = new Check();
+            compiled.put(schema, check);
+            children.put(check, new ArrayList<>());
+            sameInstance.put(check, new ArrayList<>());
+            if (!schema.isObject()) {
+                check.undecided = ALL_TYPES;
+                return check;
+            }
+            try {
+                fill(check, schema);
+            } catch (UnsupportedSchemaException e) {
+                check.undecided = ALL_TYPES;
+            }
+            return check;
+        }
+
+        private void fill(Check check, JsonNode schema) {
+            JsonNode ref = schema.get("$ref");
+            if (ref != null) {
+                String target = ref.isTextual() ? ref.textValue() : "";
+                if (usesIds || !target.startsWith("#") || target.indexOf('%') >= 0) {
+                    throw new UnsupportedSchemaException();
+                }
+                JsonNode resolved = target.length() == 1 ? rootSchema : rootSchema.at(target.substring(1));
+                if (resolved.isMissingNode()) {
+                    throw new UnsupportedSchemaException();
+                }
+                check.ref = check(resolved);
+                edge(check, check.ref, true);
+                return;
+            }
+            if (schema.has("pattern") || schema.has("format")) {
+                check.undecided |= TYPE_STRING;
+            }
+            if (schema.has("format") || schema.has("multipleOf")) {
+                check.undecided |= TYPE_INTEGER | TYPE_NUMBER;
+            }
+            for (String keyword : UNSUPPORTED_OBJECT) {
+                if (schema.has(keyword)) {
+                    check.undecided |= TYPE_OBJECT;
+                }
+            }
+            if (schema.path("uniqueItems").asBoolean(false)) {
+                check.undecided |= TYPE_ARRAY;
+            }
+
+            JsonNode type = schema.get("type");
+            if (type != null && type.isArray()) {
+                check.types = 0;
+                for (JsonNode name : type) {
+                    check.types |= typeBit(name);
+                }
+            } else if (type != null) {
+                check.types = typeBit(type);
+            }
+            JsonNode enumValues = schema.get("enum");
+            if (enumValues != null) {
+                check.enumValues = toArray(array(enumValues));
+            }
+
+            JsonNode required = schema.get("required");
+            if (required != null) {
+                List<String> names = new ArrayList<>();
+                for (JsonNode name : array(required)) {
+                    names.add(text(name));
+                }
+                check.required = names.toArray(new String[0]);
+            }
+            JsonNode properties = schema.get("properties");
+            if (properties != null) {
+                if (!properties.isObject()) {
+                    throw new UnsupportedSchemaException();
+                }
+                List<String> names = new ArrayList<>();
+                properties.fieldNames().forEachRemaining(names::add);
+                check.propertyNames = names.toArray(new String[0]);
+                check.propertyChecks = new Check[names.size()];
+                for (int i = 0; i < names.size(); i++) {
+                    check.propertyChecks[i] = child(check, properties.get(names.get(i)));
+                }
+                check.declared = new HashSet<>(names);
+            }
+            JsonNode additionalProperties = schema.get("additionalProperties");
+            if (additionalProperties != null) {
+                if (additionalProperties.isBoolean()) {
+                    check.additionalPropertiesAllowed = additionalProperties.booleanValue();
+                } else {
+                    check.additionalProperties = child(check, additionalProperties);
+                }
+            }
+            check.minProperties = count(schema, "minProperties", 0);
+            check.maxProperties = count(schema, "maxProperties", Integer.MAX_VALUE);
+
+            JsonNode items = schema.get("items");
+            if (items != null) {
+                if (items.isArray()) {
+                    check.tupleItems = new Check[items.size()];
+                    for (int i = 0; i < items.size(); i++) {
+                        check.tupleItems[i] = child(check, items.get(i));
+                    }
+                    JsonNode additionalItems = schema.get("additionalItems");
+                    if (additionalItems != null) {
+                        if (additionalItems.isBoolean()) {
+                            check.additionalItemsAllowed = additionalItems.booleanValue();
+                        } else {
+                            check.additionalItems = child(check, additionalItems);
+                        }
+                    }
+                } else {
+                    check.items = child(check, items);
+                }
+            }
+            check.minItems = count(schema, "minItems", 0);
+            check.maxItems = count(schema, "maxItems", Integer.MAX_VALUE);
+
+            check.minLength = count(schema, "minLength", 0);
+            check.maxLength = count(schema, "maxLength", Integer.MAX_VALUE);
+            JsonNode minimum = schema.get("minimum");
+            if (minimum != null) {
+                check.minimum = new Limit(number(minimum), schema.path("exclusiveMinimum").asBoolean(false));
+            }
+            JsonNode maximum = schema.get("maximum");
+            if (maximum != null) {
+                check.maximum = new Limit(number(maximum), schema.path("exclusiveMaximum").asBoolean(false));
+            }
+
+            check.allOf = combinator(check, schema.get("allOf"), false);
+            check.anyOf = combinator(check, schema.get("anyOf"), false);
+            check.oneOf = combinator(check, schema.get("oneOf"), true);
+            JsonNode not = schema.get("not");
+            if (not != null) {
+                check.not = check(not);
+                edge(check, check.not, true);
+                strictCombinators.add(check);
+            }
+        }
+
+        private Check child(Check parent, JsonNode schema) {
+            Check child = check(schema);
+            edge(parent, child, false);
+            return child;
+        }
+
+        private Check[] combinator(Check parent, JsonNode branches, boolean strict) {
+            if (branches == null) {
+                return null;
+            }
+            if (strict) {
+                strictCombinators.add(parent);
+            }
+            List<Check> checks = new ArrayList<>();
+            for (JsonNode branch : array(branches)) {
+                Check check = check(branch);
+                edge(parent, check, true);
+                checks.add(check);
+            }
+            return checks.toArray(new Check[0]);
+        }
+
+        private void edge(Check from, Check to, boolean same) {
+            children.get(from).add(to);
+            if (same) {
+                sameInstance.get(from).add(to);
+            }
+        }
+
+
+        /**
+         * The library stops on a schema that reaches itself for the same instance; leave those
+         * to it
+         */
+        private void markValidationLoops() {
+            for (Check check : sameInstance.keySet()) {
+                if (reachesItself(check, check, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+                    check.undecided = ALL_TYPES;
+                }
+            }
+        }
+
+        private boolean reachesItself(Check start, Check from, Set<Check> seen) {
+            for (Check next : sameInstance.get(from)) {
+                if (next == start) {
+                    return true;
+                }
+                if (seen.add(next) && reachesItself(start, next, seen)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * A false from an undecided branch may be a valid branch, which would make {@code oneOf}
+         * or {@code not} pass wrongly; such combinators are left undecided themselves
+         */
+        private void markUndecidedCombinators() {
+            for (Check check : strictCombinators) {
+                List<Check> branches = new ArrayList<>();
+                if (check.oneOf != null) {
+                    Collections.addAll(branches, check.oneOf);
+                }
+                if (check.not != null) {
+                    branches.add(check.not);
+                }
+                for (Check branch : branches) {
+                    if (reachesUndecided(branch, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+                        check.undecided = ALL_TYPES;
+                        break;
+                    }
+                }
+            }
+        }
+
+        private boolean reachesUndecided(Check check, Set<Check> seen) {
+            if (check.undecided != 0) {
+                return true;
+            }
+            if (!seen.add(check)) {
+                return false;
+            }
+            for (Check child : children.get(check)) {
+                if (reachesUndecided(child, seen)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int typeBit(JsonNode name) {
+            switch (text(name)) {
+                case "object":
+                    return TYPE_OBJECT;
+                case "array":
+                    return TYPE_ARRAY;
+                case "string":
+                    return TYPE_STRING;
+                case "boolean":
+                    return TYPE_BOOLEAN;
+                case "null":
+                    return TYPE_NULL;
+                case "integer":
+                    return TYPE_INTEGER;
+                case "number":
+                    return TYPE_NUMBER;
+                default:
+                    throw new UnsupportedSchemaException();
+            }
+        }
+
+        private static JsonNode array(JsonNode node) {
+            if (!node.isArray()) {
+                throw new UnsupportedSchemaException();
+            }
+            return node;
+        }
+
+        private static JsonNode[] toArray(JsonNode array) {
+            JsonNode[] values = new JsonNode[array.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = array.get(i);
+            }
+            return values;
+        }
+
+        private static String text(JsonNode node) {
+            if (!node.isTextual()) {
+                throw new UnsupportedSchemaException();
+            }
+            return node.textValue();
+        }
+
+        private static JsonNode number(JsonNode node) {
+            if (!node.isNumber()) {
+                throw new UnsupportedSchemaException();
+            }
+            return node;
+        }
+
+        private static int count(JsonNode schema, String keyword, int absent) {
+            JsonNode value = schema.get(keyword);
+            if (value == null) {
+                return absent;
+            }
+            if (!value.isIntegralNumber() || !value.canConvertToInt() || value.intValue() < 0) {
+                throw new UnsupportedSchemaException();
+            }
+            return value.intValue();
+        }
+    }
+
+    /**
+     * A subschema the hot path does not understand; it is left to the library
+     */
+    private static final class UnsupportedSchemaException extends RuntimeException {
+        UnsupportedSchemaException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Syntax validator of the default factory, built on first use
+     */
+    private static final class DefaultSyntax {
+        static final SyntaxValidator VALIDATOR = JsonSchemaFactory.byDefault().getSyntaxValidator();
+    }
+
+    /**
+     * The report returned for documents that pass the hot path. It is shared, so it cannot be
+     * logged to.
+     */
+    private static final class PassedReport extends AbstractProcessingReport {
+
+        @Override
+        public void log(LogLevel level, ProcessingMessage message) {
+            throw new UnsupportedOperationException("The report of a document that passed the hot path is shared");
+        }
+
+        @Override
+        public Iterator<ProcessingMessage> iterator() {
+            return Collections.<ProcessingMessage>emptyList().iterator();
+        }
+    }
+
+    /**
+     * Compare the library and the hot path on the sample kafka feed: time and bytes allocated per
+     * valid document.
+     *
+     * Usage: HotPathSchema [iterations]
+     */
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        JsonNode schemaNode = new ObjectMapper().readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        HotPathSchema schema = compile(schemaNode, JsonSchemaFactory.byDefault());
+        JsonNode feeds = new SchemaValidator().loadYaml("src/main/resources/schema/feed_kafka_1.yaml");
+        if (!schema.passes(feeds)) {
+            System.out.println("The sample feed does not pass the hot path");
+            return;
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int pass = 0; pass < 3; pass++) {
+            int libraryIterations = iterations / 20;
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < libraryIterations; i++) {
+                schema.getFallback().validate(feeds);
+            }
+            long libraryNanos = (System.nanoTime() - start) / libraryIterations;
+            long libraryBytes = (threads.getThreadAllocatedBytes(thread) - allocated) / libraryIterations;
+
+            allocated = threads.getThreadAllocatedBytes(thread);
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                schema.validate(feeds);
+            }
+            long hotNanos = (System.nanoTime() - start) / iterations;
+            long hotBytes = (threads.getThreadAllocatedBytes(thread) - allocated) / iterations;
+
+            System.out.printf("Pass %d: library %,d ns and %,d bytes per document, hot path %,d ns and %,d bytes%n",
+                    pass + 1, libraryNanos, libraryBytes, hotNanos, hotBytes);
+        }
+    }
+}
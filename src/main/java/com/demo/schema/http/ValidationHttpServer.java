@@ -0,0 +1,244 @@
+package com.demo.schema.http;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.MessageValidator.ValidationResult;
+import com.demo.schema.registry.SchemaRegistry;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded HTTP front end for {@link MessageValidator}.
+ *
+ * Schemas are compiled once at startup and addressed by name:
+ * <pre>
+ *   GET  /schemas                  names of the loaded schemas
+ *   POST /validate/{schema}        validate one JSON message
+ *   POST /validate/{schema}/batch  validate a JSON array of messages
+ * </pre>
+ * Request bodies are handed to the JSON parser as a stream, and batch bodies are parsed one
+ * element at a time. Responses always carry a Content-Length, so clients can keep the
+ * connection alive and send further requests on it.
+ *
+ * Response headers and body go out in separate writes, so without TCP_NODELAY every keep-alive
+ * round trip waits for the client's delayed ACK (~40ms). The JDK server only reads that setting
+ * from the JVM-wide {@code sun.net.httpserver.nodelay} property, which applies to every
+ * {@link HttpServer} in the process. Embedding applications should pass
+ * {@code -Dsun.net.httpserver.nodelay=true} at launch; {@link #main} sets it via
+ * {@link #enableNoDelay()}.
+ */
+public class ValidationHttpServer {
+
+    private static final String VALIDATE_PATH = "/validate/";
+    private static final String BATCH_SUFFIX = "/batch";
+
+    private final MessageValidator validator;
+    private final Map<String, JsonSchema> schemas;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param validator Validator used for each message
+     * @param schemas Compiled schemas keyed by the name used in request paths
+     * @param address Address to bind to; port 0 picks a free port
+     * @param threads Number of request handling threads
+     * @throws IOException If the server socket cannot be bound
+     */
+    public ValidationHttpServer(MessageValidator validator, Map<String, JsonSchema> schemas,
+                                InetSocketAddress address, int threads) throws IOException {
+        this.validator = validator;
+        this.schemas = Collections.unmodifiableMap(new LinkedHashMap<>(schemas));
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server.setExecutor(executor);
+        this.server.createContext("/schemas", this::handleSchemas);
+        this.server.createContext(VALIDATE_PATH, this::handleValidate);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop accepting connections and wait up to the given delay for running exchanges
+     * @param delaySeconds Maximum time to wait for running exchanges
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Port the server is listening on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleSchemas(HttpExchange exchange) throws IOException {
+        try {
+            drain(exchange.getRequestBody());
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+            ArrayNode names = objectMapper.createArrayNode();
+            schemas.keySet().forEach(names::add);
+            send(exchange, 200, names);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleValidate(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                drain(exchange.getRequestBody());
+                sendError(exchange, 405, "Only POST is supported");
+                return;
+            }
+
+            String name = exchange.getRequestURI().getPath().substring(VALIDATE_PATH.length());
+            boolean batch = name.endsWith(BATCH_SUFFIX);
+            if (batch) {
+                name = name.substring(0, name.length() - BATCH_SUFFIX.length());
+            }
+
+            JsonSchema schema = schemas.get(name);
+            if (schema == null) {
+                drain(exchange.getRequestBody());
+                sendError(exchange, 404, "Unknown schema: " + name);
+                return;
+            }
+
+            if (batch) {
+                handleBatch(exchange, schema);
+            } else {
+                ValidationResult result = validator.validate(schema, exchange.getRequestBody());
+                send(exchange, 200, toJson(result));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange, JsonSchema schema) throws IOException {
+        ArrayNode results = objectMapper.createArrayNode();
+        boolean allValid = true;
+        try (JsonParser parser = objectMapper.getFactory().createParser(exchange.getRequestBody())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                sendError(exchange, 400, "Batch body must be a JSON array");
+                return;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    sendError(exchange, 400, "Batch body ended before the closing bracket");
+                    return;
+                }
+                JsonNode message = parser.readValueAsTree();
+                ValidationResult result = validator.validate(schema, message);
+                allValid &= result.isValid();
+                results.add(toJson(result));
+            }
+        } catch (JsonProcessingException e) {
+            sendError(exchange, 400, "JSON Parsing Error: " + e.getOriginalMessage());
+            return;
+        }
+
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("valid", allValid);
+        body.put("count", results.size());
+        body.set("results", results);
+        send(exchange, 200, body);
+    }
+
+    private ObjectNode toJson(ValidationResult result) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("valid", result.isValid());
+        node.put("details", result.getDetails());
+        return node;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("error", message);
+        send(exchange, status, body);
+    }
+
+    private void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Consume any unread request body so the connection can be reused
+     */
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (in.read(buffer) != -1) {
+            // discard
+        }
+    }
+
+    /**
+     * Turn on TCP_NODELAY for every JDK {@link HttpServer} in this process, unless the
+     * {@code sun.net.httpserver.nodelay} property is already set. Only for standalone launchers:
+     * it must run before the first server is created, and it changes servers the caller does not own.
+     */
+    public static void enableNoDelay() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Start a server with the bundled message and feed schemas.
+     * Usage: ValidationHttpServer [port] [threads]
+     */
+    public static void main(String[] args) throws Exception {
+        enableNoDelay();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        MessageValidator validator = new MessageValidator();
+        SchemaRegistry registry = new SchemaRegistry(validator);
+        registry.register("message", "schema.json");
+        registry.register("feeds", "schema/feeds_schema.json");
+        registry.warmUp(2000);
+        Map<String, JsonSchema> schemas = registry.asMap();
+
+        ValidationHttpServer server = new ValidationHttpServer(validator, schemas, new InetSocketAddress(port), threads);
+        server.start();
+        System.out.println("Validation server listening on port " + server.getPort() + " with schemas " + schemas.keySet());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+    }
+}
@@ -0,0 +1,236 @@
+package com.demo.schema.http;
+
+import com.demo.schema.MessageValidator;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load-test harness for {@link ValidationHttpServer} on localhost.
+ *
+ * Starts an embedded server on a free port (unless a port is given), then drives it from a
+ * number of client connections and prints throughput and latency percentiles. Two client
+ * modes are supported:
+ * <ul>
+ *   <li>{@code keepalive} - one request at a time per persistent connection</li>
+ *   <li>{@code pipeline}  - {@code depth} requests written back to back before reading the
+ *       responses, on a raw socket</li>
+ * </ul>
+ * Usage: ValidationLoadTest [keepalive|pipeline] [connections] [requestsPerConnection] [depth] [port]
+ */
+public class ValidationLoadTest {
+
+    private static final String MESSAGE_PATH = "src/main/resources/message.json";
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "keepalive";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int requestsPerConnection = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        ValidationHttpServer server = null;
+        if (port == 0) {
+            ValidationHttpServer.enableNoDelay();
+            MessageValidator validator = new MessageValidator();
+            JsonSchema schema = validator.loadSchema("schema.json");
+            server = new ValidationHttpServer(validator, Collections.singletonMap("message", schema),
+                    new InetSocketAddress("localhost", 0), Runtime.getRuntime().availableProcessors());
+            server.start();
+            port = server.getPort();
+        }
+
+        byte[] body = Files.readAllBytes(Paths.get(MESSAGE_PATH));
+        try {
+            System.out.println("Warming up...");
+            run(mode, port, body, connections, Math.max(1, requestsPerConnection / 10), depth);
+            System.out.println("Running " + mode + " with " + connections + " connections x "
+                    + requestsPerConnection + " requests" + ("pipeline".equals(mode) ? ", depth " + depth : ""));
+            run(mode, port, body, connections, requestsPerConnection, depth).print();
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+
+    private static Stats run(String mode, int port, byte[] body, int connections, int requests, int depth)
+            throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                Callable<long[]> client = "pipeline".equals(mode)
+                        ? () -> pipelineClient(port, body, requests, depth)
+                        : () -> keepAliveClient(port, body, requests);
+                futures.add(clients.submit(client));
+            }
+            List<long[]> latencies = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                latencies.add(future.get());
+            }
+            return new Stats(latencies, System.nanoTime() - start);
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    /**
+     * Sequential requests over a persistent HttpURLConnection. Reading each response fully
+     * returns the socket to the JDK keep-alive cache for the next request.
+     */
+    private static long[] keepAliveClient(int port, byte[] body, int requests) throws IOException {
+        URL url = new URL("http://localhost:" + port + "/validate/message");
+        long[] latencies = new long[requests];
+        byte[] buffer = new byte[8192];
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            if (connection.getResponseCode() != 200) {
+                throw new IOException("Unexpected status " + connection.getResponseCode());
+            }
+            try (InputStream in = connection.getInputStream()) {
+                while (in.read(buffer) != -1) {
+                    // discard
+                }
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    /**
+     * Pipelined requests over a raw socket: up to {@code depth} requests are in flight at once
+     * and responses are matched to requests in order. Latency is measured from the write of a
+     * request to the read of its response.
+     */
+    private static long[] pipelineClient(int port, byte[] body, int requests, int depth) throws IOException {
+        byte[] head = ("POST /validate/message HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream request = new ByteArrayOutputStream(head.length + body.length);
+        request.write(head);
+        request.write(body);
+        byte[] requestBytes = request.toByteArray();
+
+        long[] latencies = new long[requests];
+        long[] sentAt = new long[requests];
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            int sent = 0;
+            int received = 0;
+            while (received < requests) {
+                while (sent < requests && sent - received < depth) {
+                    sentAt[sent] = System.nanoTime();
+                    out.write(requestBytes);
+                    sent++;
+                }
+                out.flush();
+                readResponse(in);
+                latencies[received] = System.nanoTime() - sentAt[received];
+                received++;
+            }
+        }
+        return latencies;
+    }
+
+    private static void readResponse(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        if (!statusLine.startsWith("HTTP/1.1 200")) {
+            throw new IOException("Unexpected response: " + statusLine);
+        }
+        int contentLength = -1;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Content-Length")) {
+                contentLength = Integer.parseInt(line.substring(colon + 1).trim());
+            }
+        }
+        if (contentLength < 0) {
+            throw new IOException("Response without Content-Length");
+        }
+        for (int i = 0; i < contentLength; i++) {
+            if (in.read() == -1) {
+                throw new IOException("Connection closed mid-response");
+            }
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c == -1) {
+                throw new IOException("Connection closed mid-response");
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private static final class Stats {
+        private final long[] latencies;
+        private final long elapsedNanos;
+
+        Stats(List<long[]> perConnection, long elapsedNanos) {
+            int total = 0;
+            for (long[] l : perConnection) {
+                total += l.length;
+            }
+            this.latencies = new long[total];
+            int offset = 0;
+            for (long[] l : perConnection) {
+                System.arraycopy(l, 0, latencies, offset, l.length);
+                offset += l.length;
+            }
+            Arrays.sort(latencies);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        long percentile(double p) {
+            int index = (int) Math.ceil(p / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+
+        void print() {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("Requests:   %d in %.2f s%n", latencies.length, seconds);
+            System.out.printf("Throughput: %.0f req/s%n", latencies.length / seconds);
+            System.out.printf("Latency:    p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                    percentile(50) / 1e6, percentile(99) / 1e6, latencies[latencies.length - 1] / 1e6);
+        }
+    }
+}
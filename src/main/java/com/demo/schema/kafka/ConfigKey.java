@@ -0,0 +1,76 @@
+package com.demo.schema.kafka;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Name of a Kafka config property. The well-known names declared here are canonical: there is
+ * one instance of each, so the rules look them up by identity. Any other name comes from feed
+ * input and gets a new key that is not retained anywhere, so a catalog with arbitrary config
+ * names cannot grow a global table; such keys compare by name.
+ */
+public final class ConfigKey {
+
+    /** Written only while the class initializes */
+    private static final Map<String, ConfigKey> WELL_KNOWN = new HashMap<>();
+
+    public static final ConfigKey SECURITY_PROTOCOL = wellKnown("security.protocol");
+    public static final ConfigKey PORT = wellKnown("port");
+    public static final ConfigKey MAX_POLL_RECORDS = wellKnown("max.poll.records");
+    public static final ConfigKey ENABLE_AUTO_COMMIT = wellKnown("enable.auto.commit");
+
+    private final String name;
+    private final boolean canonical;
+
+    private ConfigKey(String name, boolean canonical) {
+        this.name = name;
+        this.canonical = canonical;
+    }
+
+    private static ConfigKey wellKnown(String name) {
+        ConfigKey key = new ConfigKey(name, true);
+        WELL_KNOWN.put(name, key);
+        return key;
+    }
+
+    /**
+     * @return The canonical key of a well-known name, otherwise a new key for the name
+     */
+    public static ConfigKey of(String name) {
+        ConfigKey key = WELL_KNOWN.get(name);
+        return key != null ? key : new ConfigKey(name, false);
+    }
+
+    /**
+     * @return The canonical key of a well-known name, or null for any other name
+     */
+    public static ConfigKey find(String name) {
+        return WELL_KNOWN.get(name);
+    }
+
+    /**
+     * @return True if this is the only instance for its name, so identity decides equality
+     */
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof ConfigKey && name.equals(((ConfigKey) other).name));
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
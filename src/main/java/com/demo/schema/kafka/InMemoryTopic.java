@@ -0,0 +1,102 @@
+package com.demo.schema.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-partition, in-memory stand-in for a Kafka topic, so the consumer loop can run
+ * offline. Records are addressed by offset, and committed offsets are kept per consumer group
+ * with Kafka's convention: the committed offset is the next offset to consume.
+ */
+public class InMemoryTopic {
+
+    private final String name;
+    private final List<byte[]> log = new ArrayList<>();
+    private final Map<String, Long> committed = new HashMap<>();
+
+    public InMemoryTopic(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Append a record to the end of the log
+     * @param value Record value
+     * @return Offset of the appended record
+     */
+    public synchronized long append(byte[] value) {
+        log.add(value);
+        return log.size() - 1;
+    }
+
+    /**
+     * Fetch up to maxRecords records starting at the given offset
+     * @param fromOffset First offset to return
+     * @param maxRecords Maximum number of records, as in {@code max.poll.records}
+     * @return Records in offset order; empty when the consumer has caught up
+     */
+    public synchronized List<ConsumerRecord> poll(long fromOffset, int maxRecords) {
+        if (fromOffset >= log.size()) {
+            return Collections.emptyList();
+        }
+        int from = (int) fromOffset;
+        int to = Math.min(log.size(), from + maxRecords);
+        List<ConsumerRecord> records = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            records.add(new ConsumerRecord(name, i, log.get(i)));
+        }
+        return records;
+    }
+
+    /**
+     * @return Offset the next appended record will get
+     */
+    public synchronized long getEndOffset() {
+        return log.size();
+    }
+
+    public synchronized void commit(String groupId, long nextOffset) {
+        committed.put(groupId, nextOffset);
+    }
+
+    /**
+     * @return Next offset to consume for the group, 0 if it never committed
+     */
+    public synchronized long getCommitted(String groupId) {
+        Long offset = committed.get(groupId);
+        return offset == null ? 0 : offset;
+    }
+
+    /**
+     * A record as handed to the consumer
+     */
+    public static class ConsumerRecord {
+        private final String topic;
+        private final long offset;
+        private final byte[] value;
+
+        public ConsumerRecord(String topic, long offset, byte[] value) {
+            this.topic = topic;
+            this.offset = offset;
+            this.value = value;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public byte[] getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.demo.schema.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable Kafka {@code configs} block: string, number, boolean or null values under
+ * {@link ConfigKey}s, as allowed by the {@code oneOf} in {@code feeds_schema.json}.
+ *
+ * Entries are kept in three parallel arrays: the key, a type tag, and either the raw bits of a
+ * primitive value in a {@code long[]} or the string in an {@code Object[]}. Numbers and
+ * booleans are never boxed, and typed getters such as {@link #getLong} find a well-known key by
+ * identity over a handful of entries instead of hashing a string; other keys are matched by
+ * name.
+ *
+ * Also a read-only {@code Map<String, Object>} in entry order, so code written against the map
+ * binding keeps working; its values are boxed on each {@link #get(Object)}.
+ */
+public final class KafkaConfigs extends AbstractMap<String, Object> {
+
+    /**
+     * Type of a config value
+     */
+    public enum ValueType {
+        STRING, INT, LONG, DOUBLE, BOOLEAN, NULL,
+        /** A number outside long or double, kept as BigInteger or BigDecimal */
+        BIG_NUMBER;
+
+        /**
+         * @return True for INT and LONG
+         */
+        public boolean isIntegral() {
+            return this == INT || this == LONG;
+        }
+    }
+
+    private static final ValueType[] TYPES = ValueType.values();
+    private static final KafkaConfigs EMPTY = new KafkaConfigs(new ConfigKey[0], new byte[0], new long[0], new Object[0]);
+
+    private final ConfigKey[] keys;
+    private final byte[] types;
+    private final long[] primitives;
+    private final Object[] objects;
+
+    private KafkaConfigs(ConfigKey[] keys, byte[] types, long[] primitives, Object[] objects) {
+        this.keys = keys;
+        this.types = types;
+        this.primitives = primitives;
+        this.objects = objects;
+    }
+
+    /**
+     * @param configs Configs as bound by Jackson; null values allowed
+     * @return The compact configs, or the same instance if already compact
+     * @throws IllegalArgumentException If a value is not a string, number, boolean or null
+     */
+    public static KafkaConfigs of(Map<String, ?> configs) {
+        if (configs instanceof KafkaConfigs) {
+            return (KafkaConfigs) configs;
+        }
+        if (configs.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(configs.size());
+        for (Map.Entry<String, ?> entry : configs.entrySet()) {
+            builder.add(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param configs A {@code configs} object node
+     * @return The compact configs
+     * @throws IllegalArgumentException If the node is not an object of scalar values
+     */
+    public static KafkaConfigs of(JsonNode configs) {
+        if (!configs.isObject()) {
+            throw new IllegalArgumentException("configs must be an object, found " + configs.getNodeType());
+        }
+        Builder builder = new Builder(configs.size());
+        for (Iterator<Map.Entry<String, JsonNode>> fields = configs.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isTextual()) {
+                builder.add(field.getKey(), value.textValue());
+            } else if (value.isInt()) {
+                builder.put(field.getKey(), ValueType.INT, value.intValue(), null);
+            } else if (value.isLong()) {
+                builder.put(field.getKey(), ValueType.LONG, value.longValue(), null);
+            } else if (value.isNumber()) {
+                builder.add(field.getKey(), value.numberValue());
+            } else if (value.isBoolean()) {
+                builder.put(field.getKey(), ValueType.BOOLEAN, value.booleanValue() ? 1 : 0, null);
+            } else if (value.isNull()) {
+                builder.put(field.getKey(), ValueType.NULL, 0, null);
+            } else {
+                throw new IllegalArgumentException("Config " + field.getKey() + " must be a scalar, found " + value.getNodeType());
+            }
+        }
+        return builder.build();
+    }
+
+    private int indexOf(ConfigKey key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        // A canonical key is the only instance of its name, so only other keys can match by name
+        if (key.isCanonical()) {
+            return -1;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (key.equals(keys[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Type of the value, or null if the key is absent
+     */
+    public ValueType getType(ConfigKey key) {
+        int i = indexOf(key);
+        return i < 0 ? null : TYPES[types[i]];
+    }
+
+    public boolean contains(ConfigKey key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return The string value, or null if absent, null or not a string
+     */
+    public String getString(ConfigKey key) {
+        int i = indexOf(key);
+        return i >= 0 && types[i] == ValueType.STRING.ordinal() ? (String) objects[i] : null;
+    }
+
+    /**
+     * @return The integral value, or the default if absent or not INT or LONG
+     */
+    public long getLong(ConfigKey key, long defaultValue) {
+        int i = indexOf(key);
+        return i >= 0 && TYPES[types[i]].isIntegral() ? primitives[i] : defaultValue;
+    }
+
+    /**
+     * @return The INT value, or the default if absent or not INT
+     */
+    public int getInt(ConfigKey key, int defaultValue) {
+        int i = indexOf(key);
+        return i >= 0 && types[i] == ValueType.INT.ordinal() ? (int) primitives[i] : defaultValue;
+    }
+
+    /**
+     * @return The numeric value, or the default if absent or not INT, LONG or DOUBLE
+     */
+    public double getDouble(ConfigKey key, double defaultValue) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return defaultValue;
+        }
+        switch (TYPES[types[i]]) {
+            case INT:
+            case LONG:
+                return primitives[i];
+            case DOUBLE:
+                return Double.longBitsToDouble(primitives[i]);
+            default:
+                return defaultValue;
+        }
+    }
+
+    /**
+     * @return The boolean value, or the default if absent or not a boolean
+     */
+    public boolean getBoolean(ConfigKey key, boolean defaultValue) {
+        int i = indexOf(key);
+        return i >= 0 && types[i] == ValueType.BOOLEAN.ordinal() ? primitives[i] != 0 : defaultValue;
+    }
+
+    /**
+     * @return The value as the map binding's {@code toString()} would render it, or null if the
+     *         key is absent or its value null
+     */
+    public String asText(ConfigKey key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        Object value = box(i);
+        return value == null ? null : value.toString();
+    }
+
+    private Object box(int i) {
+        switch (TYPES[types[i]]) {
+            case INT:
+                return (int) primitives[i];
+            case LONG:
+                return primitives[i];
+            case DOUBLE:
+                return Double.longBitsToDouble(primitives[i]);
+            case BOOLEAN:
+                return primitives[i] != 0;
+            case NULL:
+                return null;
+            default:
+                return objects[i];
+        }
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return name instanceof String && indexOf(ConfigKey.of((String) name)) >= 0;
+    }
+
+    @Override
+    public Object get(Object name) {
+        if (!(name instanceof String)) {
+            return null;
+        }
+        int i = indexOf(ConfigKey.of((String) name));
+        return i < 0 ? null : box(i);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public int size() {
+                return keys.length;
+            }
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[next].getName(), box(next));
+                        next++;
+                        return entry;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @return A mutable boxed copy, in entry order
+     */
+    public Map<String, Object> toMap() {
+        return new LinkedHashMap<>(this);
+    }
+
+    private static final class Builder {
+        private final ConfigKey[] keys;
+        private final byte[] types;
+        private final long[] primitives;
+        private final Object[] objects;
+        private int size;
+        private boolean hasObjects;
+
+        Builder(int capacity) {
+            keys = new ConfigKey[capacity];
+            types = new byte[capacity];
+            primitives = new long[capacity];
+            objects = new Object[capacity];
+        }
+
+        void add(String name, Object value) {
+            if (value == null) {
+                put(name, ValueType.NULL, 0, null);
+            } else if (value instanceof String) {
+                put(name, ValueType.STRING, 0, value);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                put(name, ValueType.INT, ((Number) value).intValue(), null);
+            } else if (value instanceof Long) {
+                put(name, ValueType.LONG, (Long) value, null);
+            } else if (value instanceof Double || value instanceof Float) {
+                put(name, ValueType.DOUBLE, Double.doubleToRawLongBits(((Number) value).doubleValue()), null);
+            } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+                put(name, ValueType.BIG_NUMBER, 0, value);
+            } else if (value instanceof Boolean) {
+                put(name, ValueType.BOOLEAN, (Boolean) value ? 1 : 0, null);
+            } else {
+                throw new IllegalArgumentException("Config " + name + " must be a string, number, boolean or null, found "
+                        + value.getClass().getName());
+            }
+        }
+
+        void put(String name, ValueType type, long primitive, Object object) {
+            keys[size] = ConfigKey.of(name);
+            types[size] = (byte) type.ordinal();
+            primitives[size] = primitive;
+            objects[size] = object;
+            hasObjects |= object != null;
+            size++;
+        }
+
+        KafkaConfigs build() {
+            // Configs without strings share one empty object array
+            return new KafkaConfigs(keys, types, primitives, hasObjects ? objects : EMPTY.objects);
+        }
+    }
+
+    /**
+     * Compare retained heap and the SSL port rule's lookups for Jackson-bound maps and compact configs.
+     * Usage: KafkaConfigs [config count]
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        ObjectNode configs = (ObjectNode) yamlMapper.readTree(new File("src/main/resources/schema/feed_kafka_1.yaml"))
+                .get(0).get("kafka-topic").get("configs");
+        List<byte[]> sources = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            configs.put("port", i % 2 == 0 ? 9093 : 9092);
+            configs.put("max.poll.records", 100 + i % 1000);
+            sources.add(yamlMapper.writeValueAsBytes(configs));
+        }
+
+        long baseline = usedHeap();
+        List<Map<String, Object>> maps = new ArrayList<>(count);
+        for (byte[] source : sources) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = yamlMapper.readValue(source, Map.class);
+            maps.add(map);
+        }
+        long mapBytes = usedHeap() - baseline;
+
+        baseline = usedHeap();
+        List<KafkaConfigs> compact = new ArrayList<>(count);
+        for (byte[] source : sources) {
+            compact.add(of(yamlMapper.readTree(source)));
+        }
+        long compactBytes = usedHeap() - baseline;
+        System.out.printf("%,d configs of %d entries: LinkedHashMap %,d bytes each, KafkaConfigs %,d bytes each%n",
+                count, configs.size(), mapBytes / count, compactBytes / count);
+
+        // Lookups over a cache-resident slice, so the loop measures lookups rather than memory
+        List<Map<String, Object>> mapSlice = maps.subList(0, Math.min(1_000, count));
+        List<KafkaConfigs> compactSlice = compact.subList(0, mapSlice.size());
+        int passes = 2_000;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            int wrongPorts = 0;
+            for (int pass = 0; pass < passes; pass++) {
+                for (Map<String, Object> map : mapSlice) {
+                    Object securityProtocol = map.get("security.protocol");
+                    if ("SSL".equals(securityProtocol) || "SASL_SSL".equals(securityProtocol)) {
+                        Object port = map.get("port");
+                        if (port != null && !"9093".equals(port.toString())) {
+                            wrongPorts++;
+                        }
+                    }
+                }
+            }
+            long mapNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int compactWrongPorts = 0;
+            for (int pass = 0; pass < passes; pass++) {
+                for (KafkaConfigs config : compactSlice) {
+                    String securityProtocol = config.getString(ConfigKey.SECURITY_PROTOCOL);
+                    if ("SSL".equals(securityProtocol) || "SASL_SSL".equals(securityProtocol)) {
+                        if (config.getLong(ConfigKey.PORT, 9093) != 9093) {
+                            compactWrongPorts++;
+                        }
+                    }
+                }
+            }
+            long compactNanos = System.nanoTime() - start;
+            long lookups = (long) passes * mapSlice.size();
+            System.out.printf("  SSL port rule: map %.1f ns/config, typed %.1f ns/config (%d / %d wrong ports)%n",
+                    (double) mapNanos / lookups, (double) compactNanos / lookups, wrongPorts, compactWrongPorts);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
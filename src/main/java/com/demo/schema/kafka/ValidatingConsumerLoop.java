@@ -0,0 +1,338 @@
+package com.demo.schema.kafka;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.MessageValidator.ValidationResult;
+import com.demo.schema.SchemaValidator;
+import com.demo.schema.kafka.InMemoryTopic.ConsumerRecord;
+import com.demo.schema.stream.ValidationOutcome;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Consumer loop that validates poll-sized batches of records against a compiled message
+ * schema.
+ *
+ * Each batch is split into contiguous slices validated in parallel. After the batch, the
+ * group's offset is committed up to (not including) the first record whose validation did not
+ * finish or threw, so such records are polled again instead of being skipped. A record whose
+ * validation throws on every one of {@code maxAttempts} polls is dead-lettered with the
+ * exception and committed past, so one poison record cannot stall its partition. Records that
+ * were validated but failed the schema count as consumed and are dead-lettered too. Only the
+ * most recent {@code maxDeadLetters} dead letters are kept; {@link #getDeadLetterCount()}
+ * counts all of them.
+ */
+public class ValidatingConsumerLoop implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_POLL_RECORDS = 500;
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final int DEFAULT_MAX_DEAD_LETTERS = 1000;
+
+    private static final byte VALID = 1;
+    private static final byte INVALID = 2;
+    private static final byte FAILED = 3;
+
+    private final InMemoryTopic topic;
+    private final String groupId;
+    private final int maxPollRecords;
+    private final MessageValidator validator;
+    private final JsonSchema schema;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final int maxAttempts;
+    private final int maxDeadLetters;
+    /** Failed validations per offset not yet committed; only touched by the committing thread */
+    private final Map<Long, Integer> failedAttempts = new HashMap<>();
+    private final Deque<ValidationOutcome> deadLetters = new ArrayDeque<>();
+    private long deadLetterCount;
+
+    /**
+     * @param topic Topic to consume
+     * @param groupId Consumer group whose committed offset is used
+     * @param maxPollRecords Maximum records per batch
+     * @param validator Validator used for each record
+     * @param schema Compiled message schema
+     * @param parallelism Number of threads validating a batch
+     */
+    public ValidatingConsumerLoop(InMemoryTopic topic, String groupId, int maxPollRecords,
+                                  MessageValidator validator, JsonSchema schema, int parallelism) {
+        this(topic, groupId, maxPollRecords, validator, schema, parallelism, DEFAULT_MAX_ATTEMPTS,
+                DEFAULT_MAX_DEAD_LETTERS);
+    }
+
+    /**
+     * @param topic Topic to consume
+     * @param groupId Consumer group whose committed offset is used
+     * @param maxPollRecords Maximum records per batch
+     * @param validator Validator used for each record
+     * @param schema Compiled message schema
+     * @param parallelism Number of threads validating a batch
+     * @param maxAttempts Polls on which a record's validation may throw before it is dead-lettered
+     * @param maxDeadLetters Number of most recent dead letters kept
+     */
+    public ValidatingConsumerLoop(InMemoryTopic topic, String groupId, int maxPollRecords,
+                                  MessageValidator validator, JsonSchema schema, int parallelism,
+                                  int maxAttempts, int maxDeadLetters) {
+        if (maxAttempts < 1 || maxDeadLetters < 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive and maxDeadLetters not negative");
+        }
+        this.topic = topic;
+        this.groupId = groupId;
+        this.maxPollRecords = maxPollRecords;
+        this.validator = validator;
+        this.schema = schema;
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.maxAttempts = maxAttempts;
+        this.maxDeadLetters = maxDeadLetters;
+    }
+
+    /**
+     * Read {@code max.poll.records} from a feed's {@code kafka-topic} block
+     * @param kafkaTopic The {@code kafka-topic} node of a feed
+     * @return The configured value, or {@link #DEFAULT_MAX_POLL_RECORDS} if absent
+     */
+    public static int maxPollRecords(JsonNode kafkaTopic) {
+        JsonNode value = kafkaTopic.path("configs").path("max.poll.records");
+        return value.canConvertToInt() ? value.asInt() : DEFAULT_MAX_POLL_RECORDS;
+    }
+
+    /**
+     * Poll one batch from the committed offset, validate it and commit
+     * @return Report for the batch, or null if there was nothing to consume
+     * @throws InterruptedException If interrupted while waiting for the batch
+     */
+    public BatchReport pollOnce() throws InterruptedException {
+        long position = topic.getCommitted(groupId);
+        List<ConsumerRecord> records = topic.poll(position, maxPollRecords);
+        if (records.isEmpty()) {
+            return null;
+        }
+        BatchReport report = validateBatch(records);
+        if (report.getCommitOffset() > position) {
+            topic.commit(groupId, report.getCommitOffset());
+        }
+        return report;
+    }
+
+    /**
+     * Keep polling until the group has consumed everything in the topic or a batch makes no
+     * progress
+     * @return Reports of all batches processed
+     * @throws InterruptedException If interrupted while waiting for a batch
+     */
+    public List<BatchReport> runUntilCaughtUp() throws InterruptedException {
+        List<BatchReport> reports = new ArrayList<>();
+        BatchReport report;
+        while ((report = pollOnce()) != null) {
+            reports.add(report);
+            if (report.getCommitOffset() == report.getFirstOffset()) {
+                break;
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Validate a batch in parallel without committing. Records dead-lettered after their last
+     * attempt count as invalid.
+     * @param records Records of one poll, in offset order
+     * @return Report for the batch
+     * @throws InterruptedException If interrupted while waiting for the batch
+     */
+    public BatchReport validateBatch(List<ConsumerRecord> records) throws InterruptedException {
+        int size = records.size();
+        byte[] status = new byte[size];
+        String[] details = new String[size];
+        long[] latencies = new long[size];
+
+        int sliceSize = (size + parallelism - 1) / parallelism;
+        List<Callable<Void>> slices = new ArrayList<>();
+        for (int from = 0; from < size; from += sliceSize) {
+            int start = from;
+            int end = Math.min(size, from + sliceSize);
+            slices.add(() -> {
+                for (int i = start; i < end; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        ValidationResult result = validator.validate(schema,
+                                new ByteArrayInputStream(records.get(i).getValue()));
+                        status[i] = result.isValid() ? VALID : INVALID;
+                        details[i] = result.isValid() ? null : result.getDetails();
+                    } catch (RuntimeException e) {
+                        status[i] = FAILED;
+                        details[i] = e.toString();
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return null;
+            });
+        }
+
+        long begin = System.nanoTime();
+        for (Future<Void> future : executor.invokeAll(slices)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // Slice died; its unfinished records keep status 0 and are not committed
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long firstOffset = records.get(0).getOffset();
+        long commitOffset = firstOffset;
+        int valid = 0;
+        int invalid = 0;
+        for (int i = 0; i < size; i++) {
+            ConsumerRecord record = records.get(i);
+            if (status[i] == FAILED) {
+                int attempts = failedAttempts.merge(record.getOffset(), 1, Integer::sum);
+                if (attempts < maxAttempts) {
+                    break;
+                }
+                details[i] = "Validation failed on " + attempts + " attempts: " + details[i];
+            } else if (status[i] != VALID && status[i] != INVALID) {
+                break;
+            }
+            failedAttempts.remove(record.getOffset());
+            if (status[i] == VALID) {
+                valid++;
+            } else {
+                invalid++;
+                addDeadLetter(new ValidationOutcome(record.getOffset(), record.getValue(), false, details[i]));
+            }
+            commitOffset = record.getOffset() + 1;
+        }
+
+        Arrays.sort(latencies);
+        long p99 = latencies[Math.max(0, (int) Math.ceil(size * 0.99) - 1)];
+        return new BatchReport(firstOffset, size, valid, invalid, commitOffset, elapsed, p99);
+    }
+
+    private void addDeadLetter(ValidationOutcome outcome) {
+        synchronized (deadLetters) {
+            deadLetterCount++;
+            if (maxDeadLetters == 0) {
+                return;
+            }
+            if (deadLetters.size() == maxDeadLetters) {
+                deadLetters.removeFirst();
+            }
+            deadLetters.addLast(outcome);
+        }
+    }
+
+    /**
+     * @return The most recent records that were consumed but failed or could not be validated,
+     *         in commit order
+     */
+    public List<ValidationOutcome> getDeadLetters() {
+        synchronized (deadLetters) {
+            return new ArrayList<>(deadLetters);
+        }
+    }
+
+    /**
+     * @return Number of records dead-lettered so far, including those no longer kept
+     */
+    public long getDeadLetterCount() {
+        synchronized (deadLetters) {
+            return deadLetterCount;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Outcome and timing of one batch
+     */
+    public static class BatchReport {
+        private final long firstOffset;
+        private final int recordCount;
+        private final int validCount;
+        private final int invalidCount;
+        private final long commitOffset;
+        private final long elapsedNanos;
+        private final long p99LatencyNanos;
+
+        public BatchReport(long firstOffset, int recordCount, int validCount, int invalidCount,
+                           long commitOffset, long elapsedNanos, long p99LatencyNanos) {
+            this.firstOffset = firstOffset;
+            this.recordCount = recordCount;
+            this.validCount = validCount;
+            this.invalidCount = invalidCount;
+            this.commitOffset = commitOffset;
+            this.elapsedNanos = elapsedNanos;
+            this.p99LatencyNanos = p99LatencyNanos;
+        }
+
+        public long getFirstOffset() { return firstOffset; }
+        public int getRecordCount() { return recordCount; }
+        public int getValidCount() { return validCount; }
+        public int getInvalidCount() { return invalidCount; }
+        public long getCommitOffset() { return commitOffset; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public long getP99LatencyNanos() { return p99LatencyNanos; }
+
+        public double getRecordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : recordCount * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("offsets %d-%d: %d records (%d valid, %d invalid), committed %d, %.0f records/s, p99 %.3f ms",
+                    firstOffset, firstOffset + recordCount - 1, recordCount, validCount, invalidCount,
+                    commitOffset, getRecordsPerSecond(), p99LatencyNanos / 1e6);
+        }
+    }
+
+    /**
+     * Fill a topic with sample messages (one in ten invalid) and consume it with the
+     * {@code max.poll.records} configured in feed_kafka_1.yaml.
+     */
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        JsonNode feeds = new SchemaValidator().loadYaml("src/main/resources/schema/feed_kafka_1.yaml");
+        JsonNode kafkaTopic = feeds.get(0).path("kafka-topic");
+        int maxPollRecords = maxPollRecords(kafkaTopic);
+
+        InMemoryTopic topic = new InMemoryTopic(kafkaTopic.path("topics").asText("topic-1"));
+        String template = "{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\",\"timestamp\":\"2025-07-08 12:00:00 PM IST\","
+                + "\"records\":%d,\"trr\":\"GLOBAL\",\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}";
+        for (int i = 0; i < messages; i++) {
+            topic.append(String.format(template, i % 10 == 0 ? -1 : i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        MessageValidator validator = new MessageValidator();
+        JsonSchema schema = validator.loadSchema("schema.json");
+        String groupId = kafkaTopic.path("consumer-group-id").asText("consumer-group");
+        System.out.println("Consuming " + messages + " records from " + topic.getName()
+                + " with max.poll.records=" + maxPollRecords + " on " + threads + " threads");
+        try (ValidatingConsumerLoop loop = new ValidatingConsumerLoop(topic, groupId, maxPollRecords, validator, schema, threads)) {
+            for (BatchReport report : loop.runUntilCaughtUp()) {
+                System.out.println(report);
+            }
+            System.out.println("Committed offset: " + topic.getCommitted(groupId)
+                    + ", dead letters: " + loop.getDeadLetterCount());
+        }
+    }
+}
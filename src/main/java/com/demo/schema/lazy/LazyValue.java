@@ -0,0 +1,113 @@
+package com.demo.schema.lazy;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * An object or array that {@link SchemaGuidedReader} skipped because no schema applies to it,
+ * kept unparsed until it is asked for.
+ *
+ * JSON read from a byte array is kept as the slice of the array holding the value, so skipping
+ * it costs no allocation beyond this object; other input (YAML, streams) is kept as a
+ * {@link TokenBuffer}. In the tree it appears as a {@link POJONode}; {@link #resolve} returns the
+ * parsed subtree, and serializing the tree writes the original value.
+ */
+public final class LazyValue implements JsonSerializable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final byte[] source;
+    private final int offset;
+    private final int length;
+    private final TokenBuffer tokens;
+    private volatile JsonNode node;
+
+    private LazyValue(byte[] source, int offset, int length, TokenBuffer tokens) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+        this.tokens = tokens;
+    }
+
+    static LazyValue ofBytes(byte[] source, int offset, int length) {
+        return new LazyValue(source, offset, length, null);
+    }
+
+    static LazyValue ofTokens(TokenBuffer tokens) {
+        return new LazyValue(null, 0, 0, tokens);
+    }
+
+    /**
+     * @return The node itself, or the parsed subtree if it is a skipped value
+     */
+    public static JsonNode resolve(JsonNode node) {
+        if (node instanceof POJONode && ((POJONode) node).getPojo() instanceof LazyValue) {
+            return ((LazyValue) ((POJONode) node).getPojo()).get();
+        }
+        return node;
+    }
+
+    /**
+     * @return True if the node is a skipped value
+     */
+    public static boolean isLazy(JsonNode node) {
+        return node instanceof POJONode && ((POJONode) node).getPojo() instanceof LazyValue;
+    }
+
+    /**
+     * @return The parsed value; parsed on the first call
+     */
+    public JsonNode get() {
+        JsonNode parsed = node;
+        if (parsed == null) {
+            try (JsonParser parser = parser()) {
+                parsed = MAPPER.readTree(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot parse skipped value", e);
+            }
+            node = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * @return Size of the kept value in bytes, or -1 if it is kept as tokens
+     */
+    public int getLength() {
+        return tokens == null ? length : -1;
+    }
+
+    private JsonParser parser() throws IOException {
+        JsonParser parser = tokens != null ? tokens.asParser(MAPPER) : MAPPER.getFactory().createParser(source, offset, length);
+        parser.nextToken();
+        return parser;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        try (JsonParser parser = parser()) {
+            gen.copyCurrentStructure(parser);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public String toString() {
+        return get().toString();
+    }
+}
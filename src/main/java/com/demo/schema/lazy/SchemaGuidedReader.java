@@ -0,0 +1,435 @@
+package com.demo.schema.lazy;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads documents into trees holding only what validation against one schema looks at.
+ *
+ * fge descends into an object's field or an array's element only when a schema applies to it
+ * ({@code properties}, a {@code patternProperties} match, an {@code additionalProperties} or
+ * {@code items} schema, through {@code allOf}/{@code anyOf}/{@code oneOf}/{@code not}/{@code $ref}).
+ * Its other keywords on containers read field names and sizes, except {@code enum} and
+ * {@code uniqueItems}, which compare whole values. This reader follows the schema while
+ * parsing: a value no schema applies to is skipped without building nodes and appears in the
+ * tree as a {@link LazyValue}, parsed only if someone asks for it; a value that {@code enum} or
+ * {@code uniqueItems} may compare is read in full. Validating the pruned tree against the same
+ * schema gives the same report as validating the full tree.
+ *
+ * The pruned tree is only meant for that schema: another schema reaching a skipped value would
+ * see a POJO node. When in doubt (remote or {@code id}-scoped references, non-object schemas)
+ * the reader keeps everything below.
+ *
+ * Thread-safe; the schema walk for each location is computed once and reused.
+ */
+public class SchemaGuidedReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    private static final Set<String> COMBINATORS = new HashSet<>(Arrays.asList("allOf", "anyOf", "oneOf"));
+
+    private final JsonNode root;
+    private final Guide start;
+    private final Map<Set<JsonNode>, Guide> guides = new ConcurrentHashMap<>();
+    /**
+     * Guide of locations no schema applies to
+     */
+    private final Guide none = new Guide(Collections.<JsonNode>emptySet());
+
+    /**
+     * @param schema Root schema; local {@code $ref}s resolve against it
+     */
+    public SchemaGuidedReader(JsonNode schema) {
+        this(schema, "");
+    }
+
+    /**
+     * @param schema Root schema; local {@code $ref}s resolve against it
+     * @param pointer JSON pointer of the subschema documents are validated against, as passed to
+     *                {@code JsonSchemaFactory.getJsonSchema(schema, pointer)}
+     */
+    public SchemaGuidedReader(JsonNode schema, String pointer) {
+        this.root = schema;
+        Guide guide = guide(Collections.singletonList(schema.at(pointer)));
+        if (guide == none) {
+            throw new IllegalArgumentException("No schema at " + pointer);
+        }
+        this.start = guide;
+    }
+
+    /**
+     * Read a JSON document from a byte array; skipped values are kept as slices of the array,
+     * which must not be changed afterwards
+     */
+    public JsonNode readJson(byte[] content) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(content)) {
+            return read(parser, content);
+        }
+    }
+
+    /**
+     * Read the next document of a parser (JSON, YAML, ...); skipped values are kept as tokens.
+     * Like {@code ObjectMapper.readTree(JsonParser)}, the parser is left past the document, so
+     * calling this again reads the next one of a multi-document stream.
+     * @return The pruned tree, or null at end of input
+     */
+    public JsonNode read(JsonParser parser) throws IOException {
+        return read(parser, null);
+    }
+
+    private JsonNode read(JsonParser parser, byte[] content) throws IOException {
+        if (parser.currentToken() == null && parser.nextToken() == null) {
+            return null;
+        }
+        JsonNode document = value(parser, start, content);
+        parser.clearCurrentToken();
+        return document;
+    }
+
+    private JsonNode value(JsonParser parser, Guide guide, byte[] content) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (guide.full && token.isStructStart()) {
+            return MAPPER.readTree(parser);
+        }
+        switch (token) {
+            case START_OBJECT: {
+                ObjectNode object = NODES.objectNode();
+                String name;
+                while ((name = parser.nextFieldName()) != null) {
+                    parser.nextToken();
+                    Guide child = guide.field(name);
+                    object.set(name, child == null ? skip(parser, content) : value(parser, child, content));
+                }
+                return object;
+            }
+            case START_ARRAY: {
+                ArrayNode array = NODES.arrayNode();
+                for (int index = 0; parser.nextToken() != JsonToken.END_ARRAY; index++) {
+                    Guide child = guide.element(index);
+                    array.add(child == null ? skip(parser, content) : value(parser, child, content));
+                }
+                return array;
+            }
+            default:
+                return scalar(parser);
+        }
+    }
+
+    private static JsonNode skip(JsonParser parser, byte[] content) throws IOException {
+        if (!parser.currentToken().isStructStart()) {
+            return scalar(parser);
+        }
+        long begin = parser.getTokenLocation().getByteOffset();
+        if (content != null && begin >= 0) {
+            parser.skipChildren();
+            long end = parser.getCurrentLocation().getByteOffset();
+            return NODES.pojoNode(LazyValue.ofBytes(content, (int) begin, (int) (end - begin)));
+        }
+        TokenBuffer tokens = new TokenBuffer(parser);
+        tokens.copyCurrentStructure(parser);
+        return NODES.pojoNode(LazyValue.ofTokens(tokens));
+    }
+
+    /**
+     * Scalar node as {@code ObjectMapper.readTree} builds it with default settings
+     */
+    private static JsonNode scalar(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return NODES.textNode(parser.getText());
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        return NODES.numberNode(parser.getIntValue());
+                    case LONG:
+                        return NODES.numberNode(parser.getLongValue());
+                    default:
+                        return NODES.numberNode(parser.getBigIntegerValue());
+                }
+            case VALUE_NUMBER_FLOAT:
+                switch (parser.getNumberType()) {
+                    case BIG_DECIMAL:
+                        return NODES.numberNode(parser.getDecimalValue());
+                    case FLOAT:
+                        return NODES.numberNode(parser.getFloatValue());
+                    default:
+                        return NODES.numberNode(parser.getDoubleValue());
+                }
+            case VALUE_TRUE:
+                return NODES.booleanNode(true);
+            case VALUE_FALSE:
+                return NODES.booleanNode(false);
+            case VALUE_NULL:
+                return NODES.nullNode();
+            case VALUE_EMBEDDED_OBJECT:
+                Object embedded = parser.getEmbeddedObject();
+                return embedded instanceof byte[] ? NODES.binaryNode((byte[]) embedded) : NODES.pojoNode(embedded);
+            default:
+                throw new IOException("Unexpected token " + parser.currentToken());
+        }
+    }
+
+    /**
+     * @return The canonical guide of the schemas that apply at a location, or the guide of no schema
+     */
+    private Guide guide(List<JsonNode> schemas) {
+        Set<JsonNode> applicable = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean full = false;
+        List<JsonNode> pending = new ArrayList<>(schemas);
+        while (!pending.isEmpty()) {
+            JsonNode schema = pending.remove(pending.size() - 1);
+            if (schema == null || schema.isMissingNode() || !applicable.add(schema)) {
+                continue;
+            }
+            if (!schema.isObject() || schema.has("enum") || schema.has("uniqueItems") || schema.has("const")
+                    || schema.path("id").isTextual()) {
+                full = true;
+                continue;
+            }
+            for (String combinator : COMBINATORS) {
+                for (JsonNode branch : schema.path(combinator)) {
+                    pending.add(branch);
+                }
+            }
+            pending.add(schema.get("not"));
+            for (JsonNode dependency : schema.path("dependencies")) {
+                if (dependency.isObject()) {
+                    pending.add(dependency);
+                }
+            }
+            if (schema.has("$ref")) {
+                JsonNode target = resolve(schema.get("$ref").asText());
+                if (target == null) {
+                    full = true;
+                } else {
+                    pending.add(target);
+                }
+            }
+        }
+        if (applicable.isEmpty()) {
+            return none;
+        }
+        if (full) {
+            applicable.add(FULL);
+        }
+        return guides.computeIfAbsent(applicable, Guide::new);
+    }
+
+    /**
+     * Marks a guide that keeps everything below its location
+     */
+    private static final JsonNode FULL = NODES.textNode("full");
+
+    /**
+     * @return The schema a local reference points to, or null if it is not local
+     */
+    private JsonNode resolve(String ref) {
+        if (!ref.startsWith("#")) {
+            return null;
+        }
+        try {
+            JsonNode target = root.at(URLDecoder.decode(ref.substring(1).replace("+", "%2B"), "UTF-8"));
+            return target.isMissingNode() ? null : target;
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a JSON catalog of sample feeds in full and guided by feeds_schema.json, comparing
+     * allocation, retained heap and read plus validation time; each feed optionally carries an
+     * undescribed lineage block.
+     * Usage: SchemaGuidedReader [feed count] [lineage entries per feed]
+     */
+    public static void main(String[] args) throws Exception {
+        int feeds = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int lineage = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        JsonNode kafka = yamlMapper.readTree(new File("src/main/resources/schema/feed_kafka_1.yaml")).get(0);
+        JsonNode file = yamlMapper.readTree(new File("src/main/resources/schema/feed_file_1.yaml")).get(0);
+        ArrayNode catalog = NODES.arrayNode();
+        for (int i = 0; i < feeds; i++) {
+            ObjectNode feed = (ObjectNode) (i % 2 == 0 ? file : kafka).deepCopy();
+            feed.put("name", "feed_" + i);
+            if (lineage > 0) {
+                ArrayNode sources = feed.putObject("lineage").put("owner", "team-" + i % 7).putArray("sources");
+                for (int j = 0; j < lineage; j++) {
+                    sources.addObject().put("system", "upstream-" + j).put("table", "db.table_" + i + "_" + j)
+                            .put("rows", i * 31L + j).putArray("columns").add("id").add("amount").add("cob_date");
+                }
+            }
+            catalog.add(feed);
+        }
+        byte[] content = MAPPER.writeValueAsBytes(catalog);
+        JsonNode schemaNode = MAPPER.readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        JsonSchema schema = JsonSchemaFactory.byDefault().getJsonSchema(schemaNode);
+        SchemaGuidedReader reader = new SchemaGuidedReader(schemaNode);
+        System.out.printf("%,d feeds, %,d lineage entries each, %,d bytes of JSON%n", feeds, lineage, content.length);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < 3; round++) {
+            long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+            JsonNode full = MAPPER.readTree(content);
+            long fullRead = System.nanoTime() - start;
+            long fullAllocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+            boolean fullValid = schema.validate(full).isSuccess();
+            long fullTotal = System.nanoTime() - start;
+
+            allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            start = System.nanoTime();
+            JsonNode pruned = reader.readJson(content);
+            long prunedRead = System.nanoTime() - start;
+            long prunedAllocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+            boolean prunedValid = schema.validate(pruned).isSuccess();
+            long prunedTotal = System.nanoTime() - start;
+            if (fullValid != prunedValid) {
+                throw new IllegalStateException("Results differ");
+            }
+            System.out.printf("full tree:   read %,d ms, read+validate %,d ms, allocated %,d MB%n",
+                    fullRead / 1_000_000, fullTotal / 1_000_000, fullAllocated >> 20);
+            System.out.printf("schema read: read %,d ms, read+validate %,d ms, allocated %,d MB%n",
+                    prunedRead / 1_000_000, prunedTotal / 1_000_000, prunedAllocated >> 20);
+        }
+
+        long baseline = usedHeap();
+        JsonNode full = MAPPER.readTree(content);
+        long fullBytes = usedHeap() - baseline;
+        full = null;
+        baseline = usedHeap();
+        JsonNode pruned = reader.readJson(content);
+        long prunedBytes = usedHeap() - baseline;
+        System.out.printf("retained: full tree %,d MB, schema-guided tree %,d MB (plus the %,d MB input it slices)%n",
+                fullBytes >> 20, prunedBytes >> 20, content.length >> 20);
+        if (pruned.size() != feeds || full != null) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Schemas applying at one location, with the guides of its children computed on demand.
+     * Children are cached per named property and per tuple position; every other field shares
+     * one guide, and so does every other element, so the caches are bounded by the schema.
+     */
+    private final class Guide {
+
+        private final Set<JsonNode> schemas;
+        private final boolean full;
+        private final Map<String, Guide> properties = new ConcurrentHashMap<>();
+        private final Map<Integer, Guide> positions = new ConcurrentHashMap<>();
+        private final Set<String> names = new HashSet<>();
+        private final int tupleSize;
+        private volatile Guide otherFields;
+        private volatile Guide otherElements;
+
+        Guide(Set<JsonNode> schemas) {
+            this.schemas = schemas;
+            this.full = schemas.contains(FULL);
+            int tuple = 0;
+            for (JsonNode schema : schemas) {
+                schema.path("properties").fieldNames().forEachRemaining(names::add);
+                if (schema.path("items").isArray()) {
+                    tuple = Math.max(tuple, schema.get("items").size());
+                }
+            }
+            this.tupleSize = tuple;
+        }
+
+        /**
+         * @return Guide of the field, or null if no schema applies to it
+         */
+        Guide field(String name) {
+            Guide guide;
+            if (names.contains(name)) {
+                guide = properties.computeIfAbsent(name, this::fieldGuide);
+            } else {
+                guide = otherFields;
+                if (guide == null) {
+                    otherFields = guide = fieldGuide(name);
+                }
+            }
+            return guide == none ? null : guide;
+        }
+
+        /**
+         * @return Guide of the element, or null if no schema applies to it
+         */
+        Guide element(int index) {
+            Guide guide;
+            if (index < tupleSize) {
+                guide = positions.computeIfAbsent(index, this::elementGuide);
+            } else {
+                guide = otherElements;
+                if (guide == null) {
+                    otherElements = guide = elementGuide(index);
+                }
+            }
+            return guide == none ? null : guide;
+        }
+
+        private Guide fieldGuide(String name) {
+            List<JsonNode> children = new ArrayList<>();
+            for (JsonNode schema : schemas) {
+                JsonNode property = schema.path("properties").get(name);
+                if (property != null) {
+                    children.add(property);
+                }
+                // Patterns are ECMA regexes evaluated by fge; apply them all rather than guess
+                for (JsonNode pattern : schema.path("patternProperties")) {
+                    children.add(pattern);
+                }
+                if (property == null && schema.path("additionalProperties").isObject()) {
+                    children.add(schema.get("additionalProperties"));
+                }
+            }
+            return guide(children);
+        }
+
+        private Guide elementGuide(int index) {
+            List<JsonNode> children = new ArrayList<>();
+            for (JsonNode schema : schemas) {
+                JsonNode items = schema.path("items");
+                if (items.isObject()) {
+                    children.add(items);
+                } else if (items.isArray() && index < items.size()) {
+                    children.add(items.get(index));
+                } else if (items.isArray() && schema.path("additionalItems").isObject()) {
+                    children.add(schema.get("additionalItems"));
+                }
+            }
+            return guide(children);
+        }
+    }
+}
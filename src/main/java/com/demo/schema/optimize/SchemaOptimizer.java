@@ -0,0 +1,466 @@
+package com.demo.schema.optimize;
+
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a draft-04 style schema into an equivalent one that fge validates with less work.
+ *
+ * <ul>
+ * <li>Identical subschemas (at least {@link #getMinSize()} nodes, such as the three
+ * {@code transaction} objects of {@code feeds_schema.json}) are moved to {@code definitions} and
+ * replaced by a {@code $ref}. fge caches compiled keywords per schema pointer, so a shared
+ * definition is compiled and cached once instead of once per copy.</li>
+ * <li>{@code oneOf} whose branches only name pairwise disjoint types becomes one {@code type}
+ * array. fge evaluates every {@code oneOf} branch and builds an error report for each branch
+ * that fails, where a {@code type} array is a single set lookup.</li>
+ * <li>Properties required by every branch of an {@code anyOf} of {@code required} lists are
+ * moved to the parent {@code required}, and branches implied by another branch are dropped.
+ * fge runs keywords in name order and evaluates every {@code anyOf} branch, so reordering keys
+ * gains nothing; checking a shared requirement once, outside the branches, does.</li>
+ * </ul>
+ *
+ * Each rewrite keeps the set of valid instances unchanged; error messages differ (a failed
+ * {@code type} array reports the allowed types rather than per-branch reports). Schemas
+ * containing {@code id} are not deduplicated, since moving a subschema could change how its
+ * references resolve. The input is not modified.
+ */
+public class SchemaOptimizer {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private static final Set<String> ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "title", "description", "default", "$comment", "examples"));
+    private static final Set<String> TYPES = new HashSet<>(Arrays.asList(
+            "array", "boolean", "integer", "null", "number", "object", "string"));
+    private static final Set<String> SINGLE_SCHEMA_KEYWORDS = new HashSet<>(Arrays.asList(
+            "items", "additionalItems", "additionalProperties", "not"));
+    private static final Set<String> SCHEMA_MAP_KEYWORDS = new HashSet<>(Arrays.asList(
+            "properties", "patternProperties", "definitions", "dependencies"));
+    private static final Set<String> SCHEMA_ARRAY_KEYWORDS = new HashSet<>(Arrays.asList(
+            "items", "allOf", "anyOf", "oneOf"));
+
+    private final int minSize;
+
+    public SchemaOptimizer() {
+        this(16);
+    }
+
+    /**
+     * @param minSize Minimum number of JSON nodes in a subschema for its copies to be shared
+     */
+    public SchemaOptimizer(int minSize) {
+        if (minSize < 2) {
+            throw new IllegalArgumentException("minSize must be at least 2: " + minSize);
+        }
+        this.minSize = minSize;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * @param schema Schema to optimize; not modified
+     * @return The optimized copy and the rewrites applied
+     */
+    public Result optimize(JsonNode schema) {
+        JsonNode copy = schema.deepCopy();
+        List<String> rewrites = new ArrayList<>();
+        if (copy.isObject()) {
+            for (Site site : schemas(copy)) {
+                oneOfTypes((ObjectNode) site.node, site.pointer, rewrites);
+                anyOfRequired((ObjectNode) site.node, site.pointer, rewrites);
+            }
+            // After the rewrites, so copies rewritten alike are still shared
+            deduplicate((ObjectNode) copy, rewrites);
+        }
+        return new Result(copy, rewrites);
+    }
+
+    private void deduplicate(ObjectNode root, List<String> rewrites) {
+        if (hasIdKeyword(root)) {
+            rewrites.add("skipped deduplication: schema uses id");
+            return;
+        }
+        if (root.has("definitions") && !root.get("definitions").isObject()) {
+            return;
+        }
+        while (true) {
+            Map<JsonNode, List<Site>> copies = new LinkedHashMap<>();
+            for (Site site : schemas(root)) {
+                if (site.parent != null && !site.node.has("$ref") && size(site.node) >= minSize) {
+                    copies.computeIfAbsent(site.node, n -> new ArrayList<>()).add(site);
+                }
+            }
+            List<Site> largest = null;
+            int largestSize = 0;
+            for (List<Site> sites : copies.values()) {
+                int size = size(sites.get(0).node);
+                if (sites.size() > 1 && size > largestSize) {
+                    largest = sites;
+                    largestSize = size;
+                }
+            }
+            if (largest == null) {
+                return;
+            }
+            share(root, largest, rewrites);
+        }
+    }
+
+    private static boolean hasIdKeyword(JsonNode root) {
+        for (Site site : schemas(root)) {
+            if (site.node.path("id").isTextual()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Point every copy at one definition, reusing a copy that already is a root definition
+     */
+    private static void share(ObjectNode root, List<Site> sites, List<String> rewrites) {
+        ObjectNode definitions = root.has("definitions") ? (ObjectNode) root.get("definitions") : root.putObject("definitions");
+        String name = null;
+        for (Site site : sites) {
+            if (site.parent == definitions) {
+                name = site.key;
+                break;
+            }
+        }
+        if (name == null) {
+            String base = definitionName(sites.get(0).key);
+            name = base;
+            for (int i = 2; definitions.has(name); i++) {
+                name = base + "_" + i;
+            }
+            definitions.set(name, sites.get(0).node.deepCopy());
+        }
+        String ref = "#/definitions/" + name;
+        List<String> pointers = new ArrayList<>();
+        for (Site site : sites) {
+            if (site.parent == definitions && site.key.equals(name)) {
+                continue;
+            }
+            ObjectNode reference = NODES.objectNode().put("$ref", ref);
+            if (site.parent.isArray()) {
+                ((ArrayNode) site.parent).set(site.index, reference);
+            } else {
+                ((ObjectNode) site.parent).set(site.key, reference);
+            }
+            pointers.add(site.pointer);
+        }
+        rewrites.add("shared " + ref + " for " + String.join(", ", pointers));
+    }
+
+    /**
+     * Definition names go into {@code $ref} URIs unescaped, so keep them to URI-safe characters
+     */
+    private static String definitionName(String key) {
+        String name = key == null ? "" : key.replaceAll("[^A-Za-z0-9_.-]", "_");
+        return name.isEmpty() ? "schema" : name;
+    }
+
+    private static void oneOfTypes(ObjectNode schema, String pointer, List<String> rewrites) {
+        JsonNode oneOf = schema.get("oneOf");
+        if (oneOf == null || !oneOf.isArray() || oneOf.size() == 0 || schema.has("type")) {
+            return;
+        }
+        Set<String> types = new LinkedHashSet<>();
+        for (JsonNode branch : oneOf) {
+            if (!branch.isObject() || !onlyKeyword(branch, "type")) {
+                return;
+            }
+            JsonNode type = branch.get("type");
+            for (JsonNode name : type.isArray() ? type : Collections.singletonList(type)) {
+                if (!TYPES.contains(name.asText()) || !types.add(name.asText())) {
+                    return;
+                }
+            }
+        }
+        // Every integer is also a number, so those two branches would both match
+        if (types.contains("integer") && types.contains("number")) {
+            return;
+        }
+        ArrayNode typeArray = NODES.arrayNode();
+        for (String type : types) {
+            typeArray.add(type);
+        }
+        replaceField(schema, "oneOf", "type", typeArray.size() == 1 ? typeArray.get(0) : typeArray);
+        rewrites.add("replaced oneOf of types with type " + typeArray + " at " + display(pointer));
+    }
+
+    private static void anyOfRequired(ObjectNode schema, String pointer, List<String> rewrites) {
+        JsonNode anyOf = schema.get("anyOf");
+        if (anyOf == null || !anyOf.isArray() || anyOf.size() == 0) {
+            return;
+        }
+        List<Set<String>> branches = new ArrayList<>();
+        for (JsonNode branch : anyOf) {
+            if (!branch.isObject() || !onlyKeyword(branch, "required") || !branch.get("required").isArray()) {
+                return;
+            }
+            Set<String> required = new LinkedHashSet<>();
+            for (JsonNode name : branch.get("required")) {
+                if (!name.isTextual()) {
+                    return;
+                }
+                required.add(name.asText());
+            }
+            branches.add(required);
+        }
+
+        // A branch requiring a superset of another branch's properties can only match when that one does
+        List<Set<String>> kept = new ArrayList<>();
+        for (int i = 0; i < branches.size(); i++) {
+            boolean implied = false;
+            for (int j = 0; j < branches.size() && !implied; j++) {
+                Set<String> other = branches.get(j);
+                implied = i != j && branches.get(i).containsAll(other)
+                        && (other.size() < branches.get(i).size() || j < i);
+            }
+            if (!implied) {
+                kept.add(branches.get(i));
+            }
+        }
+        Set<String> common = new LinkedHashSet<>(kept.get(0));
+        for (Set<String> branch : kept) {
+            common.retainAll(branch);
+        }
+        if (common.isEmpty() && kept.size() == branches.size()) {
+            return;
+        }
+
+        // required must not be empty, so it is only touched when there is something to move
+        if (!common.isEmpty()) {
+            ArrayNode required = schema.has("required") && schema.get("required").isArray()
+                    ? (ArrayNode) schema.get("required") : schema.putArray("required");
+            Set<String> present = new HashSet<>();
+            for (JsonNode name : required) {
+                present.add(name.asText());
+            }
+            for (String name : common) {
+                if (present.add(name)) {
+                    required.add(name);
+                }
+            }
+        }
+        ArrayNode rewritten = NODES.arrayNode();
+        for (Set<String> branch : kept) {
+            branch.removeAll(common);
+            if (branch.isEmpty()) {
+                // This branch now matches every object, so the anyOf always holds
+                rewritten = null;
+                break;
+            }
+            ArrayNode names = NODES.arrayNode();
+            for (String name : branch) {
+                names.add(name);
+            }
+            rewritten.addObject().set("required", names);
+        }
+        if (rewritten == null) {
+            schema.remove("anyOf");
+        } else {
+            schema.set("anyOf", rewritten);
+        }
+        rewrites.add((common.isEmpty() ? "" : "moved required " + common + " out of anyOf and ")
+                + "kept " + kept.size() + " of " + branches.size() + " anyOf branches at " + display(pointer));
+    }
+
+    /**
+     * @return True if the schema has the keyword and otherwise only annotations
+     */
+    private static boolean onlyKeyword(JsonNode schema, String keyword) {
+        if (!schema.has(keyword)) {
+            return false;
+        }
+        for (Iterator<String> names = schema.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            if (!name.equals(keyword) && !ANNOTATIONS.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replace a field keeping the position of the others
+     */
+    private static void replaceField(ObjectNode schema, String oldName, String newName, JsonNode value) {
+        Map<String, JsonNode> fields = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = schema.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (field.getKey().equals(oldName)) {
+                fields.put(newName, value);
+            } else {
+                fields.put(field.getKey(), field.getValue());
+            }
+        }
+        schema.removeAll();
+        schema.setAll(fields);
+    }
+
+    private static int size(JsonNode node) {
+        int size = 1;
+        for (JsonNode child : node) {
+            size += size(child);
+        }
+        return size;
+    }
+
+    private static String display(String pointer) {
+        return pointer.isEmpty() ? "#" : pointer;
+    }
+
+    /**
+     * @return Every object schema in the tree, parents before children
+     */
+    private static List<Site> schemas(JsonNode root) {
+        List<Site> sites = new ArrayList<>();
+        if (!root.isObject()) {
+            return sites;
+        }
+        sites.add(new Site(root, null, null, -1, ""));
+        for (int i = 0; i < sites.size(); i++) {
+            Site site = sites.get(i);
+            for (Iterator<Map.Entry<String, JsonNode>> fields = site.node.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String keyword = field.getKey();
+                JsonNode value = field.getValue();
+                String pointer = site.pointer + "/" + escape(keyword);
+                if (value.isObject() && SINGLE_SCHEMA_KEYWORDS.contains(keyword)) {
+                    sites.add(new Site(value, site.node, keyword, -1, pointer));
+                } else if (value.isObject() && SCHEMA_MAP_KEYWORDS.contains(keyword)) {
+                    for (Iterator<Map.Entry<String, JsonNode>> entries = value.fields(); entries.hasNext(); ) {
+                        Map.Entry<String, JsonNode> entry = entries.next();
+                        if (entry.getValue().isObject()) {
+                            sites.add(new Site(entry.getValue(), value, entry.getKey(), -1,
+                                    pointer + "/" + escape(entry.getKey())));
+                        }
+                    }
+                } else if (value.isArray() && SCHEMA_ARRAY_KEYWORDS.contains(keyword)) {
+                    for (int index = 0; index < value.size(); index++) {
+                        if (value.get(index).isObject()) {
+                            sites.add(new Site(value.get(index), value, keyword, index, pointer + "/" + index));
+                        }
+                    }
+                }
+            }
+        }
+        return sites;
+    }
+
+    private static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * A schema and where it sits: in parent under key, or at index when parent is an array
+     */
+    private static final class Site {
+        private final JsonNode node;
+        private final JsonNode parent;
+        private final String key;
+        private final int index;
+        private final String pointer;
+
+        Site(JsonNode node, JsonNode parent, String key, int index, String pointer) {
+            this.node = node;
+            this.parent = parent;
+            this.key = key;
+            this.index = index;
+            this.pointer = pointer;
+        }
+    }
+
+    /**
+     * Optimized schema and a description of each rewrite
+     */
+    public static class Result {
+        private final JsonNode schema;
+        private final List<String> rewrites;
+
+        Result(JsonNode schema, List<String> rewrites) {
+            this.schema = schema;
+            this.rewrites = Collections.unmodifiableList(rewrites);
+        }
+
+        public JsonNode getSchema() {
+            return schema;
+        }
+
+        public List<String> getRewrites() {
+            return rewrites;
+        }
+    }
+
+    /**
+     * Optimizes a schema, writes it if an output file is given, and compares validation time of
+     * a catalog of the sample feeds against both versions.
+     * Usage: SchemaOptimizer [schema] [output schema] [feed count]
+     */
+    public static void main(String[] args) throws IOException, ProcessingException {
+        String input = args.length > 0 ? args[0] : "src/main/resources/schema/feeds_schema.json";
+        int feeds = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        ObjectMapper jsonMapper = new ObjectMapper();
+        JsonNode original = jsonMapper.readTree(new File(input));
+        Result result = new SchemaOptimizer().optimize(original);
+        for (String rewrite : result.getRewrites()) {
+            System.out.println(rewrite);
+        }
+        if (args.length > 1) {
+            jsonMapper.writerWithDefaultPrettyPrinter().writeValue(new File(args[1]), result.getSchema());
+            System.out.println("Optimized schema written to " + args[1]);
+        }
+
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        JsonNode file = yamlMapper.readTree(new File("src/main/resources/schema/feed_file_1.yaml")).get(0);
+        JsonNode kafka = yamlMapper.readTree(new File("src/main/resources/schema/feed_kafka_1.yaml")).get(0);
+        ArrayNode catalog = yamlMapper.createArrayNode();
+        for (int i = 0; i < feeds; i++) {
+            catalog.add((i % 2 == 0 ? file : kafka).deepCopy());
+        }
+        JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+        SchemaValidator validator = new SchemaValidator(factory);
+        JsonSchema before = factory.getJsonSchema(original);
+        JsonSchema after = factory.getJsonSchema(result.getSchema());
+        for (int round = 0; round < 3; round++) {
+            long beforeNanos = time(validator, before, catalog);
+            long afterNanos = time(validator, after, catalog);
+            System.out.printf("%,d feeds: original %,d ms, optimized %,d ms%n",
+                    feeds, beforeNanos / 1_000_000, afterNanos / 1_000_000);
+        }
+    }
+
+    private static long time(SchemaValidator validator, JsonSchema schema, JsonNode catalog) throws ProcessingException {
+        long start = System.nanoTime();
+        if (!validator.validate(schema, catalog).isSuccess()) {
+            throw new IllegalStateException("Sample catalog should be valid");
+        }
+        return System.nanoTime() - start;
+    }
+}
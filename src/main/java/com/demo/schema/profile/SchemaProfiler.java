@@ -0,0 +1,387 @@
+package com.demo.schema.profile;
+
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jackson.jsonpointer.JsonPointer;
+import com.github.fge.jsonschema.SchemaVersion;
+import com.github.fge.jsonschema.cfg.ValidationConfiguration;
+import com.github.fge.jsonschema.cfg.ValidationConfigurationBuilder;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.processing.Processor;
+import com.github.fge.jsonschema.core.ref.JsonRef;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.core.report.ReportProvider;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidator;
+import com.github.fge.jsonschema.keyword.validator.KeywordValidatorFactory;
+import com.github.fge.jsonschema.library.DraftV4Library;
+import com.github.fge.jsonschema.library.Keyword;
+import com.github.fge.jsonschema.library.Library;
+import com.github.fge.jsonschema.library.LibraryBuilder;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.github.fge.jsonschema.main.JsonSchemaFactoryBuilder;
+import com.github.fge.jsonschema.processors.data.FullData;
+import com.github.fge.msgsimple.bundle.MessageBundle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records where schema validation spends its time, per schema location and keyword.
+ *
+ * Schemas compiled by {@link #newSchemaFactory()} run every keyword validator of the draft-04
+ * library through a timer, both for the default library and for schemas whose {@code $schema}
+ * names draft-04; pass that factory and the profiler to
+ * {@link SchemaValidator#SchemaValidator(JsonSchemaFactory, SchemaProfiler)} to also count the
+ * documents validated. Schemas compiled by any other factory are not profiled and pay nothing.
+ *
+ * Each entry is a schema pointer and keyword, e.g. {@code /items/properties/name} and
+ * {@code minLength}, with its invocation count, total time, and self time. Keywords with
+ * subschemas ({@code oneOf}, {@code anyOf}, {@code allOf}, {@code not}) validate their branches
+ * inside their own timer, so their total includes the branches' keywords while their self time
+ * does not. Descending into {@code properties} and {@code items} happens outside any keyword;
+ * that time appears only in the document total, as the unattributed remainder.
+ *
+ * {@link #writeReport} prints entries by self time; {@link #writeFolded} writes folded stacks, one
+ * frame per pointer token, that {@code flamegraph.pl} or speedscope render directly.
+ *
+ * Safe to share between validating threads; timing costs two {@link System#nanoTime()} calls
+ * and a map lookup per keyword invocation.
+ */
+public class SchemaProfiler {
+
+    private final ConcurrentMap<String, ConcurrentMap<JsonPointer, KeywordStats>> stats = new ConcurrentHashMap<>();
+    private final ThreadLocal<Frames> frames = ThreadLocal.withInitial(Frames::new);
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder documentNanos = new LongAdder();
+
+    /**
+     * @return Schema factory whose schemas are profiled
+     */
+    public JsonSchemaFactory newSchemaFactory() {
+        return configure(JsonSchemaFactory.newBuilder()).freeze();
+    }
+
+    /**
+     * @return Schema factory whose schemas are profiled and report with the given provider,
+     *         e.g. a {@link com.demo.schema.report.CompactReportProvider}
+     */
+    public JsonSchemaFactory newSchemaFactory(ReportProvider reportProvider) {
+        return configure(JsonSchemaFactory.newBuilder().setReportProvider(reportProvider)).freeze();
+    }
+
+    private JsonSchemaFactoryBuilder configure(JsonSchemaFactoryBuilder builder) {
+        Library library = DraftV4Library.get();
+        LibraryBuilder profiled = library.thaw();
+        for (Map.Entry<String, KeywordValidatorFactory> entry : library.getValidators().entries().entrySet()) {
+            String keyword = entry.getKey();
+            profiled.addKeyword(Keyword.newBuilder(keyword)
+                    .withSyntaxChecker(library.getSyntaxCheckers().entries().get(keyword))
+                    .withDigester(library.getDigesters().entries().get(keyword))
+                    .withValidatorFactory(new ProfilingFactory(keyword, entry.getValue()))
+                    .freeze());
+        }
+        Library frozen = profiled.freeze();
+        ValidationConfigurationBuilder cfg = ValidationConfiguration.newBuilder();
+        // Used for schemas declaring draft-04 in $schema
+        replaceLibrary(cfg, SchemaVersion.DRAFTV4.getLocation(), frozen);
+        // Used for every schema whose $schema is not a draft fge knows, as with the feed schemas
+        cfg.setDefaultLibrary("urn:com.demo.schema:profiled-draftv4#", frozen);
+        return builder.setValidationConfiguration(cfg.freeze());
+    }
+
+    /**
+     * Register a library for a {@code $schema} URI fge already preloads. The builder offers no way
+     * to replace one ({@code addLibrary} rejects a known URI), so the built-in entry is dropped from
+     * its library map first.
+     */
+    private static void replaceLibrary(ValidationConfigurationBuilder cfg, URI uri, Library library) {
+        try {
+            Field field = ValidationConfigurationBuilder.class.getDeclaredField("libraries");
+            field.setAccessible(true);
+            ((Map<?, ?>) field.get(cfg)).remove(JsonRef.fromURI(uri));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalStateException("Cannot replace the library for " + uri
+                    + " in this json-schema-validator version", e);
+        }
+        cfg.addLibrary(uri.toString(), library);
+    }
+
+    /**
+     * Count one validated document; called by {@link SchemaValidator#validate}
+     * @param nanos Time the whole validation took
+     */
+    public void recordDocument(long nanos) {
+        documents.increment();
+        documentNanos.add(nanos);
+    }
+
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    public long getDocumentNanos() {
+        return documentNanos.sum();
+    }
+
+    /**
+     * @return Snapshot of every recorded entry, by self time, highest first
+     */
+    public List<KeywordStats> getStats() {
+        List<KeywordStats> all = new ArrayList<>();
+        for (ConcurrentMap<JsonPointer, KeywordStats> byPointer : stats.values()) {
+            all.addAll(byPointer.values());
+        }
+        all.sort(Comparator.comparingLong(KeywordStats::getSelfNanos).reversed()
+                .thenComparing(KeywordStats::getPointer).thenComparing(KeywordStats::getKeyword));
+        return all;
+    }
+
+    /**
+     * @return Entry for a pointer (e.g. {@code /items}) and keyword, or null if never invoked
+     */
+    public KeywordStats get(String pointer, String keyword) {
+        ConcurrentMap<JsonPointer, KeywordStats> byPointer = stats.get(keyword);
+        if (byPointer == null) {
+            return null;
+        }
+        for (KeywordStats entry : byPointer.values()) {
+            if (entry.getPointer().equals(pointer)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forget everything recorded so far
+     */
+    public void reset() {
+        stats.clear();
+        documents.reset();
+        documentNanos.reset();
+    }
+
+    /**
+     * Write the entries with the highest self time as a table
+     * @param limit Maximum number of entries
+     */
+    public void writeReport(Appendable out, int limit) throws IOException {
+        List<KeywordStats> all = getStats();
+        long attributed = 0;
+        for (KeywordStats entry : all) {
+            attributed += entry.getSelfNanos();
+        }
+        long total = getDocumentNanos();
+        out.append(String.format("%,d documents, %,d us validating, %,d us in keywords%n",
+                getDocuments(), total / 1_000, attributed / 1_000));
+        out.append(String.format("%10s %12s %12s %6s  %s%n", "calls", "self us", "total us", "self%", "pointer keyword"));
+        for (KeywordStats entry : all.subList(0, Math.min(limit, all.size()))) {
+            out.append(String.format("%,10d %,12d %,12d %5.1f%%  %s %s%n",
+                    entry.getCount(), entry.getSelfNanos() / 1_000, entry.getTotalNanos() / 1_000,
+                    attributed == 0 ? 0.0 : 100.0 * entry.getSelfNanos() / attributed,
+                    entry.getPointer().isEmpty() ? "#" : entry.getPointer(), entry.getKeyword()));
+        }
+    }
+
+    /**
+     * Write folded stacks, {@code #;items;properties;name;minLength 12345} with self nanoseconds,
+     * one line per entry
+     */
+    public void writeFolded(Appendable out) throws IOException {
+        for (KeywordStats entry : getStats()) {
+            if (entry.getSelfNanos() <= 0) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder("#");
+            for (String token : entry.getPointer().split("/")) {
+                if (!token.isEmpty()) {
+                    line.append(';').append(frame(token));
+                }
+            }
+            line.append(';').append(frame(entry.getKeyword())).append(' ').append(entry.getSelfNanos()).append('\n');
+            out.append(line);
+        }
+    }
+
+    private static String frame(String token) {
+        return token.replace(';', '_').replace(' ', '_');
+    }
+
+    private KeywordStats stats(String keyword, JsonPointer pointer) {
+        ConcurrentMap<JsonPointer, KeywordStats> byPointer = stats.get(keyword);
+        if (byPointer == null) {
+            byPointer = stats.computeIfAbsent(keyword, k -> new ConcurrentHashMap<>());
+        }
+        KeywordStats entry = byPointer.get(pointer);
+        if (entry == null) {
+            entry = byPointer.computeIfAbsent(pointer, p -> new KeywordStats(p.toString(), keyword));
+        }
+        return entry;
+    }
+
+    /**
+     * Times one keyword's invocations; self time is total time less the time of keywords
+     * validated inside it on the same thread
+     */
+    private void validate(String keyword, KeywordValidator delegate, Processor<FullData, FullData> processor,
+            ProcessingReport report, MessageBundle bundle, FullData data) throws ProcessingException {
+        Frames stack = frames.get();
+        int level = stack.depth++;
+        if (level + 1 == stack.childNanos.length) {
+            stack.childNanos = Arrays.copyOf(stack.childNanos, stack.childNanos.length * 2);
+        }
+        stack.childNanos[level + 1] = 0;
+        long start = System.nanoTime();
+        try {
+            delegate.validate(processor, report, bundle, data);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            stack.depth = level;
+            stack.childNanos[level] += elapsed;
+            stats(keyword, data.getSchema().getPointer()).record(elapsed, elapsed - stack.childNanos[level + 1]);
+        }
+    }
+
+    /**
+     * Keywords being validated on one thread; childNanos[i] sums the time of the keywords
+     * completed inside the keyword at depth i - 1
+     */
+    private static final class Frames {
+        long[] childNanos = new long[16];
+        int depth;
+    }
+
+    private final class ProfilingFactory implements KeywordValidatorFactory {
+
+        private final String keyword;
+        private final KeywordValidatorFactory delegate;
+
+        ProfilingFactory(String keyword, KeywordValidatorFactory delegate) {
+            this.keyword = keyword;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public KeywordValidator getKeywordValidator(JsonNode node) throws ProcessingException {
+            KeywordValidator validator = delegate.getKeywordValidator(node);
+            return new KeywordValidator() {
+                @Override
+                public void validate(Processor<FullData, FullData> processor, ProcessingReport report,
+                        MessageBundle bundle, FullData data) throws ProcessingException {
+                    SchemaProfiler.this.validate(keyword, validator, processor, report, bundle, data);
+                }
+
+                @Override
+                public String toString() {
+                    return validator.toString();
+                }
+            };
+        }
+    }
+
+    /**
+     * Invocation count and time of one keyword at one schema pointer
+     */
+    public static final class KeywordStats {
+
+        private final String pointer;
+        private final String keyword;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder selfNanos = new LongAdder();
+
+        KeywordStats(String pointer, String keyword) {
+            this.pointer = pointer;
+            this.keyword = keyword;
+        }
+
+        void record(long total, long self) {
+            count.increment();
+            totalNanos.add(total);
+            selfNanos.add(self);
+        }
+
+        /**
+         * @return JSON pointer of the schema holding the keyword; empty for the root schema
+         */
+        public String getPointer() {
+            return pointer;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getSelfNanos() {
+            return selfNanos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return pointer + " " + keyword + ": " + getCount() + " calls, " + getSelfNanos() + " ns self";
+        }
+    }
+
+    /**
+     * Profiles validation of a catalog built from the sample feeds against feeds_schema.json.
+     * Usage: SchemaProfiler [feed count] [passes] [folded output file]
+     */
+    public static void main(String[] args) throws IOException, ProcessingException {
+        int feeds = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        JsonNode file = yamlMapper.readTree(new File("src/main/resources/schema/feed_file_1.yaml")).get(0);
+        JsonNode kafka = yamlMapper.readTree(new File("src/main/resources/schema/feed_kafka_1.yaml")).get(0);
+        ArrayNode catalog = yamlMapper.createArrayNode();
+        for (int i = 0; i < feeds; i++) {
+            catalog.add((i % 2 == 0 ? file : kafka).deepCopy());
+        }
+
+        SchemaProfiler profiler = new SchemaProfiler();
+        SchemaValidator validator = new SchemaValidator(profiler.newSchemaFactory(), profiler);
+        JsonSchema schema = validator.loadSchema("src/main/resources/schema/feeds_schema.json");
+        for (int i = 0; i < passes; i++) {
+            if (i == passes / 2) {
+                // First half warms up the JIT
+                profiler.reset();
+            }
+            validator.validate(schema, catalog);
+        }
+
+        PrintStream out = System.out;
+        profiler.writeReport(out, 25);
+        if (args.length > 2) {
+            try (Writer folded = Files.newBufferedWriter(Paths.get(args[2]), StandardCharsets.UTF_8)) {
+                profiler.writeFolded(folded);
+            }
+            out.println("Folded stacks written to " + args[2]);
+        }
+    }
+}
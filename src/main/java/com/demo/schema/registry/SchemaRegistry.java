@@ -0,0 +1,254 @@
+package com.demo.schema.registry;
+
+import com.demo.schema.MessageValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Registry of compiled JSON schemas, loaded eagerly at startup.
+ *
+ * Schemas are discovered under a directory, looked up on the classpath first and then on the
+ * file system (the same order {@link MessageValidator#readJsonFile} uses for single files).
+ * They are syntax-checked and compiled in parallel, and each is registered under its path
+ * relative to the directory without the {@code .json} extension.
+ *
+ * The validator library builds its keyword validators lazily, on the first validation that
+ * reaches each subschema. {@link #warmUp(int)} validates a synthetic instance per schema that
+ * visits every subschema, so that work (and JIT compilation of the validation path) happens
+ * before the first real request instead of during it.
+ */
+public class SchemaRegistry {
+
+    private static final String SCHEMA_EXTENSION = ".json";
+
+    private final MessageValidator validator;
+    private final ConcurrentMap<String, Entry> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * @param validator Validator schemas are read and compiled with, so that they get its
+     *                  factory's report provider and keyword library
+     */
+    public SchemaRegistry(MessageValidator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Find the schema files under a directory, on the classpath or on the file system
+     * @param location Classpath directory or file system directory
+     * @return Paths of the schema files relative to the location, sorted
+     * @throws IOException If the location cannot be listed or does not exist
+     */
+    public List<String> discover(String location) throws IOException {
+        String prefix = location.endsWith("/") || location.isEmpty() ? location : location + "/";
+        List<String> found = new ArrayList<>();
+        Enumeration<URL> roots = getClass().getClassLoader().getResources(prefix);
+        while (roots.hasMoreElements()) {
+            URL root = roots.nextElement();
+            if ("file".equals(root.getProtocol())) {
+                try {
+                    found.addAll(listDirectory(Paths.get(root.toURI())));
+                } catch (URISyntaxException e) {
+                    throw new IOException("Cannot list " + root, e);
+                }
+            } else if ("jar".equals(root.getProtocol())) {
+                found.addAll(listJar(root, prefix));
+            }
+        }
+        if (found.isEmpty()) {
+            Path directory = Paths.get(location);
+            if (!Files.isDirectory(directory)) {
+                throw new IOException("Schema directory not found: " + location);
+            }
+            found.addAll(listDirectory(directory));
+        }
+        return found.stream().distinct().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Discover, parse and compile all schemas under a directory in parallel
+     * @param location Classpath directory or file system directory
+     * @param parallelism Number of threads to compile with
+     * @return Names of the registered schemas
+     * @throws IOException If the directory cannot be listed, or any schema cannot be read or
+     *         is not a valid schema; failures of individual files are attached as suppressed
+     * @throws InterruptedException If interrupted while waiting for compilation
+     */
+    public List<String> loadAll(String location, int parallelism) throws IOException, InterruptedException {
+        String prefix = location.endsWith("/") || location.isEmpty() ? location : location + "/";
+        List<String> files = discover(location);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, files.size())));
+        try {
+            Map<String, Future<Entry>> pending = new LinkedHashMap<>();
+            for (String file : files) {
+                String name = file.substring(0, file.length() - SCHEMA_EXTENSION.length());
+                pending.put(name, executor.submit(() -> compile(prefix + file)));
+            }
+
+            IOException failure = null;
+            List<String> loaded = new ArrayList<>();
+            for (Map.Entry<String, Future<Entry>> entry : pending.entrySet()) {
+                try {
+                    schemas.put(entry.getKey(), entry.getValue().get());
+                    loaded.add(entry.getKey());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = new IOException("Failed to load schemas under " + location);
+                    }
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return loaded;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Compile and register a single schema
+     * @param name Name to register the schema under
+     * @param schemaPath Classpath or file system path of the schema
+     * @return The compiled schema
+     * @throws IOException If the file cannot be read or is not a valid schema
+     */
+    public JsonSchema register(String name, String schemaPath) throws IOException {
+        Entry entry = compile(schemaPath);
+        schemas.put(name, entry);
+        return entry.schema;
+    }
+
+    /**
+     * Validate a synthetic instance of every registered schema, a number of times. Synthetic
+     * instances may be invalid; one that reaches a per-document error limit still counts.
+     * @param iterations How often to validate each instance; a few thousand gets the
+     *                   validation path JIT-compiled
+     * @return Number of validations performed
+     * @throws ProcessingException If a schema cannot be processed
+     */
+    public int warmUp(int iterations) throws ProcessingException {
+        int validations = 0;
+        for (Entry entry : schemas.values()) {
+            JsonNode instance = SyntheticInstances.forSchema(entry.schemaNode);
+            for (int i = 0; i < iterations; i++) {
+                MessageValidator.validateReport(entry.schema, instance);
+                validations++;
+            }
+        }
+        return validations;
+    }
+
+    /**
+     * @return The schema registered under the name, or null
+     */
+    public JsonSchema get(String name) {
+        Entry entry = schemas.get(name);
+        return entry == null ? null : entry.schema;
+    }
+
+    /**
+     * @return Snapshot of all registered schemas by name, sorted by name
+     */
+    public Map<String, JsonSchema> asMap() {
+        Map<String, JsonSchema> snapshot = new TreeMap<>();
+        schemas.forEach((name, entry) -> snapshot.put(name, entry.schema));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private Entry compile(String schemaPath) throws IOException {
+        JsonNode schemaNode = validator.readJsonFile(schemaPath);
+        ProcessingReport syntax = validator.getSchemaFactory().getSyntaxValidator().validateSchema(schemaNode);
+        if (!syntax.isSuccess()) {
+            throw new IOException("Invalid schema " + schemaPath + ": " + syntax);
+        }
+        try {
+            return new Entry(schemaNode, validator.loadSchema(schemaNode));
+        } catch (ProcessingException e) {
+            throw new IOException("Invalid schema " + schemaPath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> listDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(SCHEMA_EXTENSION))
+                    .filter(this::looksLikeSchema)
+                    .map(path -> directory.relativize(path).toString().replace('\\', '/'))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private List<String> listJar(URL root, String prefix) throws IOException {
+        List<String> found = new ArrayList<>();
+        JarURLConnection connection = (JarURLConnection) root.openConnection();
+        // Closing a cached JarFile would break other readers of the same jar
+        connection.setUseCaches(false);
+        try (JarFile jar = connection.getJarFile()) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String entryName = entries.nextElement().getName();
+                if (entryName.startsWith(prefix) && entryName.endsWith(SCHEMA_EXTENSION)
+                        && looksLikeSchema(validator.readJsonFile(entryName))) {
+                    found.add(entryName.substring(prefix.length()));
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean looksLikeSchema(Path path) {
+        try {
+            return looksLikeSchema(validator.readJsonFile(path.toString()));
+        } catch (IOException e) {
+            // Unparseable files are reported when they are compiled
+            return true;
+        }
+    }
+
+    /**
+     * Schema directories may also hold sample documents (such as message.json); only files
+     * that declare a schema dialect or a type with properties/items are treated as schemas.
+     */
+    private static boolean looksLikeSchema(JsonNode node) {
+        return node.isObject() && (node.has("$schema")
+                || (node.has("type") && (node.has("properties") || node.has("items"))));
+    }
+
+    private static final class Entry {
+        private final JsonNode schemaNode;
+        private final JsonSchema schema;
+
+        Entry(JsonNode schemaNode, JsonSchema schema) {
+            this.schemaNode = schemaNode;
+            this.schema = schema;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.demo.schema.registry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Builds instances that walk every subschema of a schema, for warming up validators.
+ *
+ * The instance does not have to be valid: it only has to make the validator visit each
+ * {@code properties}, {@code items} and {@code additionalProperties} subschema so their
+ * keyword validators get built and exercised. {@code $ref} targets are not followed.
+ */
+final class SyntheticInstances {
+
+    private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+    private static final int MAX_DEPTH = 32;
+
+    private SyntheticInstances() {
+    }
+
+    static JsonNode forSchema(JsonNode schema) {
+        return build(schema, 0);
+    }
+
+    private static JsonNode build(JsonNode schema, int depth) {
+        if (schema == null || !schema.isObject() || depth > MAX_DEPTH) {
+            return FACTORY.nullNode();
+        }
+        if (schema.has("enum") && schema.get("enum").size() > 0) {
+            return schema.get("enum").get(0);
+        }
+        for (String combinator : new String[] {"allOf", "anyOf", "oneOf"}) {
+            JsonNode branches = schema.get(combinator);
+            if (branches != null && branches.size() > 0 && !schema.has("type") && !schema.has("properties")) {
+                return build(branches.get(0), depth + 1);
+            }
+        }
+
+        switch (typeOf(schema)) {
+            case "object":
+                ObjectNode object = FACTORY.objectNode();
+                JsonNode properties = schema.path("properties");
+                Iterator<Map.Entry<String, JsonNode>> fields = properties.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    object.set(field.getKey(), build(field.getValue(), depth + 1));
+                }
+                JsonNode additional = schema.get("additionalProperties");
+                if (additional != null && additional.isObject()) {
+                    object.set("synthetic-property", build(additional, depth + 1));
+                }
+                return object;
+            case "array":
+                ArrayNode array = FACTORY.arrayNode();
+                JsonNode items = schema.get("items");
+                if (items != null && items.isArray()) {
+                    for (JsonNode item : items) {
+                        array.add(build(item, depth + 1));
+                    }
+                } else if (items != null) {
+                    array.add(build(items, depth + 1));
+                }
+                return array;
+            case "integer":
+                return FACTORY.numberNode(schema.path("minimum").asLong(0));
+            case "number":
+                return FACTORY.numberNode(schema.path("minimum").asDouble(0));
+            case "boolean":
+                return FACTORY.booleanNode(true);
+            case "null":
+                return FACTORY.nullNode();
+            default:
+                return FACTORY.textNode("synthetic");
+        }
+    }
+
+    private static String typeOf(JsonNode schema) {
+        JsonNode type = schema.get("type");
+        if (type != null && type.isArray() && type.size() > 0) {
+            return type.get(0).asText();
+        }
+        if (type != null && type.isTextual()) {
+            return type.asText();
+        }
+        if (schema.has("properties") || schema.has("additionalProperties") || schema.has("required")) {
+            return "object";
+        }
+        if (schema.has("items")) {
+            return "array";
+        }
+        return "string";
+    }
+}
@@ -0,0 +1,130 @@
+package com.demo.schema.report;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One validation failure: an error code, the JSON pointer of the failing instance and an
+ * optional short argument such as the missing property name.
+ *
+ * Instances are immutable and may be flyweights. A flood of messages failing the same way
+ * yields the same few errors over and over, so reports of one {@link CompactReportProvider}
+ * share one instance per (code, pointer, argument) through a {@link Cache}. The cache is
+ * bounded, since pointers into arrays carry indices, and starts over when full, so it keeps
+ * sharing the errors of current traffic and is released with its provider. Errors with free
+ * text, such as {@link ErrorCode#OTHER} messages, are never cached. Text is only produced by
+ * {@link #render()}.
+ */
+public final class CompactError {
+
+    static final int MAX_CACHED = 8192;
+
+    private final ErrorCode code;
+    private final String pointer;
+    private final String argument;
+
+    private CompactError(ErrorCode code, String pointer, String argument) {
+        this.code = code;
+        this.pointer = pointer;
+        this.argument = argument;
+    }
+
+    /**
+     * @param code Error code
+     * @param pointer JSON pointer of the failing instance, "" for the root
+     * @param argument Short argument, or null
+     * @return A new, unshared error
+     */
+    public static CompactError of(ErrorCode code, String pointer, String argument) {
+        return new CompactError(code, pointer, argument);
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    /**
+     * @return JSON pointer of the failing instance, "" for the root
+     */
+    public String getPointer() {
+        return pointer;
+    }
+
+    /**
+     * @return Argument of the error, or null
+     */
+    public String getArgument() {
+        return argument;
+    }
+
+    /**
+     * @return Human readable form, e.g. {@code "/records: number is lower than the minimum 0"}
+     */
+    public String render() {
+        return (pointer.isEmpty() ? "/" : pointer) + ": " + code.format(argument);
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+
+    /**
+     * Shared errors of one report provider, at most {@link #MAX_CACHED} at a time
+     */
+    static final class Cache {
+
+        private static final String NO_ARGUMENT = "";
+
+        private volatile ConcurrentMap<String, ConcurrentMap<String, CompactError>>[] byCode = newGeneration();
+        private final AtomicInteger cached = new AtomicInteger();
+
+        /**
+         * @return The shared instance for these values; {@link ErrorCode#OTHER} errors are not shared
+         */
+        CompactError get(ErrorCode code, String pointer, String argument) {
+            if (code == ErrorCode.OTHER) {
+                return of(code, pointer, argument);
+            }
+            ConcurrentMap<String, CompactError> byArgument = byCode[code.ordinal()].get(pointer);
+            String argumentKey = argument == null ? NO_ARGUMENT : argument;
+            if (byArgument != null) {
+                CompactError shared = byArgument.get(argumentKey);
+                if (shared != null) {
+                    return shared;
+                }
+            }
+
+            CompactError error = new CompactError(code, pointer, argument);
+            if (cached.incrementAndGet() > MAX_CACHED) {
+                // Start over rather than pin the first MAX_CACHED errors for good
+                byCode = newGeneration();
+                cached.set(1);
+                byArgument = null;
+            }
+            if (byArgument == null) {
+                byArgument = byCode[code.ordinal()].computeIfAbsent(pointer, key -> new ConcurrentHashMap<>());
+            }
+            CompactError existing = byArgument.putIfAbsent(argumentKey, error);
+            return existing != null ? existing : error;
+        }
+
+        /**
+         * @return Approximate number of errors currently shared
+         */
+        int size() {
+            return cached.get();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static ConcurrentMap<String, ConcurrentMap<String, CompactError>>[] newGeneration() {
+            ConcurrentMap<String, ConcurrentMap<String, CompactError>>[] generation =
+                    new ConcurrentMap[ErrorCode.values().length];
+            for (int i = 0; i < generation.length; i++) {
+                generation[i] = new ConcurrentHashMap<>();
+            }
+            return generation;
+        }
+    }
+}
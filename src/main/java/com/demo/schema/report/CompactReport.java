@@ -0,0 +1,155 @@
+package com.demo.schema.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.report.AbstractProcessingReport;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Processing report that keeps each error as a {@link CompactError} instead of the library's
+ * message objects.
+ *
+ * Messages are reduced to code, pointer and argument the moment they are logged and then
+ * dropped, along with the schema and instance nodes and nested reports they carry. Messages
+ * below {@link LogLevel#ERROR} are not kept. Text is only built when the report is rendered or
+ * iterated; iteration recreates minimal messages so code written against
+ * {@code ProcessingReport} keeps working.
+ *
+ * A report may be limited to a number of errors. Once the limit is reached it throws
+ * {@link ErrorLimitReachedException} to stop validating the document, and reports itself as
+ * incomplete.
+ */
+public final class CompactReport extends AbstractProcessingReport {
+
+    private static final CompactError[] EMPTY = new CompactError[0];
+
+    private final int maxErrors;
+    private final CompactError.Cache cache;
+    private CompactError[] errors = EMPTY;
+    private int size;
+    private boolean complete = true;
+
+    CompactReport(LogLevel logLevel, LogLevel exceptionThreshold, int maxErrors, CompactError.Cache cache) {
+        super(logLevel, exceptionThreshold);
+        this.maxErrors = maxErrors;
+        this.cache = cache;
+    }
+
+    @Override
+    public void log(LogLevel level, ProcessingMessage message) {
+        if (level.compareTo(LogLevel.ERROR) < 0) {
+            return;
+        }
+        JsonNode json = message.asJson();
+        ErrorCode code = ErrorCode.forKeyword(json.path("keyword").textValue());
+        String pointer = json.path("instance").path("pointer").asText("");
+        if (code == ErrorCode.OTHER) {
+            add(CompactError.of(code, pointer, message.getMessage()));
+            return;
+        }
+        JsonNode argument = code.getArgumentField() == null ? null : json.get(code.getArgumentField());
+        if (argument == null || argument.isNull()) {
+            add(cache.get(code, pointer, null));
+        } else if (argument.isArray()) {
+            for (JsonNode each : argument) {
+                add(cache.get(code, pointer, each.asText()));
+            }
+        } else {
+            add(cache.get(code, pointer, argument.asText()));
+        }
+    }
+
+    private void add(CompactError error) {
+        if (size == errors.length) {
+            errors = Arrays.copyOf(errors, Math.max(4, Math.min(size * 2, maxErrors)));
+        }
+        errors[size++] = error;
+        if (size == maxErrors) {
+            complete = false;
+            throw new ErrorLimitReachedException(this);
+        }
+    }
+
+    /**
+     * @return Maximum number of errors recorded before validation stops
+     */
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    /**
+     * @return False if validation stopped at the error limit, so later errors may be missing
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return Number of errors recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    public CompactError get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return errors[index];
+    }
+
+    /**
+     * @return The recorded errors, in the order they were reported
+     */
+    public List<CompactError> getErrors() {
+        return Collections.unmodifiableList(Arrays.asList(errors).subList(0, size));
+    }
+
+    /**
+     * @return One line per error, or "success"
+     */
+    public String render() {
+        if (size == 0) {
+            return isSuccess() ? "success" : "failure";
+        }
+        StringBuilder out = new StringBuilder(size * 48);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                out.append('\n');
+            }
+            out.append(errors[i].render());
+        }
+        return out.toString();
+    }
+
+    @Override
+    public Iterator<ProcessingMessage> iterator() {
+        return new Iterator<ProcessingMessage>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public ProcessingMessage next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                CompactError error = errors[next++];
+                return new ProcessingMessage()
+                        .setLogLevel(LogLevel.ERROR)
+                        .setMessage(error.render())
+                        .put("keyword", error.getCode().getKeyword())
+                        .put("pointer", error.getPointer());
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.demo.schema.report;
+
+import com.github.fge.jsonschema.core.report.AbstractReportProvider;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Report provider creating {@link CompactReport}s.
+ *
+ * Schemas compiled by {@link #newSchemaFactory()} return compact reports from
+ * {@code validate}; pass that factory to {@code MessageValidator} or {@code SchemaValidator}
+ * to use them throughout.
+ */
+public final class CompactReportProvider extends AbstractReportProvider {
+
+    private final int maxErrors;
+    /** Errors shared by the reports of this provider */
+    private final CompactError.Cache cache = new CompactError.Cache();
+
+    /**
+     * Record all errors and never throw on validation failures
+     */
+    public CompactReportProvider() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Record errors up to a limit per document, then stop validating it
+     * @param maxErrors Maximum number of errors per document
+     */
+    public CompactReportProvider(int maxErrors) {
+        super(LogLevel.ERROR, LogLevel.FATAL);
+        if (maxErrors < 1) {
+            throw new IllegalArgumentException("maxErrors must be at least 1: " + maxErrors);
+        }
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * @return Schema factory whose schemas report with {@link CompactReport}
+     */
+    public static JsonSchemaFactory newSchemaFactory() {
+        return newSchemaFactory(new CompactReportProvider());
+    }
+
+    /**
+     * @return Schema factory whose schemas report with the given provider
+     */
+    public static JsonSchemaFactory newSchemaFactory(CompactReportProvider provider) {
+        return JsonSchemaFactory.newBuilder().setReportProvider(provider).freeze();
+    }
+
+    @Override
+    public ProcessingReport newReport() {
+        return new CompactReport(logLevel, exceptionThreshold, maxErrors, cache);
+    }
+
+    @Override
+    public ProcessingReport newReport(LogLevel logLevel) {
+        return new CompactReport(logLevel, exceptionThreshold, maxErrors, cache);
+    }
+
+    @Override
+    public ProcessingReport newReport(LogLevel logLevel, LogLevel exceptionThreshold) {
+        return new CompactReport(logLevel, exceptionThreshold, maxErrors, cache);
+    }
+}
@@ -0,0 +1,66 @@
+package com.demo.schema.report;
+
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Limits on how many errors are collected while validating.
+ *
+ * The per-document limit stops validating a document once it has that many errors, so a flood
+ * of badly broken documents costs little more than valid ones. The per-batch limit bounds the
+ * detailed errors kept by an {@link ErrorCollector}; all errors are still counted.
+ * <pre>
+ *   ErrorBudget budget = new ErrorBudget(1, 100);
+ *   MessageValidator validator = new MessageValidator(budget.newSchemaFactory());
+ *   ErrorCollector errors = validator.validateAll(schema, messages, budget.newCollector());
+ * </pre>
+ */
+public final class ErrorBudget {
+
+    /** Collect every error of every document */
+    public static final ErrorBudget UNLIMITED = new ErrorBudget(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final int maxErrorsPerDocument;
+    private final int maxErrorsPerBatch;
+
+    /**
+     * @param maxErrorsPerDocument Errors after which validation of a document stops, at least 1
+     * @param maxErrorsPerBatch Detailed errors sampled per batch, 0 for counters only
+     */
+    public ErrorBudget(int maxErrorsPerDocument, int maxErrorsPerBatch) {
+        if (maxErrorsPerDocument < 1) {
+            throw new IllegalArgumentException("maxErrorsPerDocument must be at least 1: " + maxErrorsPerDocument);
+        }
+        if (maxErrorsPerBatch < 0) {
+            throw new IllegalArgumentException("maxErrorsPerBatch must not be negative: " + maxErrorsPerBatch);
+        }
+        this.maxErrorsPerDocument = maxErrorsPerDocument;
+        this.maxErrorsPerBatch = maxErrorsPerBatch;
+    }
+
+    public int getMaxErrorsPerDocument() {
+        return maxErrorsPerDocument;
+    }
+
+    public int getMaxErrorsPerBatch() {
+        return maxErrorsPerBatch;
+    }
+
+    /**
+     * @return Schema factory whose schemas apply the per-document limit
+     */
+    public JsonSchemaFactory newSchemaFactory() {
+        return CompactReportProvider.newSchemaFactory(new CompactReportProvider(maxErrorsPerDocument));
+    }
+
+    /**
+     * @return Collector for one batch, sampling up to the per-batch limit
+     */
+    public ErrorCollector newCollector() {
+        return new ErrorCollector(maxErrorsPerBatch);
+    }
+
+    @Override
+    public String toString() {
+        return "ErrorBudget{perDocument=" + maxErrorsPerDocument + ", perBatch=" + maxErrorsPerBatch + '}';
+    }
+}
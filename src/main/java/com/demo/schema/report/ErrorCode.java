@@ -0,0 +1,82 @@
+package com.demo.schema.report;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Validation failures by schema keyword, with the message argument each one keeps.
+ *
+ * The argument names the message field the validator library stores it under; for
+ * {@code required}, {@code additionalProperties} and {@code dependencies} the field holds a list
+ * and one error is reported per entry.
+ */
+public enum ErrorCode {
+
+    TYPE("type", "found", "instance type %s is not allowed"),
+    REQUIRED("required", "missing", "missing required property %s"),
+    ADDITIONAL_PROPERTIES("additionalProperties", "unwanted", "unexpected property %s"),
+    MINIMUM("minimum", "minimum", "number is lower than the minimum %s"),
+    MAXIMUM("maximum", "maximum", "number is greater than the maximum %s"),
+    MULTIPLE_OF("multipleOf", "divisor", "number is not a multiple of %s"),
+    MIN_LENGTH("minLength", "minLength", "string is shorter than %s characters"),
+    MAX_LENGTH("maxLength", "maxLength", "string is longer than %s characters"),
+    PATTERN("pattern", "regex", "string does not match pattern %s"),
+    FORMAT("format", "attribute", "string is not a valid %s"),
+    ENUM("enum", null, "value is not one of the allowed values"),
+    MIN_ITEMS("minItems", "minItems", "array has fewer than %s items"),
+    MAX_ITEMS("maxItems", "maxItems", "array has more than %s items"),
+    ADDITIONAL_ITEMS("additionalItems", "allowed", "array has more than %s items"),
+    UNIQUE_ITEMS("uniqueItems", null, "array items are not unique"),
+    MIN_PROPERTIES("minProperties", "minProperties", "object has fewer than %s properties"),
+    MAX_PROPERTIES("maxProperties", "maxProperties", "object has more than %s properties"),
+    DEPENDENCIES("dependencies", "missing", "dependency %s is missing"),
+    ALL_OF("allOf", null, "instance does not match all schemas"),
+    ANY_OF("anyOf", null, "instance does not match any schema"),
+    ONE_OF("oneOf", "matched", "instance matches %s schemas where exactly one is required"),
+    NOT("not", null, "instance matches a schema it must not match"),
+    /** Anything else, such as unresolvable references; the argument is the library's message */
+    OTHER(null, null, "%s");
+
+    private static final Map<String, ErrorCode> BY_KEYWORD = new HashMap<>();
+
+    static {
+        for (ErrorCode code : values()) {
+            if (code.keyword != null) {
+                BY_KEYWORD.put(code.keyword, code);
+            }
+        }
+    }
+
+    private final String keyword;
+    private final String argumentField;
+    private final String template;
+
+    ErrorCode(String keyword, String argumentField, String template) {
+        this.keyword = keyword;
+        this.argumentField = argumentField;
+        this.template = template;
+    }
+
+    /**
+     * @return Code for a schema keyword, {@link #OTHER} when the keyword is unknown or null
+     */
+    public static ErrorCode forKeyword(String keyword) {
+        ErrorCode code = keyword == null ? null : BY_KEYWORD.get(keyword);
+        return code == null ? OTHER : code;
+    }
+
+    /**
+     * @return Schema keyword, or null for {@link #OTHER}
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    String getArgumentField() {
+        return argumentField;
+    }
+
+    String format(String argument) {
+        return argument == null ? template.replace(" %s", "") : String.format(template, argument);
+    }
+}
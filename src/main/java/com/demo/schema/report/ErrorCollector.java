@@ -0,0 +1,171 @@
+package com.demo.schema.report;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Error statistics of a batch of documents with a bounded sample of detailed errors.
+ *
+ * Counters (documents, invalid documents, errors per code) are exact for every error that was
+ * reported. Detailed errors are kept as a uniform reservoir sample of at most
+ * {@code maxSampledErrors}, so the memory and logging cost of a batch stays bounded however
+ * many documents fail. Errors not reported because a document hit its per-document limit are
+ * not counted; {@link #getIncompleteDocumentCount()} tells how many documents were cut short.
+ *
+ * Safe for use from multiple threads.
+ */
+public final class ErrorCollector {
+
+    private final int maxSampledErrors;
+    private final long[] countsByCode = new long[ErrorCode.values().length];
+    private final List<SampledError> sample;
+    private long documents;
+    private long invalidDocuments;
+    private long incompleteDocuments;
+    private long errors;
+
+    /**
+     * @param maxSampledErrors Maximum number of detailed errors to keep, 0 for counters only
+     */
+    public ErrorCollector(int maxSampledErrors) {
+        if (maxSampledErrors < 0) {
+            throw new IllegalArgumentException("maxSampledErrors must not be negative: " + maxSampledErrors);
+        }
+        this.maxSampledErrors = maxSampledErrors;
+        this.sample = new ArrayList<>(Math.min(maxSampledErrors, 1024));
+    }
+
+    /**
+     * Count a valid document
+     */
+    public synchronized void recordValid() {
+        documents++;
+    }
+
+    /**
+     * Count a document and its errors, and offer the errors to the sample
+     * @param document Position or identifier of the document within the batch
+     * @param report Report of the document
+     */
+    public synchronized void record(long document, CompactReport report) {
+        documents++;
+        if (report.isSuccess()) {
+            return;
+        }
+        invalidDocuments++;
+        if (!report.isComplete()) {
+            incompleteDocuments++;
+        }
+        for (int i = 0; i < report.size(); i++) {
+            offer(document, report.get(i));
+        }
+    }
+
+    /**
+     * Count an invalid document that has no compact report, e.g. one that could not be parsed
+     * @param document Position or identifier of the document within the batch
+     * @param message Description of the problem
+     */
+    public synchronized void recordInvalid(long document, String message) {
+        documents++;
+        invalidDocuments++;
+        offer(document, CompactError.of(ErrorCode.OTHER, "", message));
+    }
+
+    private void offer(long document, CompactError error) {
+        countsByCode[error.getCode().ordinal()]++;
+        errors++;
+        if (sample.size() < maxSampledErrors) {
+            sample.add(new SampledError(document, error));
+        } else if (maxSampledErrors > 0) {
+            // Reservoir sampling: keep the n-th error with probability k/n
+            long slot = ThreadLocalRandom.current().nextLong(errors);
+            if (slot < maxSampledErrors) {
+                sample.set((int) slot, new SampledError(document, error));
+            }
+        }
+    }
+
+    public synchronized long getDocumentCount() {
+        return documents;
+    }
+
+    public synchronized long getInvalidDocumentCount() {
+        return invalidDocuments;
+    }
+
+    /**
+     * @return Number of invalid documents whose validation stopped at the error limit
+     */
+    public synchronized long getIncompleteDocumentCount() {
+        return incompleteDocuments;
+    }
+
+    /**
+     * @return Number of errors reported across all documents
+     */
+    public synchronized long getErrorCount() {
+        return errors;
+    }
+
+    /**
+     * @return Exact number of errors per code; codes without errors are left out
+     */
+    public synchronized Map<ErrorCode, Long> getCountsByCode() {
+        Map<ErrorCode, Long> counts = new EnumMap<>(ErrorCode.class);
+        for (ErrorCode code : ErrorCode.values()) {
+            if (countsByCode[code.ordinal()] > 0) {
+                counts.put(code, countsByCode[code.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return Snapshot of the sampled errors, in no particular order
+     */
+    public synchronized List<SampledError> getSample() {
+        return Collections.unmodifiableList(new ArrayList<>(sample));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ErrorCollector{" +
+                "documents=" + documents +
+                ", invalid=" + invalidDocuments +
+                ", incomplete=" + incompleteDocuments +
+                ", errors=" + errors +
+                ", byCode=" + getCountsByCode() +
+                '}';
+    }
+
+    /**
+     * An error kept in the sample, with the document it came from
+     */
+    public static final class SampledError {
+        private final long document;
+        private final CompactError error;
+
+        SampledError(long document, CompactError error) {
+            this.document = document;
+            this.error = error;
+        }
+
+        public long getDocument() {
+            return document;
+        }
+
+        public CompactError getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + document + " " + error.render();
+        }
+    }
+}
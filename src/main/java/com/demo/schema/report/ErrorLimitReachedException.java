@@ -0,0 +1,28 @@
+package com.demo.schema.report;
+
+/**
+ * Thrown out of {@code JsonSchema.validate} when a {@link CompactReport} reaches its
+ * per-document error limit, to stop validating the rest of the document.
+ *
+ * {@code MessageValidator} and {@code SchemaValidator} catch it and return the report; code
+ * calling {@code JsonSchema.validate} directly on a schema with an error limit should do the
+ * same. It carries no stack trace, since it is control flow rather than a failure.
+ */
+public class ErrorLimitReachedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient CompactReport report;
+
+    public ErrorLimitReachedException(CompactReport report) {
+        super("Error limit of " + report.getMaxErrors() + " reached", null, false, false);
+        this.report = report;
+    }
+
+    /**
+     * @return The report holding the errors found before validation stopped
+     */
+    public CompactReport getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,256 @@
+package com.demo.schema.service;
+
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process validation service around a compiled schema.
+ *
+ * Submissions are validated on their own (virtual, where available) thread. The number of
+ * submissions queued or running is bounded twice: each tenant may only have a limited number
+ * in flight, and all tenants together may only have the queue capacity. {@link #submit} blocks
+ * the caller until both allow the submission and {@link #offer} gives up after a timeout. The
+ * tenant limit is taken first, so a tenant at its limit waits without holding a shared slot
+ * and one noisy tenant cannot starve the others. Per-tenant state is dropped once a tenant has
+ * nothing in flight.
+ */
+public class ValidationService implements AutoCloseable {
+    
+    private final SchemaValidator validator;
+    private final JsonSchema schema;
+    private final ExecutorService executor;
+    private final Semaphore queueSlots;
+    private final int queueCapacity;
+    private final int tenantConcurrency;
+    private final ConcurrentMap<String, TenantPermits> tenantPermits = new ConcurrentHashMap<>();
+    
+    /**
+     * Create a service that runs each submission on a virtual thread when the JVM supports it
+     * (Java 21+) and on a cached thread pool otherwise.
+     * @param validator Validator used to parse submissions
+     * @param schema Compiled schema to validate against
+     * @param queueCapacity Maximum number of submissions queued or running at once
+     * @param tenantConcurrency Maximum number of submissions queued or running at once per tenant
+     */
+    public ValidationService(SchemaValidator validator, JsonSchema schema, int queueCapacity, int tenantConcurrency) {
+        this(validator, schema, queueCapacity, tenantConcurrency, newTaskExecutor());
+    }
+    
+    /**
+     * Create a service that runs submissions on the given executor
+     * @param validator Validator used to parse submissions
+     * @param schema Compiled schema to validate against
+     * @param queueCapacity Maximum number of submissions queued or running at once
+     * @param tenantConcurrency Maximum number of submissions queued or running at once per tenant
+     * @param executor Executor to run submissions on; shut down by {@link #close()}
+     */
+    public ValidationService(SchemaValidator validator, JsonSchema schema, int queueCapacity, int tenantConcurrency,
+                             ExecutorService executor) {
+        if (queueCapacity < 1 || tenantConcurrency < 1) {
+            throw new IllegalArgumentException("queueCapacity and tenantConcurrency must be positive");
+        }
+        this.validator = validator;
+        this.schema = schema;
+        this.queueCapacity = queueCapacity;
+        this.tenantConcurrency = tenantConcurrency;
+        this.queueSlots = new Semaphore(queueCapacity);
+        this.executor = executor;
+    }
+    
+    /**
+     * Submit a document for validation, waiting while the tenant is at its limit or the service
+     * is full
+     * @param tenant Tenant the submission is accounted to
+     * @param submission Document to validate
+     * @return Future completed with the validation report, or exceptionally if the document
+     *         could not be read or validated
+     * @throws InterruptedException If interrupted while waiting for a permit or queue slot
+     */
+    public CompletableFuture<ProcessingReport> submit(String tenant, Submission submission) throws InterruptedException {
+        TenantPermits permits = join(tenant);
+        boolean acquired = false;
+        try {
+            permits.semaphore.acquire();
+            acquired = true;
+            queueSlots.acquire();
+        } catch (InterruptedException e) {
+            leave(tenant, permits, acquired);
+            throw e;
+        }
+        return dispatch(tenant, permits, submission);
+    }
+    
+    /**
+     * Submit a document for validation, waiting at most the given time for a tenant permit and
+     * a free queue slot
+     * @param tenant Tenant the submission is accounted to
+     * @param submission Document to validate
+     * @param timeout Maximum time to wait
+     * @param unit Unit of the timeout
+     * @return Future completed with the validation report; completed exceptionally with a
+     *         {@link RejectedExecutionException} if the tenant or the service stayed full
+     * @throws InterruptedException If interrupted while waiting for a permit or queue slot
+     */
+    public CompletableFuture<ProcessingReport> offer(String tenant, Submission submission, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        TenantPermits permits = join(tenant);
+        boolean acquired = false;
+        String full;
+        try {
+            acquired = permits.semaphore.tryAcquire(timeout, unit);
+            full = !acquired ? "Tenant " + tenant + " is at its concurrency limit"
+                    : !queueSlots.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                    ? "Validation queue is full" : null;
+        } catch (InterruptedException e) {
+            leave(tenant, permits, acquired);
+            throw e;
+        }
+        if (full != null) {
+            leave(tenant, permits, acquired);
+            CompletableFuture<ProcessingReport> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new RejectedExecutionException(full));
+            return rejected;
+        }
+        return dispatch(tenant, permits, submission);
+    }
+    
+    /**
+     * @return Number of submissions currently queued or running
+     */
+    public int getPendingCount() {
+        return queueCapacity - queueSlots.availablePermits();
+    }
+    
+    /**
+     * @return Number of tenants with submissions waiting, queued or running
+     */
+    int getTenantCount() {
+        return tenantPermits.size();
+    }
+    
+    private CompletableFuture<ProcessingReport> dispatch(String tenant, TenantPermits permits, Submission submission) {
+        CompletableFuture<ProcessingReport> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(tenant, permits, submission, result));
+        } catch (RejectedExecutionException e) {
+            queueSlots.release();
+            leave(tenant, permits, true);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+    
+    private void run(String tenant, TenantPermits permits, Submission submission,
+                     CompletableFuture<ProcessingReport> result) {
+        ProcessingReport report = null;
+        Exception failure = null;
+        try {
+            JsonNode data = submission.load(validator);
+            report = validator.validate(schema, data);
+        } catch (Exception e) {
+            failure = e;
+        }
+        // Free the slot and permit before completing, so callers chained on the result see them released
+        queueSlots.release();
+        leave(tenant, permits, true);
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        } else {
+            result.complete(report);
+        }
+    }
+    
+    /**
+     * Register a caller that is about to wait for, or hold, one of the tenant's permits
+     */
+    private TenantPermits join(String tenant) {
+        return tenantPermits.compute(tenant, (t, permits) -> {
+            TenantPermits joined = permits != null ? permits : new TenantPermits(tenantConcurrency);
+            joined.users++;
+            return joined;
+        });
+    }
+    
+    /**
+     * Undo {@link #join}, releasing the permit if it was acquired; the tenant's entry is removed
+     * once no caller waits for or holds a permit
+     */
+    private void leave(String tenant, TenantPermits permits, boolean acquired) {
+        if (acquired) {
+            permits.semaphore.release();
+        }
+        tenantPermits.computeIfPresent(tenant, (t, current) -> --current.users == 0 ? null : current);
+    }
+    
+    /**
+     * Stop accepting submissions and wait for running ones to finish
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Use one virtual thread per submission when running on Java 21+, so slow reads park
+     * cheaply instead of pinning a pool thread; fall back to a cached pool on older runtimes.
+     */
+    static ExecutorService newTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+    
+    /**
+     * Permits of one tenant, with the number of callers waiting for or holding one. The count
+     * only changes inside the map's compute functions, which run atomically per tenant.
+     */
+    private static final class TenantPermits {
+        final Semaphore semaphore;
+        int users;
+        
+        TenantPermits(int permits) {
+            this.semaphore = new Semaphore(permits);
+        }
+    }
+    
+    /**
+     * A document to validate. Loading happens on the validation thread, so file reads
+     * overlap across submissions.
+     */
+    public interface Submission {
+        
+        JsonNode load(SchemaValidator validator) throws IOException;
+        
+        static Submission ofFile(Path path) {
+            return validator -> validator.loadYaml(Files.readAllBytes(path));
+        }
+        
+        static Submission ofBytes(byte[] content) {
+            return validator -> validator.loadYaml(content);
+        }
+        
+        static Submission ofTree(JsonNode data) {
+            return validator -> data;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.demo.schema.stream;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.MessageValidator.ValidationResult;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Flow.Processor} that validates raw JSON messages against a compiled schema.
+ *
+ * At most {@code parallelism} messages are requested from upstream and validated at the same
+ * time; a further message is only requested once a finished one has been handed downstream,
+ * so a slow subscriber slows down the upstream publisher instead of growing a buffer.
+ * Valid messages are published to subscribers of this processor, invalid ones to the
+ * {@link #invalidMessages()} side channel. In ordered mode both channels see messages in
+ * upstream order; otherwise messages are published as soon as they are validated.
+ *
+ * Until the processor itself has a subscriber, finished messages are held and no further ones
+ * are requested, so nothing validated before downstream subscribes is lost. The
+ * {@link #invalidMessages()} channel is optional: while it has no subscriber, invalid messages
+ * are dropped and counted by {@link #getDroppedInvalidCount()}.
+ *
+ * Publishing never blocks: a message is only offered when every subscriber of its channel has
+ * buffer space, and otherwise waits until a subscriber takes a message or cancels. Validation
+ * workers can therefore also be the threads that deliver to subscribers, even on a
+ * single-thread executor.
+ *
+ * Requires a Java 9+ runtime for {@code java.util.concurrent.Flow}.
+ */
+public class ValidatingProcessor implements Flow.Processor<byte[], ValidationOutcome> {
+
+    private final MessageValidator validator;
+    private final JsonSchema schema;
+    private final int parallelism;
+    private final boolean ordered;
+    private final Executor executor;
+    private final SubmissionPublisher<ValidationOutcome> validOut;
+    private final SubmissionPublisher<ValidationOutcome> invalidOut;
+    private final Flow.Publisher<ValidationOutcome> invalidMessages;
+
+    // Subscriptions are made inside drain, so that no subscriber joins between the buffer space
+    // check and the offer
+    private final Queue<Runnable> newSubscriptions = new ConcurrentLinkedQueue<>();
+
+    private final Queue<ValidationOutcome> completed = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Long, ValidationOutcome> completedBySequence = new ConcurrentHashMap<>();
+    private final AtomicInteger drainWip = new AtomicInteger();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong droppedInvalid = new AtomicLong();
+
+    private volatile Flow.Subscription upstream;
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+
+    // Only touched from onNext, which the Flow contract serializes
+    private long nextSequence;
+    // Only touched inside drain, which drainWip serializes
+    private long nextToEmit;
+    private ValidationOutcome pending;
+    private boolean closed;
+
+    /**
+     * Create a processor validating on the common fork/join pool
+     * @param validator Validator used for each message
+     * @param schema Compiled schema to validate against
+     * @param parallelism Maximum number of messages validated at once
+     * @param ordered Whether output preserves upstream order
+     */
+    public ValidatingProcessor(MessageValidator validator, JsonSchema schema, int parallelism, boolean ordered) {
+        this(validator, schema, parallelism, ordered, ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * @param validator Validator used for each message
+     * @param schema Compiled schema to validate against
+     * @param parallelism Maximum number of messages validated at once
+     * @param ordered Whether output preserves upstream order
+     * @param executor Executor for validation and delivery to subscribers
+     * @param bufferCapacity Per-subscriber buffer size of both output channels
+     */
+    public ValidatingProcessor(MessageValidator validator, JsonSchema schema, int parallelism, boolean ordered,
+                               Executor executor, int bufferCapacity) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.validator = validator;
+        this.schema = schema;
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+        this.executor = executor;
+        this.validOut = new SubmissionPublisher<>(executor, bufferCapacity);
+        this.invalidOut = new SubmissionPublisher<>(executor, bufferCapacity);
+        this.invalidMessages = subscriber -> subscribe(invalidOut, subscriber);
+    }
+
+    /**
+     * Subscribe to valid messages
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ValidationOutcome> subscriber) {
+        subscribe(validOut, subscriber);
+    }
+
+    /**
+     * @return Side channel publishing messages that failed validation
+     */
+    public Flow.Publisher<ValidationOutcome> invalidMessages() {
+        return invalidMessages;
+    }
+
+    /**
+     * @return Number of invalid messages dropped because {@link #invalidMessages()} had no subscriber
+     */
+    public long getDroppedInvalidCount() {
+        return droppedInvalid.get();
+    }
+
+    private void subscribe(SubmissionPublisher<ValidationOutcome> out, Flow.Subscriber<? super ValidationOutcome> subscriber) {
+        newSubscriptions.add(() -> out.subscribe(new DrainingSubscriber(subscriber)));
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        subscription.request(parallelism);
+    }
+
+    @Override
+    public void onNext(byte[] message) {
+        long sequence = nextSequence++;
+        inFlight.incrementAndGet();
+        try {
+            executor.execute(() -> complete(validate(sequence, message)));
+        } catch (RejectedExecutionException e) {
+            upstream.cancel();
+            complete(new ValidationOutcome(sequence, message, false, "Rejected: " + e.getMessage()));
+            onError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private ValidationOutcome validate(long sequence, byte[] message) {
+        try {
+            ValidationResult result = validator.validate(schema, new ByteArrayInputStream(message));
+            return new ValidationOutcome(sequence, message, result.isValid(), result.getDetails());
+        } catch (RuntimeException e) {
+            return new ValidationOutcome(sequence, message, false, "Unexpected Error: " + e.getMessage());
+        }
+    }
+
+    private void complete(ValidationOutcome outcome) {
+        if (ordered) {
+            completedBySequence.put(outcome.getSequence(), outcome);
+        } else {
+            completed.add(outcome);
+        }
+        drain();
+    }
+
+    /**
+     * Publish finished messages from whichever thread gets here first; other threads just
+     * leave their results behind for it. Only one thread publishes at a time. When a subscriber's
+     * buffer is full the next message is kept as pending, and the drain that follows that
+     * subscriber taking a message publishes it, so no thread ever waits on a subscriber.
+     */
+    private void drain() {
+        if (drainWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Runnable subscription;
+            while ((subscription = newSubscriptions.poll()) != null) {
+                subscription.run();
+            }
+            ValidationOutcome outcome;
+            while ((outcome = pending != null ? pending : pollNext()) != null) {
+                if (!publish(outcome)) {
+                    pending = outcome;
+                    break;
+                }
+                pending = null;
+                inFlight.decrementAndGet();
+                if (!upstreamDone) {
+                    upstream.request(1);
+                }
+            }
+            if (!closed && upstreamDone && inFlight.get() == 0) {
+                closed = true;
+                Throwable error = upstreamError;
+                if (error != null) {
+                    validOut.closeExceptionally(error);
+                    invalidOut.closeExceptionally(error);
+                } else {
+                    validOut.close();
+                    invalidOut.close();
+                }
+            }
+            missed = drainWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Offer a message only if every subscriber has room for it, so that it is never dropped for
+     * some subscribers after reaching others. Only drain offers and subscribes, so the room seen
+     * here cannot be taken before the offer.
+     * @return False if the processor has no subscriber yet or a subscriber's buffer is full
+     */
+    private boolean publish(ValidationOutcome outcome) {
+        if (!validOut.hasSubscribers()) {
+            return false;
+        }
+        SubmissionPublisher<ValidationOutcome> out = outcome.isValid() ? validOut : invalidOut;
+        List<Flow.Subscriber<? super ValidationOutcome>> subscribers = out.getSubscribers();
+        if (subscribers.isEmpty()) {
+            droppedInvalid.incrementAndGet();
+            return true;
+        }
+        for (Flow.Subscriber<? super ValidationOutcome> subscriber : subscribers) {
+            if (!((DrainingSubscriber) subscriber).hasRoom(out.getMaxBufferCapacity())) {
+                return false;
+            }
+        }
+        for (Flow.Subscriber<? super ValidationOutcome> subscriber : subscribers) {
+            ((DrainingSubscriber) subscriber).offered++;
+        }
+        out.offer(outcome, null);
+        return true;
+    }
+
+    private ValidationOutcome pollNext() {
+        if (!ordered) {
+            return completed.poll();
+        }
+        ValidationOutcome outcome = completedBySequence.remove(nextToEmit);
+        if (outcome != null) {
+            nextToEmit++;
+        }
+        return outcome;
+    }
+
+    /**
+     * Counts the messages a subscriber has taken from its buffer, and drains whenever it takes
+     * one or cancels: either may free the buffer space a pending message is waiting for
+     */
+    private final class DrainingSubscriber implements Flow.Subscriber<ValidationOutcome>, Flow.Subscription {
+        private final Flow.Subscriber<? super ValidationOutcome> delegate;
+        private final AtomicLong taken = new AtomicLong();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        // Only touched inside drain
+        private long offered;
+
+        DrainingSubscriber(Flow.Subscriber<? super ValidationOutcome> delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * The publisher frees a buffer slot before calling onNext, so a message not yet taken
+         * is still in the buffer
+         */
+        boolean hasRoom(int bufferCapacity) {
+            return cancelled || offered - taken.get() < bufferCapacity;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            delegate.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(ValidationOutcome item) {
+            taken.incrementAndGet();
+            try {
+                delegate.onNext(item);
+            } catch (RuntimeException | Error e) {
+                // The publisher cancels a subscriber whose onNext throws
+                cancelled = true;
+                throw e;
+            } finally {
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscription.cancel();
+            drain();
+        }
+    }
+}
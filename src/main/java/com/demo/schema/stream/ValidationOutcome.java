@@ -0,0 +1,50 @@
+package com.demo.schema.stream;
+
+/**
+ * Result of validating one message in a stream.
+ */
+public class ValidationOutcome {
+
+    private final long sequence;
+    private final byte[] payload;
+    private final boolean valid;
+    private final String details;
+
+    public ValidationOutcome(long sequence, byte[] payload, boolean valid, String details) {
+        this.sequence = sequence;
+        this.payload = payload;
+        this.valid = valid;
+        this.details = details;
+    }
+
+    /**
+     * @return Position of the message in the upstream stream, starting at 0
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return The raw message as received from upstream
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationOutcome{" +
+                "sequence=" + sequence +
+                ", valid=" + valid +
+                ", details='" + details + '\'' +
+                '}';
+    }
+}
@@ -1,5 +1,8 @@
 package com.demo.schema.validation;
 
+import com.demo.schema.validation.compiled.CompiledValidator;
+import com.demo.schema.validation.compiled.GenerateValidator;
+import com.demo.schema.validation.compiled.Violation;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import javax.validation.Constraint;
@@ -7,9 +10,6 @@ import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 import javax.validation.Payload;
 import javax.validation.Valid;
-import javax.validation.Validation;
-import javax.validation.Validator;
-import javax.validation.ValidatorFactory;
 import javax.validation.constraints.NotNull;
 
 import java.io.File;
@@ -19,7 +19,6 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Example demonstrating complex cross-field validation using Spring Validation API
@@ -30,12 +29,11 @@ import java.util.Set;
 public class ComplexValidationExample {
     
     private final ObjectMapper yamlMapper;
-    private final Validator validator;
+    private final CompiledValidator<FeedConfiguration> validator;
     
     public ComplexValidationExample() {
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
-        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-        this.validator = factory.getValidator();
+        this.validator = ComplexValidationExample_FeedConfigurationValidator.INSTANCE;
     }
     
     public static void main(String[] args) {
@@ -68,7 +66,7 @@ public class ComplexValidationExample {
         validConfig.setFieldB(200);
         validConfig.setFieldC(300);
         
-        Set<javax.validation.ConstraintViolation<FeedConfiguration>> violations = validator.validate(validConfig);
+        List<Violation> violations = validator.validate(validConfig);
         
         if (violations.isEmpty()) {
             System.out.println("✅ Valid configuration passed all validation rules");
@@ -93,7 +91,7 @@ public class ComplexValidationExample {
         invalidConfig.setFieldB(200);
         invalidConfig.setFieldC(500);
         
-        Set<javax.validation.ConstraintViolation<FeedConfiguration>> violations = validator.validate(invalidConfig);
+        List<Violation> violations = validator.validate(invalidConfig);
         
         if (violations.isEmpty()) {
             System.out.println("❌ Invalid configuration unexpectedly passed validation");
@@ -122,7 +120,7 @@ public class ComplexValidationExample {
                 FeedConfiguration feed = feeds.get(i);
                 System.out.println("Feed " + (i + 1) + ": " + feed.getName());
                 
-                Set<javax.validation.ConstraintViolation<FeedConfiguration>> violations = validator.validate(feed);
+                List<Violation> violations = validator.validate(feed);
                 
                 if (violations.isEmpty()) {
                     System.out.println("  ✅ Passed all validation rules");
@@ -176,6 +174,7 @@ public class ComplexValidationExample {
      * Example feed configuration class with complex validation
      */
     @ComplexValidationRule
+    @GenerateValidator
     public static class FeedConfiguration {
         
         @NotNull(message = "Name is required")
@@ -271,6 +270,7 @@ public class ComplexValidationExample {
          * Advanced feed configuration with multiple validation rules
          */
         @AdvancedValidationRule
+        @GenerateValidator
         public static class AdvancedFeedConfig {
             @NotNull
             private String name;
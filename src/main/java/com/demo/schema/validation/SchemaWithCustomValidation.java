@@ -1,5 +1,12 @@
 package com.demo.schema.validation;
 
+import com.demo.schema.build.FeedManifest;
+import com.demo.schema.kafka.ConfigKey;
+import com.demo.schema.kafka.KafkaConfigs;
+import com.demo.schema.validation.compiled.CompiledValidator;
+import com.demo.schema.validation.compiled.GenerateValidator;
+import com.demo.schema.validation.compiled.Violation;
+import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
@@ -11,19 +18,18 @@ import javax.validation.Constraint;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 import javax.validation.Payload;
-import javax.validation.Validation;
-import javax.validation.Validator;
-import javax.validation.ValidatorFactory;
 import javax.validation.constraints.NotNull;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Example showing how to combine JSON Schema validation with custom Spring Validation
@@ -31,14 +37,16 @@ import java.util.Set;
  */
 public class SchemaWithCustomValidation {
     
+    private static final String SCHEMA_FILE = "src/main/resources/schema/feeds_schema.json";
+    
     private final ObjectMapper yamlMapper;
-    private final Validator validator;
+    private final CompiledValidator<FeedConfigWithCustomValidation> validator;
     private final JsonSchemaFactory schemaFactory;
+    private FeedManifest manifest;
     
     public SchemaWithCustomValidation() {
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
-        ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-        this.validator = factory.getValidator();
+        this.validator = SchemaWithCustomValidation_FeedConfigWithCustomValidationValidator.INSTANCE;
         this.schemaFactory = JsonSchemaFactory.byDefault();
     }
     
@@ -66,6 +74,12 @@ public class SchemaWithCustomValidation {
             System.out.println("----------------------------------------");
             
             try {
+                // Step 0: Skip files the build already validated against this schema and these rules
+                if (isValidatedAtBuildTime(yamlFile)) {
+                    System.out.println("✅ Validated at build time (digest listed in " + FeedManifest.RESOURCE + ")");
+                    continue;
+                }
+                
                 // Step 1: JSON Schema validation
                 boolean schemaValid = validateWithJsonSchema(yamlFile);
                 
@@ -85,12 +99,24 @@ public class SchemaWithCustomValidation {
         }
     }
     
+    /**
+     * Check the build's feed manifest for this exact file content
+     */
+    private boolean isValidatedAtBuildTime(String yamlFile) throws IOException {
+        if (manifest == null) {
+            manifest = FeedManifest.loadFromClasspath();
+        }
+        Path file = Paths.get(yamlFile);
+        return manifest.isTrusted(Files.readAllBytes(Paths.get(SCHEMA_FILE)),
+                file.getFileName().toString(), Files.readAllBytes(file));
+    }
+    
     /**
      * Validate YAML file against JSON Schema
      */
     private boolean validateWithJsonSchema(String yamlFile) throws IOException, ProcessingException {
         // Load schema
-        JsonNode schemaNode = yamlMapper.readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        JsonNode schemaNode = yamlMapper.readTree(new File(SCHEMA_FILE));
         JsonSchema schema = schemaFactory.getJsonSchema(schemaNode);
         
         // Load YAML data
@@ -123,8 +149,7 @@ public class SchemaWithCustomValidation {
             FeedConfigWithCustomValidation feed = feeds.get(i);
             System.out.println("Feed " + (i + 1) + ": " + feed.getName());
             
-            Set<javax.validation.ConstraintViolation<FeedConfigWithCustomValidation>> violations = 
-                validator.validate(feed);
+            List<Violation> violations = validator.validate(feed);
             
             if (violations.isEmpty()) {
                 System.out.println("  ✅ Passed all custom validation rules");
@@ -169,10 +194,14 @@ public class SchemaWithCustomValidation {
             
             // Rule 2: If kafka-topic has SSL security, then port must be 9093
             if (config.getKafkaTopic() != null && config.getKafkaTopic().getConfigs() != null) {
-                Object securityProtocol = config.getKafkaTopic().getConfigs().get("security.protocol");
+                KafkaConfigs configs = config.getKafkaTopic().getConfigs();
+                String securityProtocol = configs.getString(ConfigKey.SECURITY_PROTOCOL);
                 if ("SSL".equals(securityProtocol) || "SASL_SSL".equals(securityProtocol)) {
-                    Object port = config.getKafkaTopic().getConfigs().get("port");
-                    if (port != null && !"9093".equals(port.toString())) {
+                    KafkaConfigs.ValueType port = configs.getType(ConfigKey.PORT);
+                    // Integral ports compare as numbers; any other value must read exactly "9093", so the
+                    // string "9093" passes while the decimal 9093.0 does not
+                    if (port != null && port != KafkaConfigs.ValueType.NULL && (port.isIntegral()
+                            ? configs.getLong(ConfigKey.PORT, 0) != 9093 : !"9093".equals(configs.asText(ConfigKey.PORT)))) {
                         addConstraintViolation(context, "If SSL security is used, port must be 9093");
                         return false;
                     }
@@ -216,6 +245,7 @@ public class SchemaWithCustomValidation {
      * Feed configuration class with custom validation
      */
     @BusinessRuleValidation
+    @GenerateValidator
     public static class FeedConfigWithCustomValidation {
         
         @NotNull(message = "Name is required")
@@ -341,7 +371,7 @@ public class SchemaWithCustomValidation {
         private String consumerGroupId;
         private String consumerId;
         private String startingOffsets;
-        private java.util.Map<String, Object> configs;
+        private KafkaConfigs configs;
         
         // Getters and setters
         public String getName() { return name; }
@@ -380,8 +410,9 @@ public class SchemaWithCustomValidation {
         public String getStartingOffsets() { return startingOffsets; }
         public void setStartingOffsets(String startingOffsets) { this.startingOffsets = startingOffsets; }
         
-        public java.util.Map<String, Object> getConfigs() { return configs; }
-        public void setConfigs(java.util.Map<String, Object> configs) { this.configs = configs; }
+        public KafkaConfigs getConfigs() { return configs; }
+        @JsonSetter("configs")
+        public void setConfigs(java.util.Map<String, ?> configs) { this.configs = configs == null ? null : KafkaConfigs.of(configs); }
     }
     
     /**
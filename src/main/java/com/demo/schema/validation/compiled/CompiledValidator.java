@@ -0,0 +1,23 @@
+package com.demo.schema.validation.compiled;
+
+import java.util.List;
+
+/**
+ * Validator generated for a bean annotated with {@link GenerateValidator}
+ * @param <T> Bean type
+ */
+public interface CompiledValidator<T> {
+
+    /**
+     * Validate the default group of the bean's constraints
+     * @param bean Bean to validate
+     * @return Violations, in declaration order; an empty shared list if the bean is valid
+     * @throws IllegalArgumentException If the bean is null
+     * @throws javax.validation.ValidationException If a constraint validator throws
+     */
+    List<Violation> validate(T bean);
+
+    default boolean isValid(T bean) {
+        return validate(bean).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.demo.schema.validation.compiled;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ValidationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks called by generated validators. Violation lists are created on the first failure, so
+ * validating a valid bean allocates nothing.
+ */
+public final class ConstraintChecks {
+
+    private static final ThreadLocal<ViolationContext> CONTEXT = ThreadLocal.withInitial(ViolationContext::new);
+
+    private ConstraintChecks() {
+    }
+
+    /**
+     * Reject a null bean as Bean Validation does
+     */
+    public static void requireBean(Object bean) {
+        if (bean == null) {
+            throw new IllegalArgumentException("The object to be validated must not be null.");
+        }
+    }
+
+    /**
+     * {@code @NotNull} on a property
+     * @param violations Violations so far, or null if none
+     * @return Violations including this one if the value is null
+     */
+    public static List<Violation> notNull(Object value, String property, String message, List<Violation> violations) {
+        return value == null ? add(violations, property, message) : violations;
+    }
+
+    /**
+     * Class-level constraint checked by its {@link ConstraintValidator}
+     * @param validator Validator of the constraint
+     * @param bean Bean to validate
+     * @param defaultMessage Message of the constraint annotation
+     * @param violations Violations so far, or null if none
+     * @return Violations including those reported by the validator
+     */
+    public static <T> List<Violation> classConstraint(ConstraintValidator<?, ? super T> validator, T bean,
+                                                      String defaultMessage, List<Violation> violations) {
+        ViolationContext context = CONTEXT.get();
+        context.reset(defaultMessage);
+        boolean valid;
+        try {
+            valid = validator.isValid(bean, context);
+        } catch (RuntimeException e) {
+            throw new ValidationException("Unexpected exception during isValid call.", e);
+        }
+        return valid ? violations : context.addViolations(violations);
+    }
+
+    /**
+     * @return The violations, or an empty shared list if there are none
+     */
+    public static List<Violation> result(List<Violation> violations) {
+        return violations == null ? Collections.<Violation>emptyList() : Collections.unmodifiableList(violations);
+    }
+
+    static List<Violation> add(List<Violation> violations, String property, String message) {
+        if (violations == null) {
+            violations = new ArrayList<>(2);
+        }
+        violations.add(new Violation(property, message));
+        return violations;
+    }
+}
@@ -0,0 +1,20 @@
+package com.demo.schema.validation.compiled;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate a reflection-free {@link CompiledValidator} for the annotated bean at compile time.
+ *
+ * The generated class sits in the bean's package and is named after the bean's nesting, e.g.
+ * {@code ComplexValidationExample_FeedConfigurationValidator} for
+ * {@code ComplexValidationExample.FeedConfiguration}. It checks {@code @NotNull} fields through
+ * their getters and calls the {@code ConstraintValidator} of each class-level constraint
+ * directly. Constraints it cannot reproduce exactly fail the compilation.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GenerateValidator {
+}
@@ -0,0 +1,48 @@
+package com.demo.schema.validation.compiled;
+
+/**
+ * One failed constraint, the counterpart of a Bean Validation {@code ConstraintViolation}
+ */
+public final class Violation {
+
+    private final String propertyPath;
+    private final String message;
+
+    public Violation(String propertyPath, String message) {
+        this.propertyPath = propertyPath;
+        this.message = message;
+    }
+
+    /**
+     * @return Property name for field constraints, empty for class-level constraints
+     */
+    public String getPropertyPath() {
+        return propertyPath;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Violation)) {
+            return false;
+        }
+        Violation that = (Violation) other;
+        return propertyPath.equals(that.propertyPath) && message.equals(that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * propertyPath.hashCode() + message.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return propertyPath + ": " + message;
+    }
+}
@@ -0,0 +1,290 @@
+package com.demo.schema.validation.compiled;
+
+import javax.validation.ClockProvider;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ValidationException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reusable {@link ConstraintValidatorContext} handed to class-level constraint validators.
+ *
+ * One instance per thread is reset before each call, so a validator that passes costs no
+ * allocation. Message templates are used verbatim. Nodes added to a violation make up its
+ * property path as Hibernate Validator renders it, e.g. {@code addPropertyNode("datasets")
+ * .addPropertyNode("name").inIterable().atIndex(2)} gives {@code datasets[2].name}: a node is
+ * only written once the next one is added, and {@code inIterable} applies to the node before it.
+ */
+final class ViolationContext implements ConstraintValidatorContext, ConstraintValidatorContext.ConstraintViolationBuilder {
+
+    private static final ClockProvider CLOCK = Clock::systemDefaultZone;
+
+    private final List<Violation> violations = new ArrayList<>();
+    private final StringBuilder path = new StringBuilder();
+    private final PropertyNodes propertyNodes = new PropertyNodes();
+    private final LeafNodes leafNodes = new LeafNodes();
+    private final ContainerNodes containerNodes = new ContainerNodes();
+    private String defaultTemplate;
+    private String template;
+    private String pendingNode;
+    private boolean defaultDisabled;
+
+    void reset(String defaultTemplate) {
+        this.violations.clear();
+        this.defaultTemplate = defaultTemplate;
+        this.template = null;
+        this.defaultDisabled = false;
+    }
+
+    /**
+     * Append the violations of a failed call: the default one unless it was disabled, plus the
+     * explicit ones
+     */
+    List<Violation> addViolations(List<Violation> violations) {
+        if (!defaultDisabled) {
+            violations = ConstraintChecks.add(violations, "", defaultTemplate);
+        }
+        for (Violation violation : this.violations) {
+            violations = ConstraintChecks.add(violations, violation.getPropertyPath(), violation.getMessage());
+        }
+        return violations;
+    }
+
+    @Override
+    public void disableDefaultConstraintViolation() {
+        defaultDisabled = true;
+    }
+
+    @Override
+    public String getDefaultConstraintMessageTemplate() {
+        return defaultTemplate;
+    }
+
+    @Override
+    public ClockProvider getClockProvider() {
+        return CLOCK;
+    }
+
+    @Override
+    public ConstraintViolationBuilder buildConstraintViolationWithTemplate(String messageTemplate) {
+        if (messageTemplate.indexOf('{') >= 0) {
+            throw new ValidationException("Message templates with parameters are not supported: " + messageTemplate);
+        }
+        template = messageTemplate;
+        path.setLength(0);
+        pendingNode = null;
+        return this;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        throw new ValidationException("Type " + type.getName() + " not supported for unwrapping.");
+    }
+
+    @Override
+    public ConstraintValidatorContext addConstraintViolation() {
+        node(null);
+        violations.add(new Violation(path.toString(), template));
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public NodeBuilderDefinedContext addNode(String name) {
+        node(name);
+        return propertyNodes;
+    }
+
+    @Override
+    public NodeBuilderCustomizableContext addPropertyNode(String name) {
+        node(name);
+        return propertyNodes;
+    }
+
+    @Override
+    public LeafNodeBuilderCustomizableContext addBeanNode() {
+        node(null);
+        return leafNodes;
+    }
+
+    @Override
+    public ContainerElementNodeBuilderCustomizableContext addContainerElementNode(String name, Class<?> containerType,
+                                                                                   Integer typeArgumentIndex) {
+        node(name);
+        return containerNodes;
+    }
+
+    @Override
+    public NodeBuilderDefinedContext addParameterNode(int index) {
+        node("arg" + index);
+        return propertyNodes;
+    }
+
+    /**
+     * Write the node being built to the path and start the next one; null for a bean node,
+     * which has no name
+     */
+    private void node(String name) {
+        if (pendingNode != null) {
+            if (path.length() > 0) {
+                path.append('.');
+            }
+            path.append(pendingNode);
+        }
+        pendingNode = name;
+    }
+
+    /**
+     * Mark the last written node as iterable
+     */
+    private void inIterable() {
+        path.append("[]");
+    }
+
+    /**
+     * Set the index or key of the last written node
+     */
+    private void at(Object key) {
+        path.setLength(path.length() - 1);
+        path.append(key).append(']');
+    }
+
+    /**
+     * Builder of property and parameter nodes. The builder families differ in the return types of
+     * {@code inIterable} and {@code atKey}, so each needs its own class.
+     */
+    private final class PropertyNodes implements NodeBuilderDefinedContext, NodeBuilderCustomizableContext, NodeContextBuilder {
+
+        @Override
+        public NodeContextBuilder inIterable() {
+            ViolationContext.this.inIterable();
+            return this;
+        }
+
+        @Override
+        public NodeBuilderCustomizableContext inContainer(Class<?> containerClass, Integer typeArgumentIndex) {
+            return this;
+        }
+
+        @Override
+        public NodeBuilderDefinedContext atKey(Object key) {
+            at(key);
+            return this;
+        }
+
+        @Override
+        public NodeBuilderDefinedContext atIndex(Integer index) {
+            at(index);
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public NodeBuilderCustomizableContext addNode(String name) {
+            return addPropertyNode(name);
+        }
+
+        @Override
+        public NodeBuilderCustomizableContext addPropertyNode(String name) {
+            return ViolationContext.this.addPropertyNode(name);
+        }
+
+        @Override
+        public LeafNodeBuilderCustomizableContext addBeanNode() {
+            return ViolationContext.this.addBeanNode();
+        }
+
+        @Override
+        public ContainerElementNodeBuilderCustomizableContext addContainerElementNode(String name, Class<?> containerType,
+                                                                                       Integer typeArgumentIndex) {
+            return ViolationContext.this.addContainerElementNode(name, containerType, typeArgumentIndex);
+        }
+
+        @Override
+        public ConstraintValidatorContext addConstraintViolation() {
+            return ViolationContext.this.addConstraintViolation();
+        }
+    }
+
+    /**
+     * Builder of bean nodes, after which only the violation can be added
+     */
+    private final class LeafNodes implements LeafNodeBuilderCustomizableContext, LeafNodeContextBuilder,
+            LeafNodeBuilderDefinedContext {
+
+        @Override
+        public LeafNodeContextBuilder inIterable() {
+            ViolationContext.this.inIterable();
+            return this;
+        }
+
+        @Override
+        public LeafNodeBuilderCustomizableContext inContainer(Class<?> containerClass, Integer typeArgumentIndex) {
+            return this;
+        }
+
+        @Override
+        public LeafNodeBuilderDefinedContext atKey(Object key) {
+            at(key);
+            return this;
+        }
+
+        @Override
+        public LeafNodeBuilderDefinedContext atIndex(Integer index) {
+            at(index);
+            return this;
+        }
+
+        @Override
+        public ConstraintValidatorContext addConstraintViolation() {
+            return ViolationContext.this.addConstraintViolation();
+        }
+    }
+
+    /**
+     * Builder of container element nodes
+     */
+    private final class ContainerNodes implements ContainerElementNodeBuilderCustomizableContext,
+            ContainerElementNodeContextBuilder, ContainerElementNodeBuilderDefinedContext {
+
+        @Override
+        public ContainerElementNodeContextBuilder inIterable() {
+            ViolationContext.this.inIterable();
+            return this;
+        }
+
+        @Override
+        public ContainerElementNodeBuilderDefinedContext atKey(Object key) {
+            at(key);
+            return this;
+        }
+
+        @Override
+        public ContainerElementNodeBuilderDefinedContext atIndex(Integer index) {
+            at(index);
+            return this;
+        }
+
+        @Override
+        public NodeBuilderCustomizableContext addPropertyNode(String name) {
+            return ViolationContext.this.addPropertyNode(name);
+        }
+
+        @Override
+        public LeafNodeBuilderCustomizableContext addBeanNode() {
+            return ViolationContext.this.addBeanNode();
+        }
+
+        @Override
+        public ContainerElementNodeBuilderCustomizableContext addContainerElementNode(String name, Class<?> containerType,
+                                                                                       Integer typeArgumentIndex) {
+            return ViolationContext.this.addContainerElementNode(name, containerType, typeArgumentIndex);
+        }
+
+        @Override
+        public ConstraintValidatorContext addConstraintViolation() {
+            return ViolationContext.this.addConstraintViolation();
+        }
+    }
+}
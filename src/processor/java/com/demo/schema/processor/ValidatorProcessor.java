@@ -0,0 +1,344 @@
+package com.demo.schema.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code CompiledValidator} for every class annotated with {@code @GenerateValidator}.
+ *
+ * The generated {@code validate} method is straight-line code: a null check through the getter
+ * of each {@code @NotNull} field, then a direct call to the {@code ConstraintValidator} of each
+ * class-level constraint, in the order Bean Validation reports them for the default group.
+ * Anything that would make the result differ from Hibernate Validator's (other constraint
+ * types, groups, parameterised messages, validators with an {@code initialize} method) is
+ * reported as a compilation error rather than silently ignored.
+ *
+ * Annotation types are referred to by name so the processor needs nothing but the JDK.
+ */
+@SupportedAnnotationTypes(ValidatorProcessor.GENERATE_VALIDATOR)
+public class ValidatorProcessor extends AbstractProcessor {
+
+    static final String GENERATE_VALIDATOR = "com.demo.schema.validation.compiled.GenerateValidator";
+
+    private static final String RUNTIME_PACKAGE = "com.demo.schema.validation.compiled";
+    private static final String NOT_NULL = "javax.validation.constraints.NotNull";
+    private static final String NOT_NULL_DEFAULT_TEMPLATE = "{javax.validation.constraints.NotNull.message}";
+    /** Hibernate Validator's English message for the default NotNull template */
+    private static final String NOT_NULL_DEFAULT_MESSAGE = "must not be null";
+    private static final String CONSTRAINT = "javax.validation.Constraint";
+    private static final String VALID = "javax.validation.Valid";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement generate = processingEnv.getElementUtils().getTypeElement(GENERATE_VALIDATOR);
+        if (generate == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(generate)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateValidator applies to classes");
+                continue;
+            }
+            TypeElement bean = (TypeElement) element;
+            try {
+                BeanModel model = model(bean);
+                if (model != null) {
+                    write(model);
+                }
+            } catch (IOException e) {
+                error(bean, "Failed to write validator: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private static final class Check {
+        final String getter;
+        final String property;
+        final String message;
+        final String validatorType;
+
+        private Check(String getter, String property, String message, String validatorType) {
+            this.getter = getter;
+            this.property = property;
+            this.message = message;
+            this.validatorType = validatorType;
+        }
+    }
+
+    private static final class BeanModel {
+        final TypeElement bean;
+        final String packageName;
+        final String beanType;
+        final String validatorName;
+        final List<Check> fieldChecks = new ArrayList<>();
+        final List<Check> classChecks = new ArrayList<>();
+
+        BeanModel(TypeElement bean, String packageName, String beanType, String validatorName) {
+            this.bean = bean;
+            this.packageName = packageName;
+            this.beanType = beanType;
+            this.validatorName = validatorName;
+        }
+    }
+
+    private BeanModel model(TypeElement bean) {
+        if (bean.getModifiers().contains(Modifier.PRIVATE)
+                || (bean.getNestingKind().isNested() && !bean.getModifiers().contains(Modifier.STATIC))) {
+            error(bean, "@GenerateValidator needs a non-private top-level or static nested class");
+            return null;
+        }
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(bean);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        StringBuilder simpleName = new StringBuilder();
+        for (Element e = bean; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            simpleName.insert(0, simpleName.length() == 0 ? e.getSimpleName() : e.getSimpleName() + "_");
+        }
+        String beanType = bean.getQualifiedName().toString();
+        BeanModel model = new BeanModel(bean, packageName, beanType, simpleName + "Validator");
+
+        boolean ok = true;
+        // Hierarchy from the bean up; Bean Validation also checks inherited constraints
+        for (TypeElement type = bean; type != null; type = superclass(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                ok &= fieldChecks(model, field);
+            }
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+                    if (isConstraint(annotation)) {
+                        error(method, "Constraints on methods are not supported by @GenerateValidator");
+                        ok = false;
+                    }
+                }
+            }
+            for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+                ok &= classCheck(model, type, annotation);
+            }
+        }
+        return ok ? model : null;
+    }
+
+    private boolean fieldChecks(BeanModel model, VariableElement field) {
+        boolean ok = true;
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            String name = annotationName(annotation);
+            if (NOT_NULL.equals(name)) {
+                if (!defaultGroup(field, annotation)) {
+                    ok = false;
+                    continue;
+                }
+                String message = stringValue(annotation, "message");
+                if (NOT_NULL_DEFAULT_TEMPLATE.equals(message)) {
+                    message = NOT_NULL_DEFAULT_MESSAGE;
+                } else if (message.indexOf('{') >= 0) {
+                    error(field, "Parameterised messages are not supported by @GenerateValidator: " + message);
+                    ok = false;
+                    continue;
+                }
+                String getter = getter(field);
+                if (getter == null) {
+                    error(field, "@NotNull field needs a getter for @GenerateValidator");
+                    ok = false;
+                    continue;
+                }
+                model.fieldChecks.add(new Check(getter, field.getSimpleName().toString(), message, null));
+            } else if (VALID.equals(name) || isConstraint(annotation)) {
+                error(field, "@" + annotation.getAnnotationType().asElement().getSimpleName()
+                        + " is not supported by @GenerateValidator");
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    private boolean classCheck(BeanModel model, TypeElement type, AnnotationMirror annotation) {
+        AnnotationMirror constraint = constraintOf(annotation);
+        if (constraint == null) {
+            return true;
+        }
+        if (!defaultGroup(type, annotation)) {
+            return false;
+        }
+        List<? extends AnnotationValue> validatedBy = listValue(constraint, "validatedBy");
+        if (validatedBy.size() != 1) {
+            error(type, "Class-level constraints need exactly one validator for @GenerateValidator");
+            return false;
+        }
+        TypeElement validator = (TypeElement) ((DeclaredType) validatedBy.get(0).getValue()).asElement();
+        for (ExecutableElement method : ElementFilter.methodsIn(validator.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals("initialize")) {
+                error(type, validator.getSimpleName() + " needs its annotation in initialize(), "
+                        + "which @GenerateValidator cannot provide without reflection");
+                return false;
+            }
+        }
+        boolean constructible = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(validator.getEnclosedElements())) {
+            constructible |= constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE);
+        }
+        if (!constructible) {
+            error(type, validator.getSimpleName() + " needs an accessible no-argument constructor");
+            return false;
+        }
+        String message = stringValue(annotation, "message");
+        if (message.indexOf('{') >= 0) {
+            error(type, "Parameterised messages are not supported by @GenerateValidator: " + message);
+            return false;
+        }
+        model.classChecks.add(new Check(null, "", message, validator.getQualifiedName().toString()));
+        return true;
+    }
+
+    private void write(BeanModel model) throws IOException {
+        String qualifiedName = model.packageName.isEmpty()
+                ? model.validatorName : model.packageName + "." + model.validatorName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, model.bean);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            if (!model.packageName.isEmpty()) {
+                out.println("package " + model.packageName + ";");
+                out.println();
+            }
+            out.println("import " + RUNTIME_PACKAGE + ".CompiledValidator;");
+            out.println("import " + RUNTIME_PACKAGE + ".ConstraintChecks;");
+            out.println("import " + RUNTIME_PACKAGE + ".Violation;");
+            out.println();
+            out.println("import java.util.List;");
+            out.println();
+            out.println("/**");
+            out.println(" * Validator for {@link " + model.beanType + "}, generated by "
+                    + ValidatorProcessor.class.getSimpleName() + "; do not edit");
+            out.println(" */");
+            out.println("public final class " + model.validatorName
+                    + " implements CompiledValidator<" + model.beanType + "> {");
+            out.println();
+            out.println("    public static final " + model.validatorName + " INSTANCE = new " + model.validatorName + "();");
+            for (int i = 0; i < model.classChecks.size(); i++) {
+                String validatorType = model.classChecks.get(i).validatorType;
+                out.println();
+                out.println("    private final " + validatorType + " constraint" + i + " = new " + validatorType + "();");
+            }
+            out.println();
+            out.println("    @Override");
+            out.println("    public List<Violation> validate(" + model.beanType + " bean) {");
+            out.println("        ConstraintChecks.requireBean(bean);");
+            out.println("        List<Violation> violations = null;");
+            for (Check check : model.fieldChecks) {
+                out.println("        violations = ConstraintChecks.notNull(bean." + check.getter + "(), "
+                        + literal(check.property) + ", " + literal(check.message) + ", violations);");
+            }
+            for (int i = 0; i < model.classChecks.size(); i++) {
+                out.println("        violations = ConstraintChecks.classConstraint(constraint" + i + ", bean, "
+                        + literal(model.classChecks.get(i).message) + ", violations);");
+            }
+            out.println("        return ConstraintChecks.result(violations);");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private String getter(VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String capitalised = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        TypeElement owner = (TypeElement) field.getEnclosingElement();
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && (methodName.equals("get" + capitalised) || methodName.equals("is" + capitalised))) {
+                return methodName;
+            }
+        }
+        return null;
+    }
+
+    private boolean defaultGroup(Element element, AnnotationMirror annotation) {
+        if (!listValue(annotation, "groups").isEmpty()) {
+            error(element, "Validation groups are not supported by @GenerateValidator");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isConstraint(AnnotationMirror annotation) {
+        return constraintOf(annotation) != null || annotationName(annotation).startsWith("javax.validation.constraints.");
+    }
+
+    private AnnotationMirror constraintOf(AnnotationMirror annotation) {
+        for (AnnotationMirror meta : annotation.getAnnotationType().asElement().getAnnotationMirrors()) {
+            if (annotationName(meta).equals(CONSTRAINT)) {
+                return meta;
+            }
+        }
+        return null;
+    }
+
+    private static String annotationName(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private AnnotationValue value(AnnotationMirror annotation, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalStateException(annotationName(annotation) + " has no element " + name);
+    }
+
+    private String stringValue(AnnotationMirror annotation, String name) {
+        return (String) value(annotation, name).getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<? extends AnnotationValue> listValue(AnnotationMirror annotation, String name) {
+        return (List<? extends AnnotationValue>) value(annotation, name).getValue();
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
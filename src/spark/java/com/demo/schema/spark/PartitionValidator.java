@@ -0,0 +1,111 @@
+package com.demo.schema.spark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Validates the records of one partition against a schema, on the executor.
+ *
+ * Compiled schemas are cached per executor JVM, keyed by the schema text, so every task on an
+ * executor shares the keyword validators the library builds lazily instead of compiling the
+ * schema again for each partition.
+ */
+final class PartitionValidator {
+
+    static final String PARSE_ERROR_KEY = "parse";
+
+    private static final ConcurrentMap<String, JsonSchema> SCHEMAS = new ConcurrentHashMap<>();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final JsonSchema schema;
+
+    private PartitionValidator(JsonSchema schema) {
+        this.schema = schema;
+    }
+
+    static PartitionValidator forSchema(String schemaJson) {
+        return new PartitionValidator(SCHEMAS.computeIfAbsent(schemaJson, PartitionValidator::compile));
+    }
+
+    /**
+     * Validate records lazily as the partition iterator is consumed
+     */
+    Iterator<ValidatedRecord> validateAll(Iterator<String> records) {
+        return new Iterator<ValidatedRecord>() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public ValidatedRecord next() {
+                return validate(records.next());
+            }
+        };
+    }
+
+    ValidatedRecord validate(String record) {
+        JsonNode message;
+        try {
+            message = OBJECT_MAPPER.readTree(record);
+        } catch (IOException e) {
+            message = null;
+        }
+        if (message == null || message.isMissingNode()) {
+            return new ValidatedRecord(record, false, Collections.singletonList(PARSE_ERROR_KEY),
+                    Collections.singletonList("JSON Parsing Error: not a JSON document"));
+        }
+
+        ProcessingReport report;
+        try {
+            report = schema.validate(message);
+        } catch (ProcessingException e) {
+            return new ValidatedRecord(record, false, Collections.singletonList("processing"),
+                    Collections.singletonList("Schema Processing Error: " + e.getMessage()));
+        }
+        if (report.isSuccess()) {
+            return new ValidatedRecord(record, true, new ArrayList<>(), new ArrayList<>());
+        }
+
+        List<String> keys = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (ProcessingMessage processingMessage : report) {
+            JsonNode json = processingMessage.asJson();
+            String keyword = json.path("keyword").asText("unknown");
+            String pointer = json.path("instance").path("pointer").asText("");
+            // Report required/additionalProperties per property, which is what gets counted
+            JsonNode names = "required".equals(keyword) ? json.get("missing")
+                    : "additionalProperties".equals(keyword) ? json.get("unwanted") : null;
+            if (names != null && names.isArray()) {
+                for (JsonNode name : names) {
+                    keys.add(keyword + " " + pointer + "/" + name.asText());
+                }
+            } else {
+                keys.add(keyword + " " + (pointer.isEmpty() ? "/" : pointer));
+            }
+            errors.add(processingMessage.getMessage());
+        }
+        return new ValidatedRecord(record, false, keys, errors);
+    }
+
+    private static JsonSchema compile(String schemaJson) {
+        try {
+            return JsonSchemaFactory.byDefault().getJsonSchema(OBJECT_MAPPER.readTree(schemaJson));
+        } catch (IOException | ProcessingException e) {
+            throw new IllegalArgumentException("Invalid schema: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.demo.schema.spark;
+
+import com.demo.schema.MessageValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.MapPartitionsFunction;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.storage.StorageLevel;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.apache.spark.sql.functions.col;
+import static org.apache.spark.sql.functions.explode;
+
+/**
+ * Validates datasets of JSON messages (one message per line) with Spark.
+ *
+ * The schema is read once on the driver, checked, and broadcast as JSON text. Each partition is
+ * validated with {@code mapPartitions} by a validator that is compiled once per executor and
+ * reused for every record, so the per-record cost is parsing plus validation only.
+ *
+ * {@link #run(String, String)} writes three outputs under the output directory:
+ * <pre>
+ *   valid/         the valid messages, as text
+ *   invalid/       the invalid messages with their errors, as JSON lines
+ *   error-counts/  number of violations per keyword and instance pointer, as JSON lines
+ * </pre>
+ */
+public class SparkMessageValidator {
+
+    private final SparkSession spark;
+    private final Broadcast<String> schema;
+
+    /**
+     * @param spark Spark session to run on
+     * @param schemaPath Classpath or file system path of the message schema, read on the driver
+     * @throws IOException If the schema cannot be read or is not a valid schema
+     */
+    public SparkMessageValidator(SparkSession spark, String schemaPath) throws IOException {
+        this.spark = spark;
+        JsonNode schemaNode = new MessageValidator().readJsonFile(schemaPath);
+        ProcessingReport syntax = JsonSchemaFactory.byDefault().getSyntaxValidator().validateSchema(schemaNode);
+        if (!syntax.isSuccess()) {
+            throw new IOException("Invalid schema " + schemaPath + ": " + syntax);
+        }
+        this.schema = JavaSparkContext.fromSparkContext(spark.sparkContext()).broadcast(schemaNode.toString());
+    }
+
+    /**
+     * Validate each message of a dataset
+     * @param messages JSON messages, one per element
+     * @return Validation outcome per message, computed lazily
+     */
+    public Dataset<ValidatedRecord> validate(Dataset<String> messages) {
+        Broadcast<String> schemaJson = schema;
+        return messages.mapPartitions(
+                (MapPartitionsFunction<String, ValidatedRecord>) records ->
+                        PartitionValidator.forSchema(schemaJson.value()).validateAll(records),
+                Encoders.bean(ValidatedRecord.class));
+    }
+
+    /**
+     * Count violations per error key, most frequent first
+     * @param validated Output of {@link #validate(Dataset)}
+     * @return Rows of {@code key} and {@code count}
+     */
+    public static Dataset<Row> errorCounts(Dataset<ValidatedRecord> validated) {
+        return validated.filter(col("valid").equalTo(false))
+                .select(explode(col("errorKeys")).as("key"))
+                .groupBy("key")
+                .count()
+                .orderBy(col("count").desc(), col("key"));
+    }
+
+    /**
+     * Validate text files of JSON lines and write the valid/invalid splits and error counts
+     * @param inputPath Input file or directory, in any form Spark reads text from
+     * @param outputPath Output directory; existing output is replaced
+     * @return Totals and error counts of the run
+     */
+    public ValidationSummary run(String inputPath, String outputPath) {
+        Dataset<ValidatedRecord> validated = validate(spark.read().textFile(inputPath))
+                .persist(StorageLevel.MEMORY_AND_DISK());
+        try {
+            validated.filter(col("valid").equalTo(true))
+                    .select(col("value"))
+                    .write().mode(SaveMode.Overwrite).text(outputPath + "/valid");
+            validated.filter(col("valid").equalTo(false))
+                    .select(col("value"), col("errors"))
+                    .write().mode(SaveMode.Overwrite).json(outputPath + "/invalid");
+
+            Dataset<Row> counts = errorCounts(validated).persist(StorageLevel.MEMORY_ONLY());
+            counts.coalesce(1).write().mode(SaveMode.Overwrite).json(outputPath + "/error-counts");
+
+            Map<String, Long> errorCounts = new LinkedHashMap<>();
+            for (Row row : counts.collectAsList()) {
+                errorCounts.put(row.getString(0), row.getLong(1));
+            }
+            counts.unpersist();
+
+            long total = validated.count();
+            long valid = validated.filter(col("valid").equalTo(true)).count();
+            return new ValidationSummary(total, valid, errorCounts);
+        } finally {
+            validated.unpersist();
+        }
+    }
+
+    /**
+     * Totals of a validation run
+     */
+    public static class ValidationSummary {
+        private final long total;
+        private final long valid;
+        private final Map<String, Long> errorCounts;
+
+        public ValidationSummary(long total, long valid, Map<String, Long> errorCounts) {
+            this.total = total;
+            this.valid = valid;
+            this.errorCounts = errorCounts;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getValid() {
+            return valid;
+        }
+
+        public long getInvalid() {
+            return total - valid;
+        }
+
+        /**
+         * @return Violations per error key, most frequent first
+         */
+        public Map<String, Long> getErrorCounts() {
+            return errorCounts;
+        }
+
+        @Override
+        public String toString() {
+            return "ValidationSummary{" +
+                    "total=" + total +
+                    ", valid=" + valid +
+                    ", invalid=" + getInvalid() +
+                    ", errorCounts=" + errorCounts +
+                    '}';
+        }
+    }
+
+    /**
+     * Usage: SparkMessageValidator input output [schema] [master]
+     * The master defaults to local[*] when not set by spark-submit.
+     */
+    public static void main(String[] args) throws IOException, ProcessingException {
+        if (args.length < 2) {
+            System.err.println("Usage: SparkMessageValidator <input> <output> [schema] [master]");
+            System.exit(1);
+        }
+        String schemaPath = args.length > 2 ? args[2] : "schema.json";
+
+        SparkSession.Builder builder = SparkSession.builder().appName("message-validation");
+        if (args.length > 3) {
+            builder.master(args[3]);
+        } else if (!System.getProperties().containsKey("spark.master")) {
+            builder.master("local[*]");
+        }
+        SparkSession spark = builder.getOrCreate();
+        try {
+            ValidationSummary summary = new SparkMessageValidator(spark, schemaPath).run(args[0], args[1]);
+            System.out.println("Total:   " + summary.getTotal());
+            System.out.println("Valid:   " + summary.getValid());
+            System.out.println("Invalid: " + summary.getInvalid());
+            summary.getErrorCounts().forEach((key, count) -> System.out.println("  " + count + "\t" + key));
+        } finally {
+            spark.stop();
+        }
+    }
+}
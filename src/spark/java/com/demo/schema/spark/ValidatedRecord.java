@@ -0,0 +1,73 @@
+package com.demo.schema.spark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One input record with its validation outcome, as a Spark bean.
+ *
+ * {@code errorKeys} identify each violation as {@code "<keyword> <pointer>"} (for example
+ * {@code "required /cobDate"} or {@code "minimum /records"}) so they can be counted across a
+ * dataset; {@code errors} hold the full messages for the same violations.
+ */
+public class ValidatedRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String value;
+    private boolean valid;
+    private List<String> errorKeys = new ArrayList<>();
+    private List<String> errors = new ArrayList<>();
+
+    public ValidatedRecord() {
+    }
+
+    public ValidatedRecord(String value, boolean valid, List<String> errorKeys, List<String> errors) {
+        this.value = value;
+        this.valid = valid;
+        this.errorKeys = errorKeys;
+        this.errors = errors;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public List<String> getErrorKeys() {
+        return errorKeys;
+    }
+
+    public void setErrorKeys(List<String> errorKeys) {
+        this.errorKeys = errorKeys;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidatedRecord{" +
+                "valid=" + valid +
+                ", errorKeys=" + errorKeys +
+                ", value='" + value + '\'' +
+                '}';
+    }
+}
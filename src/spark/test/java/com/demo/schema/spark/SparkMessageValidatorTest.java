@@ -0,0 +1,119 @@
+package com.demo.schema.spark;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.SparkSession;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for SparkMessageValidator, in Spark local mode
+ */
+public class SparkMessageValidatorTest {
+
+    private static final String TEMPLATE = "{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\","
+            + "\"timestamp\":\"2025-07-08 12:00:00 PM IST\",\"records\":%d,\"trr\":\"GLOBAL\","
+            + "\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}";
+
+    private static SparkSession spark;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void startSpark() {
+        spark = SparkSession.builder()
+                .appName("SparkMessageValidatorTest")
+                .master("local[2]")
+                .config("spark.sql.shuffle.partitions", "2")
+                .getOrCreate();
+    }
+
+    @AfterClass
+    public static void stopSpark() {
+        spark.stop();
+    }
+
+    @Test
+    public void testValidate_ErrorKeys() throws Exception {
+        // Given: A valid message, a negative count, an extra field, and garbage
+        List<String> messages = Arrays.asList(
+                String.format(TEMPLATE, 5),
+                String.format(TEMPLATE, -1),
+                String.format(TEMPLATE, 5).replace("\"trr\"", "\"extra\":1,\"trr\""),
+                "{\"cobDate\":\"2024-12-31\"",
+                "not json");
+
+        // When: Validating them across two partitions
+        SparkMessageValidator validator = new SparkMessageValidator(spark, "schema.json");
+        List<ValidatedRecord> results = validator.validate(
+                spark.createDataset(messages, Encoders.STRING()).repartition(2)).collectAsList();
+
+        // Then: Each message should carry its violations
+        assertEquals("Result count", 5, results.size());
+        ValidatedRecord valid = find(results, messages.get(0));
+        assertTrue("First message should be valid", valid.isValid());
+        assertTrue("Valid message should have no errors", valid.getErrorKeys().isEmpty());
+
+        ValidatedRecord negative = find(results, messages.get(1));
+        assertFalse("Negative count should be invalid", negative.isValid());
+        assertEquals("Minimum violation expected", Arrays.asList("minimum /records"), negative.getErrorKeys());
+        assertEquals("Keys and messages should line up", 1, negative.getErrors().size());
+
+        assertEquals("Unwanted property expected", Arrays.asList("additionalProperties /extra"),
+                find(results, messages.get(2)).getErrorKeys());
+
+        assertEquals("Truncated JSON is a parse error", Arrays.asList(PartitionValidator.PARSE_ERROR_KEY),
+                find(results, messages.get(3)).getErrorKeys());
+        assertEquals("Garbage is a parse error", Arrays.asList(PartitionValidator.PARSE_ERROR_KEY),
+                find(results, messages.get(4)).getErrorKeys());
+    }
+
+    @Test
+    public void testRun_WritesSplitsAndCounts() throws Exception {
+        // Given: 1000 messages in two files, every fourth with a negative record count
+        File input = tempFolder.newFolder("input");
+        for (int file = 0; file < 2; file++) {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                lines.add(String.format(TEMPLATE, i % 4 == 0 ? -1 : i));
+            }
+            Files.write(new File(input, "part-" + file + ".json").toPath(), lines, StandardCharsets.UTF_8);
+        }
+        File output = new File(tempFolder.getRoot(), "output");
+
+        // When: Running the job
+        SparkMessageValidator.ValidationSummary summary =
+                new SparkMessageValidator(spark, "schema.json").run(input.getPath(), output.getPath());
+
+        // Then: Totals, counts and outputs should match
+        assertEquals("Total", 1000, summary.getTotal());
+        assertEquals("Valid", 750, summary.getValid());
+        assertEquals("Invalid", 250, summary.getInvalid());
+        assertEquals("Error counts", 250L, (long) summary.getErrorCounts().get("minimum /records"));
+        assertEquals("Valid split", 750, spark.read().textFile(output.getPath() + "/valid").count());
+        assertEquals("Invalid split", 250, spark.read().json(output.getPath() + "/invalid").count());
+        assertEquals("Error count rows", 1, spark.read().json(output.getPath() + "/error-counts").count());
+    }
+
+    private static ValidatedRecord find(List<ValidatedRecord> results, String value) {
+        for (ValidatedRecord result : results) {
+            if (value.equals(result.getValue())) {
+                return result;
+            }
+        }
+        throw new AssertionError("No result for " + value);
+    }
+}
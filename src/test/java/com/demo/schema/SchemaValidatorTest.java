@@ -3,7 +3,10 @@ package com.demo.schema;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -540,4 +543,54 @@ public class SchemaValidatorTest {
         // Then: Should be valid
         assertTrue("Flexible Kafka configs should be valid", report.isSuccess());
     }
-} 
\ No newline at end of file
+    
+    @Test
+    public void testStreamYaml_ValidatesEachDocument() throws IOException, ProcessingException {
+        // Given: A stream of the two sample feeds with an invalid document between them
+        JsonSchema schema = validator.loadSchema(VALID_SCHEMA_PATH);
+        String stream = "---\n" + new String(Files.readAllBytes(new File(FILE_WATCHER_YAML_PATH).toPath()), "UTF-8")
+                + "\n---\n- name: 42\n"
+                + "---\n" + new String(Files.readAllBytes(new File(KAFKA_YAML_PATH).toPath()), "UTF-8");
+        File streamFile = this.tempFolder.newFile("catalog.yaml");
+        Files.write(streamFile.toPath(), stream.getBytes("UTF-8"));
+        
+        // When: Streaming the documents
+        List<SchemaValidator.DocumentReport> reports = new ArrayList<>();
+        try (SchemaValidator.DocumentStream documents = validator.streamYaml(schema, streamFile.getAbsolutePath())) {
+            while (documents.hasNextValue()) {
+                reports.add(documents.nextValue());
+            }
+        }
+        
+        // Then: Each document should be a whole feed list, and only the middle one invalid
+        assertEquals("Documents read", 3, reports.size());
+        for (int i = 0; i < reports.size(); i++) {
+            assertEquals("Index of document " + i, i, reports.get(i).getIndex());
+            assertTrue("Document " + i + " should be a sequence", reports.get(i).getDocument().isArray());
+        }
+        assertTrue("First document should be valid", reports.get(0).isSuccess());
+        assertFalse("Second document should be invalid", reports.get(1).isSuccess());
+        assertTrue("Third document should be valid", reports.get(2).isSuccess());
+    }
+    
+    @Test
+    public void testStreamYaml_SingleDocument() throws IOException, ProcessingException {
+        // Given: A plain feed file without document markers
+        JsonSchema schema = validator.loadSchema(VALID_SCHEMA_PATH);
+        
+        // When: Streaming it
+        int count = 0;
+        try (SchemaValidator.DocumentStream documents = validator.streamYaml(schema,
+                Files.newInputStream(new File(KAFKA_YAML_PATH).toPath()))) {
+            while (documents.hasNextValue()) {
+                SchemaValidator.DocumentReport report = documents.nextValue();
+                
+                // Then: The one document should match loadYaml
+                assertEquals("Document", validator.loadYaml(KAFKA_YAML_PATH), report.getDocument());
+                assertTrue("Document should be valid", report.isSuccess());
+                count++;
+            }
+        }
+        assertEquals("Documents read", 1, count);
+    }
+}
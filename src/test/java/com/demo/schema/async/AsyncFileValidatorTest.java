@@ -0,0 +1,164 @@
+package com.demo.schema.async;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.MessageValidator.ValidationResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+/**
+ * Unit tests for AsyncFileValidator
+ */
+public class AsyncFileValidatorTest {
+
+    private static final Path MESSAGE_PATH = Paths.get("src/main/resources/message.json");
+    private static final Path SCHEMA_PATH = Paths.get("src/main/resources/schema.json");
+    private static final Path FEEDS_SCHEMA_PATH = Paths.get("src/main/resources/schema/feeds_schema.json");
+    private static final Path KAFKA_YAML_PATH = Paths.get("src/main/resources/schema/feed_kafka_1.yaml");
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private MessageValidator validator;
+    private AsyncFileValidator async;
+
+    @Before
+    public void setUp() {
+        validator = new MessageValidator();
+        async = new AsyncFileValidator(validator, 4);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        async.close();
+    }
+
+    @Test
+    public void testValidateMessage_SameAsBlocking() throws Exception {
+        // Given: The sample message and its schema
+        ValidationResult expected = validator.validateMessage(MESSAGE_PATH.toString(), SCHEMA_PATH.toString());
+
+        // When: Validating them asynchronously
+        ValidationResult result = async.validateMessage(MESSAGE_PATH, SCHEMA_PATH).get();
+
+        // Then: The result should match the blocking validator
+        assertEquals("Valid", expected.isValid(), result.isValid());
+        assertEquals("Details", expected.getDetails(), result.getDetails());
+    }
+
+    @Test
+    public void testReadJson_ValuesSplitAcrossChunks() throws Exception {
+        // Given: A file several chunks long, with multi-byte characters and numbers of every kind
+        ObjectNode document = mapper.createObjectNode();
+        for (int i = 0; i < 1500; i++) {
+            ObjectNode entry = document.putObject("entry-" + i);
+            entry.put("text", "Zürich → 東京 " + i).put("int", i).put("long", 10_000_000_000L + i)
+                    .put("double", i / 7.0).put("flag", i % 2 == 0).putNull("none");
+            entry.put("big", new BigInteger("123456789012345678901234567890").add(BigInteger.valueOf(i)));
+            entry.putArray("list").add(i).addArray().addObject();
+            entry.putObject("empty");
+        }
+        File file = tempFolder.newFile("large.json");
+        Files.write(file.toPath(), mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(document));
+
+        // When: Reading it asynchronously
+        JsonNode read = async.readJson(file.toPath()).get();
+
+        // Then: The tree should equal the one read in one go
+        assertTrue("File should span chunks", file.length() > 3 * AsyncFileValidator.CHUNK_SIZE);
+        assertEquals("Tree", mapper.readTree(file), read);
+        assertEquals("Root scalar", mapper.readTree("42"), readJson("42"));
+        assertTrue("Empty file", readJson("").isMissingNode());
+    }
+
+    @Test
+    public void testValidateMessage_ReadFailuresReported() throws Exception {
+        // Given: A compiled schema, a truncated message, a malformed one and a missing path
+        JsonSchema schema = validator.loadSchema(SCHEMA_PATH.toString());
+        String message = new String(Files.readAllBytes(MESSAGE_PATH), StandardCharsets.UTF_8);
+        Path truncated = write("truncated.json", message.substring(0, message.length() / 2));
+        Path malformed = write("malformed.json", "{\"cobDate\": 2024-12-31}");
+        Path empty = write("empty.json", "");
+
+        // When/Then: Each should complete with an invalid result naming the problem
+        ValidationResult result = async.validateMessage(schema, truncated).get();
+        assertFalse("Truncated", result.isValid());
+        assertTrue("Truncated: " + result.getDetails(), result.getDetails().startsWith("JSON Parsing Error:"));
+        result = async.validateMessage(schema, malformed).get();
+        assertTrue("Malformed: " + result.getDetails(), result.getDetails().startsWith("JSON Parsing Error:"));
+        result = async.validateMessage(schema, empty).get();
+        assertEquals("Empty", "JSON Parsing Error: empty message", result.getDetails());
+        result = async.validateMessage(schema, tempFolder.getRoot().toPath().resolve("missing.json")).get();
+        assertTrue("Missing: " + result.getDetails(), result.getDetails().startsWith("IO Error:"));
+        result = async.validateMessage(MESSAGE_PATH, malformed).get();
+        assertTrue("Bad schema: " + result.getDetails(), result.getDetails().startsWith("JSON Parsing Error:"));
+        assertEquals("Open files", 0, async.getOpenFileCount());
+    }
+
+    @Test
+    public void testManyFiles_OpenFilesBounded() throws Exception {
+        // Given: A validator allowed three open files, and many message and feed files
+        String messageDetails = validator.validateMessage(MESSAGE_PATH.toString(), SCHEMA_PATH.toString()).getDetails();
+        AtomicInteger maxOpen = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        AsyncFileValidator limited = new AsyncFileValidator(validator, 3, pool);
+        JsonSchema messageSchema = validator.loadSchema(SCHEMA_PATH.toString());
+        JsonSchema feedsSchema = limited.loadSchema(FEEDS_SCHEMA_PATH).get();
+        List<CompletableFuture<ValidationResult>> results = new ArrayList<>();
+
+        // When: Validating all of them at once
+        for (int i = 0; i < 200; i++) {
+            results.add(i % 2 == 0 ? limited.validateMessage(messageSchema, MESSAGE_PATH)
+                    : limited.validateFeed(feedsSchema, KAFKA_YAML_PATH));
+            maxOpen.accumulateAndGet(limited.getOpenFileCount(), Math::max);
+        }
+
+        // Then: Each should have its blocking result, with no more than three files open at a time
+        for (int i = 0; i < results.size(); i++) {
+            maxOpen.accumulateAndGet(limited.getOpenFileCount(), Math::max);
+            ValidationResult result = results.get(i).get();
+            if (i % 2 == 0) {
+                assertEquals("Message result", messageDetails, result.getDetails());
+            } else {
+                assertTrue("Feed should be valid: " + result.getDetails(), result.isValid());
+            }
+        }
+        assertTrue("Max open files: " + maxOpen.get(), maxOpen.get() <= 3);
+        assertEquals("Open files", 0, limited.getOpenFileCount());
+        limited.close();
+    }
+
+    private JsonNode readJson(String content) throws Exception {
+        return async.readJson(write("doc-" + System.nanoTime() + ".json", content)).get();
+    }
+
+    private Path write(String name, String content) throws Exception {
+        File file = tempFolder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file.toPath();
+    }
+}
@@ -0,0 +1,139 @@
+package com.demo.schema.build;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for FeedBuildValidator and FeedManifest
+ */
+public class FeedBuildValidatorTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path sources;
+    private Path manifestFile;
+    private FeedBuildValidator validator;
+
+    @Before
+    public void setUp() throws Exception {
+        sources = tempFolder.newFolder("schema").toPath();
+        for (String name : Arrays.asList("feeds_schema.json", "feed_file_1.yaml", "feed_kafka_1.yaml")) {
+            Files.copy(Paths.get("src/main/resources/schema", name), sources.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        }
+        manifestFile = new File(tempFolder.getRoot(), "classes/META-INF/feed-manifest.properties").toPath();
+        validator = new FeedBuildValidator(sources, manifestFile, 2);
+    }
+
+    private void edit(String name, String from, String to) throws Exception {
+        Path file = sources.resolve(name);
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, content.replace(from, to).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFirstBuild_ValidatesAllAndWritesManifest() throws Exception {
+        // Given: A source directory with two valid feed files and no previous manifest
+
+        // When: Running the build validation
+        FeedBuildValidator.Result result = validator.run();
+
+        // Then: Both files should be validated and recorded
+        assertTrue("Build should succeed", result.isSuccess());
+        assertEquals("Validated", Arrays.asList("feed_file_1.yaml", "feed_kafka_1.yaml"), result.getValidated());
+        FeedManifest manifest = FeedManifest.load(manifestFile);
+        assertEquals("Manifest entries", 2, manifest.getFeeds().size());
+    }
+
+    @Test
+    public void testSecondBuild_OnlyChangedFileValidated() throws Exception {
+        // Given: A previous build and an edit to one feed file
+        validator.run();
+        edit("feed_kafka_1.yaml", "layer: \"layer\"", "layer: \"edited\"");
+
+        // When: Building again
+        FeedBuildValidator.Result result = validator.run();
+
+        // Then: Only the edited file should be validated
+        assertEquals("Validated", Collections.singletonList("feed_kafka_1.yaml"), result.getValidated());
+        assertEquals("Unchanged", Collections.singletonList("feed_file_1.yaml"), result.getSkipped());
+    }
+
+    @Test
+    public void testSchemaChange_RevalidatesEverything() throws Exception {
+        // Given: A previous build and a changed schema
+        validator.run();
+        edit("feeds_schema.json", "\"URI for monitoring\"", "\"URI for monitoring, changed\"");
+
+        // When: Building again
+        FeedBuildValidator.Result result = validator.run();
+
+        // Then: No file should be trusted from the previous manifest
+        assertEquals("Validated", 2, result.getValidated().size());
+        assertTrue("Nothing should be skipped", result.getSkipped().isEmpty());
+    }
+
+    @Test
+    public void testBusinessRuleViolation_FailsAndIsNotTrusted() throws Exception {
+        // Given: A file feed polling every 20 seconds with an empty monitor-uri, which the schema allows
+        edit("feed_file_1.yaml", "monitor-uri: \"monitor-uri-1\"", "monitor-uri: \"\"");
+
+        // When: Running the build validation
+        FeedBuildValidator.Result result = validator.run();
+
+        // Then: The file should fail on the business rule and be left out of the manifest
+        assertFalse("Build should fail", result.isSuccess());
+        assertTrue("Failure should name the rule",
+                result.getFailures().get("feed_file_1.yaml").get(0).contains("monitor-uri must be specified"));
+        FeedManifest manifest = FeedManifest.load(manifestFile);
+        assertEquals("Manifest entries", Collections.singleton("feed_kafka_1.yaml"), manifest.getFeeds().keySet());
+    }
+
+    @Test
+    public void testManifest_TrustsOnlyExactContentAndSchema() throws Exception {
+        // Given: A manifest from a successful build
+        validator.run();
+        FeedManifest manifest = FeedManifest.load(manifestFile);
+        byte[] schema = Files.readAllBytes(sources.resolve("feeds_schema.json"));
+        byte[] feed = Files.readAllBytes(sources.resolve("feed_file_1.yaml"));
+
+        // When/Then: Only the same content under the same schema should be trusted
+        assertTrue("Unchanged file", manifest.isTrusted(schema, "feed_file_1.yaml", feed));
+        assertFalse("Changed file", manifest.isTrusted(schema, "feed_file_1.yaml", Arrays.copyOf(feed, feed.length - 1)));
+        assertFalse("Other schema", manifest.isTrusted("{}".getBytes(StandardCharsets.UTF_8), "feed_file_1.yaml", feed));
+        assertFalse("Empty manifest", FeedManifest.empty().isTrusted(schema, "feed_file_1.yaml", feed));
+    }
+
+    @Test
+    public void testRulesClasses_CoverNestedAndImportedClasses() throws Exception {
+        // When: Listing the class files the rules digest covers
+        Set<String> classes = FeedManifest.rulesClasses().keySet();
+
+        // Then: Anonymous, nested and imported classes the rules run through should be included
+        for (String expected : Arrays.asList(
+                "com/demo/schema/validation/SchemaWithCustomValidation$BusinessRuleValidator.class",
+                "com/demo/schema/validation/SchemaWithCustomValidation_FeedConfigWithCustomValidationValidator.class",
+                "com/demo/schema/validation/compiled/ViolationContext$1.class",
+                "com/demo/schema/kafka/KafkaConfigs$ValueType.class",
+                "com/demo/schema/kafka/KafkaConfigs$Builder.class",
+                "com/demo/schema/kafka/ConfigKey.class")) {
+            assertTrue("Missing " + expected + " in " + classes, classes.contains(expected));
+        }
+        assertFalse("Unrelated classes of the kafka package", classes.contains("com/demo/schema/kafka/InMemoryTopic.class"));
+    }
+}
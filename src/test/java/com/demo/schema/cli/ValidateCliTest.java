@@ -0,0 +1,109 @@
+package com.demo.schema.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for ValidateCli
+ */
+public class ValidateCliTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String... args) {
+        return ValidateCli.run(args, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    private String output() {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private File write(String name, String content) throws Exception {
+        File file = tempFolder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testValidFeeds_ExitZero() {
+        // Given: The sample feed files and the default feeds schema
+
+        // When: Running the CLI
+        int status = run("src/main/resources/schema/feed_file_1.yaml", "src/main/resources/schema/feed_kafka_1.yaml");
+
+        // Then: Both files should pass
+        assertEquals("Exit status", ValidateCli.VALID, status);
+        assertTrue("Output should list the files", output().contains("OK   src/main/resources/schema/feed_kafka_1.yaml"));
+    }
+
+    @Test
+    public void testInvalidMessage_ExitOneWithErrors() throws Exception {
+        // Given: A message with a negative record count
+        File message = write("message.json", "{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\",\"timestamp\":\"t\","
+                + "\"records\":-5,\"trr\":\"GLOBAL\",\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}");
+
+        // When: Running the CLI in message mode
+        int status = run("--messages", message.getPath());
+
+        // Then: The file should fail with one line per error
+        assertEquals("Exit status", ValidateCli.INVALID, status);
+        assertTrue("Output should show the error", output().contains("  /records: "));
+    }
+
+    @Test
+    public void testPatternSchema_RhinoInterpreted() throws Exception {
+        // Given: A schema using the pattern keyword, which fge checks with Rhino
+        File schema = write("pattern.json", "{\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"string\",\"pattern\":\"^[a-z]+-[0-9]+$\"}}}");
+        File good = write("good.json", "{\"id\":\"feed-1\"}");
+        File bad = write("bad.json", "{\"id\":\"Feed 1\"}");
+
+        // When: Running the CLI with Rhino in interpreted mode
+        int status = run("--messages", "--schema", schema.getPath(), good.getPath(), bad.getPath());
+
+        // Then: Only the second message should fail
+        assertEquals("Exit status", ValidateCli.INVALID, status);
+        assertTrue("Good message should pass", output().contains("OK   " + good.getPath()));
+        assertTrue("Bad message should fail", output().contains("FAIL " + bad.getPath()));
+    }
+
+    @Test
+    public void testUsageAndMissingFile_ExitTwo() {
+        // Given/When: Running without files, and with a missing file
+        int usage = run("--messages");
+        int missing = run("does-not-exist.yaml");
+
+        // Then: Both should be reported as errors
+        assertEquals("Usage exit status", ValidateCli.ERROR, usage);
+        assertEquals("Missing file exit status", ValidateCli.ERROR, missing);
+    }
+
+    @Test
+    public void testProfile_WritesFoldedStacks() throws Exception {
+        // Given: A file for the profile
+        File folded = new File(tempFolder.getRoot(), "feeds.folded");
+
+        // When: Running the CLI with profiling
+        int status = run("--profile", folded.getPath(), "src/main/resources/schema/feed_kafka_1.yaml");
+
+        // Then: Validation should be unchanged, with stacks written and a summary on stderr
+        assertEquals("Exit status", ValidateCli.VALID, status);
+        String stacks = new String(Files.readAllBytes(folded.toPath()), StandardCharsets.UTF_8);
+        assertTrue("Stacks should include the config oneOf",
+                stacks.contains("#;items;properties;kafka-topic;properties;configs;additionalProperties;oneOf "));
+        assertTrue("Summary should count the document",
+                new String(err.toByteArray(), StandardCharsets.UTF_8).startsWith("1 documents"));
+    }
+}
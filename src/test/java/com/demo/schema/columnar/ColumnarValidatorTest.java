@@ -0,0 +1,267 @@
+package com.demo.schema.columnar;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.MessageValidator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Unit tests for ColumnarValidator and ColumnBatchReader
+ */
+public class ColumnarValidatorTest {
+
+    private static final String TEMPLATE = "{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\","
+            + "\"timestamp\":\"2025-07-08 12:00:00 PM IST\",\"records\":%s,\"trr\":\"GLOBAL\","
+            + "\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}";
+
+    private MessageValidator messageValidator;
+    private ColumnarValidator validator;
+
+    @Before
+    public void setUp() throws Exception {
+        messageValidator = new MessageValidator();
+        validator = new ColumnarValidator(messageValidator.readJsonFile("schema.json"));
+    }
+
+    @Test
+    public void testValidate_AgreesWithRowValidator() throws Exception {
+        // Given: Messages covering each supported constraint
+        List<String> messages = new ArrayList<>();
+        messages.add(String.format(TEMPLATE, "5"));
+        messages.add(String.format(TEMPLATE, "0"));
+        messages.add(String.format(TEMPLATE, "-1"));
+        messages.add(String.format(TEMPLATE, "-0.5"));
+        messages.add(String.format(TEMPLATE, "\"12\""));
+        messages.add(String.format(TEMPLATE, "null"));
+        messages.add(String.format(TEMPLATE, "{\"nested\":[1,2]}"));
+        messages.add(String.format(TEMPLATE, "7").replace("\"trr\":\"GLOBAL\",", ""));
+        messages.add(String.format(TEMPLATE, "7").replace("\"trr\"", "\"extra\":[1],\"trr\""));
+        messages.add("[1,2,3]");
+        messages.add("\"text\"");
+
+        // When: Validating them in one batch
+        ColumnBatch batch = new ColumnBatch(64);
+        try (ColumnBatchReader reader = new ColumnBatchReader(toJsonLines(messages))) {
+            assertTrue("Batch should be read", reader.next(batch));
+        }
+        ColumnarValidator.Result result = validator.validate(batch);
+
+        // Then: Each row should get the same verdict as the row-by-row validator
+        JsonSchema schema = messageValidator.loadSchema("schema.json");
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals("Row count", messages.size(), result.getRowCount());
+        for (int row = 0; row < messages.size(); row++) {
+            boolean expected = schema.validate(objectMapper.readTree(messages.get(row))).isSuccess();
+            assertEquals("Verdict for " + messages.get(row), expected, result.isValid(row));
+        }
+        assertEquals("Minimum violations", Integer.valueOf(2), result.getViolationCounts().get("minimum /records"));
+        assertEquals("Type violations", Integer.valueOf(3), result.getViolationCounts().get("type /records"));
+        assertEquals("Missing field", Integer.valueOf(1), result.getViolationCounts().get("required /trr"));
+        assertEquals("Unwanted field", Integer.valueOf(1), result.getViolationCounts().get("additionalProperties /extra"));
+        assertEquals("Non-object rows", Integer.valueOf(2), result.getViolationCounts().get("type /"));
+    }
+
+    @Test
+    public void testReader_BatchesAndReuse() throws Exception {
+        // Given: 10 messages in a JSON array, the last with a negative record count
+        StringBuilder array = new StringBuilder("[");
+        for (int i = 0; i < 10; i++) {
+            array.append(i > 0 ? "," : "").append(String.format(TEMPLATE, i == 9 ? "-1" : String.valueOf(i)));
+        }
+        array.append("]");
+
+        // When: Reading in batches of 4 with one reused batch
+        ColumnBatch batch = new ColumnBatch(4);
+        List<Integer> sizes = new ArrayList<>();
+        int invalid = 0;
+        double firstOfLastBatch = 0;
+        try (ColumnBatchReader reader = new ColumnBatchReader(
+                new ByteArrayInputStream(array.toString().getBytes(StandardCharsets.UTF_8)), true)) {
+            while (reader.next(batch)) {
+                sizes.add(batch.getRowCount());
+                invalid += validator.validate(batch).getInvalidCount();
+                firstOfLastBatch = batch.getColumn("records").numbers()[0];
+                assertNull("Unseen column", batch.getColumn("extra"));
+            }
+        }
+
+        // Then: Batches should be full except the last, and values should not leak between them
+        assertEquals("Batch sizes", "[4, 4, 2]", sizes.toString());
+        assertEquals("Invalid rows", 1, invalid);
+        assertEquals("First record of the last batch", 8.0, firstOfLastBatch, 0.0);
+        assertEquals("Exhausted reader should leave the batch empty", 0, batch.getRowCount());
+    }
+
+    @Test
+    public void testReader_JsonLinesStartingWithArray() throws Exception {
+        // Given: JSON lines whose first message is an array
+        List<String> messages = Arrays.asList("[1,2]", String.format(TEMPLATE, "3"));
+
+        // When: Reading them as JSON lines
+        ColumnBatch batch = new ColumnBatch(8);
+        try (ColumnBatchReader reader = new ColumnBatchReader(toJsonLines(messages))) {
+            reader.next(batch);
+        }
+
+        // Then: The array should be one message, not a wrapper around messages
+        assertEquals("Row count", 2, batch.getRowCount());
+        assertEquals("First row kind", ColumnBatch.ARRAY, batch.rowKinds()[0]);
+        assertEquals("Second row kind", ColumnBatch.OBJECT, batch.rowKinds()[1]);
+    }
+
+    @Test
+    public void testReader_ArrayExpected() throws Exception {
+        // Given: JSON lines read as an array of messages
+        try (ColumnBatchReader reader = new ColumnBatchReader(toJsonLines(Arrays.asList("{}", "{}")), true)) {
+            // When: Reading
+            reader.next(new ColumnBatch(8));
+            fail("Input that is not an array should be rejected");
+        } catch (JsonParseException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testValidate_UntypedRootAcceptsNonObjects() throws Exception {
+        // Given: A schema without a root type
+        JsonNode schemaNode = new ObjectMapper().readTree(
+                "{\"required\":[\"id\"],\"properties\":{\"id\":{\"type\":\"integer\"}}}");
+        List<String> messages = Arrays.asList("{\"id\":1}", "{}", "[1]", "\"text\"", "2");
+        ColumnBatch batch = new ColumnBatch(8);
+        try (ColumnBatchReader reader = new ColumnBatchReader(toJsonLines(messages))) {
+            reader.next(batch);
+        }
+
+        // When: Validating
+        ColumnarValidator.Result result = new ColumnarValidator(schemaNode).validate(batch);
+
+        // Then: Each row should get the same verdict as the row-by-row validator
+        JsonSchema schema = JsonSchemaFactory.byDefault().getJsonSchema(schemaNode);
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int row = 0; row < messages.size(); row++) {
+            boolean expected = schema.validate(objectMapper.readTree(messages.get(row))).isSuccess();
+            assertEquals("Verdict for " + messages.get(row), expected, result.isValid(row));
+        }
+        assertEquals("Only the object without id", 1, result.getInvalidCount());
+        assertNull("No root type violations", result.getViolationCounts().get("type /"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_UnsupportedKeyword() throws Exception {
+        JsonNode schema = new ObjectMapper().readTree(
+                "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\",\"pattern\":\"^a\"}}}");
+        new ColumnarValidator(schema);
+    }
+
+    @Test
+    public void testValidate_TypeUnion() throws Exception {
+        // Given: A property that may be a string or null
+        JsonNode schema = new ObjectMapper().readTree(
+                "{\"type\":\"object\",\"properties\":{\"feedIds\":{\"type\":[\"string\",\"null\"]}}}");
+        ColumnBatch batch = new ColumnBatch(8);
+        try (ColumnBatchReader reader = new ColumnBatchReader(toJsonLines(Arrays.asList(
+                "{\"feedIds\":null}", "{\"feedIds\":\"a\"}", "{\"feedIds\":1}", "{}")))) {
+            reader.next(batch);
+        }
+
+        // When: Validating
+        ColumnarValidator.Result result = new ColumnarValidator(schema).validate(batch);
+
+        // Then: Only the number should be rejected
+        assertTrue("null allowed", result.isValid(0));
+        assertTrue("string allowed", result.isValid(1));
+        assertFalse("number rejected", result.isValid(2));
+        assertTrue("absent allowed", result.isValid(3));
+    }
+
+    @Test
+    public void testValidate_BoundsCompareExactly() throws Exception {
+        // Given: Bounds and values that a double cannot tell apart, read as exactly as fge reads them
+        ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        JsonNode schemaNode = objectMapper.readTree("{\"type\":\"object\",\"properties\":{"
+                + "\"count\":{\"type\":\"integer\",\"maximum\":9007199254740992},"
+                + "\"ratio\":{\"type\":\"number\",\"minimum\":0.1,\"exclusiveMinimum\":true}}}");
+        List<String> messages = Arrays.asList(
+                "{\"count\":9007199254740992}",
+                "{\"count\":9007199254740993}",
+                "{\"count\":-9223372036854775808}",
+                "{\"count\":18446744073709551616}",
+                "{\"ratio\":0.1}",
+                "{\"ratio\":0.1000000000000000001}",
+                "{\"ratio\":-0.0}",
+                "{\"ratio\":1}",
+                "{\"ratio\":1e-400}");
+        ColumnBatch batch = new ColumnBatch(16);
+        try (ColumnBatchReader reader = new ColumnBatchReader(toJsonLines(messages))) {
+            reader.next(batch);
+        }
+
+        // When: Validating
+        ColumnarValidator.Result result = new ColumnarValidator(schemaNode).validate(batch);
+
+        // Then: Each row should get the same verdict as the row-by-row validator
+        JsonSchema schema = JsonSchemaFactory.byDefault().getJsonSchema(schemaNode);
+        for (int row = 0; row < messages.size(); row++) {
+            boolean expected = schema.validate(objectMapper.readTree(messages.get(row))).isSuccess();
+            assertEquals("Verdict for " + messages.get(row), expected, result.isValid(row));
+        }
+        assertFalse("2^53 + 1 is above the maximum", result.isValid(1));
+        assertTrue("Just above an exclusive minimum", result.isValid(5));
+        assertEquals("Maximum violations", Integer.valueOf(2), result.getViolationCounts().get("maximum /count"));
+        assertEquals("Minimum violations", Integer.valueOf(3), result.getViolationCounts().get("minimum /ratio"));
+    }
+
+    @Test
+    public void testValidate_ShortDecimalsCompareAsDoubles() throws Exception {
+        // Given: A decimal bound and values at and around it, in plain and exponent form
+        ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        JsonNode schemaNode = objectMapper.readTree(
+                "{\"type\":\"object\",\"properties\":{\"ratio\":{\"maximum\":0.3}}}");
+        List<String> messages = Arrays.asList(
+                "{\"ratio\":0.3}",
+                "{\"ratio\":0.30000000000000004}",
+                "{\"ratio\":3e-1}",
+                "{\"ratio\":0.29999999999999999}",
+                "{\"ratio\":0.300000000000000}");
+        ColumnBatch batch = new ColumnBatch(8);
+        try (ColumnBatchReader reader = new ColumnBatchReader(toJsonLines(messages))) {
+            reader.next(batch);
+        }
+
+        // When: Validating
+        ColumnarValidator.Result result = new ColumnarValidator(schemaNode).validate(batch);
+
+        // Then: Each row should get the same verdict as the row-by-row validator
+        JsonSchema schema = JsonSchemaFactory.byDefault().getJsonSchema(schemaNode);
+        for (int row = 0; row < messages.size(); row++) {
+            boolean expected = schema.validate(objectMapper.readTree(messages.get(row))).isSuccess();
+            assertEquals("Verdict for " + messages.get(row), expected, result.isValid(row));
+        }
+        BigDecimal[] decimals = batch.getColumn("ratio").decimals();
+        assertNull("Short plain decimal kept as a double", decimals[0]);
+        assertNull("Short decimal with an exponent kept as a double", decimals[2]);
+        assertEquals("Long decimal kept exactly", new BigDecimal("0.30000000000000004"), decimals[1]);
+    }
+
+    private static ByteArrayInputStream toJsonLines(List<String> messages) {
+        return new ByteArrayInputStream(String.join("\n", messages).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,165 @@
+package com.demo.schema.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.luben.zstd.ZstdOutputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+/**
+ * Unit tests for Compression
+ */
+public class CompressionTest {
+
+    private static final String SCHEMA_PATH = "src/main/resources/schema/feeds_schema.json";
+    private static final String KAFKA_YAML_PATH = "src/main/resources/schema/feed_kafka_1.yaml";
+    private static final String FILE_WATCHER_YAML_PATH = "src/main/resources/schema/feed_file_1.yaml";
+    private static final String MESSAGE_PATH = "src/main/resources/message.json";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private SchemaValidator validator;
+    private byte[] kafkaYaml;
+
+    @Before
+    public void setUp() throws IOException {
+        validator = new SchemaValidator();
+        kafkaYaml = Files.readAllBytes(Paths.get(KAFKA_YAML_PATH));
+    }
+
+    @Test
+    public void testLoadYaml_EveryCompression() throws Exception {
+        // Given: The kafka feed file as read uncompressed
+        JsonNode expected = validator.loadYaml(KAFKA_YAML_PATH);
+
+        for (Compression compression : Compression.values()) {
+            // When: Loading it compressed, from a file and from memory
+            byte[] compressed = compress(compression, kafkaYaml);
+            File file = tempFolder.newFile("feed_kafka_1.yaml." + compression.getName());
+            Files.write(file.toPath(), compressed);
+
+            // Then: The content should be detected and read unchanged
+            assertEquals("Detected", compression, Compression.detect(compressed, compressed.length));
+            assertEquals("File " + compression, expected, validator.loadYaml(file.getPath()));
+            assertEquals("Buffer " + compression, expected, validator.loadYaml(compressed));
+        }
+    }
+
+    @Test
+    public void testStreamYaml_GzipCatalog() throws Exception {
+        // Given: A gzip compressed multi-document catalog of both sample feeds, one made invalid
+        String fileWatcher = new String(Files.readAllBytes(Paths.get(FILE_WATCHER_YAML_PATH)), StandardCharsets.UTF_8);
+        String catalog = new String(kafkaYaml, StandardCharsets.UTF_8) + "\n---\n" + fileWatcher
+                + "\n---\n" + fileWatcher.replace("name:", "nom:");
+        File file = tempFolder.newFile("catalog.yaml.gz");
+        Files.write(file.toPath(), compress(Compression.GZIP, catalog.getBytes(StandardCharsets.UTF_8)));
+        JsonSchema schema = validator.loadSchema(SCHEMA_PATH);
+
+        // When: Streaming it
+        int documents = 0;
+        int valid = 0;
+        try (SchemaValidator.DocumentStream stream = validator.streamYaml(schema, file.getPath())) {
+            while (stream.hasNextValue()) {
+                documents++;
+                valid += stream.nextValue().isSuccess() ? 1 : 0;
+            }
+        }
+
+        // Then: Each document should be validated as it is decompressed
+        assertEquals("Documents", 3, documents);
+        assertEquals("Valid documents", 2, valid);
+    }
+
+    @Test
+    public void testMessages_Compressed() throws Exception {
+        // Given: The sample message compressed with zstd, and with gzip in memory
+        MessageValidator messages = new MessageValidator();
+        JsonSchema schema = messages.loadSchema("schema.json");
+        byte[] message = Files.readAllBytes(Paths.get(MESSAGE_PATH));
+        File file = tempFolder.newFile("message.json.zst");
+        Files.write(file.toPath(), compress(Compression.ZSTD, message));
+        MessageValidator.ValidationResult expected = messages.validate(schema, messages.readJsonFile(MESSAGE_PATH));
+
+        // When: Reading and validating them
+        JsonNode read = messages.readJsonFile(file.getPath());
+        MessageValidator.ValidationResult streamed = messages.validate(schema,
+                new ByteArrayInputStream(compress(Compression.GZIP, message)));
+
+        // Then: Both should match the uncompressed message
+        assertEquals("Message", messages.readJsonFile(MESSAGE_PATH), read);
+        assertEquals("Streamed result", expected.getDetails(), streamed.getDetails());
+    }
+
+    @Test
+    public void testOfAndDetect() throws Exception {
+        // Given/When/Then: Declared names should resolve, and short or plain content be left as is
+        assertEquals("gzip", Compression.GZIP, Compression.of("gzip"));
+        assertEquals("none", Compression.NONE, Compression.of("none"));
+        assertEquals("null", Compression.NONE, Compression.of(null));
+        assertEquals("Plain", Compression.NONE, Compression.detect(kafkaYaml, kafkaYaml.length));
+        assertEquals("Short", Compression.NONE, Compression.detect(new byte[] {0x1f}, 1));
+        assertEquals("Empty", -1, Compression.decompressing(new ByteArrayInputStream(new byte[0])).read());
+        assertNull("Plain buffer", Compression.decompressing(kafkaYaml));
+        try {
+            Compression.of("zip");
+            fail("zip archives are not a stream compression");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        assertArrayEquals("Round trip", kafkaYaml,
+                readAll(Compression.decompressing(new ByteArrayInputStream(compress(Compression.LZ4, kafkaYaml)))));
+    }
+
+    private static byte[] compress(Compression compression, byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = compressing(compression, bytes)) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static OutputStream compressing(Compression compression, OutputStream out) throws IOException {
+        switch (compression) {
+            case GZIP:
+                return new GZIPOutputStream(out);
+            case ZSTD:
+                return new ZstdOutputStream(out);
+            case LZ4:
+                return new LZ4FrameOutputStream(out);
+            default:
+                return out;
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
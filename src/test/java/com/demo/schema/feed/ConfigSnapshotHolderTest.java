@@ -0,0 +1,189 @@
+package com.demo.schema.feed;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Unit tests for ConfigSnapshotHolder
+ */
+public class ConfigSnapshotHolderTest {
+
+    private static final String FEED_HEADER = "- name: \"name1\"";
+
+    private String feed;
+    private FeedCatalogReader reader;
+    private IncrementalFeedValidator validator;
+    private ConfigSnapshotHolder holder;
+
+    @Before
+    public void setUp() throws Exception {
+        feed = new String(Files.readAllBytes(Paths.get("src/test/resources/feed_file_1.yaml")), StandardCharsets.UTF_8);
+        reader = new FeedCatalogReader(new NodeInterner());
+        validator = new IncrementalFeedValidator(JsonSchemaFactory.byDefault(),
+                new ObjectMapper().readTree(new File("src/main/resources/schema/feeds_schema.json")));
+        holder = new ConfigSnapshotHolder();
+    }
+
+    private List<FeedEntry> read(String... names) throws Exception {
+        StringBuilder catalog = new StringBuilder();
+        for (String name : names) {
+            catalog.append(feed.replace(FEED_HEADER, "- name: \"" + name + "\"")).append('\n');
+        }
+        return reader.read(catalog.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testReload_PublishesVersionsAndNotifies() throws Exception {
+        // Given: A listener recording publications
+        List<String> published = new ArrayList<>();
+        holder.addListener((previous, current) -> published.add(previous.getVersion() + "->" + current.getVersion()));
+        ConfigSnapshot initial = holder.get();
+
+        // When: Reloading two valid catalogs
+        assertTrue("First reload should succeed", holder.reload(read("a", "b"), validator).isSuccess());
+        ConfigSnapshot first = holder.get();
+        assertTrue("Second reload should succeed", holder.reload(read("a", "b", "c"), validator).isSuccess());
+
+        // Then: Each reload should be a new version, and earlier snapshots unchanged
+        assertEquals("Initial version", 0, initial.getVersion());
+        assertEquals("Initial feeds", 0, initial.size());
+        assertEquals("First version", 1, first.getVersion());
+        assertEquals("First feeds", 2, first.size());
+        assertEquals("Current version", 2, holder.get().getVersion());
+        assertNotNull("Lookup by name", holder.get().get("c"));
+        assertEquals("Notifications", Arrays.asList("0->1", "1->2"), published);
+    }
+
+    @Test
+    public void testReload_InvalidCatalogKeepsSnapshot() throws Exception {
+        // Given: A published catalog
+        holder.reload(read("a"), validator);
+        ConfigSnapshot published = holder.get();
+
+        // When: Reloading a catalog with an invalid feed
+        List<FeedEntry> invalid = reader.read((feed + "\n- name: 42\n").getBytes(StandardCharsets.UTF_8));
+        IncrementalFeedValidator.CatalogResult result = holder.reload(invalid, validator);
+
+        // Then: The published snapshot should stay current
+        assertFalse("Reload should fail", result.isSuccess());
+        assertSame("Snapshot should be unchanged", published, holder.get());
+    }
+
+    @Test
+    public void testPublish_FailingListenerDoesNotStopOthers() throws Exception {
+        // Given: A failing listener before a recording one
+        AtomicLong notified = new AtomicLong();
+        holder.addListener((previous, current) -> {
+            throw new IllegalStateException("listener failed");
+        });
+        holder.addListener((previous, current) -> notified.set(current.getVersion()));
+
+        // When: Publishing
+        try {
+            holder.publish(read("a"));
+            fail("Listener failure should be rethrown");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        // Then: The snapshot should be published and the other listener notified
+        assertEquals("Version", 1, holder.get().getVersion());
+        assertEquals("Other listener", 1, notified.get());
+    }
+
+    @Test
+    public void testPublish_ConcurrentPublishersNotifyInOrder() throws Exception {
+        // Given: A listener recording the versions it is told about
+        List<FeedEntry> entries = read("a");
+        List<Long> versions = Collections.synchronizedList(new ArrayList<Long>());
+        AtomicLong outOfOrder = new AtomicLong();
+        holder.addListener((previous, current) -> {
+            // Give another publisher the chance to slip in between publishing and notifying
+            Thread.yield();
+            if (current.getVersion() != previous.getVersion() + 1 || holder.get() != current) {
+                outOfOrder.incrementAndGet();
+            }
+            versions.add(current.getVersion());
+        });
+
+        // When: Four threads publish at once
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    holder.publish(entries);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then: Every version should be announced once, in order, while it is current
+        assertEquals("Out of order notifications", 0, outOfOrder.get());
+        assertEquals("Notifications", 2_000, versions.size());
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals("Version of notification " + i, i + 1, versions.get(i).longValue());
+        }
+    }
+
+    @Test
+    public void testReaders_SeeWholeSnapshots() throws Exception {
+        // Given: Two catalogs of different sizes and readers checking each snapshot they get
+        List<FeedEntry> small = read("a", "b");
+        List<FeedEntry> large = read("a", "b", "c", "d", "e");
+        holder.publish(small);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong torn = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                while (running.get()) {
+                    ConfigSnapshot snapshot = holder.get();
+                    boolean whole = snapshot.size() == 2 ? snapshot.get("c") == null
+                            : snapshot.size() == 5 && snapshot.get("e") != null;
+                    if (!whole) {
+                        torn.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // When: Alternating the catalogs
+        for (int i = 0; i < 2_000; i++) {
+            holder.publish(i % 2 == 0 ? large : small);
+        }
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then: No reader should have seen a mix of the two
+        assertEquals("Torn reads", 0, torn.get());
+        assertEquals("Version", 2_001, holder.get().getVersion());
+    }
+}
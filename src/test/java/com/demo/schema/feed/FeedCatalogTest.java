@@ -0,0 +1,128 @@
+package com.demo.schema.feed;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for FeedCatalog
+ */
+public class FeedCatalogTest {
+
+    private String kafka;
+    private String file;
+    private FeedCatalogReader reader;
+    private FeedCatalog catalog;
+
+    @Before
+    public void setUp() throws Exception {
+        kafka = new String(Files.readAllBytes(Paths.get("src/main/resources/schema/feed_kafka_1.yaml")), StandardCharsets.UTF_8);
+        file = new String(Files.readAllBytes(Paths.get("src/main/resources/schema/feed_file_1.yaml")), StandardCharsets.UTF_8);
+        reader = new FeedCatalogReader();
+        catalog = new FeedCatalog();
+    }
+
+    private String kafkaFeed(String name, String layer, String flowClass, String topics) {
+        return kafka.replace("- name: \"kafka_feed_1\"", "- name: \"" + name + "\"")
+                .replace("  layer: \"layer\"", "  layer: \"" + layer + "\"")
+                .replace("\"InboundKafkaTopicFlow\"", "\"" + flowClass + "\"")
+                .replace("topics: \"topic-1\"", "topics: \"" + topics + "\"") + "\n";
+    }
+
+    private String fileFeed(String name, boolean active) {
+        return file.replace("- name: \"name1\"", "- name: \"" + name + "\"")
+                .replace("  active: true #optional", "  active: " + active + " #optional") + "\n";
+    }
+
+    private List<FeedEntry> read(String... feeds) throws Exception {
+        return reader.read(String.join("", feeds).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> names(List<FeedEntry> entries) {
+        List<String> names = new ArrayList<>();
+        for (FeedEntry entry : entries) {
+            names.add(entry.getKey());
+        }
+        return names;
+    }
+
+    @Test
+    public void testQuery_IntersectsIndexes() throws Exception {
+        // Given: Kafka feeds in two layers and flow classes, and file feeds
+        catalog.reload(read(
+                kafkaFeed("k1", "raw", "InboundKafkaTopicFlow", "t1"),
+                kafkaFeed("k2", "raw", "BatchFlow", "t1, t2"),
+                kafkaFeed("k3", "curated", "InboundKafkaTopicFlow", "t2"),
+                fileFeed("f1", true),
+                fileFeed("f2", false)));
+
+        // When/Then: Each index and their combination should select the right feeds
+        assertEquals("Feeds", 5, catalog.size());
+        assertEquals("Active kafka-topic InboundKafkaTopicFlow in raw", Arrays.asList("k1"),
+                names(catalog.query().active(true).type(FeedCatalog.FeedType.KAFKA_TOPIC)
+                        .flowClass("InboundKafkaTopicFlow").layer("raw").list()));
+        assertEquals("Topic t2", Arrays.asList("k2", "k3"), names(catalog.query().topic("t2").list()));
+        assertEquals("Consumer group", 3, catalog.query().consumerGroup("consumer-group-id-1").count());
+        assertEquals("Replay flow class", 3, catalog.query().flowClass("InboundKafkaFileReplayFlow").count());
+        assertEquals("File watchers", 2, catalog.query().type(FeedCatalog.FeedType.FILE_WATCHER).count());
+        assertEquals("Inactive", Arrays.asList("f2"), names(catalog.query().active(false).list()));
+        assertEquals("Unknown layer", 0, catalog.query().layer("none").count());
+        assertEquals("Lookup by name", "k3", catalog.get("k3").getKey());
+        assertNull("Unknown name", catalog.get("none"));
+    }
+
+    @Test
+    public void testReload_UpdatesOnlyChangedFeeds() throws Exception {
+        // Given: A loaded catalog
+        catalog.reload(read(
+                kafkaFeed("k1", "raw", "InboundKafkaTopicFlow", "t1"),
+                kafkaFeed("k2", "raw", "InboundKafkaTopicFlow", "t2"),
+                fileFeed("f1", true)));
+        FeedEntry f1 = catalog.get("f1");
+
+        // When: Editing one feed, removing one and adding one
+        FeedCatalog.ReloadResult result = catalog.reload(read(
+                kafkaFeed("k1", "curated", "InboundKafkaTopicFlow", "t1"),
+                fileFeed("f1", true),
+                fileFeed("f3", true)));
+
+        // Then: The indexes should reflect the new catalog only
+        assertEquals("Added", 1, result.getAdded());
+        assertEquals("Updated", 1, result.getUpdated());
+        assertEquals("Removed", 1, result.getRemoved());
+        assertEquals("Unchanged", 1, result.getUnchanged());
+        assertEquals("Feeds", 3, catalog.size());
+        assertEquals("Old layer", 0, catalog.query().layer("raw").count());
+        assertEquals("New layer", Arrays.asList("k1"), names(catalog.query().layer("curated").list()));
+        assertEquals("Removed topic", 0, catalog.query().topic("t2").count());
+        assertNull("Removed feed", catalog.get("k2"));
+        assertEquals("File watchers", 2, catalog.query().type(FeedCatalog.FeedType.FILE_WATCHER).count());
+        assertEquals("Unchanged feed should take its new position", 1, catalog.get("f1").getIndex());
+        assertEquals("Unchanged feed keeps its fingerprint", f1.getFingerprint(), catalog.get("f1").getFingerprint());
+    }
+
+    @Test
+    public void testReload_SameCatalogChangesNothing() throws Exception {
+        // Given: A loaded catalog
+        List<FeedEntry> entries = read(kafkaFeed("k1", "raw", "InboundKafkaTopicFlow", "t1"), fileFeed("f1", true));
+        catalog.reload(entries);
+
+        // When: Reloading the same catalog re-read
+        FeedCatalog.ReloadResult result = catalog.reload(read(kafkaFeed("k1", "raw", "InboundKafkaTopicFlow", "t1"),
+                fileFeed("f1", true)));
+
+        // Then: Every feed should be kept as is
+        assertEquals("Unchanged", 2, result.getUnchanged());
+        assertEquals("Added, updated or removed", 0, result.getAdded() + result.getUpdated() + result.getRemoved());
+        assertSame("Entries should be the latest read", catalog.get("k1"), catalog.query().layer("raw").list().get(0));
+    }
+}
@@ -0,0 +1,135 @@
+package com.demo.schema.feed;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Unit tests for FeedCatalogReader and IncrementalFeedValidator
+ */
+public class IncrementalFeedValidatorTest {
+
+    private static final String FEED_HEADER = "- name: \"name1\"";
+
+    private JsonNode schema;
+    private String feed;
+    private FeedCatalogReader reader;
+    private IncrementalFeedValidator validator;
+
+    @Before
+    public void setUp() throws Exception {
+        schema = new ObjectMapper().readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        feed = new String(Files.readAllBytes(Paths.get("src/test/resources/feed_file_1.yaml")), StandardCharsets.UTF_8);
+        reader = new FeedCatalogReader();
+        validator = new IncrementalFeedValidator(JsonSchemaFactory.byDefault(), schema);
+    }
+
+    private String catalog(String... names) {
+        StringBuilder catalog = new StringBuilder();
+        for (String name : names) {
+            catalog.append(feed.replace(FEED_HEADER, "- name: \"" + name + "\"")).append('\n');
+        }
+        return catalog.toString();
+    }
+
+    private List<FeedEntry> read(String catalog) throws Exception {
+        return reader.read(catalog.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testUnchangedCatalog_ReusesEveryEntry() throws Exception {
+        // Given: A catalog of three feeds validated once
+        String catalog = catalog("a", "b", "c");
+        IncrementalFeedValidator.CatalogResult first = validator.validate(read(catalog));
+
+        // When: Validating the same catalog again
+        IncrementalFeedValidator.CatalogResult second = validator.validate(read(catalog));
+
+        // Then: The first pass validates every entry and the second none
+        assertTrue("Validator should work per entry", validator.isIncremental());
+        assertEquals("First pass validated", 3, first.getValidatedCount());
+        assertEquals("Second pass validated", 0, second.getValidatedCount());
+        assertEquals("Second pass reused", 3, second.getReusedCount());
+        assertTrue("Catalog should be valid", second.isSuccess());
+    }
+
+    @Test
+    public void testOneEditedEntry_OnlyThatEntryValidated() throws Exception {
+        // Given: A validated catalog
+        validator.validate(read(catalog("a", "b", "c")));
+        String edited = catalog("a", "b", "c").replaceFirst("layer: \"layer\"", "layer: \"edited\"");
+
+        // When: Validating after editing the first entry
+        IncrementalFeedValidator.CatalogResult result = validator.validate(read(edited));
+
+        // Then: Only the edited entry should be validated
+        assertEquals("Validated", 1, result.getValidatedCount());
+        assertEquals("Reused", 2, result.getReusedCount());
+        assertFalse("Edited entry should not be reused", result.getEntries().get(0).isReused());
+        assertTrue("Other entries should be reused", result.getEntries().get(1).isReused());
+    }
+
+    @Test
+    public void testInvalidEntry_ResultRemembered() throws Exception {
+        // Given: A catalog whose second feed has a non-boolean active flag
+        String catalog = catalog("a", "b").replace("- name: \"b\"\n  active: true", "- name: \"b\"\n  active: 5");
+        validator.validate(read(catalog));
+
+        // When: Validating it again
+        IncrementalFeedValidator.CatalogResult result = validator.validate(read(catalog));
+
+        // Then: The remembered failure should be reported without revalidation
+        assertEquals("Validated", 0, result.getValidatedCount());
+        assertFalse("Catalog should be invalid", result.isSuccess());
+        assertTrue("First feed should be valid", result.getEntries().get(0).isValid());
+        assertFalse("Second feed should be invalid", result.getEntries().get(1).isValid());
+        assertFalse("Whole-catalog validation should agree",
+                JsonSchemaFactory.byDefault().getJsonSchema(schema)
+                        .validate(new ObjectMapper(new YAMLFactory()).readTree(catalog)).isSuccess());
+    }
+
+    @Test
+    public void testFingerprint_IgnoresCommentsAndFormatting() throws Exception {
+        // Given: The same feed written with different comments, quoting and blank lines
+        String plain = "- name: a\n  active: true\n  layer: x\n";
+        String decorated = "# catalog\n- name: \"a\"   # the feed\n\n  active: true\n  layer: 'x'\n";
+        String changed = "- name: a\n  active: false\n  layer: x\n";
+
+        // When: Reading each
+        FeedFingerprint plainPrint = read(plain).get(0).getFingerprint();
+
+        // Then: Only a value change should change the fingerprint
+        assertEquals("Formatting should not matter", plainPrint, read(decorated).get(0).getFingerprint());
+        assertNotEquals("Values should matter", plainPrint, read(changed).get(0).getFingerprint());
+    }
+
+    @Test
+    public void testKeys_RemovedAndDuplicateNames() throws Exception {
+        // Given: A catalog with a repeated name and a validated earlier catalog
+        validator.validate(read(catalog("a", "b")));
+        List<FeedEntry> entries = read(catalog("a", "a"));
+
+        // When: Validating the catalog without feed b
+        IncrementalFeedValidator.CatalogResult result = validator.validate(entries);
+
+        // Then: The duplicate should be keyed by position and validated afresh
+        assertEquals("First key", "a", entries.get(0).getKey());
+        assertEquals("Duplicate key", "a#1", entries.get(1).getKey());
+        assertEquals("Validated", 1, result.getValidatedCount());
+        assertEquals("Reused", 1, result.getReusedCount());
+    }
+}
@@ -0,0 +1,129 @@
+package com.demo.schema.feed;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Unit tests for NodeInterner
+ */
+public class NodeInternerTest {
+
+    private static final String FEED_HEADER = "- name: \"name1\"";
+
+    private String feed;
+    private NodeInterner interner;
+
+    @Before
+    public void setUp() throws Exception {
+        feed = new String(Files.readAllBytes(Paths.get("src/test/resources/feed_file_1.yaml")), StandardCharsets.UTF_8);
+        interner = new NodeInterner();
+    }
+
+    private byte[] catalog(String... names) {
+        StringBuilder catalog = new StringBuilder();
+        for (String name : names) {
+            catalog.append(feed.replace(FEED_HEADER, "- name: \"" + name + "\"")).append('\n');
+        }
+        return catalog.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testCatalog_SharesEqualSubtrees() throws Exception {
+        // Given: Two feeds differing only in name
+        byte[] catalog = catalog("a", "b");
+
+        // When: Reading with and without interning
+        List<FeedEntry> plain = new FeedCatalogReader().read(catalog);
+        List<FeedEntry> interned = new FeedCatalogReader(interner).read(catalog);
+
+        // Then: Trees and fingerprints should be unchanged, with the common blocks held once
+        for (int i = 0; i < plain.size(); i++) {
+            assertEquals("Tree of entry " + i, plain.get(i).getNode(), interned.get(i).getNode());
+            assertEquals("Fingerprint of entry " + i, plain.get(i).getFingerprint(), interned.get(i).getFingerprint());
+        }
+        JsonNode a = interned.get(0).getNode();
+        JsonNode b = interned.get(1).getNode();
+        assertNotSame("Feeds should differ", a, b);
+        assertSame("File watchers should be shared", a.get("file-watcher"), b.get("file-watcher"));
+        assertSame("Datasets should be shared", a.get("inbound-datasets"), b.get("inbound-datasets"));
+        assertSame("Field names should be shared", a.fieldNames().next(), b.fieldNames().next());
+    }
+
+    @Test
+    public void testInternedNodes_Immutable() throws Exception {
+        // Given: An interned feed
+        JsonNode node = new FeedCatalogReader(interner).read(catalog("a")).get(0).getNode();
+
+        // When/Then: Mutating it should fail, while a deep copy stays editable
+        try {
+            ((ObjectNode) node).put("name", "b");
+            fail("Object should be immutable");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        try {
+            ((ArrayNode) node.get("inbound-datasets")).removeAll();
+            fail("Array should be immutable");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        try {
+            node.fields().remove();
+            fail("Fields should be immutable");
+        } catch (UnsupportedOperationException | IllegalStateException expected) {
+            // expected
+        }
+        ObjectNode copy = node.deepCopy();
+        copy.put("name", "b");
+        assertEquals("Copy should be edited", "b", copy.get("name").textValue());
+        assertEquals("Original should be unchanged", "a", node.get("name").textValue());
+    }
+
+    @Test
+    public void testInternedCatalog_ValidatesAsPlain() throws Exception {
+        // Given: A catalog with one feed breaking the schema
+        JsonNode schema = new ObjectMapper().readTree(Paths.get("src/main/resources/schema/feeds_schema.json").toFile());
+        String catalog = new String(catalog("a", "b"), StandardCharsets.UTF_8) + "- name: 42\n";
+
+        // When: Validating the interned entries
+        IncrementalFeedValidator validator = new IncrementalFeedValidator(JsonSchemaFactory.byDefault(), schema);
+        IncrementalFeedValidator.CatalogResult result = validator.validate(
+                new FeedCatalogReader(interner).read(catalog.getBytes(StandardCharsets.UTF_8)));
+
+        // Then: Only the broken feed should fail
+        assertTrue("First feed should be valid", result.getEntries().get(0).isValid());
+        assertTrue("Second feed should be valid", result.getEntries().get(1).isValid());
+        assertFalse("Third feed should be invalid", result.getEntries().get(2).isValid());
+    }
+
+    @Test
+    public void testFootprint_CountsSharing() throws Exception {
+        // Given: Ten feeds differing only in name
+        new FeedCatalogReader(interner).read(catalog("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"));
+
+        // When: Taking the footprint
+        NodeInterner.Footprint footprint = interner.footprint();
+
+        // Then: Almost every node should be shared, and the interned trees far smaller
+        assertTrue("Unique nodes " + footprint, footprint.getUniqueNodes() * 5 < footprint.getNodes());
+        assertTrue("Unique strings " + footprint, footprint.getUniqueStrings() * 5 < footprint.getStrings());
+        assertTrue("Interned bytes " + footprint, footprint.getInternedBytes() * 5 < footprint.getTreeBytes());
+    }
+}
@@ -0,0 +1,40 @@
+package com.demo.schema.hotpath;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+
+/**
+ * Validation of the sample kafka feed, run by {@link HotPathAllocationTest} with the GC profiler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HotPathAllocationBenchmark {
+
+    private HotPathSchema schema;
+    private JsonNode feeds;
+
+    @Setup
+    public void setUp() throws Exception {
+        SchemaValidator validator = new SchemaValidator();
+        schema = validator.loadHotPathSchema("src/main/resources/schema/feeds_schema.json");
+        feeds = validator.loadYaml("src/main/resources/schema/feed_kafka_1.yaml");
+    }
+
+    @Benchmark
+    public ProcessingReport hotPath() throws ProcessingException {
+        return schema.validate(feeds);
+    }
+}
@@ -0,0 +1,61 @@
+package com.demo.schema.hotpath;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Allocation regression test: runs {@link HotPathAllocationBenchmark} under JMH with the GC
+ * profiler ({@code -prof gc}) and fails the build when validating a valid feed allocates more
+ * than the budget
+ */
+public class HotPathAllocationTest {
+
+    /**
+     * Bytes per valid document. The hot path allocates nothing; the slack absorbs JMH's own
+     * measurement noise, while the library path allocates hundreds of kilobytes.
+     */
+    private static final double BYTES_PER_OP_BUDGET = 16;
+
+    @Test
+    public void testHotPath_WithinAllocationBudget() throws Exception {
+        // Given: The benchmark, with short iterations in one fork
+        Options options = new OptionsBuilder()
+                .include(HotPathAllocationBenchmark.class.getName() + ".hotPath$")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.milliseconds(500))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.milliseconds(500))
+                .shouldFailOnError(true)
+                .build();
+
+        // When: Running it
+        Collection<RunResult> results = new Runner(options).run();
+
+        // Then: The normalized allocation rate should be within budget
+        assertEquals("Benchmarks run", 1, results.size());
+        Result<?> allocation = null;
+        for (Map.Entry<String, Result> secondary : results.iterator().next().getSecondaryResults().entrySet()) {
+            if (secondary.getKey().endsWith("gc.alloc.rate.norm")) {
+                allocation = secondary.getValue();
+            }
+        }
+        assertNotNull("GC profiler result", allocation);
+        assertTrue("Allocated " + allocation.getScore() + " bytes/op, budget " + BYTES_PER_OP_BUDGET,
+                allocation.getScore() <= BYTES_PER_OP_BUDGET);
+    }
+}
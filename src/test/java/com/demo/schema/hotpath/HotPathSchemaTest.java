@@ -0,0 +1,232 @@
+package com.demo.schema.hotpath;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.SchemaValidator;
+import com.demo.schema.optimize.SchemaOptimizer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.core.exceptions.InvalidSchemaException;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Unit tests for HotPathSchema
+ */
+public class HotPathSchemaTest {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+    private JsonNode feedsSchema;
+    private List<JsonNode> sampleFeeds;
+
+    @Before
+    public void setUp() throws Exception {
+        feedsSchema = mapper.readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        SchemaValidator validator = new SchemaValidator();
+        sampleFeeds = new ArrayList<>();
+        sampleFeeds.add(validator.loadYaml("src/main/resources/schema/feed_file_1.yaml").get(0));
+        sampleFeeds.add(validator.loadYaml("src/main/resources/schema/feed_kafka_1.yaml").get(0));
+    }
+
+    @Test
+    public void testFeedsSchema_SameValidityAsLibrary() throws Exception {
+        // Given: The feeds schema as written and as optimized, and feeds with every single change
+        // of one value and removal of one property
+        List<JsonNode> instances = new ArrayList<>();
+        for (JsonNode feed : sampleFeeds) {
+            mutations(feed, feed, instances);
+        }
+
+        for (JsonNode schemaNode : new JsonNode[] {feedsSchema, new SchemaOptimizer().optimize(feedsSchema).getSchema()}) {
+            JsonSchema library = factory.getJsonSchema(schemaNode);
+            HotPathSchema hotPath = HotPathSchema.compile(schemaNode, library);
+
+            // When/Then: Exactly the documents the library accepts should pass the hot path
+            int valid = 0;
+            for (JsonNode feed : instances) {
+                ArrayNode catalog = NODES.arrayNode().add(feed);
+                boolean expected = library.validate(catalog).isSuccess();
+                assertEquals("Hot path for " + feed, expected, hotPath.passes(catalog));
+                valid += expected ? 1 : 0;
+            }
+            assertTrue("Corpus should hold valid and invalid instances: " + valid + " of " + instances.size(),
+                    valid > 50 && instances.size() - valid > 50);
+        }
+    }
+
+    @Test
+    public void testValidate_SharedReportOrLibraryReport() throws Exception {
+        // Given: A valid catalog and an invalid one
+        JsonSchema library = factory.getJsonSchema(feedsSchema);
+        HotPathSchema hotPath = HotPathSchema.compile(feedsSchema, library);
+        ArrayNode valid = NODES.arrayNode().add(sampleFeeds.get(1));
+        ObjectNode broken = sampleFeeds.get(1).deepCopy();
+        ((ObjectNode) broken.get("kafka-topic")).put("interval", -1).remove("topics");
+        ArrayNode invalid = NODES.arrayNode().add(broken);
+
+        // When: Validating both
+        ProcessingReport passed = hotPath.validate(valid);
+        ProcessingReport failed = hotPath.validate(invalid);
+
+        // Then: The valid one should get the shared success report, which cannot be changed,
+        // and the invalid one the library's report
+        assertTrue("Valid", passed.isSuccess());
+        assertSame("Shared report", passed, hotPath.validate(valid));
+        assertFalse("Iterator", passed.iterator().hasNext());
+        try {
+            passed.error(new ProcessingMessage().setMessage("x"));
+            fail("The shared report should not accept messages");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        } catch (ProcessingException e) {
+            fail("Unexpected " + e);
+        }
+        assertEquals("Invalid report", library.validate(invalid).toString(), failed.toString());
+        assertFalse("isValid", hotPath.isValid(invalid));
+    }
+
+    @Test
+    public void testKeywords_SameValidityAsLibrary() throws Exception {
+        // Given: A schema using every keyword the hot path decides, and instances around each
+        String schemaJson = "{\"definitions\":{\"tree\":{\"type\":\"object\",\"required\":[\"value\"],"
+                + "\"properties\":{\"value\":{\"type\":\"integer\",\"minimum\":0,\"exclusiveMinimum\":true},"
+                + "\"children\":{\"type\":\"array\",\"items\":{\"$ref\":\"#/definitions/tree\"},\"maxItems\":2}}}},"
+                + "\"type\":\"object\",\"minProperties\":1,\"maxProperties\":6,"
+                + "\"properties\":{"
+                + "\"tree\":{\"$ref\":\"#/definitions/tree\"},"
+                + "\"ratio\":{\"type\":\"number\",\"minimum\":0.1,\"maximum\":2.5,\"exclusiveMaximum\":true},"
+                + "\"name\":{\"type\":[\"string\",\"null\"],\"minLength\":2,\"maxLength\":3},"
+                + "\"level\":{\"enum\":[1,\"high\",{\"k\":[1]}]},"
+                + "\"pair\":{\"items\":[{\"type\":\"string\"},{\"type\":\"boolean\"}],\"additionalItems\":false,\"minItems\":1},"
+                + "\"choice\":{\"oneOf\":[{\"type\":\"integer\"},{\"type\":\"number\",\"maximum\":10}]},"
+                + "\"other\":{\"allOf\":[{\"not\":{\"type\":\"null\"}}],\"anyOf\":[{\"type\":\"string\"},{\"minimum\":5}]}},"
+                + "\"additionalProperties\":{\"type\":\"boolean\"}}";
+        JsonNode schemaNode = mapper.readTree(schemaJson);
+        String[] documents = {
+            "{}", "{\"flag\":true}", "{\"flag\":1}", "[]", "1",
+            "{\"tree\":{\"value\":1,\"children\":[{\"value\":2},{\"value\":3,\"children\":[]}]}}",
+            "{\"tree\":{\"value\":0}}", "{\"tree\":{\"value\":1.0}}",
+            "{\"tree\":{\"value\":1,\"children\":[{\"value\":2},{\"value\":2},{\"value\":2}]}}",
+            "{\"tree\":{\"value\":1,\"children\":[{\"children\":[]}]}}",
+            "{\"ratio\":0.1}", "{\"ratio\":0.10000000000000001}", "{\"ratio\":0.09}", "{\"ratio\":2.5}",
+            "{\"ratio\":2}", "{\"ratio\":2.4999999999999999}",
+            "{\"name\":\"ab\"}", "{\"name\":\"a\"}", "{\"name\":\"😀😀\"}", "{\"name\":\"abcd\"}",
+            "{\"name\":null}", "{\"name\":3}",
+            "{\"level\":1}", "{\"level\":1.0}", "{\"level\":\"high\"}", "{\"level\":{\"k\":[1.0]}}", "{\"level\":2}",
+            "{\"pair\":[\"a\"]}", "{\"pair\":[\"a\",true]}", "{\"pair\":[\"a\",true,1]}", "{\"pair\":[]}",
+            "{\"pair\":[1]}", "{\"pair\":{}}",
+            "{\"choice\":3}", "{\"choice\":3.5}", "{\"choice\":30.5}", "{\"choice\":\"x\"}",
+            "{\"other\":\"s\"}", "{\"other\":6}", "{\"other\":4}", "{\"other\":null}", "{\"other\":[]}",
+            "{\"a\":true,\"b\":false,\"c\":true,\"d\":true,\"e\":true,\"f\":true,\"g\":true}"
+        };
+        JsonSchema library = factory.getJsonSchema(schemaNode);
+        HotPathSchema hotPath = HotPathSchema.compile(schemaNode, library);
+
+        // When/Then: Each should pass the hot path exactly when the library accepts it
+        for (String document : documents) {
+            JsonNode instance = mapper.readTree(document);
+            assertEquals("Hot path for " + document, library.validate(instance).isSuccess(), hotPath.passes(instance));
+        }
+    }
+
+    @Test
+    public void testUndecidedKeywords_LeftToLibrary() throws Exception {
+        // Given: Keywords the hot path does not decide, directly, under not and under oneOf
+        String schemaJson = "{\"properties\":{"
+                + "\"code\":{\"type\":\"string\",\"pattern\":\"^[A-Z]+$\"},"
+                + "\"notCode\":{\"not\":{\"pattern\":\"^[A-Z]+$\"}},"
+                + "\"either\":{\"oneOf\":[{\"pattern\":\"^a\"},{\"pattern\":\"b$\"}]},"
+                + "\"count\":{\"type\":\"integer\",\"pattern\":\"ignored for numbers\"}}}";
+        JsonNode schemaNode = mapper.readTree(schemaJson);
+        JsonSchema library = factory.getJsonSchema(schemaNode);
+        HotPathSchema hotPath = HotPathSchema.compile(schemaNode, library);
+
+        // When/Then: Such values should never pass the hot path, and isValid should still agree
+        // with the library; keywords for other types should not matter
+        String[] documents = {"{\"code\":\"AB\"}", "{\"code\":\"ab\"}", "{\"notCode\":\"ab\"}", "{\"notCode\":\"AB\"}",
+            "{\"either\":\"ab\"}", "{\"either\":\"ax\"}", "{\"either\":\"xx\"}"};
+        for (String document : documents) {
+            JsonNode instance = mapper.readTree(document);
+            assertFalse("Hot path for " + document, hotPath.passes(instance));
+            assertEquals("isValid for " + document, library.validate(instance).isSuccess(), hotPath.isValid(instance));
+        }
+        assertTrue("Numbers skip pattern", hotPath.passes(mapper.readTree("{\"count\":1}")));
+
+        // And: A schema referring to itself for the same instance should be left to the library
+        JsonNode loop = mapper.readTree("{\"allOf\":[{\"$ref\":\"#\"}]}");
+        assertFalse("Validation loop", HotPathSchema.compile(loop, factory.getJsonSchema(loop)).passes(NODES.objectNode()));
+    }
+
+    @Test
+    public void testInvalidSchema_NeverPasses() throws Exception {
+        // Given: A schema the library rejects, with a required list that must not be empty
+        JsonNode schemaNode = mapper.readTree("{\"type\":\"object\",\"required\":[]}");
+
+        // When/Then: Compiling with a factory should fail as loading the schema does
+        try {
+            HotPathSchema.compile(schemaNode, factory);
+            fail("The schema should be rejected");
+        } catch (InvalidSchemaException expected) {
+            // expected
+        }
+
+        // And: With a compiled fallback, every document should go to the library, which rejects the schema
+        HotPathSchema hotPath = HotPathSchema.compile(schemaNode, factory.getJsonSchema(schemaNode));
+        assertFalse("Hot path", hotPath.passes(NODES.objectNode()));
+        try {
+            hotPath.validate(NODES.objectNode());
+            fail("The library should reject the schema");
+        } catch (InvalidSchemaException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Add copies of the feed with each value replaced by values of every type, and each
+     * property removed
+     */
+    private static void mutations(JsonNode feed, JsonNode node, List<JsonNode> out) {
+        JsonNode[] replacements = {NODES.textNode("x"), NODES.numberNode(0), NODES.numberNode(2.5),
+                NODES.numberNode(-1), NODES.booleanNode(false), NODES.nullNode(), NODES.objectNode(), NODES.arrayNode()};
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            node.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                ObjectNode parent = (ObjectNode) node;
+                JsonNode value = parent.get(name);
+                for (JsonNode replacement : replacements) {
+                    parent.set(name, replacement);
+                    out.add(feed.deepCopy());
+                }
+                parent.remove(name);
+                out.add(feed.deepCopy());
+                parent.set(name, value);
+                mutations(feed, value, out);
+            }
+        } else if (node.isArray()) {
+            for (Iterator<JsonNode> elements = node.elements(); elements.hasNext(); ) {
+                mutations(feed, elements.next(), out);
+            }
+        }
+    }
+}
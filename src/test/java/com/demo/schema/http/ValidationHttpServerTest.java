@@ -0,0 +1,120 @@
+package com.demo.schema.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.MessageValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for ValidationHttpServer
+ */
+public class ValidationHttpServerTest {
+
+    private static final String VALID_MESSAGE = "{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\","
+            + "\"timestamp\":\"2025-07-08 12:00:00 PM IST\",\"records\":12690093,\"trr\":\"GLOBAL\","
+            + "\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}";
+    private static final String NEGATIVE_RECORDS_MESSAGE = VALID_MESSAGE.replace("12690093", "-1");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ValidationHttpServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        MessageValidator validator = new MessageValidator();
+        server = new ValidationHttpServer(validator,
+                Collections.singletonMap("message", validator.loadSchema("schema.json")),
+                new InetSocketAddress("localhost", 0), 2);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testValidate_ValidMessage() throws IOException {
+        // When: Posting a message that conforms to the schema
+        JsonNode response = post("/validate/message", VALID_MESSAGE, 200);
+
+        // Then: It should be reported valid
+        assertTrue("Message should be valid", response.get("valid").asBoolean());
+    }
+
+    @Test
+    public void testValidate_InvalidMessage() throws IOException {
+        // When: Posting a message with a negative record count
+        JsonNode response = post("/validate/message", NEGATIVE_RECORDS_MESSAGE, 200);
+
+        // Then: It should be reported invalid with details
+        assertFalse("Message should be invalid", response.get("valid").asBoolean());
+        assertTrue("Details should mention the minimum", response.get("details").asText().contains("minimum"));
+    }
+
+    @Test
+    public void testValidate_Batch() throws IOException {
+        // When: Posting a batch with one valid and one invalid message
+        JsonNode response = post("/validate/message/batch",
+                "[" + VALID_MESSAGE + "," + NEGATIVE_RECORDS_MESSAGE + "]", 200);
+
+        // Then: Each message should get its own result
+        assertEquals("Batch should have two results", 2, response.get("count").asInt());
+        assertFalse("Batch should be invalid overall", response.get("valid").asBoolean());
+        assertTrue("First message should be valid", response.get("results").get(0).get("valid").asBoolean());
+        assertFalse("Second message should be invalid", response.get("results").get(1).get("valid").asBoolean());
+    }
+
+    @Test
+    public void testValidate_MalformedBatch() throws IOException {
+        // When: Posting a batch that is not a JSON array
+        JsonNode response = post("/validate/message/batch", VALID_MESSAGE, 400);
+
+        // Then: The error should be reported
+        assertTrue("Error should be reported", response.has("error"));
+    }
+
+    @Test
+    public void testValidate_UnknownSchema() throws IOException {
+        // When: Posting to a schema that was not loaded
+        JsonNode response = post("/validate/unknown", VALID_MESSAGE, 404);
+
+        // Then: The error should be reported
+        assertTrue("Error should be reported", response.get("error").asText().contains("unknown"));
+    }
+
+    private JsonNode post(String path, String body, int expectedStatus) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals("Unexpected status", expectedStatus, connection.getResponseCode());
+        InputStream in = expectedStatus == 200 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            response.write(buffer, 0, read);
+        }
+        in.close();
+        return objectMapper.readTree(response.toByteArray());
+    }
+}
@@ -0,0 +1,154 @@
+package com.demo.schema.kafka;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+import com.demo.schema.SchemaValidator;
+import com.demo.schema.validation.SchemaWithCustomValidation;
+import com.demo.schema.validation.SchemaWithCustomValidation_FeedConfigWithCustomValidationValidator;
+import com.demo.schema.validation.compiled.Violation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for KafkaConfigs
+ */
+public class KafkaConfigsTest {
+
+    @Test
+    public void testFromFeed_TypedGetters() throws Exception {
+        // Given: The configs block of the sample Kafka feed
+        JsonNode node = new SchemaValidator().loadYaml("src/main/resources/schema/feed_kafka_1.yaml")
+                .get(0).get("kafka-topic").get("configs");
+
+        // When: Reading it as compact configs
+        KafkaConfigs configs = KafkaConfigs.of(node);
+
+        // Then: Each value should keep its type, in entry order
+        assertEquals("Size", 5, configs.size());
+        assertEquals("security.protocol", "SASL_SSL", configs.getString(ConfigKey.SECURITY_PROTOCOL));
+        assertEquals("max.poll.records", 500, configs.getInt(ConfigKey.MAX_POLL_RECORDS, 0));
+        assertEquals("max.poll.records as double", 500.0, configs.getDouble(ConfigKey.MAX_POLL_RECORDS, 0), 0.0);
+        assertTrue("enable.auto.commit", configs.getBoolean(ConfigKey.ENABLE_AUTO_COMMIT, false));
+        assertEquals("Null value", KafkaConfigs.ValueType.NULL, configs.getType(ConfigKey.of("some.optional.config")));
+        assertNull("Absent key", configs.getType(ConfigKey.PORT));
+        assertEquals("Default for absent key", 9093, configs.getLong(ConfigKey.PORT, 9093));
+        assertNull("String getter on a number", configs.getString(ConfigKey.MAX_POLL_RECORDS));
+        assertEquals("Entry order", "security.protocol", configs.keySet().iterator().next());
+    }
+
+    @Test
+    public void testMapView_EqualsJacksonBinding() throws Exception {
+        // Given: Configs bound by Jackson as a map
+        String json = "{\"a\":\"x\",\"b\":1,\"c\":12345678901,\"d\":1.5,\"e\":false,\"f\":null,\"g\":123456789012345678901}";
+        @SuppressWarnings("unchecked")
+        Map<String, Object> bound = new ObjectMapper().readValue(json, Map.class);
+
+        // When: Converting from the map and from the tree
+        KafkaConfigs fromMap = KafkaConfigs.of(bound);
+        KafkaConfigs fromTree = KafkaConfigs.of(new ObjectMapper().readTree(json));
+
+        // Then: Both should read back as the bound map, with the same boxed types
+        assertEquals("From map", bound, fromMap);
+        assertEquals("From tree", bound, fromTree);
+        assertEquals("Hash code", bound.hashCode(), fromMap.hashCode());
+        for (String key : bound.keySet()) {
+            Object value = bound.get(key);
+            assertEquals("Type of " + key, value == null ? null : value.getClass(),
+                    fromTree.get(key) == null ? null : fromTree.get(key).getClass());
+        }
+        assertEquals("Long", 12345678901L, fromMap.getLong(ConfigKey.of("c"), 0));
+        assertEquals("Big number", KafkaConfigs.ValueType.BIG_NUMBER, fromMap.getType(ConfigKey.of("g")));
+        assertSame("Already compact", fromMap, KafkaConfigs.of(fromMap));
+        assertEquals("Copy", bound, fromMap.toMap());
+    }
+
+    @Test
+    public void testImmutableAndScalarOnly() throws Exception {
+        // Given: Compact configs
+        Map<String, Object> map = new HashMap<>();
+        map.put("port", 9093);
+        KafkaConfigs configs = KafkaConfigs.of(map);
+
+        // When/Then: Changes and nested values should be rejected
+        try {
+            configs.put("port", 9092);
+            fail("Configs should be immutable");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        map.put("nested", new HashMap<String, Object>());
+        try {
+            KafkaConfigs.of(map);
+            fail("Nested values should be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertTrue("Message should name the key", expected.getMessage().contains("nested"));
+        }
+        assertFalse("Unknown key", configs.containsKey("unknown.key.never.used"));
+    }
+
+    @Test
+    public void testSslPortRule_MatchesMapSemantics() {
+        // Given: SSL feeds with ports of each type
+        Object[] ports = {9093, 9093L, "9093", 9092, "9092", 9093.0, null};
+        boolean[] valid = {true, true, true, false, false, false, true};
+        for (int i = 0; i < ports.length; i++) {
+            SchemaWithCustomValidation.FeedConfigWithCustomValidation feed = new SchemaWithCustomValidation.FeedConfigWithCustomValidation();
+            feed.setName("feed");
+            SchemaWithCustomValidation.KafkaTopicConfig topic = new SchemaWithCustomValidation.KafkaTopicConfig();
+            Map<String, Object> configs = new HashMap<>();
+            configs.put("security.protocol", "SSL");
+            configs.put("port", ports[i]);
+            topic.setConfigs(configs);
+            feed.setKafkaTopic(topic);
+
+            // When: Validating the business rules
+            List<Violation> violations = SchemaWithCustomValidation_FeedConfigWithCustomValidationValidator.INSTANCE.validate(feed);
+
+            // Then: Only ports not rendering as "9093" should fail, as with the map binding
+            assertEquals("Port " + ports[i], valid[i], violations.isEmpty());
+        }
+    }
+
+    @Test
+    public void testUnknownKeys_NotRetained() throws Exception {
+        // Given: Configs with a name that is not a well-known key
+        Map<String, Object> map = new HashMap<>();
+        map.put("feed.specific.setting", 7);
+        map.put("port", 9093);
+
+        // When: Converting them
+        KafkaConfigs configs = KafkaConfigs.of(map);
+
+        // Then: The name should be found by value but not registered anywhere
+        assertNull("Not registered", ConfigKey.find("feed.specific.setting"));
+        assertEquals("Found by name", 7, configs.getInt(ConfigKey.of("feed.specific.setting"), 0));
+        assertEquals("Map lookup", 7, configs.get("feed.specific.setting"));
+        assertEquals("Keys compare by name", ConfigKey.of("feed.specific.setting"), ConfigKey.of("feed.specific.setting"));
+        assertSame("Well-known keys are canonical", ConfigKey.PORT, ConfigKey.of("port"));
+        assertEquals("Well-known key", 9093, configs.getLong(ConfigKey.PORT, 0));
+    }
+
+    @Test
+    public void testKafkaTopicConfig_BindsConfigsWithJackson() throws Exception {
+        // Given: A kafka-topic block's configs as JSON
+        String json = "{\"configs\":{\"security.protocol\":\"SSL\",\"port\":9093}}";
+
+        // When: Binding the topic configuration with Jackson
+        SchemaWithCustomValidation.KafkaTopicConfig topic =
+                new ObjectMapper().readValue(json, SchemaWithCustomValidation.KafkaTopicConfig.class);
+
+        // Then: The configs should be compact and typed
+        assertEquals("Port", 9093, topic.getConfigs().getLong(ConfigKey.PORT, 0));
+        assertEquals("Protocol", "SSL", topic.getConfigs().getString(ConfigKey.SECURITY_PROTOCOL));
+    }
+}
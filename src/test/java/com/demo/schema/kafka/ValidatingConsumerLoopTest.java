@@ -0,0 +1,164 @@
+package com.demo.schema.kafka;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.SchemaValidator;
+import com.demo.schema.stream.ValidationOutcome;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+/**
+ * Unit tests for ValidatingConsumerLoop
+ */
+public class ValidatingConsumerLoopTest {
+
+    private static final String TEMPLATE = "{\"cobDate\":\"2024-12-31\",\"subsNm\":\"%s\","
+            + "\"timestamp\":\"2025-07-08 12:00:00 PM IST\",\"records\":%d,\"trr\":\"GLOBAL\","
+            + "\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}";
+
+    private MessageValidator validator;
+    private JsonSchema schema;
+    private InMemoryTopic topic;
+
+    @Before
+    public void setUp() throws Exception {
+        validator = new MessageValidator();
+        schema = validator.loadSchema("schema.json");
+        topic = new InMemoryTopic("topic-1");
+    }
+
+    @Test
+    public void testMaxPollRecords_FromFeedConfig() throws Exception {
+        // Given: The kafka-topic block of the sample feed
+        JsonNode feeds = new SchemaValidator().loadYaml("src/main/resources/schema/feed_kafka_1.yaml");
+
+        // When/Then: max.poll.records should be read from its configs
+        assertEquals("max.poll.records", 500, ValidatingConsumerLoop.maxPollRecords(feeds.get(0).get("kafka-topic")));
+    }
+
+    @Test
+    public void testRunUntilCaughtUp_CommitsEverything() throws Exception {
+        // Given: 1200 records, every tenth with a negative record count
+        append(1200, -1);
+
+        // When: Consuming in batches of 500
+        List<ValidatingConsumerLoop.BatchReport> reports;
+        ValidatingConsumerLoop loop = new ValidatingConsumerLoop(topic, "group", 500, validator, schema, 4);
+        try {
+            reports = loop.runUntilCaughtUp();
+        } finally {
+            loop.close();
+        }
+
+        // Then: All records should be consumed, with invalid ones dead-lettered
+        assertEquals("Batch count", 3, reports.size());
+        assertEquals("Last batch size", 200, reports.get(2).getRecordCount());
+        assertEquals("Committed offset", 1200, topic.getCommitted("group"));
+        assertEquals("Dead letters", 120, loop.getDeadLetters().size());
+        for (ValidatingConsumerLoop.BatchReport report : reports) {
+            assertTrue("Throughput should be measured", report.getRecordsPerSecond() > 0);
+            assertTrue("Latency should be measured", report.getP99LatencyNanos() > 0);
+        }
+    }
+
+    @Test
+    public void testPollOnce_StopsCommitBeforeUnvalidatedRecord() throws Exception {
+        // Given: A validator that blows up on record 7
+        append(20, 7);
+        MessageValidator failing = failingOnBoom();
+
+        // When: Polling one batch
+        ValidatingConsumerLoop loop = new ValidatingConsumerLoop(topic, "group", 500, failing, schema, 2);
+        ValidatingConsumerLoop.BatchReport report;
+        try {
+            report = loop.pollOnce();
+        } finally {
+            loop.close();
+        }
+
+        // Then: The commit should stop right before the record that was not validated
+        assertEquals("Commit offset", 7, report.getCommitOffset());
+        assertEquals("Committed offset", 7, topic.getCommitted("group"));
+    }
+
+    @Test
+    public void testPollOnce_DeadLettersPoisonRecordAfterMaxAttempts() throws Exception {
+        // Given: A validator that always blows up on record 7, allowed three attempts
+        append(20, 7);
+        ValidatingConsumerLoop loop = new ValidatingConsumerLoop(topic, "group", 500, failingOnBoom(), schema, 2, 3, 10);
+        List<Long> commits = new ArrayList<>();
+        try {
+            // When: Polling until the group has consumed the topic
+            for (int poll = 0; poll < 4 && topic.getCommitted("group") < 20; poll++) {
+                commits.add(loop.pollOnce().getCommitOffset());
+            }
+        } finally {
+            loop.close();
+        }
+
+        // Then: The first two polls should stop before it, and the third should dead-letter it and move on
+        assertEquals("Commit offsets", Arrays.asList(7L, 7L, 20L), commits);
+        assertEquals("Dead letters", 1, loop.getDeadLetterCount());
+        ValidationOutcome deadLetter = loop.getDeadLetters().get(0);
+        assertEquals("Dead letter offset", 7, deadLetter.getSequence());
+        assertTrue("Dead letter should carry the exception: " + deadLetter.getDetails(),
+                deadLetter.getDetails().contains("IllegalStateException: boom"));
+    }
+
+    @Test
+    public void testDeadLetters_KeepsOnlyMostRecent() throws Exception {
+        // Given: 1200 records, every tenth invalid, and room for 50 dead letters
+        append(1200, -1);
+
+        // When: Consuming them all
+        ValidatingConsumerLoop loop = new ValidatingConsumerLoop(topic, "group", 500, validator, schema, 4, 3, 50);
+        try {
+            loop.runUntilCaughtUp();
+        } finally {
+            loop.close();
+        }
+
+        // Then: All should be counted but only the latest 50 kept
+        assertEquals("Dead letter count", 120, loop.getDeadLetterCount());
+        List<ValidationOutcome> kept = loop.getDeadLetters();
+        assertEquals("Kept dead letters", 50, kept.size());
+        assertEquals("Oldest kept", 700, kept.get(0).getSequence());
+        assertEquals("Newest kept", 1190, kept.get(49).getSequence());
+    }
+
+    private static MessageValidator failingOnBoom() {
+        return new MessageValidator() {
+            @Override
+            public ValidationResult validate(JsonSchema schema, InputStream messageStream) {
+                try {
+                    byte[] bytes = new byte[4096];
+                    int length = messageStream.read(bytes);
+                    if (new String(bytes, 0, length, StandardCharsets.UTF_8).contains("boom")) {
+                        throw new IllegalStateException("boom");
+                    }
+                } catch (java.io.IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                return new ValidationResult(true, "");
+            }
+        };
+    }
+
+    private void append(int count, int failAt) {
+        for (int i = 0; i < count; i++) {
+            String subscription = i == failAt ? "boom" : "api";
+            int records = i % 10 == 0 ? -1 : i;
+            topic.append(String.format(TEMPLATE, subscription, records).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.demo.schema.lazy;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Unit tests for SchemaGuidedReader
+ */
+public class SchemaGuidedReaderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private JsonNode feedsSchemaNode;
+    private JsonSchema feedsSchema;
+    private SchemaGuidedReader feedsReader;
+    private ArrayNode catalog;
+
+    @Before
+    public void setUp() throws Exception {
+        feedsSchemaNode = mapper.readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        feedsSchema = JsonSchemaFactory.byDefault().getJsonSchema(feedsSchemaNode);
+        feedsReader = new SchemaGuidedReader(feedsSchemaNode);
+        // A kafka feed with an undescribed lineage block
+        catalog = (ArrayNode) new SchemaValidator().loadYaml("src/main/resources/schema/feed_kafka_1.yaml");
+        ((ObjectNode) catalog.get(0)).putObject("lineage").put("owner", "team")
+                .putArray("sources").addObject().put("system", "upstream").putArray("columns").add("id");
+    }
+
+    @Test
+    public void testReadJson_SkipsUndescribedValues() throws Exception {
+        // Given: The catalog as JSON
+        byte[] content = mapper.writeValueAsBytes(catalog);
+
+        // When: Reading it guided by the feeds schema
+        JsonNode pruned = feedsReader.readJson(content);
+
+        // Then: Only the lineage block should be left unparsed, and it should read back unchanged
+        JsonNode lineage = pruned.get(0).get("lineage");
+        assertTrue("Lineage should be lazy", LazyValue.isLazy(lineage));
+        assertFalse("Configs should be parsed", LazyValue.isLazy(pruned.get(0).get("kafka-topic").get("configs")));
+        assertEquals("Lineage value", catalog.get(0).get("lineage"), LazyValue.resolve(lineage));
+        assertEquals("Serialized tree", mapper.writeValueAsString(catalog), mapper.writeValueAsString(pruned));
+        assertEquals("Report", feedsSchema.validate(catalog).toString(), feedsSchema.validate(pruned).toString());
+    }
+
+    @Test
+    public void testReadJson_InvalidDocumentsReportAlike() throws Exception {
+        // Given: Invalid variants of the catalog
+        ObjectNode feed = (ObjectNode) catalog.get(0);
+        ObjectNode badConfig = feed.deepCopy();
+        ((ObjectNode) badConfig.get("kafka-topic").get("configs")).putObject("nested");
+        ObjectNode badTransaction = feed.deepCopy();
+        ((ObjectNode) badTransaction.get("kafka-topic").get("transaction")).remove("commit");
+        ObjectNode noSections = feed.deepCopy();
+        noSections.remove("kafka-topic");
+        noSections.remove("kafka-file-replay");
+
+        for (JsonNode variant : new JsonNode[] {badConfig, badTransaction, noSections}) {
+            ArrayNode document = mapper.createArrayNode().add(variant);
+
+            // When: Validating the full and the schema-guided trees
+            String full = feedsSchema.validate(document).toString();
+            String pruned = feedsSchema.validate(feedsReader.readJson(mapper.writeValueAsBytes(document))).toString();
+
+            // Then: Both reports should be the same failure
+            assertFalse("Variant should be invalid", feedsSchema.validate(document).isSuccess());
+            assertEquals("Report", full, pruned);
+        }
+    }
+
+    @Test
+    public void testLoadYaml_KeepsTokensOfSkippedValues() throws Exception {
+        // Given: The catalog as a YAML file
+        File yaml = tempFolder.newFile("feeds.yaml");
+        SchemaValidator validator = new SchemaValidator();
+        Files.write(yaml.toPath(), new ObjectMapper(new YAMLFactory()).writeValueAsBytes(catalog));
+
+        // When: Loading it guided by the schema
+        JsonNode pruned = validator.loadYaml(yaml.getPath(), feedsReader);
+
+        // Then: Lineage should be kept as tokens and everything else parsed as usual
+        JsonNode lineage = pruned.get(0).get("lineage");
+        assertTrue("Lineage should be lazy", LazyValue.isLazy(lineage));
+        assertEquals("Lineage kept as tokens", -1, ((LazyValue) ((POJONode) lineage).getPojo()).getLength());
+        assertEquals("Lineage value", catalog.get(0).get("lineage"), LazyValue.resolve(lineage));
+        ((ObjectNode) pruned.get(0)).remove("lineage");
+        ((ObjectNode) catalog.get(0)).remove("lineage");
+        assertEquals("Other values", catalog, pruned);
+    }
+
+    @Test
+    public void testRead_MultiDocumentYaml() throws Exception {
+        // Given: A YAML stream of two catalogs and a scalar document
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        String stream = yamlMapper.writeValueAsString(catalog) + yamlMapper.writeValueAsString(catalog) + "--- 42\n";
+
+        // When: Reading documents until the end of input
+        try (JsonParser parser = yamlMapper.getFactory().createParser(stream)) {
+            JsonNode first = feedsReader.read(parser);
+            JsonNode second = feedsReader.read(parser);
+            JsonNode third = feedsReader.read(parser);
+
+            // Then: Each document should be returned once, then null
+            assertEquals("First document", catalog.get(0).get("name"), first.get(0).get("name"));
+            assertEquals("Second document", catalog.get(0).get("name"), second.get(0).get("name"));
+            assertEquals("Scalar document", 42, third.asInt());
+            assertNull("End of input", feedsReader.read(parser));
+        }
+    }
+
+    @Test
+    public void testCombinatorsRefsAndEnum_Followed() throws Exception {
+        // Given: A schema reaching values through $ref, oneOf and additionalProperties, and
+        // comparing one object with enum
+        String schemaJson = "{\"definitions\":{\"point\":{\"properties\":{\"x\":{\"type\":\"integer\"}}}},"
+                + "\"properties\":{\"a\":{\"$ref\":\"#/definitions/point\"},"
+                + "\"b\":{\"oneOf\":[{\"properties\":{\"c\":{\"type\":\"object\"}}},{\"type\":\"string\"}]},"
+                + "\"e\":{\"enum\":[{\"k\":{\"v\":1}}]},"
+                + "\"m\":{\"additionalProperties\":{\"properties\":{\"n\":{}}}}}}";
+        SchemaGuidedReader reader = new SchemaGuidedReader(mapper.readTree(schemaJson));
+        String document = "{\"a\":{\"x\":1,\"y\":{\"z\":1}},\"b\":{\"c\":{\"d\":{}},\"f\":[1]},"
+                + "\"e\":{\"k\":{\"v\":1}},\"m\":{\"any\":{\"n\":{\"p\":1},\"q\":{}}},\"other\":{\"r\":[]}}";
+
+        // When: Reading a document
+        JsonNode pruned = reader.readJson(document.getBytes(StandardCharsets.UTF_8));
+
+        // Then: Values some schema applies to should be parsed, down to where none does
+        assertFalse("a.x", LazyValue.isLazy(pruned.at("/a/x")));
+        assertTrue("a.y", LazyValue.isLazy(pruned.at("/a/y")));
+        assertTrue("b.c object", pruned.at("/b/c").isObject());
+        assertTrue("b.c.d", LazyValue.isLazy(pruned.at("/b/c/d")));
+        assertTrue("b.f", LazyValue.isLazy(pruned.at("/b/f")));
+        assertEquals("e should be complete", mapper.readTree("{\"k\":{\"v\":1}}"), pruned.get("e"));
+        assertTrue("m.any.n object", pruned.at("/m/any/n").isObject());
+        assertTrue("m.any.q", LazyValue.isLazy(pruned.at("/m/any/q")));
+        assertTrue("other", LazyValue.isLazy(pruned.get("other")));
+        assertEquals("Serialized tree", mapper.readTree(document), mapper.readTree(mapper.writeValueAsString(pruned)));
+    }
+
+    @Test
+    public void testReadJsonFile_MessageWithUnknownFields() throws Exception {
+        // Given: A message with an extra object field, which the message schema forbids
+        File message = tempFolder.newFile("message.json");
+        Files.write(message.toPath(), ("{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\",\"timestamp\":\"t\",\"records\":5,"
+                + "\"trr\":\"GLOBAL\",\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\","
+                + "\"payload\":{\"rows\":[1,2,3]}}").getBytes(StandardCharsets.UTF_8));
+        MessageValidator validator = new MessageValidator();
+        SchemaGuidedReader reader = new SchemaGuidedReader(validator.readJsonFile("schema.json"));
+        JsonSchema schema = validator.loadSchema("schema.json");
+
+        // When: Reading it guided by the schema
+        JsonNode pruned = validator.readJsonFile(message.getPath(), reader);
+
+        // Then: The payload should be skipped and the result unchanged
+        assertTrue("Payload should be lazy", LazyValue.isLazy(pruned.get("payload")));
+        assertEquals("Result", validator.validate(schema, validator.readJsonFile(message.getPath())).toString(),
+                validator.validate(schema, pruned).toString());
+    }
+}
@@ -0,0 +1,214 @@
+package com.demo.schema.optimize;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+
+/**
+ * Unit tests for SchemaOptimizer
+ */
+public class SchemaOptimizerTest {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private JsonNode feedsSchema;
+    private List<JsonNode> sampleFeeds;
+
+    @Before
+    public void setUp() throws Exception {
+        feedsSchema = jsonMapper.readTree(new File("src/main/resources/schema/feeds_schema.json"));
+        ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+        sampleFeeds = new ArrayList<>();
+        sampleFeeds.add(yamlMapper.readTree(new File("src/main/resources/schema/feed_file_1.yaml")).get(0));
+        sampleFeeds.add(yamlMapper.readTree(new File("src/main/resources/schema/feed_kafka_1.yaml")).get(0));
+    }
+
+    @Test
+    public void testFeedsSchema_Rewrites() {
+        // Given: The feeds schema
+        JsonNode before = feedsSchema.deepCopy();
+
+        // When: Optimizing it
+        SchemaOptimizer.Result result = optimize(feedsSchema);
+        JsonNode optimized = result.getSchema();
+
+        // Then: Transactions should be shared, configs typed directly, and the common requirement hoisted
+        assertEquals("Input should be unchanged", before, feedsSchema);
+        assertEquals("Rewrites: " + result.getRewrites(), 3, result.getRewrites().size());
+        JsonNode feed = optimized.get("items");
+        assertEquals("Shared definition", feedsSchema.at("/items/properties/file-watcher/properties/transaction"),
+                optimized.at("/definitions/transaction"));
+        for (String section : new String[] {"file-watcher", "kafka-file-replay", "kafka-topic"}) {
+            assertEquals("Reference in " + section, "#/definitions/transaction",
+                    feed.at("/properties/" + section + "/properties/transaction/$ref").asText());
+        }
+        JsonNode configValue = feed.at("/properties/kafka-topic/properties/configs/additionalProperties");
+        assertFalse("oneOf should be gone", configValue.has("oneOf"));
+        assertEquals("Type array", "[\"string\",\"number\",\"boolean\",\"null\"]", configValue.get("type").toString());
+        assertEquals("Required", "[\"name\",\"inbound-datasets\"]", feed.get("required").toString());
+        assertEquals("anyOf", "[{\"required\":[\"file-watcher\"]},{\"required\":[\"kafka-file-replay\"]},"
+                + "{\"required\":[\"kafka-topic\"]}]", feed.get("anyOf").toString());
+    }
+
+    @Test
+    public void testFeedsSchema_SameValidity() throws Exception {
+        // Given: The original and optimized schemas, and the sample feeds with every single change
+        // of one value, removal of one property, and combination of sections
+        JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+        JsonSchema original = factory.getJsonSchema(feedsSchema);
+        JsonSchema optimized = factory.getJsonSchema(optimize(feedsSchema).getSchema());
+        List<JsonNode> instances = new ArrayList<>();
+        for (JsonNode feed : sampleFeeds) {
+            mutations(feed, feed, instances);
+            sectionCombinations(feed, instances);
+        }
+
+        // When/Then: Each instance should be valid under both schemas or neither
+        int valid = 0;
+        for (JsonNode feed : instances) {
+            ArrayNode catalog = NODES.arrayNode().add(feed);
+            boolean expected = original.validate(catalog).isSuccess();
+            assertEquals("Validity of " + feed, expected, optimized.validate(catalog).isSuccess());
+            valid += expected ? 1 : 0;
+        }
+        assertTrue("Corpus should hold valid and invalid instances: " + valid + " of " + instances.size(),
+                valid > 50 && instances.size() - valid > 50);
+    }
+
+    @Test
+    public void testOverlappingTypesAndOtherKeywords_NotRewritten() {
+        // Given: A oneOf where integers match two branches, and one whose branch has a constraint
+        ObjectNode schema = NODES.objectNode();
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("count").putArray("oneOf")
+                .add(NODES.objectNode().put("type", "integer")).add(NODES.objectNode().put("type", "number"));
+        properties.putObject("name").putArray("oneOf")
+                .add(NODES.objectNode().put("type", "string").put("minLength", 1)).add(NODES.objectNode().put("type", "null"));
+
+        // When: Optimizing it
+        SchemaOptimizer.Result result = optimize(schema);
+
+        // Then: Nothing should change
+        assertEquals("Schema", schema, result.getSchema());
+        assertTrue("Rewrites", result.getRewrites().isEmpty());
+    }
+
+    @Test
+    public void testAnyOfAlwaysSatisfied_Removed() {
+        // Given: An anyOf whose only distinct requirement is shared by every branch
+        ObjectNode schema = NODES.objectNode();
+        ArrayNode anyOf = schema.putArray("anyOf");
+        anyOf.addObject().putArray("required").add("a");
+        anyOf.addObject().putArray("required").add("a").add("b");
+
+        // When: Optimizing it
+        JsonNode optimized = optimize(schema).getSchema();
+
+        // Then: Only the requirement should remain
+        assertEquals("Schema", "{\"required\":[\"a\"]}", optimized.toString());
+    }
+
+    @Test
+    public void testAnyOfImpliedBranch_NoEmptyRequired() throws Exception {
+        // Given: An anyOf with no requirement shared by every branch, one branch implied by another
+        ObjectNode schema = NODES.objectNode().put("type", "object");
+        ArrayNode anyOf = schema.putArray("anyOf");
+        anyOf.addObject().putArray("required").add("a");
+        anyOf.addObject().putArray("required").add("b");
+        anyOf.addObject().putArray("required").add("a").add("b");
+
+        // When: Optimizing it
+        JsonNode optimized = optimize(schema).getSchema();
+
+        // Then: Only the implied branch should go, without an empty required, and objects keep their validity
+        assertEquals("Schema", "{\"type\":\"object\",\"anyOf\":[{\"required\":[\"a\"]},{\"required\":[\"b\"]}]}",
+                optimized.toString());
+        JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+        JsonSchema original = factory.getJsonSchema(schema);
+        JsonSchema rewritten = factory.getJsonSchema(optimized);
+        for (String instance : new String[] {"{}", "{\"a\":1}", "{\"b\":1}", "{\"a\":1,\"b\":1}", "{\"c\":1}"}) {
+            JsonNode node = jsonMapper.readTree(instance);
+            assertEquals("Validity of " + instance, original.validate(node).isSuccess(),
+                    rewritten.validate(node).isSuccess());
+        }
+    }
+
+    /**
+     * Optimize a schema, checking that the result is itself a valid schema
+     */
+    private static SchemaOptimizer.Result optimize(JsonNode schema) {
+        SchemaOptimizer.Result result = new SchemaOptimizer().optimize(schema);
+        ProcessingReport syntax = JsonSchemaFactory.byDefault().getSyntaxValidator().validateSchema(result.getSchema());
+        assertTrue("Optimized schema should be valid: " + syntax, syntax.isSuccess());
+        return result;
+    }
+
+    /**
+     * Add copies of the feed with each value replaced by values of every type, and each
+     * property removed
+     */
+    private static void mutations(JsonNode feed, JsonNode node, List<JsonNode> out) {
+        JsonNode[] replacements = {NODES.textNode("x"), NODES.numberNode(0), NODES.numberNode(2.5),
+                NODES.booleanNode(false), NODES.nullNode(), NODES.objectNode(), NODES.arrayNode()};
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            node.fieldNames().forEachRemaining(names::add);
+            for (String name : names) {
+                ObjectNode parent = (ObjectNode) node;
+                JsonNode value = parent.get(name);
+                for (JsonNode replacement : replacements) {
+                    parent.set(name, replacement);
+                    out.add(feed.deepCopy());
+                }
+                // Removing moves the property to the end when restored; order does not affect validity
+                parent.remove(name);
+                out.add(feed.deepCopy());
+                parent.set(name, value);
+                mutations(feed, value, out);
+            }
+        } else if (node.isArray()) {
+            for (Iterator<JsonNode> elements = node.elements(); elements.hasNext(); ) {
+                mutations(feed, elements.next(), out);
+            }
+        }
+    }
+
+    /**
+     * Add copies of the feed with every combination of the sections taken from both samples
+     */
+    private void sectionCombinations(JsonNode feed, List<JsonNode> out) {
+        String[] sections = {"file-watcher", "kafka-file-replay", "kafka-topic", "inbound-datasets"};
+        for (int mask = 0; mask < 1 << sections.length; mask++) {
+            ObjectNode copy = feed.deepCopy();
+            for (int i = 0; i < sections.length; i++) {
+                copy.remove(sections[i]);
+                if ((mask & 1 << i) != 0) {
+                    for (JsonNode sample : sampleFeeds) {
+                        if (sample.has(sections[i])) {
+                            copy.set(sections[i], sample.get(sections[i]).deepCopy());
+                        }
+                    }
+                }
+            }
+            out.add(copy);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.demo.schema.profile;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+/**
+ * Unit tests for SchemaProfiler
+ */
+public class SchemaProfilerTest {
+
+    private static final String CONFIGS_ONE_OF = "/items/properties/kafka-topic/properties/configs/additionalProperties";
+
+    private SchemaProfiler profiler;
+    private SchemaValidator validator;
+    private JsonSchema schema;
+    private JsonNode kafkaFeeds;
+
+    @Before
+    public void setUp() throws Exception {
+        profiler = new SchemaProfiler();
+        validator = new SchemaValidator(profiler.newSchemaFactory(), profiler);
+        schema = validator.loadSchema("src/main/resources/schema/feeds_schema.json");
+        kafkaFeeds = validator.loadYaml("src/main/resources/schema/feed_kafka_1.yaml");
+    }
+
+    @Test
+    public void testValidate_RecordsKeywordsPerPointer() throws Exception {
+        // Given: The sample Kafka feed, whose topic has five configs
+
+        // When: Validating it twice
+        validator.validate(schema, kafkaFeeds);
+        validator.validate(schema, kafkaFeeds);
+
+        // Then: The configs oneOf should be counted per config, including its branches
+        assertEquals("Documents", 2, profiler.getDocuments());
+        SchemaProfiler.KeywordStats oneOf = profiler.get(CONFIGS_ONE_OF, "oneOf");
+        assertNotNull("oneOf should be recorded", oneOf);
+        assertEquals("oneOf calls", 10, oneOf.getCount());
+        SchemaProfiler.KeywordStats branch = profiler.get(CONFIGS_ONE_OF + "/oneOf/0", "type");
+        assertEquals("Branch calls", 10, branch.getCount());
+        assertTrue("Branch time should be outside oneOf self time",
+                oneOf.getTotalNanos() >= oneOf.getSelfNanos() + branch.getTotalNanos());
+        assertEquals("Leaf keywords have no children", branch.getTotalNanos(), branch.getSelfNanos());
+        assertEquals("Root type", 2, profiler.get("", "type").getCount());
+        assertNull("Unused keyword", profiler.get("", "oneOf"));
+    }
+
+    @Test
+    public void testValidate_SameReportsAsUnprofiled() throws Exception {
+        // Given: A valid feed and one with a config of an unsupported type
+        JsonNode invalid = kafkaFeeds.deepCopy();
+        ((ObjectNode) invalid.get(0).get("kafka-topic").get("configs")).set("nested", new ObjectMapper().createObjectNode());
+        SchemaValidator plain = new SchemaValidator();
+        JsonSchema plainSchema = plain.loadSchema("src/main/resources/schema/feeds_schema.json");
+
+        // When: Validating both with and without profiling
+        ProcessingReport profiledValid = validator.validate(schema, kafkaFeeds);
+        ProcessingReport profiledInvalid = validator.validate(schema, invalid);
+        ProcessingReport plainInvalid = plain.validate(plainSchema, invalid);
+
+        // Then: The outcomes and messages should match
+        assertTrue("Valid feed", profiledValid.isSuccess());
+        assertFalse("Invalid feed", profiledInvalid.isSuccess());
+        assertEquals("Messages", plainInvalid.toString(), profiledInvalid.toString());
+    }
+
+    @Test
+    public void testValidate_ExplicitDraftV4Profiled() throws Exception {
+        // Given: A schema that names draft-04 in $schema rather than relying on the default library
+        ObjectMapper mapper = new ObjectMapper();
+        JsonSchema draftV4 = profiler.newSchemaFactory().getJsonSchema(mapper.readTree(
+                "{\"$schema\":\"http://json-schema.org/draft-04/schema#\",\"type\":\"object\","
+                        + "\"properties\":{\"name\":{\"type\":\"string\",\"minLength\":3}}}"));
+
+        // When: Validating a document against it
+        ProcessingReport report = validator.validate(draftV4, mapper.readTree("{\"name\":\"ab\"}"));
+
+        // Then: Its keywords should be profiled and still validate as draft-04
+        assertFalse("Too short", report.isSuccess());
+        assertNotNull("Root type should be recorded", profiler.get("", "type"));
+        assertEquals("minLength calls", 1, profiler.get("/properties/name", "minLength").getCount());
+    }
+
+    @Test
+    public void testWriteReportAndFolded() throws Exception {
+        // Given: A profiled validation
+        validator.validate(schema, kafkaFeeds);
+
+        // When: Writing the report and folded stacks
+        StringWriter report = new StringWriter();
+        profiler.writeReport(report, 3);
+        StringWriter folded = new StringWriter();
+        profiler.writeFolded(folded);
+
+        // Then: The report should list three entries, and each stack line should end in its self time
+        String[] reportLines = report.toString().split("\n");
+        assertEquals("Summary, header and three entries", 5, reportLines.length);
+        assertTrue("Summary", reportLines[0].startsWith("1 documents"));
+        for (String line : folded.toString().split("\n")) {
+            assertTrue("Folded line: " + line, line.matches("#(;[^; ]+)+ [0-9]+"));
+        }
+        assertTrue("oneOf stack", folded.toString().contains(
+                "#;items;properties;kafka-topic;properties;configs;additionalProperties;oneOf;0;type "));
+
+        // When: Resetting
+        profiler.reset();
+
+        // Then: Nothing should remain
+        assertTrue("Stats", profiler.getStats().isEmpty());
+        assertEquals("Documents", 0, profiler.getDocuments());
+    }
+}
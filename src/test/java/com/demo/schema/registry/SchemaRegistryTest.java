@@ -0,0 +1,138 @@
+package com.demo.schema.registry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.report.CompactReport;
+import com.demo.schema.report.CompactReportProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+
+/**
+ * Unit tests for SchemaRegistry
+ */
+public class SchemaRegistryTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private SchemaRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new SchemaRegistry(new MessageValidator());
+    }
+
+    @Test
+    public void testLoadAll_Classpath() throws Exception {
+        // When: Loading the schema directory from the classpath
+        List<String> names = registry.loadAll("schema", 4);
+
+        // Then: The feeds schema should be registered, and the YAML samples skipped
+        assertEquals("Loaded schemas", Arrays.asList("feeds_schema"), names);
+        assertNotNull("Feeds schema should be registered", registry.get("feeds_schema"));
+    }
+
+    @Test
+    public void testLoadAll_FileSystem() throws Exception {
+        // Given: A directory with two schemas, one nested, and a sample message
+        File directory = tempFolder.newFolder("schemas");
+        new File(directory, "nested").mkdir();
+        write(new File(directory, "message.json"), "{\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"string\"}}}");
+        write(new File(directory, "nested/feed.json"), "{\"$schema\":\"http://json-schema.org/draft-04/schema#\",\"type\":\"array\"}");
+        write(new File(directory, "sample.json"), "{\"id\":\"1\"}");
+
+        // When: Loading the directory from the file system
+        List<String> names = registry.loadAll(directory.getAbsolutePath(), 2);
+
+        // Then: Both schemas should be registered by relative name
+        assertEquals("Loaded schemas", Arrays.asList("message", "nested/feed"), names);
+        assertNull("Sample document should not be registered", registry.get("sample"));
+        assertTrue("Schema should be usable",
+                registry.get("message").validate(new ObjectMapper().readTree("{\"id\":\"1\"}")).isSuccess());
+    }
+
+    @Test
+    public void testLoadAll_ValidatorFactoryUsed() throws Exception {
+        // Given: A registry over a validator with compact reports
+        SchemaRegistry compact = new SchemaRegistry(new MessageValidator(CompactReportProvider.newSchemaFactory()));
+
+        // When: Loading the schema directory and validating a feed catalog of the wrong type
+        compact.loadAll("schema", 1);
+        ProcessingReport report = compact.get("feeds_schema").validate(new ObjectMapper().readTree("{}"));
+
+        // Then: The schema should have been compiled with the validator's factory
+        assertTrue("Compact report expected: " + report.getClass(), report instanceof CompactReport);
+    }
+
+    @Test
+    public void testLoadAll_InvalidSchema() throws Exception {
+        // Given: A directory containing a schema with an invalid type
+        File directory = tempFolder.newFolder("broken");
+        write(new File(directory, "good.json"), "{\"type\":\"object\",\"properties\":{}}");
+        write(new File(directory, "bad.json"), "{\"type\":\"no-such-type\",\"properties\":{}}");
+
+        // When: Loading the directory
+        try {
+            registry.loadAll(directory.getAbsolutePath(), 2);
+            fail("Loading should fail on the invalid schema");
+        } catch (IOException e) {
+            // Then: The failing file should be reported
+            assertEquals("One failure", 1, e.getSuppressed().length);
+            assertTrue("Failure should name the file", e.getSuppressed()[0].getMessage().contains("bad.json"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadAll_MissingDirectory() throws Exception {
+        registry.loadAll("no-such-directory", 2);
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        // Given: The message and feed schemas
+        registry.register("message", "schema.json");
+        registry.register("feeds", "schema/feeds_schema.json");
+
+        // When: Warming up
+        int validations = registry.warmUp(10);
+
+        // Then: Each schema should have been validated the requested number of times
+        assertEquals("Validation count", 20, validations);
+    }
+
+    @Test
+    public void testWarmUp_ErrorLimitReached() throws Exception {
+        // Given: A registry whose reports stop at one error, and a schema the synthetic instance breaks twice
+        SchemaRegistry limited = new SchemaRegistry(new MessageValidator(
+                CompactReportProvider.newSchemaFactory(new CompactReportProvider(1))));
+        File schema = tempFolder.newFile("strict.json");
+        write(schema, "{\"type\":\"object\",\"properties\":{"
+                + "\"a\":{\"type\":\"string\",\"pattern\":\"^x$\"},\"b\":{\"type\":\"string\",\"pattern\":\"^x$\"}}}");
+        limited.register("strict", schema.getAbsolutePath());
+
+        // When: Warming up
+        int validations = limited.warmUp(5);
+
+        // Then: Every validation should run despite hitting the limit
+        assertEquals("Validation count", 5, validations);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes());
+    }
+}
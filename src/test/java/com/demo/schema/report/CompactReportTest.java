@@ -0,0 +1,144 @@
+package com.demo.schema.report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.MessageValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+/**
+ * Unit tests for CompactReport and CompactError
+ */
+public class CompactReportTest {
+
+    private static final String MESSAGE = "{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\","
+            + "\"timestamp\":\"2025-07-08 12:00:00 PM IST\",\"records\":5,\"trr\":\"GLOBAL\","
+            + "\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}";
+
+    private MessageValidator validator;
+    private JsonSchema schema;
+    private ObjectNode message;
+
+    @Before
+    public void setUp() throws Exception {
+        validator = new MessageValidator(CompactReportProvider.newSchemaFactory());
+        schema = validator.loadSchema("schema.json");
+        message = (ObjectNode) new ObjectMapper().readTree(MESSAGE);
+    }
+
+    @Test
+    public void testValidate_CompactErrors() throws Exception {
+        // Given: A message missing two required fields
+        message.remove("trr");
+        message.remove("version");
+
+        // When: Validating
+        ProcessingReport report = schema.validate(message);
+
+        // Then: One compact error per missing property should be recorded
+        assertTrue("Report should be compact", report instanceof CompactReport);
+        CompactReport compact = (CompactReport) report;
+        assertFalse("Report should fail", compact.isSuccess());
+        assertEquals("Error count", 2, compact.size());
+        assertEquals("Code", ErrorCode.REQUIRED, compact.get(0).getCode());
+        assertEquals("Pointer", "", compact.get(0).getPointer());
+        assertEquals("Argument", "trr", compact.get(0).getArgument());
+        assertEquals("Rendered", "/: missing required property trr\n/: missing required property version",
+                compact.render());
+    }
+
+    @Test
+    public void testValidate_NestedPointer() throws Exception {
+        // Given: A negative record count
+        message.put("records", -1);
+
+        // When: Validating
+        CompactReport report = (CompactReport) schema.validate(message);
+
+        // Then: The error should point at the field and keep the schema minimum as argument
+        assertEquals("Error count", 1, report.size());
+        assertEquals("Rendered", "/records: number is lower than the minimum 0", report.get(0).render());
+    }
+
+    @Test
+    public void testOf_Flyweight() throws Exception {
+        // Given: Two messages failing the same way
+        JsonNode first = message.deepCopy().put("records", -1);
+        JsonNode second = message.deepCopy().put("records", -2);
+
+        // When: Validating both
+        CompactError firstError = ((CompactReport) schema.validate(first)).get(0);
+        CompactError secondError = ((CompactReport) schema.validate(second)).get(0);
+
+        // Then: They should share one error instance, which only reports of the same provider get
+        assertSame("Errors should be shared", firstError, secondError);
+        assertNotSame("Errors outside the provider's reports are not shared", firstError,
+                CompactError.of(ErrorCode.MINIMUM, "/records", "0"));
+    }
+
+    @Test
+    public void testCache_BoundedAndKeepsSharing() throws Exception {
+        // Given: A cache filled with more distinct errors than it holds
+        CompactError.Cache cache = new CompactError.Cache();
+        for (int i = 0; i <= CompactError.MAX_CACHED; i++) {
+            cache.get(ErrorCode.MINIMUM, "/items/" + i + "/records", "0");
+        }
+
+        // When: Looking up one error twice, and a free-text error twice
+        CompactError first = cache.get(ErrorCode.MINIMUM, "/records", "0");
+        CompactError second = cache.get(ErrorCode.MINIMUM, "/records", "0");
+        CompactError other = cache.get(ErrorCode.OTHER, "", "could not parse");
+
+        // Then: The cache should have started over and still share, but never keep free text
+        assertTrue("Cache should stay bounded: " + cache.size(), cache.size() <= CompactError.MAX_CACHED);
+        assertSame("Errors should still be shared", first, second);
+        assertNotSame("Free text is not shared", other, cache.get(ErrorCode.OTHER, "", "could not parse"));
+    }
+
+    @Test
+    public void testIterator_RendersMessages() throws Exception {
+        // Given: A message with an unexpected property
+        message.put("extra", true);
+
+        // When: Iterating the report as a plain ProcessingReport
+        List<ProcessingMessage> messages = new ArrayList<>();
+        for (ProcessingMessage processingMessage : schema.validate(message)) {
+            messages.add(processingMessage);
+        }
+
+        // Then: Messages should be recreated from the compact errors
+        assertEquals("Message count", 1, messages.size());
+        assertEquals("Message", "/: unexpected property extra", messages.get(0).getMessage());
+        assertEquals("Keyword", "additionalProperties", messages.get(0).asJson().get("keyword").asText());
+    }
+
+    @Test
+    public void testValidationResult_LazyDetails() throws Exception {
+        // When: Validating a valid and an invalid message through MessageValidator
+        MessageValidator.ValidationResult valid = validator.validate(schema, message);
+        MessageValidator.ValidationResult invalid = validator.validate(schema, message.deepCopy().put("records", -1));
+
+        // Then: Verdicts should match, with details rendered from the compact report
+        assertTrue("Valid message", valid.isValid());
+        assertEquals("Valid details", "success", valid.getDetails());
+        assertFalse("Invalid message", invalid.isValid());
+        assertEquals("Invalid details", "/records: number is lower than the minimum 0", invalid.getDetails());
+
+        MessageValidator plain = new MessageValidator();
+        assertNull("Default reports stay text", plain.validate(plain.loadSchema("schema.json"), message).getReport());
+    }
+}
@@ -0,0 +1,123 @@
+package com.demo.schema.report;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.MessageValidator;
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+/**
+ * Unit tests for ErrorBudget and ErrorCollector
+ */
+public class ErrorBudgetTest {
+
+    private static final String ALL_WRONG = "{\"cobDate\":1,\"subsNm\":2,\"timestamp\":3,\"records\":-5,"
+            + "\"trr\":4,\"version\":5,\"frequency\":6,\"outboundLocation\":7}";
+
+    private JsonNode allWrong;
+
+    @Before
+    public void setUp() throws Exception {
+        allWrong = new ObjectMapper().readTree(ALL_WRONG);
+    }
+
+    @Test
+    public void testPerDocumentLimit() throws Exception {
+        // Given: A validator stopping after two errors per document
+        MessageValidator validator = new MessageValidator(new ErrorBudget(2, 10).newSchemaFactory());
+        JsonSchema schema = validator.loadSchema("schema.json");
+
+        // When: Validating a message with eight wrong fields
+        MessageValidator.ValidationResult result = validator.validate(schema, allWrong);
+
+        // Then: Only two errors should be kept and the report marked incomplete
+        assertFalse("Message should be invalid", result.isValid());
+        assertEquals("Errors kept", 2, result.getReport().size());
+        assertFalse("Report should be incomplete", result.getReport().isComplete());
+    }
+
+    @Test
+    public void testUnlimited_CollectsEverything() throws Exception {
+        // Given: A validator without limits
+        MessageValidator validator = new MessageValidator(ErrorBudget.UNLIMITED.newSchemaFactory());
+        JsonSchema schema = validator.loadSchema("schema.json");
+
+        // When: Validating the same message
+        CompactReport report = validator.validate(schema, allWrong).getReport();
+
+        // Then: Every field should be reported
+        assertEquals("Errors kept", 8, report.size());
+        assertTrue("Report should be complete", report.isComplete());
+    }
+
+    @Test
+    public void testValidateAll_ExactCountsAndBoundedSample() throws Exception {
+        // Given: 1000 invalid messages, a limit of 3 errors per message and 50 per batch
+        ErrorBudget budget = new ErrorBudget(3, 50);
+        MessageValidator validator = new MessageValidator(budget.newSchemaFactory());
+        JsonSchema schema = validator.loadSchema("schema.json");
+        List<JsonNode> messages = Collections.nCopies(1000, allWrong);
+
+        // When: Validating the batch
+        ErrorCollector errors = validator.validateAll(schema, messages, budget.newCollector());
+
+        // Then: Counters should be exact and the sample bounded and spread over the batch
+        assertEquals("Documents", 1000, errors.getDocumentCount());
+        assertEquals("Invalid documents", 1000, errors.getInvalidDocumentCount());
+        assertEquals("Incomplete documents", 1000, errors.getIncompleteDocumentCount());
+        assertEquals("Errors", 3000, errors.getErrorCount());
+        assertEquals("Type errors", Long.valueOf(3000), errors.getCountsByCode().get(ErrorCode.TYPE));
+        assertEquals("Sample size", 50, errors.getSample().size());
+        boolean late = false;
+        for (ErrorCollector.SampledError sampled : errors.getSample()) {
+            late |= sampled.getDocument() >= 500;
+        }
+        assertTrue("Sample should include errors from the second half", late);
+    }
+
+    @Test
+    public void testCollector_MixedBatch() throws Exception {
+        // Given: A counters-only collector
+        ErrorCollector errors = new ErrorCollector(0);
+        MessageValidator validator = new MessageValidator(new ErrorBudget(1, 0).newSchemaFactory());
+        JsonSchema schema = validator.loadSchema("schema.json");
+        JsonNode valid = new ObjectMapper().readTree("{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\","
+                + "\"timestamp\":\"t\",\"records\":5,\"trr\":\"GLOBAL\",\"version\":\"2\","
+                + "\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}");
+
+        // When: Recording valid, invalid and unparseable documents
+        validator.validateAll(schema, Arrays.asList(valid, allWrong, valid), errors);
+        errors.recordInvalid(3, "JSON Parsing Error: unexpected end of input");
+
+        // Then: Counts should include every document, with no details kept
+        assertEquals("Documents", 4, errors.getDocumentCount());
+        assertEquals("Invalid documents", 2, errors.getInvalidDocumentCount());
+        assertEquals("Other errors", Long.valueOf(1), errors.getCountsByCode().get(ErrorCode.OTHER));
+        assertTrue("Sample should be empty", errors.getSample().isEmpty());
+    }
+
+    @Test
+    public void testSchemaValidator_ReturnsPartialReport() throws Exception {
+        // Given: A schema validator with a limit of one error
+        SchemaValidator validator = new SchemaValidator(new ErrorBudget(1, 0).newSchemaFactory());
+        JsonSchema schema = validator.loadSchema("src/main/resources/schema.json");
+
+        // When: Validating
+        ProcessingReport report = validator.validate(schema, allWrong);
+
+        // Then: The partial report should be returned rather than the limit exception
+        assertFalse("Report should fail", validator.isValid(report));
+        assertEquals("Errors kept", 1, ((CompactReport) report).size());
+    }
+}
@@ -0,0 +1,201 @@
+package com.demo.schema.service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.SchemaValidator;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+
+/**
+ * Unit tests for ValidationService
+ */
+public class ValidationServiceTest {
+    
+    private static final String SCHEMA_PATH = "src/main/resources/schema/feeds_schema.json";
+    private static final String KAFKA_YAML_PATH = "src/main/resources/schema/feed_kafka_1.yaml";
+    private static final String FILE_WATCHER_YAML_PATH = "src/main/resources/schema/feed_file_1.yaml";
+    
+    private SchemaValidator validator;
+    private ValidationService service;
+    
+    @Before
+    public void setUp() throws IOException, ProcessingException {
+        validator = new SchemaValidator();
+        service = new ValidationService(validator, validator.loadSchema(SCHEMA_PATH), 4, 2);
+    }
+    
+    @After
+    public void tearDown() throws InterruptedException {
+        service.close();
+    }
+    
+    @Test
+    public void testSubmit_FeedFiles() throws Exception {
+        // When: Submitting both sample feed files for two tenants
+        List<CompletableFuture<ProcessingReport>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String tenant = i % 2 == 0 ? "tenant-a" : "tenant-b";
+            String path = i % 2 == 0 ? KAFKA_YAML_PATH : FILE_WATCHER_YAML_PATH;
+            futures.add(service.submit(tenant, ValidationService.Submission.ofFile(Paths.get(path))));
+        }
+        
+        // Then: Every submission should validate successfully
+        for (CompletableFuture<ProcessingReport> future : futures) {
+            assertTrue("Feed file should be valid", future.get(10, TimeUnit.SECONDS).isSuccess());
+        }
+        assertEquals("Nothing should be pending", 0, service.getPendingCount());
+    }
+    
+    @Test
+    public void testSubmit_InvalidBytes() throws Exception {
+        // Given: A feed missing its required feed type and datasets
+        byte[] invalidYaml = "- name: \"test\"".getBytes();
+        
+        // When: Submitting it as raw bytes
+        ProcessingReport report = service.submit("tenant-a", ValidationService.Submission.ofBytes(invalidYaml))
+                .get(10, TimeUnit.SECONDS);
+        
+        // Then: Validation should fail
+        assertTrue("Validation should fail", !report.isSuccess());
+    }
+    
+    @Test
+    public void testOffer_RejectsWhenQueueFull() throws Exception {
+        // Given: Submissions that hold every queue slot until released
+        CountDownLatch release = new CountDownLatch(1);
+        ValidationService.Submission blocking = v -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return JsonNodeFactory.instance.arrayNode();
+        };
+        List<CompletableFuture<ProcessingReport>> held = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            held.add(service.submit("tenant-" + i, blocking));
+        }
+        
+        // When: Offering one more submission
+        CompletableFuture<ProcessingReport> rejected = service.offer("tenant-x",
+                ValidationService.Submission.ofTree(JsonNodeFactory.instance.arrayNode()), 10, TimeUnit.MILLISECONDS);
+        
+        // Then: It should be rejected without blocking
+        try {
+            rejected.get();
+            fail("Offer should be rejected while the queue is full");
+        } catch (ExecutionException e) {
+            assertTrue("Should be rejected", e.getCause() instanceof RejectedExecutionException);
+        }
+        release.countDown();
+        for (CompletableFuture<ProcessingReport> future : held) {
+            assertTrue("Held submission should complete", future.get(10, TimeUnit.SECONDS).isSuccess());
+        }
+    }
+    
+    @Test
+    public void testSubmit_TenantConcurrencyLimit() throws Exception {
+        // Given: A submission that records how many of its tenant's submissions run at once
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ValidationService.Submission tracked = v -> {
+            int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return JsonNodeFactory.instance.arrayNode();
+        };
+        
+        // When: Submitting more work for a single tenant than its limit
+        List<CompletableFuture<ProcessingReport>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(service.submit("tenant-a", tracked));
+        }
+        for (CompletableFuture<ProcessingReport> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        
+        // Then: No more than two should have run at the same time
+        assertTrue("Tenant limit should be respected", maxRunning.get() <= 2);
+    }
+    
+    @Test
+    public void testOffer_NoisyTenantDoesNotStarveOthers() throws Exception {
+        // Given: tenant-a submitting as much work as the whole queue holds, all of it blocking
+        CountDownLatch release = new CountDownLatch(1);
+        ValidationService.Submission blocking = v -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return JsonNodeFactory.instance.arrayNode();
+        };
+        CompletableFuture<List<CompletableFuture<ProcessingReport>>> noisy = CompletableFuture.supplyAsync(() -> {
+            List<CompletableFuture<ProcessingReport>> held = new ArrayList<>();
+            try {
+                for (int i = 0; i < 4; i++) {
+                    held.add(service.submit("tenant-a", blocking));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return held;
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getPendingCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        
+        // When: Another tenant offers while tenant-a waits at its limit
+        CompletableFuture<ProcessingReport> other = service.offer("tenant-b",
+                ValidationService.Submission.ofTree(JsonNodeFactory.instance.arrayNode()), 1, TimeUnit.SECONDS);
+        
+        // Then: The other tenant should get a slot, since tenant-a's waiting submissions hold none
+        assertTrue("Other tenant should be served", other.get(10, TimeUnit.SECONDS).isSuccess());
+        assertEquals("Only tenant-a's running submissions hold slots", 2, service.getPendingCount());
+        release.countDown();
+        for (CompletableFuture<ProcessingReport> future : noisy.get(10, TimeUnit.SECONDS)) {
+            assertTrue("Noisy tenant's submission should complete", future.get(10, TimeUnit.SECONDS).isSuccess());
+        }
+    }
+    
+    @Test
+    public void testSubmit_IdleTenantsForgotten() throws Exception {
+        // Given: Submissions from many distinct tenants
+        List<CompletableFuture<ProcessingReport>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(service.submit("tenant-" + i,
+                    ValidationService.Submission.ofTree(JsonNodeFactory.instance.arrayNode())));
+        }
+        
+        // When: All of them have completed
+        for (CompletableFuture<ProcessingReport> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        
+        // Then: No per-tenant state should remain
+        assertEquals("Tenants", 0, service.getTenantCount());
+    }
+}
@@ -0,0 +1,206 @@
+package com.demo.schema.stream;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.demo.schema.MessageValidator;
+import com.github.fge.jsonschema.main.JsonSchema;
+
+/**
+ * Unit tests for ValidatingProcessor
+ */
+public class ValidatingProcessorTest {
+
+    private static final String VALID_MESSAGE = "{\"cobDate\":\"2024-12-31\",\"subsNm\":\"api\","
+            + "\"timestamp\":\"2025-07-08 12:00:00 PM IST\",\"records\":%d,\"trr\":\"GLOBAL\","
+            + "\"version\":\"2\",\"frequency\":\"ME\",\"outboundLocation\":\"abc\"}";
+
+    private MessageValidator validator;
+    private JsonSchema schema;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        validator = new MessageValidator();
+        schema = validator.loadSchema("schema.json");
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testOrdered_SplitsValidAndInvalid() throws Exception {
+        // Given: An ordered processor fed 200 messages, every fifth one with a negative record count
+        ValidatingProcessor processor = new ValidatingProcessor(validator, schema, 4, true, executor, 8);
+        CollectingSubscriber valid = new CollectingSubscriber(1);
+        CollectingSubscriber invalid = new CollectingSubscriber(1);
+        processor.subscribe(valid);
+        processor.invalidMessages().subscribe(invalid);
+
+        // When: Publishing the messages
+        publish(processor, 200);
+
+        // Then: Each message should land on the right channel, in upstream order
+        assertTrue("Valid channel should complete", valid.done.await(10, TimeUnit.SECONDS));
+        assertTrue("Invalid channel should complete", invalid.done.await(10, TimeUnit.SECONDS));
+        assertEquals("Valid message count", 160, valid.sequences.size());
+        assertEquals("Invalid message count", 40, invalid.sequences.size());
+        assertAscending(valid.sequences);
+        assertAscending(invalid.sequences);
+        for (long sequence : invalid.sequences) {
+            assertEquals("Only every fifth message should be invalid", 0, sequence % 5);
+        }
+    }
+
+    @Test
+    public void testUnordered_DeliversEverything() throws Exception {
+        // Given: An unordered processor and a subscriber requesting one message at a time
+        ValidatingProcessor processor = new ValidatingProcessor(validator, schema, 4, false, executor, 2);
+        CollectingSubscriber valid = new CollectingSubscriber(1);
+        processor.subscribe(valid);
+
+        // When: Publishing the messages
+        publish(processor, 200);
+
+        // Then: Every valid message should be delivered exactly once
+        assertTrue("Valid channel should complete", valid.done.await(10, TimeUnit.SECONDS));
+        List<Long> sorted = new ArrayList<>(valid.sequences);
+        Collections.sort(sorted);
+        assertEquals("Valid message count", 160, sorted.size());
+        assertEquals("No duplicates", 160, sorted.stream().distinct().count());
+    }
+
+    @Test(timeout = 30000)
+    public void testSingleThreadExecutor_SlowSubscriberDoesNotDeadlock() throws Exception {
+        // Given: A processor validating and delivering on one thread, with one-slot buffers and
+        // subscribers slower than validation
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        ValidatingProcessor processor = new ValidatingProcessor(validator, schema, 4, true, single, 1);
+        CollectingSubscriber valid = new CollectingSubscriber(1, 2);
+        CollectingSubscriber invalid = new CollectingSubscriber(1, 2);
+        processor.subscribe(valid);
+        processor.invalidMessages().subscribe(invalid);
+
+        // When: Publishing more messages than the buffers hold
+        try {
+            publish(processor, 50, single);
+
+            // Then: Every message should still be delivered, in order
+            assertTrue("Valid channel should complete", valid.done.await(10, TimeUnit.SECONDS));
+            assertTrue("Invalid channel should complete", invalid.done.await(10, TimeUnit.SECONDS));
+            assertEquals("Valid message count", 40, valid.sequences.size());
+            assertEquals("Invalid message count", 10, invalid.sequences.size());
+            assertAscending(valid.sequences);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testLateSubscriber_ReceivesEverythingValid() throws Exception {
+        // Given: A processor whose upstream starts publishing before anyone subscribes to it
+        ValidatingProcessor processor = new ValidatingProcessor(validator, schema, 4, true, executor, 8);
+        CountDownLatch published = new CountDownLatch(1);
+        Thread upstream = new Thread(() -> {
+            publish(processor, 50);
+            published.countDown();
+        });
+        upstream.start();
+
+        // When: Subscribing to valid messages only once upstream is stalled
+        assertFalse("Upstream should wait for a subscriber", published.await(200, TimeUnit.MILLISECONDS));
+        CollectingSubscriber valid = new CollectingSubscriber(1);
+        processor.subscribe(valid);
+
+        // Then: No valid message should be lost, and the unobserved invalid ones should be counted
+        assertTrue("Upstream should finish", published.await(10, TimeUnit.SECONDS));
+        assertTrue("Valid channel should complete", valid.done.await(10, TimeUnit.SECONDS));
+        assertEquals("Valid message count", 40, valid.sequences.size());
+        assertAscending(valid.sequences);
+        assertEquals("Dropped invalid messages", 10, processor.getDroppedInvalidCount());
+    }
+
+    private void publish(ValidatingProcessor processor, int count) {
+        publish(processor, count, executor);
+    }
+
+    private void publish(ValidatingProcessor processor, int count, ExecutorService executor) {
+        try (SubmissionPublisher<byte[]> upstream = new SubmissionPublisher<>(executor, 4)) {
+            upstream.subscribe(processor);
+            for (int i = 0; i < count; i++) {
+                int records = i % 5 == 0 ? -1 : i;
+                upstream.submit(String.format(VALID_MESSAGE, records).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static void assertAscending(List<Long> sequences) {
+        for (int i = 1; i < sequences.size(); i++) {
+            assertTrue("Sequences should be ascending", sequences.get(i - 1) < sequences.get(i));
+        }
+    }
+
+    private static class CollectingSubscriber implements Flow.Subscriber<ValidationOutcome> {
+        private final List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final long batch;
+        private final long delayMillis;
+        private Flow.Subscription subscription;
+
+        CollectingSubscriber(long batch) {
+            this(batch, 0);
+        }
+
+        CollectingSubscriber(long batch, long delayMillis) {
+            this.batch = batch;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(ValidationOutcome item) {
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sequences.add(item.getSequence());
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.demo.schema.validation.compiled;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Payload;
+import javax.validation.Validation;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.demo.schema.validation.ComplexValidationExample;
+import com.demo.schema.validation.ComplexValidationExample.AdvancedValidationExample.AdvancedFeedConfig;
+import com.demo.schema.validation.ComplexValidationExample.FeedConfiguration;
+import com.demo.schema.validation.ComplexValidationExample_AdvancedValidationExample_AdvancedFeedConfigValidator;
+import com.demo.schema.validation.ComplexValidationExample_FeedConfigurationValidator;
+import com.demo.schema.validation.SchemaWithCustomValidation;
+import com.demo.schema.validation.SchemaWithCustomValidation.FeedConfigWithCustomValidation;
+import com.demo.schema.validation.SchemaWithCustomValidation_FeedConfigWithCustomValidationValidator;
+
+/**
+ * Checks that the generated validators report exactly what Hibernate Validator reports
+ */
+public class CompiledValidatorTest {
+
+    private static ValidatorFactory factory;
+    private static Validator hibernate;
+    private Locale locale;
+
+    @BeforeClass
+    public static void setUpClass() {
+        factory = Validation.buildDefaultValidatorFactory();
+        hibernate = factory.getValidator();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        factory.close();
+    }
+
+    @Before
+    public void setUp() {
+        // Hibernate's default @NotNull message is localised
+        locale = Locale.getDefault();
+        Locale.setDefault(Locale.ENGLISH);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(locale);
+    }
+
+    private static <T> Set<Violation> expected(T bean) {
+        Set<Violation> violations = new HashSet<>();
+        for (ConstraintViolation<T> violation : hibernate.validate(bean)) {
+            violations.add(new Violation(violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+        return violations;
+    }
+
+    private static <T> void assertSameViolations(T bean, CompiledValidator<T> validator, String description) {
+        List<Violation> actual = validator.validate(bean);
+        assertEquals("Violations of " + description, expected(bean), new HashSet<>(actual));
+        assertEquals("No duplicates for " + description, actual.size(), new HashSet<>(actual).size());
+    }
+
+    @Test
+    public void testFeedConfiguration_MatchesHibernate() {
+        // Given: Every combination of the values the complex rule looks at
+        int checked = 0;
+        for (String name : new String[] {null, "feed"}) {
+            for (int a : new int[] {10, 5}) {
+                for (int b : new int[] {200, 100}) {
+                    for (int c : new int[] {300, 400, 500}) {
+                        FeedConfiguration config = new FeedConfiguration();
+                        config.setName(name);
+                        config.setFieldA(a);
+                        config.setFieldB(b);
+                        config.setFieldC(c);
+
+                        // When/Then: The generated validator should agree with Hibernate
+                        assertSameViolations(config, ComplexValidationExample_FeedConfigurationValidator.INSTANCE, config.toString());
+                        checked++;
+                    }
+                }
+            }
+        }
+        assertEquals("Combinations checked", 24, checked);
+    }
+
+    @Test
+    public void testAdvancedFeedConfig_MatchesHibernate() {
+        // Given: Every combination of the values the three advanced rules look at
+        for (int mask = 0; mask < 256; mask++) {
+            AdvancedFeedConfig config = new AdvancedFeedConfig();
+            config.setName((mask & 1) == 0 ? null : "feed");
+            config.setType((mask & 2) == 0 ? "kafka" : "file");
+            config.setSecurity((mask & 4) == 0 ? "ssl" : "none");
+            config.setPort((mask & 8) == 0 ? 9093 : 9092);
+            config.setCompression((mask & 16) == 0 ? "gzip" : "none");
+            config.setMaxFileSize((mask & 32) == 0 ? 1024L : 200L * 1024 * 1024);
+            config.setRetryCount((mask & 64) == 0 ? 1 : 5);
+            config.setTimeout((mask & 128) == 0 ? 10 : 60);
+
+            // When/Then: The generated validator should agree with Hibernate
+            assertSameViolations(config,
+                    ComplexValidationExample_AdvancedValidationExample_AdvancedFeedConfigValidator.INSTANCE, "mask " + mask);
+        }
+    }
+
+    @Test
+    public void testFeedConfigWithCustomValidation_MatchesHibernate() {
+        // Given: Feeds breaking each business rule in turn, with and without a name
+        for (int rule = 0; rule < 5; rule++) {
+            for (String name : new String[] {null, "feed"}) {
+                FeedConfigWithCustomValidation feed = new FeedConfigWithCustomValidation();
+                feed.setName(name);
+                SchemaWithCustomValidation.FileWatcherConfig watcher = new SchemaWithCustomValidation.FileWatcherConfig();
+                watcher.setInterval(20);
+                watcher.setMonitorUri(rule == 1 ? " " : "monitor");
+                feed.setFileWatcher(watcher);
+                if (rule == 2) {
+                    SchemaWithCustomValidation.KafkaTopicConfig topic = new SchemaWithCustomValidation.KafkaTopicConfig();
+                    Map<String, Object> configs = new HashMap<>();
+                    configs.put("security.protocol", "SSL");
+                    configs.put("port", 9092);
+                    topic.setConfigs(configs);
+                    feed.setKafkaTopic(topic);
+                }
+                if (rule == 3) {
+                    SchemaWithCustomValidation.InboundDataset dataset = new SchemaWithCustomValidation.InboundDataset();
+                    dataset.setCompression("gzip");
+                    dataset.setMaxFileSize(200L * 1024 * 1024);
+                    feed.setInboundDatasets(Collections.singletonList(dataset));
+                }
+                if (rule == 4) {
+                    SchemaWithCustomValidation.KafkaFileReplayConfig replay = new SchemaWithCustomValidation.KafkaFileReplayConfig();
+                    replay.setActive(true);
+                    feed.setKafkaFileReplay(replay);
+                }
+
+                // When/Then: The generated validator should agree with Hibernate
+                assertSameViolations(feed,
+                        SchemaWithCustomValidation_FeedConfigWithCustomValidationValidator.INSTANCE, "rule " + rule + " name " + name);
+            }
+        }
+    }
+
+    @Test
+    public void testFailures_MatchHibernate() {
+        // Given: A null bean, and a bean whose rule validator throws on a null field
+        FeedConfiguration incomplete = new FeedConfiguration();
+        incomplete.setName("feed");
+
+        // When/Then: Both should be rejected with the same exception types as Hibernate
+        try {
+            ComplexValidationExample_FeedConfigurationValidator.INSTANCE.validate(null);
+            fail("Null bean should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            hibernate.validate(incomplete);
+            fail("Hibernate should fail on the null field");
+        } catch (ValidationException expected) {
+            // expected
+        }
+        try {
+            ComplexValidationExample_FeedConfigurationValidator.INSTANCE.validate(incomplete);
+            fail("Generated validator should fail on the null field");
+        } catch (ValidationException expected) {
+            assertTrue("Cause should be kept", expected.getCause() instanceof NullPointerException);
+        }
+    }
+
+    @Test
+    public void testViolationNodes_MatchHibernate() {
+        // Given: A class-level rule reporting violations on property, bean, container element and
+        // indexed or keyed nodes
+        PathReportingBean bean = new PathReportingBean();
+
+        // When: Checking the rule as generated validators do
+        List<Violation> actual = ConstraintChecks.classConstraint(new PathReportingValidator(), bean,
+                "default message", null);
+
+        // Then: The property paths should be the ones Hibernate builds
+        assertEquals("Violations", expected(bean), new HashSet<>(actual));
+        assertEquals("Violation count with the default", 7, actual.size());
+    }
+
+    @Test
+    public void testValidBean_SharedEmptyResult() {
+        // Given: A valid configuration
+        ComplexValidationExample.FeedConfiguration config = new ComplexValidationExample.FeedConfiguration();
+        config.setName("feed");
+        config.setFieldA(10);
+        config.setFieldB(200);
+        config.setFieldC(300);
+
+        // When: Validating twice
+        List<Violation> first = ComplexValidationExample_FeedConfigurationValidator.INSTANCE.validate(config);
+        List<Violation> second = ComplexValidationExample_FeedConfigurationValidator.INSTANCE.validate(config);
+
+        // Then: No result list should be allocated for a valid bean
+        assertTrue("Config should be valid", first.isEmpty());
+        assertSame("Valid results should share the empty list", first, second);
+    }
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Constraint(validatedBy = PathReportingValidator.class)
+    public @interface PathReporting {
+        String message() default "default message";
+        Class<?>[] groups() default {};
+        Class<? extends Payload>[] payload() default {};
+    }
+
+    @PathReporting
+    public static class PathReportingBean {
+    }
+
+    public static class PathReportingValidator implements ConstraintValidator<PathReporting, PathReportingBean> {
+        @Override
+        public boolean isValid(PathReportingBean bean, ConstraintValidatorContext context) {
+            context.buildConstraintViolationWithTemplate("property").addPropertyNode("name").addConstraintViolation();
+            context.buildConstraintViolationWithTemplate("nested")
+                    .addPropertyNode("kafkaTopic").addPropertyNode("configs").addConstraintViolation();
+            context.buildConstraintViolationWithTemplate("indexed")
+                    .addPropertyNode("inboundDatasets").addPropertyNode("compression").inIterable().atIndex(2)
+                    .addConstraintViolation();
+            context.buildConstraintViolationWithTemplate("keyed")
+                    .addPropertyNode("configs").addBeanNode().inIterable().atKey("port").addConstraintViolation();
+            context.buildConstraintViolationWithTemplate("element")
+                    .addPropertyNode("inboundDatasets").addContainerElementNode("<list element>", List.class, 0)
+                    .addConstraintViolation();
+            context.buildConstraintViolationWithTemplate("bean").addBeanNode().addConstraintViolation();
+            return false;
+        }
+    }
+}